@@ -0,0 +1,58 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.limit.RateLimitExceededException;
+import io.hhplus.tdd.limit.ServiceOverloadedException;
+import io.hhplus.tdd.lock.LockLostException;
+import io.hhplus.tdd.point.BalanceConflictException;
+import io.hhplus.tdd.point.DeadlineExceededException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * WebFlux 프로필용 예외 응답 (ApiControllerAdvice 와 같은 형식)
+ */
+@RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+class ReactiveApiControllerAdvice {
+    @ExceptionHandler(value = DeadlineExceededException.class)
+    public ResponseEntity<ErrorResponse> handleDeadlineExceeded(DeadlineExceededException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new ErrorResponse("503", e.getMessage()));
+    }
+
+    @ExceptionHandler(value = ServiceOverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleServiceOverloaded(ServiceOverloadedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new ErrorResponse("503", e.getMessage()));
+    }
+
+    @ExceptionHandler(value = BalanceConflictException.class)
+    public ResponseEntity<ErrorResponse> handleBalanceConflict(BalanceConflictException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorResponse("409", e.getMessage()));
+    }
+
+    @ExceptionHandler(value = LockLostException.class)
+    public ResponseEntity<ErrorResponse> handleLockLost(LockLostException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorResponse("409", e.getMessage()));
+    }
+
+    @ExceptionHandler(value = RateLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleRateLimitExceeded(RateLimitExceededException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(new ErrorResponse("429", e.getMessage()));
+    }
+
+    @ExceptionHandler(value = ResponseStatusException.class)
+    public ResponseEntity<ErrorResponse> handleResponseStatus(ResponseStatusException e) {
+        return ResponseEntity.status(e.getStatusCode()).body(new ErrorResponse(String.valueOf(e.getStatusCode().value()), e.getReason()));
+    }
+
+    @ExceptionHandler(value = Exception.class)
+    public ResponseEntity<ErrorResponse> handleException(Exception e) {
+        return ResponseEntity.status(500).body(new ErrorResponse("500", "에러가 발생했습니다."));
+    }
+}
@@ -0,0 +1,242 @@
+package io.hhplus.tdd.database;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * long 키 전용 스트라이프 동시 맵
+ * - 키를 해시해 스트라이프를 고르고, 스트라이프마다 따로 락과 오픈 어드레싱(선형 탐사) 테이블을 둔다.
+ *   서로 다른 스트라이프의 키는 락을 공유하지 않으므로 다른 유저끼리는 거의 경합하지 않는다.
+ * - 키를 long 그대로 배열에 담으므로 Long 박싱과 엔트리 객체가 없다.
+ * - 조회는 StampedLock 낙관적 읽기로 락 없이 하고, 그 사이 쓰기가 있었으면 읽기 락으로 다시 읽는다.
+ * - 삭제는 지원하지 않는다. (잔액 테이블은 지우지 않는다)
+ */
+public class StripedLongMap<V> {
+
+    private static final int INITIAL_STRIPE_CAPACITY = 16;
+    private static final int MAX_STRIPE_CAPACITY = 1 << 30;
+
+    private final Stripe<V>[] stripes;
+    private final int stripeShift;
+
+    /**
+     * @param concurrency 스트라이프 수 (2의 거듭제곱으로 올림)
+     */
+    @SuppressWarnings("unchecked")
+    public StripedLongMap(int concurrency) {
+        if (concurrency <= 0 || concurrency > (1 << 16)) {
+            throw new IllegalArgumentException("스트라이프 수가 올바르지 않습니다. concurrency=" + concurrency);
+        }
+        int stripeCount = 1;
+        while (stripeCount < concurrency) {
+            stripeCount <<= 1;
+        }
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe<>();
+        }
+        // 해시의 상위 비트로 스트라이프를, 하위 비트로 칸을 고른다
+        this.stripeShift = 64 - Integer.numberOfTrailingZeros(stripeCount);
+    }
+
+    /**
+     * CPU 코어 수의 4배만큼 스트라이프를 둔다.
+     */
+    public StripedLongMap() {
+        this(Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    public V get(long key) {
+        long hash = mix(key);
+        return stripeOf(hash).get(key, hash);
+    }
+
+    public V getOrDefault(long key, V defaultValue) {
+        V value = get(key);
+        return value == null ? defaultValue : value;
+    }
+
+    /**
+     * @return 이전 값. 없었으면 null
+     */
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("null 값은 담을 수 없습니다.");
+        }
+        long hash = mix(key);
+        return stripeOf(hash).put(key, hash, value);
+    }
+
+    public long size() {
+        long size = 0;
+        for (Stripe<V> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    /**
+     * 모든 값을 넘긴다. 스트라이프마다 읽기 락을 잡고 넘기므로 한 스트라이프 안에서는 일관된 값을 본다.
+     */
+    public void forEachValue(Consumer<? super V> action) {
+        for (Stripe<V> stripe : stripes) {
+            stripe.forEachValue(action);
+        }
+    }
+
+    private Stripe<V> stripeOf(long hash) {
+        return stripes.length == 1 ? stripes[0] : stripes[(int) (hash >>> stripeShift)];
+    }
+
+    /**
+     * 연속된 유저 ID 도 고르게 흩어지도록 섞는다. (MurmurHash3 fmix64)
+     */
+    private static long mix(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * 키/값 배열과 마스크를 한 객체로 묶어, 낙관적 읽기 중 크기가 바뀌어도 같은 세대의 배열만 보게 한다.
+     */
+    private static final class Table<V> {
+
+        private final long[] keys;
+        private final Object[] values; // null 이면 빈 칸
+        private final int mask;
+
+        private Table(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new Object[capacity];
+            this.mask = capacity - 1;
+        }
+
+        @SuppressWarnings("unchecked")
+        private V find(long key, long hash) {
+            int index = (int) hash & mask;
+            for (int probes = 0; probes <= mask; probes++) {
+                Object value = values[index];
+                if (value == null) {
+                    return null;
+                }
+                if (keys[index] == key) {
+                    return (V) value;
+                }
+                index = (index + 1) & mask;
+            }
+            return null;
+        }
+    }
+
+    private static final class Stripe<V> {
+
+        private final StampedLock lock = new StampedLock();
+        private volatile Table<V> table = new Table<>(INITIAL_STRIPE_CAPACITY);
+        private int size;
+
+        private V get(long key, long hash) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                V value = table.find(key, hash);
+                if (lock.validate(stamp)) {
+                    return value;
+                }
+            }
+            stamp = lock.readLock();
+            try {
+                return table.find(key, hash);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private V put(long key, long hash, V value) {
+            long stamp = lock.writeLock();
+            try {
+                return insert(key, hash, value);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void forEachValue(Consumer<? super V> action) {
+            long stamp = lock.readLock();
+            try {
+                for (Object value : table.values) {
+                    if (value != null) {
+                        action.accept((V) value);
+                    }
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private long size() {
+            long stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        /**
+         * 쓰기 락 안에서 호출된다.
+         */
+        @SuppressWarnings("unchecked")
+        private V insert(long key, long hash, V value) {
+            Table<V> current = table;
+            int index = (int) hash & current.mask;
+            while (current.values[index] != null) {
+                if (current.keys[index] == key) {
+                    V previous = (V) current.values[index];
+                    current.values[index] = value;
+                    return previous;
+                }
+                index = (index + 1) & current.mask;
+            }
+            // 채움률 3/4 를 넘기 전에 키운다
+            if ((size + 1) * 4L > (current.mask + 1) * 3L) {
+                current = resize(current);
+                index = (int) hash & current.mask;
+                while (current.values[index] != null) {
+                    index = (index + 1) & current.mask;
+                }
+            }
+            current.keys[index] = key;
+            current.values[index] = value;
+            size++;
+            return null;
+        }
+
+        private Table<V> resize(Table<V> current) {
+            int capacity = current.mask + 1;
+            if (capacity >= MAX_STRIPE_CAPACITY) {
+                throw new IllegalStateException("스트라이프 용량 한도를 넘었습니다.");
+            }
+            Table<V> resized = new Table<>(capacity << 1);
+            for (int i = 0; i < capacity; i++) {
+                Object value = current.values[i];
+                if (value == null) {
+                    continue;
+                }
+                long key = current.keys[i];
+                int index = (int) mix(key) & resized.mask;
+                while (resized.values[index] != null) {
+                    index = (index + 1) & resized.mask;
+                }
+                resized.keys[index] = key;
+                resized.values[index] = value;
+            }
+            table = resized;
+            return resized;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package io.hhplus.tdd.limit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 관측한 응답 시간으로 동시 처리 한도를 조절하는 AIMD 리미터
+ * - 최근 응답 시간(지수 평균)이 목표 응답 시간 이하이고 한도를 절반 이상 쓰고 있으면 한도를 조금씩 늘린다. (한도만큼 처리할 때마다 +1)
+ * - 목표 응답 시간을 넘거나 요청이 실패하면 한도를 곱셈으로 줄인다. (한도만큼 처리할 때마다 최대 1회)
+ * - 한도를 넘는 요청은 대기열에 쌓지 않고 즉시 거절한다.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double LATENCY_WEIGHT = 0.2;
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // onSample 안에서만 갱신 (synchronized)
+    private double estimatedLimit;
+    private double latencyNanos = Double.NaN;
+    private long samplesSinceBackoff;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit, long targetLatencyMillis) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit || targetLatencyMillis <= 0) {
+            throw new IllegalArgumentException("동시 처리 한도 설정이 올바르지 않습니다: " + name);
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMillis);
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+    }
+
+    /**
+     * 처리 슬롯을 하나 얻는다. 한도를 넘으면 대기하지 않고 false 를 반환한다.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 슬롯을 반납하고 응답 시간을 한도 계산에 반영한다.
+     *
+     * @param sampleNanos 처리에 걸린 시간
+     * @param dropped     타임아웃/과부하 등으로 정상 처리되지 못한 요청인지
+     */
+    public void release(long sampleNanos, boolean dropped) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        onSample(sampleNanos, inFlightAtCompletion, dropped);
+    }
+
+    private synchronized void onSample(long sampleNanos, int inFlightAtCompletion, boolean dropped) {
+        latencyNanos = Double.isNaN(latencyNanos)
+                ? sampleNanos
+                : latencyNanos + (sampleNanos - latencyNanos) * LATENCY_WEIGHT;
+        samplesSinceBackoff++;
+
+        if (dropped || latencyNanos > targetLatencyNanos) {
+            // 한 번 줄인 결과가 반영될 때까지(한도만큼 처리될 때까지) 연속으로 줄이지 않는다
+            if (samplesSinceBackoff >= estimatedLimit) {
+                estimatedLimit = Math.max(minLimit, estimatedLimit * BACKOFF_RATIO);
+                samplesSinceBackoff = 0;
+            }
+        } else if (inFlightAtCompletion * 2 >= estimatedLimit) {
+            // 한가할 때 한도가 끝없이 커지지 않도록 한도를 절반 이상 쓰고 있을 때만 늘린다
+            estimatedLimit = Math.min(maxLimit, estimatedLimit + 1.0 / estimatedLimit);
+        }
+        limit = (int) estimatedLimit;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public long latencyMillis() {
+        return Double.isNaN(latencyNanos) ? 0 : TimeUnit.NANOSECONDS.toMillis((long) latencyNanos);
+    }
+}
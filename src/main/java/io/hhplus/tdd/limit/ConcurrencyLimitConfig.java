@@ -0,0 +1,39 @@
+package io.hhplus.tdd.limit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 포인트 API 에 동시 처리 한도 인터셉터를 등록한다.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ConcurrencyLimitConfig implements WebMvcConfigurer {
+
+    private final ConcurrencyLimitInterceptor interceptor;
+
+    public ConcurrencyLimitConfig(
+            @Value("${point.concurrency-limit.read.initial:64}") int readInitial,
+            @Value("${point.concurrency-limit.read.max:512}") int readMax,
+            @Value("${point.concurrency-limit.read.target-latency-millis:300}") long readTargetLatencyMillis,
+            @Value("${point.concurrency-limit.write.initial:32}") int writeInitial,
+            @Value("${point.concurrency-limit.write.max:256}") int writeMax,
+            @Value("${point.concurrency-limit.write.target-latency-millis:1000}") long writeTargetLatencyMillis,
+            @Value("${point.concurrency-limit.retry-after-seconds:1}") long retryAfterSeconds) {
+        this.interceptor = new ConcurrencyLimitInterceptor(
+                new AdaptiveConcurrencyLimiter("read", readInitial, 1, readMax, readTargetLatencyMillis),
+                new AdaptiveConcurrencyLimiter("write", writeInitial, 1, writeMax, writeTargetLatencyMillis),
+                retryAfterSeconds);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // 롱 폴링/구독은 대기 시간이 응답 시간으로 잡혀 한도를 잘못 줄이고 연결 동안 슬롯을 붙잡으므로 제외한다
+        registry.addInterceptor(interceptor)
+                .addPathPatterns("/point/**", "/async/point/**")
+                .excludePathPatterns("/point/changes", "/point/*/stream");
+    }
+}
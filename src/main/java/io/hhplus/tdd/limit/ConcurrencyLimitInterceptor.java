@@ -0,0 +1,65 @@
+package io.hhplus.tdd.limit;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * PointController 앞단의 동시 처리 한도 인터셉터
+ * - 조회(GET)와 변경(그 외) 요청은 서로 다른 한도를 사용한다.
+ * - 한도를 넘으면 컨트롤러에 들어가지 않고 503 으로 거절한다.
+ * - 비동기 핸들러는 비동기 처리가 끝나 다시 디스패치된 뒤(afterCompletion)에 슬롯을 반납한다.
+ */
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyLimitInterceptor.class);
+
+    private static final String LIMITER_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".limiter";
+    private static final String START_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".start";
+
+    private final AdaptiveConcurrencyLimiter readLimiter;
+    private final AdaptiveConcurrencyLimiter writeLimiter;
+    private final long retryAfterSeconds;
+
+    public ConcurrencyLimitInterceptor(AdaptiveConcurrencyLimiter readLimiter,
+                                       AdaptiveConcurrencyLimiter writeLimiter,
+                                       long retryAfterSeconds) {
+        this.readLimiter = readLimiter;
+        this.writeLimiter = writeLimiter;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC && request.getAttribute(LIMITER_ATTRIBUTE) != null) {
+            // 최초 요청에서 이미 슬롯을 얻었다
+            return true;
+        }
+        AdaptiveConcurrencyLimiter limiter = HttpMethod.GET.matches(request.getMethod()) ? readLimiter : writeLimiter;
+        if (!limiter.tryAcquire()) {
+            log.warn("동시 처리 한도 초과로 요청 거절: {} {} (limiter={}, limit={})",
+                    request.getMethod(), request.getRequestURI(), limiter.name(), limiter.limit());
+            throw new ServiceOverloadedException("요청이 많아 처리하지 못했습니다. 잠시 후 다시 시도해주세요.", retryAfterSeconds);
+        }
+        request.setAttribute(LIMITER_ATTRIBUTE, limiter);
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        AdaptiveConcurrencyLimiter limiter = (AdaptiveConcurrencyLimiter) request.getAttribute(LIMITER_ATTRIBUTE);
+        if (limiter == null) {
+            return;
+        }
+        request.removeAttribute(LIMITER_ATTRIBUTE);
+        long latencyNanos = System.nanoTime() - (long) request.getAttribute(START_ATTRIBUTE);
+        boolean dropped = ex != null || response.getStatus() == HttpStatus.SERVICE_UNAVAILABLE.value();
+        limiter.release(latencyNanos, dropped);
+    }
+}
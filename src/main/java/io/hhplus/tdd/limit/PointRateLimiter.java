@@ -0,0 +1,72 @@
+package io.hhplus.tdd.limit;
+
+import io.hhplus.tdd.point.TransactionType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 유저별 충전/사용 요청 빈도 제한 (토큰 버킷)
+ * - PointService 가 유저 락을 잡기 전에 확인하므로, 제한에 걸린 요청은 락 경합에 끼어들지 않는다.
+ * - 트랜잭션 종류마다 별도의 버킷 설정을 사용한다.
+ */
+@Component
+public class PointRateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(PointRateLimiter.class);
+
+    private final Map<TransactionType, TokenBucketTable> buckets;
+    private final LongSupplier clockMillis;
+
+    @Autowired
+    public PointRateLimiter(
+            @Value("${point.rate-limit.charge.capacity:30}") int chargeCapacity,
+            @Value("${point.rate-limit.charge.refill-per-second:10}") int chargeRefillPerSecond,
+            @Value("${point.rate-limit.use.capacity:30}") int useCapacity,
+            @Value("${point.rate-limit.use.refill-per-second:10}") int useRefillPerSecond,
+            @Value("${point.rate-limit.idle-evict-millis:600000}") long idleEvictMillis) {
+        this(Map.of(
+                TransactionType.CHARGE, new TokenBucketTable(chargeCapacity, chargeRefillPerSecond, idleEvictMillis),
+                TransactionType.USE, new TokenBucketTable(useCapacity, useRefillPerSecond, idleEvictMillis)
+        ), monotonicMillis());
+    }
+
+    public PointRateLimiter(Map<TransactionType, TokenBucketTable> buckets, LongSupplier clockMillis) {
+        this.buckets = buckets.isEmpty() ? new EnumMap<>(TransactionType.class) : new EnumMap<>(buckets);
+        this.clockMillis = clockMillis;
+    }
+
+    /**
+     * 제한 없이 모든 요청을 허용한다. (테스트/내부 호출용)
+     */
+    public static PointRateLimiter unlimited() {
+        return new PointRateLimiter(Map.of(), monotonicMillis());
+    }
+
+    /**
+     * 유저의 요청을 허용할지 확인한다. 설정이 없는 트랜잭션 종류는 제한하지 않는다.
+     *
+     * @throws RateLimitExceededException 요청 빈도 제한 초과
+     */
+    public void check(long userId, TransactionType type) {
+        TokenBucketTable table = buckets.get(type);
+        if (table == null || table.tryAcquire(userId, clockMillis.getAsLong())) {
+            return;
+        }
+        log.warn("요청 빈도 제한 초과: userId={}, type={}", userId, type);
+        throw new RateLimitExceededException("요청이 너무 잦습니다. 잠시 후 다시 시도해주세요.");
+    }
+
+    private static LongSupplier monotonicMillis() {
+        long origin = System.nanoTime();
+        // 버킷 상태의 시각은 1부터 시작해야 한다
+        return () -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - origin) + 1;
+    }
+}
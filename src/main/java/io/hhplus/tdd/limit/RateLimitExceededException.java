@@ -0,0 +1,12 @@
+package io.hhplus.tdd.limit;
+
+/**
+ * 유저별 요청 빈도 제한을 넘은 요청
+ * - 컨트롤러 어드바이스에서 429 로 응답한다.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    public RateLimitExceededException(String message) {
+        super(message);
+    }
+}
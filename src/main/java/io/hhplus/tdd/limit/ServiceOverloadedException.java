@@ -0,0 +1,19 @@
+package io.hhplus.tdd.limit;
+
+/**
+ * 동시 처리 한도를 넘어 처리하지 않고 거절한 요청
+ * - 컨트롤러 어드바이스에서 503 + Retry-After 로 응답한다.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,221 @@
+package io.hhplus.tdd.limit;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * long 키(userId) 별 토큰 버킷 테이블
+ * - 박싱 없이 키는 long[], 버킷 상태는 AtomicLongArray 한 칸(long)에 담는 open addressing 해시 테이블이다.
+ * - 이미 등록된 키의 토큰 차감은 락 없이 CAS 로만 처리한다. 새 키 등록/테이블 확장만 세그먼트 락을 잡는다.
+ * - 테이블을 키울 때 오래 쓰이지 않아 가득 찬 버킷은 옮기지 않고 버린다. (다시 요청이 오면 가득 찬 상태로 새로 만든다)
+ *
+ * 버킷 상태 비트 구성: [상위 40비트: 마지막 충전 시각(ms, 1부터 시작)] [하위 24비트: 남은 토큰(1/1000 단위)]
+ */
+public class TokenBucketTable {
+
+    private static final int MAX_CAPACITY = ((1 << 24) - 1) / 1_000; // 하위 24비트에 담을 수 있는 최대 토큰 수
+
+    private static final int TOKEN_BITS = 24;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long MILLI_TOKENS = 1_000;
+    private static final long EMPTY = 0L;   // 빈 칸 (시각이 1부터 시작하므로 사용 중인 칸은 0 이 될 수 없다)
+    private static final long MOVED = -1L;  // 확장 중 새 테이블로 옮겨진 칸
+    private static final int ABSENT = -1;
+    private static final int MOVED_SLOT = -2;
+    private static final int SEGMENTS = 64;
+    private static final int INITIAL_SLOTS = 16;
+
+    private final long capacityMilliTokens;
+    private final long refillMilliTokensPerMilli;
+    private final long idleEvictMillis;
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    /**
+     * @param capacity        버킷 최대 토큰 수 (순간적으로 허용할 요청 수)
+     * @param refillPerSecond 초당 충전되는 토큰 수
+     * @param idleEvictMillis 이 시간 이상 쓰이지 않은 버킷은 테이블 확장 시 정리한다
+     */
+    public TokenBucketTable(int capacity, int refillPerSecond, long idleEvictMillis) {
+        if (capacity < 1 || capacity > MAX_CAPACITY || refillPerSecond < 1) {
+            throw new IllegalArgumentException("토큰 버킷 설정이 올바르지 않습니다. capacity=" + capacity + ", refillPerSecond=" + refillPerSecond);
+        }
+        this.capacityMilliTokens = capacity * MILLI_TOKENS;
+        this.refillMilliTokensPerMilli = refillPerSecond; // 초당 N 토큰 = ms 당 N 밀리토큰
+        this.idleEvictMillis = idleEvictMillis;
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * 키의 버킷에서 토큰 하나를 꺼낸다.
+     *
+     * @param key       userId
+     * @param nowMillis 단조 증가하는 현재 시각(ms, 1 이상)
+     * @return 토큰이 남아 있어 허용되면 true
+     */
+    public boolean tryAcquire(long key, long nowMillis) {
+        int hash = spread(key);
+        Segment segment = segments[hash & (SEGMENTS - 1)];
+        while (true) {
+            Table table = segment.table;
+            int slot = table.find(key, hash);
+            if (slot == ABSENT) {
+                segment.insertIfAbsent(key, hash, pack(nowMillis, capacityMilliTokens), nowMillis);
+                continue;
+            }
+            if (slot != MOVED_SLOT) {
+                Boolean acquired = tryConsume(table.states, slot, nowMillis);
+                if (acquired != null) {
+                    return acquired;
+                }
+            }
+            // 확장 중이라 옮겨진 칸이면 새 테이블에서 다시 찾는다
+            while (segment.table == table) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /**
+     * @return 허용 여부, 칸이 새 테이블로 옮겨졌다면 null
+     */
+    private Boolean tryConsume(AtomicLongArray states, int slot, long nowMillis) {
+        while (true) {
+            long state = states.get(slot);
+            if (state == MOVED) {
+                return null;
+            }
+            long tokens = refill(state, nowMillis);
+            if (tokens < MILLI_TOKENS) {
+                return false;
+            }
+            if (states.compareAndSet(slot, state, pack(Math.max(nowMillis, lastMillis(state)), tokens - MILLI_TOKENS))) {
+                return true;
+            }
+        }
+    }
+
+    private long refill(long state, long nowMillis) {
+        long elapsed = nowMillis - lastMillis(state);
+        long tokens = state & TOKEN_MASK;
+        if (elapsed <= 0) {
+            return tokens;
+        }
+        return Math.min(capacityMilliTokens, tokens + Math.min(elapsed, capacityMilliTokens) * refillMilliTokensPerMilli);
+    }
+
+    private boolean isIdle(long state, long nowMillis) {
+        return nowMillis - lastMillis(state) >= idleEvictMillis && refill(state, nowMillis) == capacityMilliTokens;
+    }
+
+    /**
+     * 현재 보관 중인 버킷 수 (테스트/모니터링용)
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    private static long pack(long millis, long milliTokens) {
+        return (millis << TOKEN_BITS) | milliTokens;
+    }
+
+    private static long lastMillis(long state) {
+        return state >>> TOKEN_BITS;
+    }
+
+    private static int spread(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static final class Table {
+        final long[] keys;
+        final AtomicLongArray states;
+        final int mask;
+
+        Table(int slots) {
+            this.keys = new long[slots];
+            this.states = new AtomicLongArray(slots);
+            this.mask = slots - 1;
+        }
+
+        /**
+         * @return 키가 있는 칸, 없으면 ABSENT, 확장 중이라 확인할 수 없으면 MOVED_SLOT
+         */
+        int find(long key, int hash) {
+            // 세그먼트 선택에 쓴 하위 비트는 건너뛰고 나머지 비트로 칸을 고른다
+            int i = (hash >>> 6) & mask;
+            for (int probes = 0; probes <= mask; probes++, i = (i + 1) & mask) {
+                long state = states.get(i);
+                if (state == EMPTY) {
+                    return ABSENT;
+                }
+                if (state == MOVED) {
+                    return MOVED_SLOT;
+                }
+                if (keys[i] == key) {
+                    return i;
+                }
+            }
+            return ABSENT;
+        }
+
+        int findEmpty(int hash) {
+            for (int i = (hash >>> 6) & mask; ; i = (i + 1) & mask) {
+                if (states.get(i) == EMPTY) {
+                    return i;
+                }
+            }
+        }
+    }
+
+    private final class Segment {
+        volatile Table table = new Table(INITIAL_SLOTS);
+        int size; // 락 안에서만 갱신
+
+        synchronized void insertIfAbsent(long key, int hash, long initialState, long nowMillis) {
+            if (table.find(key, hash) >= 0) {
+                return;
+            }
+            if ((size + 1) * 4 > table.keys.length * 3) {
+                resize(nowMillis);
+            }
+            int slot = table.findEmpty(hash);
+            table.keys[slot] = key;
+            table.states.set(slot, initialState); // volatile write 로 key 까지 함께 공개된다
+            size++;
+        }
+
+        private void resize(long nowMillis) {
+            Table old = table;
+            long[] liveKeys = new long[size];
+            long[] liveStates = new long[size];
+            int live = 0;
+            for (int i = 0; i < old.keys.length; i++) {
+                long state = old.states.getAndSet(i, MOVED);
+                if (state != EMPTY && !isIdle(state, nowMillis)) {
+                    liveKeys[live] = old.keys[i];
+                    liveStates[live] = state;
+                    live++;
+                }
+            }
+
+            int slots = INITIAL_SLOTS;
+            while ((live + 1) * 2 > slots) {
+                slots <<= 1;
+            }
+            Table resized = new Table(slots);
+            for (int i = 0; i < live; i++) {
+                int slot = resized.findEmpty(spread(liveKeys[i]));
+                resized.keys[slot] = liveKeys[i];
+                resized.states.set(slot, liveStates[i]);
+            }
+            size = live;
+            table = resized;
+        }
+    }
+}
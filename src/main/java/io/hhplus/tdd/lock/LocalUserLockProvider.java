@@ -0,0 +1,36 @@
+package io.hhplus.tdd.lock;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 이 JVM 안에서만 잠그는 유저 락 (기본값)
+ * - 유저별 ReentrantLock 을 tryLock 으로 마감 시각까지만 기다린다.
+ * - 임대가 없으므로 펜싱 토큰은 0 이다.
+ */
+public class LocalUserLockProvider implements UserLockProvider {
+
+    // 사용자 단위로 락을 걸기 위한 맵
+    private final Map<Long, ReentrantLock> userLocks = new ConcurrentHashMap<>();
+
+    @Override
+    public UserLock tryAcquire(long userId, long waitNanos) throws InterruptedException {
+        ReentrantLock lock = userLocks.computeIfAbsent(userId, k -> new ReentrantLock());
+        if (!lock.tryLock(waitNanos, TimeUnit.NANOSECONDS)) {
+            return null;
+        }
+        return new UserLock() {
+            @Override
+            public long fencingToken() {
+                return 0;
+            }
+
+            @Override
+            public void unlock() {
+                lock.unlock();
+            }
+        };
+    }
+}
@@ -0,0 +1,51 @@
+package io.hhplus.tdd.lock;
+
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 유저 락 제공자 선택 (point.lock.provider)
+ * - local: 이 JVM 안에서만 잠근다. (기본값)
+ * - redisson: Redis 로 여러 노드 사이에서 잠근다. 잔액 저장소도 노드들이 함께 쓰는 것(jdbc)이어야 의미가 있다.
+ */
+@Configuration
+public class LockConfig {
+
+    @Configuration
+    @ConditionalOnProperty(name = "point.lock.provider", havingValue = "local", matchIfMissing = true)
+    static class LocalLockConfig {
+
+        @Bean
+        public UserLockProvider userLockProvider() {
+            return new LocalUserLockProvider();
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "point.lock.provider", havingValue = "redisson")
+    static class RedissonLockConfig {
+
+        /**
+         * @param leaseMillis 락 임대 시간. 쥔 동안은 1/3 마다 연장한다.
+         */
+        @Bean(destroyMethod = "shutdown")
+        public RedissonClient pointLockRedisson(@Value("${point.lock.redisson.address:redis://localhost:6379}") String address,
+                                                @Value("${point.lock.redisson.lease-millis:10000}") long leaseMillis) {
+            Config config = new Config();
+            config.setLockWatchdogTimeout(leaseMillis);
+            config.useSingleServer().setAddress(address);
+            return Redisson.create(config);
+        }
+
+        @Bean
+        public UserLockProvider userLockProvider(RedissonClient pointLockRedisson,
+                                                 @Value("${point.lock.redisson.key-prefix:point:lock:}") String keyPrefix) {
+            return new RedissonUserLockProvider(pointLockRedisson, keyPrefix);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package io.hhplus.tdd.lock;
+
+/**
+ * 유저 락 임대가 끝나 다른 노드가 더 새 펜싱 토큰으로 이미 쓴 뒤에 들어온 쓰기
+ * - 컨트롤러 어드바이스에서 409 로 응답한다.
+ */
+public class LockLostException extends RuntimeException {
+
+    public LockLostException(String message) {
+        super(message);
+    }
+}
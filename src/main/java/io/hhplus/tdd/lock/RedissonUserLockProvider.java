@@ -0,0 +1,58 @@
+package io.hhplus.tdd.lock;
+
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis 로 여러 노드 사이에서 잠그는 유저 락 (Redisson)
+ * - 임대 시간을 주지 않고 tryLock 하므로 Redisson watchdog 이 락을 쥔 동안 임대를 연장한다. (lockWatchdogTimeout 의 1/3 마다)
+ *   노드가 죽거나 멈춰 연장하지 못하면 lockWatchdogTimeout 뒤에 다른 노드가 락을 얻는다.
+ * - 락을 얻은 뒤 유저별 카운터를 올려 펜싱 토큰으로 쓴다. 카운터는 락 안에서만 올리므로 락을 얻은 순서대로 커진다.
+ */
+public class RedissonUserLockProvider implements UserLockProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(RedissonUserLockProvider.class);
+
+    private final RedissonClient redisson;
+    private final String keyPrefix;
+
+    public RedissonUserLockProvider(RedissonClient redisson, String keyPrefix) {
+        this.redisson = redisson;
+        this.keyPrefix = keyPrefix;
+    }
+
+    @Override
+    public UserLock tryAcquire(long userId, long waitNanos) throws InterruptedException {
+        RLock lock = redisson.getLock(keyPrefix + userId);
+        if (!lock.tryLock(waitNanos, TimeUnit.NANOSECONDS)) {
+            return null;
+        }
+        long fencingToken;
+        try {
+            fencingToken = redisson.getAtomicLong(keyPrefix + userId + ":fence").incrementAndGet();
+        } catch (RuntimeException e) {
+            lock.unlock();
+            throw e;
+        }
+        return new UserLock() {
+            @Override
+            public long fencingToken() {
+                return fencingToken;
+            }
+
+            @Override
+            public void unlock() {
+                try {
+                    lock.unlock();
+                } catch (IllegalMonitorStateException e) {
+                    // 임대가 이미 끝났다. 그 사이 쓰기는 펜싱 토큰으로 걸러진다
+                    log.warn("유저 락 임대가 풀기 전에 끝났습니다: userId={}, fencingToken={}", userId, fencingToken);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,17 @@
+package io.hhplus.tdd.lock;
+
+/**
+ * 얻은 유저 락 하나. 얻은 스레드에서 풀어야 한다.
+ */
+public interface UserLock {
+
+    /**
+     * 이 락을 얻을 때 받은 펜싱 토큰
+     * - 같은 유저에 대해 락을 얻을 때마다 커진다. 저장소는 이미 본 토큰보다 작은 토큰의 쓰기를 거절해,
+     *   임대가 끝난 줄 모르고 늦게 쓰는 노드가 새 소유자의 쓰기를 덮어쓰지 못하게 한다.
+     * - 0 이면 펜싱을 쓰지 않는다. (이 JVM 안에서만 잠그는 락)
+     */
+    long fencingToken();
+
+    void unlock();
+}
@@ -0,0 +1,17 @@
+package io.hhplus.tdd.lock;
+
+/**
+ * 유저 락 제공자 SPI
+ * - 구현체는 point.lock.provider 설정으로 고른다. (local: 이 JVM 안에서만, redisson: Redis 로 여러 노드 사이에서)
+ * - 재진입은 호출하는 쪽(UserLockManager)이 처리하므로 구현체는 재진입을 지원하지 않아도 된다.
+ */
+public interface UserLockProvider {
+
+    /**
+     * 유저 락을 얻는다.
+     *
+     * @param waitNanos 최대 대기 시간
+     * @return 얻은 락. 대기 시간 안에 얻지 못하면 null
+     */
+    UserLock tryAcquire(long userId, long waitNanos) throws InterruptedException;
+}
@@ -0,0 +1,69 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.limit.ServiceOverloadedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * PointService 의 논블로킹 버전
+ * - 테이블 호출은 전용 스레드 풀에서 실행하고, 호출한 스레드(서블릿 스레드)에는 CompletableFuture 를 바로 돌려준다.
+ * - 스레드 풀 큐가 가득 차면 대기시키지 않고 ServiceOverloadedException 으로 실패한 future 를 돌려준다.
+ */
+@Service
+public class AsyncPointService {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncPointService.class);
+
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final PointService pointService;
+    private final Executor pointTaskExecutor;
+
+    public AsyncPointService(PointService pointService, @Qualifier("pointTaskExecutor") Executor pointTaskExecutor) {
+        this.pointService = pointService;
+        this.pointTaskExecutor = pointTaskExecutor;
+    }
+
+    public CompletableFuture<UserPoint> getPoint(long userId) {
+        return submit(() -> pointService.getPoint(userId));
+    }
+
+    public CompletableFuture<List<PointHistory>> getHistories(long userId) {
+        return submit(() -> pointService.getHistories(userId));
+    }
+
+    /**
+     * 풀에서 대기하는 시간도 마감 시각에 포함된다.
+     */
+    public CompletableFuture<UserPoint> chargePoint(long userId, long amount, Deadline deadline) {
+        return submit(() -> {
+            deadline.check("충전 대기");
+            return pointService.chargePoint(userId, amount, deadline);
+        });
+    }
+
+    public CompletableFuture<UserPoint> usePoint(long userId, long amount, Deadline deadline) {
+        return submit(() -> {
+            deadline.check("사용 대기");
+            return pointService.usePoint(userId, amount, deadline);
+        });
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, pointTaskExecutor);
+        } catch (RejectedExecutionException e) {
+            log.warn("포인트 작업 스레드 풀이 가득 차 요청 거절");
+            return CompletableFuture.failedFuture(
+                    new ServiceOverloadedException("요청이 많아 처리하지 못했습니다. 잠시 후 다시 시도해주세요.", RETRY_AFTER_SECONDS));
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 다른 노드가 같은 유저의 잔액을 계속 먼저 바꿔 정해진 횟수 안에 저장하지 못한 요청
+ * - 컨트롤러 어드바이스에서 409 로 응답한다.
+ */
+public class BalanceConflictException extends RuntimeException {
+
+    public BalanceConflictException(String message) {
+        super(message);
+    }
+}
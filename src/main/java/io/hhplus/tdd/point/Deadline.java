@@ -0,0 +1,62 @@
+package io.hhplus.tdd.point;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청 처리 마감 시각
+ * - 클라이언트가 이미 포기한 요청을 뒤늦게 처리하지 않도록 락 대기/테이블 접근 전에 확인한다.
+ *
+ * @param expiresAtNanos System.nanoTime() 기준 만료 시각
+ */
+public record Deadline(long expiresAtNanos) {
+
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+    // 남은 시간 계산(expiresAtNanos - nanoTime)이 넘치지 않도록 자르는 최대 대기 시간 (약 146년)
+    private static final Duration MAX_TIMEOUT = Duration.ofNanos(Long.MAX_VALUE / 2);
+
+    /**
+     * 마감 시각 없이 락을 얻을 때까지 대기한다. (서비스 내부 호출/테스트용)
+     */
+    public static Deadline none() {
+        return new Deadline(NO_DEADLINE);
+    }
+
+    /**
+     * 음수는 이미 지난 마감 시각으로, MAX_TIMEOUT 보다 긴 시간은 MAX_TIMEOUT 으로 본다.
+     */
+    public static Deadline after(Duration timeout) {
+        Duration bounded = timeout.isNegative() ? Duration.ZERO : timeout.compareTo(MAX_TIMEOUT) > 0 ? MAX_TIMEOUT : timeout;
+        return new Deadline(System.nanoTime() + bounded.toNanos());
+    }
+
+    public static Deadline afterMillis(long timeoutMillis) {
+        return after(Duration.ofMillis(timeoutMillis));
+    }
+
+    public long remainingNanos() {
+        if (expiresAtNanos == NO_DEADLINE) {
+            return Long.MAX_VALUE;
+        }
+        return expiresAtNanos - System.nanoTime();
+    }
+
+    public long remaining(TimeUnit unit) {
+        return unit.convert(Math.max(0, remainingNanos()), TimeUnit.NANOSECONDS);
+    }
+
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    /**
+     * 마감 시각이 지났다면 작업을 포기한다.
+     *
+     * @param stage 로그/메시지에 남길 처리 단계
+     */
+    public void check(String stage) {
+        if (isExpired()) {
+            throw new DeadlineExceededException("요청 처리 시간이 초과되었습니다. (" + stage + ")");
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 마감 시각 안에 유저 락을 얻지 못했거나 이미 마감 시각이 지난 요청
+ * - 컨트롤러 어드바이스에서 503 으로 응답한다.
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
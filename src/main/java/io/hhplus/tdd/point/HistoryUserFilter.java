@@ -0,0 +1,217 @@
+package io.hhplus.tdd.point;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 내역이 있는 유저 필터
+ * - 내역을 남기기 전에 유저를 더하고, 내역 조회 전에 확인해 한 번도 거래하지 않은 유저는 저장소를 읽지 않고 거절한다.
+ * - 0 이상 denseLimit 미만 유저 ID 는 정확한 비트맵에 담는다. 비트맵은 6만 5천여 ID 단위 페이지(8KB)로 나눠 쓰인 페이지만 만든다.
+ * - 그 밖의 ID 는 확장형 블룸 필터에 담는다. 단계가 차면 두 배 크기에 오탐률을 절반으로 조인 단계를 덧붙여,
+ *   몇 명이 들어와도 전체 오탐률이 falsePositiveRate 안쪽에 머문다. 없다고 답한 유저는 틀림없이 없다.
+ * - 더하기와 확인 모두 락 없이 한다. (단계 추가만 락)
+ */
+public class HistoryUserFilter {
+
+    private static final int PAGE_BITS = 16;
+    private static final int PAGE_LONGS = (1 << PAGE_BITS) / Long.SIZE;
+    private static final int GROWTH = 2;
+    private static final double TIGHTENING = 0.5;
+
+    private static final HistoryUserFilter DISABLED = new HistoryUserFilter();
+
+    private final boolean enabled;
+    private final long denseLimit;
+    private final AtomicReferenceArray<AtomicLongArray> pages;
+    private volatile Stage[] stages;
+
+    private HistoryUserFilter() {
+        this.enabled = false;
+        this.denseLimit = 0;
+        this.pages = null;
+        this.stages = new Stage[0];
+    }
+
+    /**
+     * @param denseLimit        이 값 미만의 음이 아닌 유저 ID 는 정확한 비트맵에 담는다
+     * @param initialCapacity   블룸 필터 첫 단계에 담을 유저 수
+     * @param falsePositiveRate 블룸 필터 전체 오탐률 상한
+     */
+    public HistoryUserFilter(long denseLimit, long initialCapacity, double falsePositiveRate) {
+        if (denseLimit < 0 || denseLimit > ((long) Integer.MAX_VALUE << PAGE_BITS) || initialCapacity < 1
+                || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("내역 유저 필터 설정이 올바르지 않습니다.");
+        }
+        this.enabled = true;
+        this.denseLimit = denseLimit;
+        this.pages = new AtomicReferenceArray<>((int) ((denseLimit + (1 << PAGE_BITS) - 1) >>> PAGE_BITS));
+        this.stages = new Stage[]{new Stage(initialCapacity, falsePositiveRate * (1 - TIGHTENING))};
+    }
+
+    /**
+     * 모든 유저에 대해 내역이 있을 수 있다고 답하는 필터 (필터를 쓰지 않을 때)
+     */
+    public static HistoryUserFilter disabled() {
+        return DISABLED;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void add(long userId) {
+        if (!enabled) {
+            return;
+        }
+        if (userId >= 0 && userId < denseLimit) {
+            int pageIndex = (int) (userId >>> PAGE_BITS);
+            AtomicLongArray page = pages.get(pageIndex);
+            if (page == null) {
+                pages.compareAndSet(pageIndex, null, new AtomicLongArray(PAGE_LONGS));
+                page = pages.get(pageIndex);
+            }
+            setBit(page, userId & ((1 << PAGE_BITS) - 1));
+            return;
+        }
+        if (mightContainSparse(userId)) {
+            return;
+        }
+        Stage[] current = stages;
+        Stage last = current[current.length - 1];
+        if (last.count.get() >= last.capacity) {
+            last = grow(current);
+        }
+        last.add(userId);
+    }
+
+    /**
+     * @return false 면 이 유저의 내역은 없다. true 면 있을 수 있다.
+     */
+    public boolean mightHaveHistory(long userId) {
+        if (!enabled) {
+            return true;
+        }
+        if (userId >= 0 && userId < denseLimit) {
+            AtomicLongArray page = pages.get((int) (userId >>> PAGE_BITS));
+            if (page == null) {
+                return false;
+            }
+            long bit = userId & ((1 << PAGE_BITS) - 1);
+            return (page.get((int) (bit >>> 6)) & (1L << bit)) != 0;
+        }
+        return mightContainSparse(userId);
+    }
+
+    /**
+     * 블룸 필터 단계 수
+     */
+    public int stageCount() {
+        return stages.length;
+    }
+
+    /**
+     * 비트맵 페이지와 블룸 필터가 차지하는 크기 (바이트)
+     */
+    public long memoryBytes() {
+        long bytes = 0;
+        if (pages != null) {
+            for (int i = 0; i < pages.length(); i++) {
+                if (pages.get(i) != null) {
+                    bytes += (long) PAGE_LONGS * Long.BYTES;
+                }
+            }
+        }
+        for (Stage stage : stages) {
+            bytes += (long) stage.bits.length() * Long.BYTES;
+        }
+        return bytes;
+    }
+
+    private boolean mightContainSparse(long userId) {
+        for (Stage stage : stages) {
+            if (stage.mightContain(userId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private synchronized Stage grow(Stage[] observed) {
+        Stage[] current = stages;
+        if (current != observed) {
+            return current[current.length - 1];
+        }
+        Stage last = current[current.length - 1];
+        Stage next = new Stage(last.capacity * GROWTH, last.falsePositiveRate * TIGHTENING);
+        Stage[] grown = new Stage[current.length + 1];
+        System.arraycopy(current, 0, grown, 0, current.length);
+        grown[current.length] = next;
+        stages = grown;
+        return next;
+    }
+
+    private static void setBit(AtomicLongArray words, long bit) {
+        int word = (int) (bit >>> 6);
+        long mask = 1L << bit;
+        long value = words.get(word);
+        while ((value & mask) == 0 && !words.compareAndSet(word, value, value | mask)) {
+            value = words.get(word);
+        }
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    /**
+     * 블룸 필터 한 단계. 해시 두 개를 섞어(이중 해싱) 비트 위치 hashCount 개를 만든다.
+     */
+    private static final class Stage {
+
+        private final long capacity;
+        private final double falsePositiveRate;
+        private final long bitCount;
+        private final int hashCount;
+        private final AtomicLongArray bits;
+        private final AtomicLong count = new AtomicLong();
+
+        private Stage(long capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.bitCount = Math.max(Long.SIZE, (optimalBits + Long.SIZE - 1) / Long.SIZE * Long.SIZE);
+            if (bitCount / Long.SIZE > Integer.MAX_VALUE) {
+                throw new IllegalStateException("내역 유저 필터가 너무 커졌습니다. capacity=" + capacity);
+            }
+            this.hashCount = Math.max(1, (int) Math.ceil(-Math.log(falsePositiveRate) / Math.log(2)));
+            this.bits = new AtomicLongArray((int) (bitCount / Long.SIZE));
+        }
+
+        private void add(long userId) {
+            long h1 = fmix64(userId);
+            long h2 = fmix64(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                setBit(bits, Long.remainderUnsigned(h1 + i * h2, bitCount));
+            }
+            count.incrementAndGet();
+        }
+
+        private boolean mightContain(long userId) {
+            long h1 = fmix64(userId);
+            long h2 = fmix64(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
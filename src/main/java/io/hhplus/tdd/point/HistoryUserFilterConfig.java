@@ -0,0 +1,41 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.storage.HistoryStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 내역이 있는 유저 필터
+ * - 시작할 때 내역 저장소의 유저로 채운다. 저장소가 모든 유저를 알려 줄 수 없으면(jdbc) 필터를 쓰지 않는다.
+ */
+@Configuration
+public class HistoryUserFilterConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(HistoryUserFilterConfig.class);
+
+    /**
+     * @param denseLimit        이 값 미만의 유저 ID 는 정확한 비트맵에 담는다 (쓰인 8KB 페이지만 만든다)
+     * @param initialCapacity   그 밖의 유저를 담는 블룸 필터 첫 단계 크기
+     * @param falsePositiveRate 블룸 필터 오탐률 상한
+     */
+    @Bean
+    public HistoryUserFilter historyUserFilter(HistoryStore historyStore,
+                                               @Value("${point.history-filter.enabled:true}") boolean enabled,
+                                               @Value("${point.history-filter.dense-limit:268435456}") long denseLimit,
+                                               @Value("${point.history-filter.initial-capacity:1000000}") long initialCapacity,
+                                               @Value("${point.history-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        if (!enabled) {
+            return HistoryUserFilter.disabled();
+        }
+        HistoryUserFilter filter = new HistoryUserFilter(denseLimit, initialCapacity, falsePositiveRate);
+        if (!historyStore.forEachUserId(filter::add)) {
+            log.info("내역 저장소가 모든 내역 유저를 알려 줄 수 없어 내역 유저 필터를 쓰지 않습니다. store={}",
+                    historyStore.getClass().getSimpleName());
+            return HistoryUserFilter.disabled();
+        }
+        return filter;
+    }
+}
@@ -0,0 +1,15 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 리더보드 한 줄
+ *
+ * @param rank   순위 (1부터)
+ * @param userId 유저 ID
+ * @param point  잔액
+ */
+public record LeaderboardEntry(
+        int rank,
+        long userId,
+        long point
+) {
+}
@@ -0,0 +1,64 @@
+package io.hhplus.tdd.point;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * PointController 의 비동기 버전
+ * - 핸들러는 CompletableFuture 를 바로 반환하므로, 테이블 호출을 기다리는 동안 서블릿 스레드를 점유하지 않는다.
+ */
+@RestController
+@RequestMapping("/async/point")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class PointAsyncController {
+
+    private static final Logger log = LoggerFactory.getLogger(PointAsyncController.class);
+
+    private final AsyncPointService asyncPointService;
+
+    public PointAsyncController(AsyncPointService asyncPointService) {
+        this.asyncPointService = asyncPointService;
+    }
+
+    @GetMapping("{id}")
+    public CompletableFuture<UserPoint> point(@PathVariable long id) {
+        return asyncPointService.getPoint(id);
+    }
+
+    @GetMapping("{id}/histories")
+    public CompletableFuture<List<PointHistory>> history(@PathVariable long id) {
+        return asyncPointService.getHistories(id)
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof IllegalArgumentException) {
+                        log.warn("포인트 히스토리 조회 실패: userId={}, 사유={}", id, cause.getMessage());
+                        throw new ResponseStatusException(HttpStatus.NOT_FOUND, cause.getMessage());
+                    }
+                    throw e instanceof CompletionException completion ? completion : new CompletionException(cause);
+                });
+    }
+
+    @PatchMapping("{id}/charge")
+    public CompletableFuture<UserPoint> charge(@PathVariable long id,
+                                               @RequestBody ChargeRequest request,
+                                               @RequestHeader(value = RequestTimeout.HEADER, defaultValue = RequestTimeout.DEFAULT_MILLIS) long timeoutMillis) {
+        log.info("PATCH /async/point/{}/charge 요청됨. amount={}", id, request.amount());
+        return asyncPointService.chargePoint(id, request.amount(), RequestTimeout.deadline(timeoutMillis));
+    }
+
+    @PatchMapping("{id}/use")
+    public CompletableFuture<UserPoint> use(@PathVariable long id,
+                                            @RequestBody long amount,
+                                            @RequestHeader(value = RequestTimeout.HEADER, defaultValue = RequestTimeout.DEFAULT_MILLIS) long timeoutMillis) {
+        log.info("PATCH /async/point/{}/use 요청됨. amount={}", id, amount);
+        return asyncPointService.usePoint(id, amount, RequestTimeout.deadline(timeoutMillis));
+    }
+}
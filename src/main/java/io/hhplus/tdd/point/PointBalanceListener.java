@@ -0,0 +1,12 @@
+package io.hhplus.tdd.point;
+
+/**
+ * PointService 가 잔액을 저장할 때마다 호출되는 리스너
+ * - 충전/사용/이체뿐 아니라 예약(hold/release)과 소멸로 바뀐 잔액도 전달된다.
+ * - 해당 유저의 락 안에서 저장 직후 호출되므로, 같은 유저의 잔액은 저장된 순서대로 전달된다.
+ */
+@FunctionalInterface
+public interface PointBalanceListener {
+
+    void onBalanceUpdated(UserPoint userPoint);
+}
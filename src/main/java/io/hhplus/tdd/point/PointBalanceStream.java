@@ -0,0 +1,334 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.limit.ServiceOverloadedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 유저 잔액 구독 (GET /point/{id}/stream)
+ * - 잔액이 바뀌면 해당 유저의 구독마다 새 UserPoint 를 보낸다.
+ * - 구독마다 보낼 값은 최신 잔액 한 칸만 둔다. 느린 소비자에게는 중간 값을 건너뛰고 최신 값만 보내므로, 밀린 값이 쌓이지 않는다.
+ * - 전송은 전송 스레드 풀에서 한다. 구독마다 전송 작업은 한 번에 하나만 예약되므로 큐 길이는 구독 수를 넘지 않는다.
+ * - 쉬고 있는 구독은 스레드를 점유하지 않고 구독 객체 하나만 차지한다.
+ * - 구독 시작 시 현재 잔액을 먼저 보낸다. 등록과 현재 잔액 조회는 유저 락 안에서 하므로 그 사이의 변경을 놓치거나 옛 값으로 덮지 않는다.
+ * - 전송 한 번이 sendTimeoutMillis 를 넘기면(받지 않는 클라이언트에 막힌 쓰기) 감시 스레드가 구독을 해지하고 전송 스레드를 인터럽트한다.
+ * - 전송 실패나 시간 초과로 이쪽에서 구독을 끝내면 전송이 풀린 뒤 전송 스레드에서 Sink.close 를 불러 연결도 닫게 한다.
+ *   (소비자가 cancel 로 해지한 구독은 부르지 않는다)
+ *   막힌 전송이 스레드를 놓을 때까지는 그만큼 전송 스레드를 더 두어(최대 senderThreads 개) 다른 구독의 전송이 밀리지 않게 한다.
+ * - 이 노드의 PointService 가 저장한 잔액만 보낸다. 여러 노드가 같은 저장소를 쓰면(jdbc) 다른 노드에서 바뀐 잔액은 보내지 않으므로,
+ *   노드가 하나이거나 유저마다 담당 노드가 정해진(샤딩) 구성에서만 빠짐없이 받는다.
+ */
+public class PointBalanceStream implements PointBalanceListener {
+
+    private static final Logger log = LoggerFactory.getLogger(PointBalanceStream.class);
+
+    private final PointService pointService;
+    private final UserLockManager userLockManager;
+    private final ThreadPoolExecutor senders;
+    private final ScheduledExecutorService watchdog;
+    private final int senderThreads;
+    private final int maxSubscriptions;
+    private final long sendTimeoutNanos;
+
+    private final Map<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriptionCount = new AtomicInteger();
+    // 지금 전송 중인 구독
+    private final Set<Subscription> sending = ConcurrentHashMap.newKeySet();
+    // 시간을 넘겨 막힌 채로 전송 스레드를 잡고 있는 전송 수 (resizeSenders 안에서만 바꾼다)
+    private int stuckSenders;
+
+    /**
+     * @param senderThreads     전송 스레드 수
+     * @param maxSubscriptions  노드 전체 최대 구독 수. 넘으면 새 구독을 거절한다.
+     * @param sendTimeoutMillis 전송 한 번을 기다리는 시간. 넘기면 구독을 해지한다.
+     */
+    public PointBalanceStream(PointService pointService,
+                              UserLockManager userLockManager,
+                              int senderThreads,
+                              int maxSubscriptions,
+                              long sendTimeoutMillis) {
+        if (sendTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("전송 대기 시간은 0 보다 커야 합니다. sendTimeoutMillis=" + sendTimeoutMillis);
+        }
+        this.pointService = pointService;
+        this.userLockManager = userLockManager;
+        this.senderThreads = senderThreads;
+        this.maxSubscriptions = maxSubscriptions;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        AtomicInteger sequence = new AtomicInteger();
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "point-stream-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "point-stream-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, sendTimeoutMillis / 4);
+        watchdog.scheduleWithFixedDelay(this::expireSlowSends, period, period, TimeUnit.MILLISECONDS);
+        pointService.addBalanceListener(this);
+    }
+
+    /**
+     * 유저 잔액을 구독한다. 현재 잔액을 먼저 보낸 뒤 바뀔 때마다 보낸다.
+     *
+     * @param sink 잔액을 받을 곳. 전송에 실패하면 구독을 해지한다.
+     * @throws ServiceOverloadedException 최대 구독 수를 넘은 경우
+     */
+    public Subscription subscribe(long userId, Sink sink, Deadline deadline) {
+        if (subscriptionCount.incrementAndGet() > maxSubscriptions) {
+            subscriptionCount.decrementAndGet();
+            log.warn("최대 구독 수 초과로 구독 거절 - userId={}, max={}", userId, maxSubscriptions);
+            throw new ServiceOverloadedException("구독이 많아 처리하지 못했습니다. 잠시 후 다시 시도해주세요.", 1);
+        }
+        Subscription subscription = new Subscription(userId, sink);
+        try {
+            userLockManager.executeWithLock(userId, deadline, () -> {
+                subscriptions.computeIfAbsent(userId, k -> ConcurrentHashMap.newKeySet()).add(subscription);
+                subscription.offer(pointService.getPoint(userId));
+                return null;
+            });
+        } catch (RuntimeException e) {
+            subscription.cancel();
+            throw e;
+        }
+        return subscription;
+    }
+
+    @Override
+    public void onBalanceUpdated(UserPoint userPoint) {
+        Set<Subscription> userSubscriptions = subscriptions.get(userPoint.id());
+        if (userSubscriptions == null) {
+            return;
+        }
+        for (Subscription subscription : userSubscriptions) {
+            subscription.offer(userPoint);
+        }
+    }
+
+    /**
+     * 현재 구독 수
+     */
+    public int subscriptions() {
+        return subscriptionCount.get();
+    }
+
+    public void shutdown() {
+        watchdog.shutdownNow();
+        senders.shutdownNow();
+    }
+
+    /**
+     * 시간을 넘긴 전송의 구독을 해지하고 전송 스레드를 인터럽트한다. (감시 스레드)
+     */
+    private void expireSlowSends() {
+        long now = System.nanoTime();
+        for (Subscription subscription : sending) {
+            long startedAt = subscription.sendStartedAt;
+            if (startedAt != 0 && now - startedAt > sendTimeoutNanos && subscription.expire()) {
+                log.warn("잔액 구독 전송 시간 초과로 해지 - userId={}, 대기 {}ms",
+                        subscription.userId, TimeUnit.NANOSECONDS.toMillis(now - startedAt));
+            }
+        }
+    }
+
+    /**
+     * 막힌 전송 수만큼 전송 스레드를 늘리거나 줄인다. 늘릴 때는 최대 크기를 먼저, 줄일 때는 기본 크기를 먼저 바꾼다.
+     *
+     * @return 늘렸으면 true (최대 senderThreads 개까지)
+     */
+    private synchronized boolean resizeSenders(int delta) {
+        if (delta > 0 && stuckSenders >= senderThreads) {
+            return false;
+        }
+        stuckSenders += delta;
+        int size = senderThreads + stuckSenders;
+        if (delta > 0) {
+            senders.setMaximumPoolSize(size);
+            senders.setCorePoolSize(size);
+        } else {
+            senders.setCorePoolSize(size);
+            senders.setMaximumPoolSize(size);
+        }
+        return true;
+    }
+
+    /**
+     * 잔액을 받을 곳 (SSE 연결 등)
+     */
+    @FunctionalInterface
+    public interface Sink {
+
+        /**
+         * 보낼 때까지 막힐 수 있다. 시간을 넘기면 전송 스레드를 인터럽트한다.
+         */
+        void send(UserPoint userPoint) throws IOException;
+
+        /**
+         * 전송 실패나 시간 초과로 구독이 끝났을 때 한 번 부른다. 연결을 닫아 클라이언트가 다시 연결하게 한다.
+         *
+         * @param cause 전송 실패 원인, 또는 시간 초과
+         */
+        default void close(Exception cause) {
+        }
+    }
+
+    public final class Subscription {
+
+        private final long userId;
+        private final Sink sink;
+        // 아직 보내지 않은 최신 잔액 (최대 한 칸)
+        private final AtomicReference<UserPoint> latest = new AtomicReference<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // 이쪽에서 구독을 끝낸 원인 (전송 실패, 시간 초과). 있으면 drain 을 마치며 Sink.close 를 부른다
+        private volatile Exception failure;
+        // 전송을 시작한 시각 (System.nanoTime, 보내지 않을 때는 0)과 보내는 스레드. 스레드는 이 객체로 동기화한다
+        private volatile long sendStartedAt;
+        private Thread sendingThread;
+        // 이번 전송이 시간을 넘겼는지, 그래서 전송 스레드를 하나 더 두었는지
+        private boolean expired;
+        private boolean compensated;
+
+        private Subscription(long userId, Sink sink) {
+            this.userId = userId;
+            this.sink = sink;
+        }
+
+        /**
+         * 구독을 해지한다. 여러 번 불러도 한 번만 처리된다.
+         */
+        public void cancel() {
+            if (!cancelled.compareAndSet(false, true)) {
+                return;
+            }
+            subscriptions.computeIfPresent(userId, (k, set) -> {
+                set.remove(this);
+                return set.isEmpty() ? null : set;
+            });
+            subscriptionCount.decrementAndGet();
+            latest.set(null);
+        }
+
+        public boolean isCancelled() {
+            return cancelled.get();
+        }
+
+        /**
+         * 최신 잔액으로 바꿔 두고, 전송 작업이 예약되어 있지 않으면 예약한다. (유저 락 안에서 호출된다)
+         */
+        private void offer(UserPoint userPoint) {
+            if (cancelled.get()) {
+                return;
+            }
+            latest.set(userPoint);
+            schedule();
+        }
+
+        private void send(UserPoint userPoint) throws IOException {
+            synchronized (this) {
+                sendingThread = Thread.currentThread();
+            }
+            sendStartedAt = System.nanoTime() | 1;
+            sending.add(this);
+            try {
+                sink.send(userPoint);
+            } finally {
+                sending.remove(this);
+                sendStartedAt = 0;
+                boolean release;
+                synchronized (this) {
+                    sendingThread = null;
+                    release = compensated;
+                    expired = false;
+                    compensated = false;
+                }
+                if (release) {
+                    resizeSenders(-1);
+                }
+                // 감시 스레드의 인터럽트가 다음 작업으로 넘어가지 않게 지운다
+                Thread.interrupted();
+            }
+        }
+
+        /**
+         * 시간을 넘긴 전송을 끝낸다. (감시 스레드) 이미 끝난 전송이면 false
+         */
+        private synchronized boolean expire() {
+            if (sendingThread == null || expired) {
+                return false;
+            }
+            expired = true;
+            failure = new IOException("전송이 " + TimeUnit.NANOSECONDS.toMillis(sendTimeoutNanos) + "ms 안에 끝나지 않았습니다.");
+            cancel();
+            compensated = resizeSenders(1);
+            sendingThread.interrupt();
+            return true;
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RuntimeException e) {
+                    scheduled.set(false);
+                    log.warn("잔액 구독 전송 예약 실패 - userId={}, 사유={}", userId, e.getMessage());
+                }
+            }
+        }
+
+        /**
+         * 전송 스레드에서 최신 잔액이 없을 때까지 보낸다. 예약 표시를 내린 뒤 다시 확인해야 그 사이에 들어온 값을 놓치지 않는다.
+         */
+        private void drain() {
+            try {
+                UserPoint userPoint;
+                while (!cancelled.get() && (userPoint = latest.getAndSet(null)) != null) {
+                    send(userPoint);
+                }
+            } catch (IOException | RuntimeException e) {
+                log.debug("잔액 구독 전송 실패로 해지 - userId={}, 사유={}", userId, e.getMessage());
+                if (failure == null) {
+                    failure = e;
+                }
+                cancel();
+            } finally {
+                scheduled.set(false);
+            }
+            if (failure != null) {
+                close();
+            } else if (!cancelled.get() && latest.get() != null) {
+                schedule();
+            }
+        }
+
+        private void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                sink.close(failure);
+            } catch (RuntimeException e) {
+                log.debug("잔액 구독 연결 닫기 실패 - userId={}, 사유={}", userId, e.getMessage());
+            }
+        }
+    }
+}
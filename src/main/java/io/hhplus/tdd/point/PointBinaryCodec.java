@@ -0,0 +1,161 @@
+package io.hhplus.tdd.point;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 포인트 API 의 고정 길이 바이너리 표현 (application/x-point-binary)
+ * - 서비스 간 호출에서 JSON 을 만들고 읽는 비용과 크기를 줄인다. 숫자는 모두 big-endian 이다.
+ * - 첫 바이트는 레이아웃 버전이다. 레이아웃을 바꾸면 버전을 올리고, 모르는 버전은 읽지 않는다.
+ * - UserPoint     : 버전(1) + id, point, updateMillis (8 x 3) = 25 바이트
+ * - ChargeRequest : 버전(1) + amount (8) = 9 바이트
+ * - 내역 목록      : 버전(1) + 건수(4) + 건마다 id, userId, amount (8 x 3), type 순번(1), updateMillis (8) = 5 + 33 x 건수 바이트
+ *   (내역 한 건은 파일 내역 저장소의 저널 레코드와 같은 배치다)
+ */
+public final class PointBinaryCodec {
+
+    public static final String MEDIA_TYPE = "application/x-point-binary";
+
+    private static final byte VERSION = 1;
+    private static final int HEADER_SIZE = Byte.BYTES;
+    public static final int USER_POINT_SIZE = HEADER_SIZE + Long.BYTES * 3;
+    public static final int CHARGE_REQUEST_SIZE = HEADER_SIZE + Long.BYTES;
+    private static final int HISTORY_SIZE = Long.BYTES * 4 + Byte.BYTES;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private PointBinaryCodec() {
+    }
+
+    public static byte[] encode(UserPoint userPoint) {
+        return header(USER_POINT_SIZE)
+                .putLong(userPoint.id())
+                .putLong(userPoint.point())
+                .putLong(userPoint.updateMillis())
+                .array();
+    }
+
+    public static byte[] encode(ChargeRequest request) {
+        return header(CHARGE_REQUEST_SIZE)
+                .putLong(request.amount())
+                .array();
+    }
+
+    public static byte[] encodeHistories(List<PointHistory> histories) {
+        ByteBuffer buffer = header(historiesSize(histories.size())).putInt(histories.size());
+        for (PointHistory history : histories) {
+            buffer.putLong(history.id())
+                    .putLong(history.userId())
+                    .putLong(history.amount())
+                    .put((byte) history.type().ordinal())
+                    .putLong(history.updateMillis());
+        }
+        return buffer.array();
+    }
+
+    /**
+     * @throws IllegalArgumentException 길이나 버전이 맞지 않는 경우
+     */
+    public static UserPoint decodeUserPoint(byte[] bytes) {
+        ByteBuffer buffer = open(bytes, USER_POINT_SIZE);
+        return new UserPoint(buffer.getLong(), buffer.getLong(), buffer.getLong());
+    }
+
+    /**
+     * @throws IllegalArgumentException 길이나 버전이 맞지 않는 경우
+     */
+    public static ChargeRequest decodeChargeRequest(byte[] bytes) {
+        return new ChargeRequest(open(bytes, CHARGE_REQUEST_SIZE).getLong());
+    }
+
+    /**
+     * @throws IllegalArgumentException 길이, 버전, 내역 종류가 맞지 않는 경우
+     */
+    public static List<PointHistory> decodeHistories(byte[] bytes) {
+        if (bytes.length < HEADER_SIZE + Integer.BYTES) {
+            throw new IllegalArgumentException("포인트 내역 바이너리 길이가 올바르지 않습니다. length=" + bytes.length);
+        }
+        int count = ByteBuffer.wrap(bytes, HEADER_SIZE, Integer.BYTES).getInt();
+        if (count < 0 || (long) bytes.length != historiesSize(count)) {
+            throw new IllegalArgumentException("포인트 내역 바이너리 길이가 올바르지 않습니다. count=" + count + ", length=" + bytes.length);
+        }
+        ByteBuffer buffer = open(bytes, bytes.length);
+        buffer.getInt();
+        List<PointHistory> histories = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long id = buffer.getLong();
+            long userId = buffer.getLong();
+            long amount = buffer.getLong();
+            int type = buffer.get();
+            if (type < 0 || type >= TYPES.length) {
+                throw new IllegalArgumentException("알 수 없는 포인트 내역 종류입니다. type=" + type);
+            }
+            histories.add(new PointHistory(id, userId, amount, TYPES[type], buffer.getLong()));
+        }
+        return histories;
+    }
+
+    /**
+     * Accept 헤더에서 JSON 보다 이 바이너리 표현을 먼저 원하는지 본다. 응답 ETag 를 표현마다 다르게 붙일 때 쓴다.
+     * - 품질(q)이 가장 높은 항목을 고르고, 같으면 먼저 적힌 항목을 고른다. (Spring 의 내용 협상과 같은 순서)
+     * - 와일드카드(모든 형식, application/*)는 JSON 으로 본다. 바이너리 변환기는 JSON 변환기 뒤에 등록된다. (PointBinaryConfig)
+     */
+    public static boolean preferredBy(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+        String best = null;
+        double bestQuality = 0;
+        for (String range : accept.split(",")) {
+            String[] parts = range.split(";");
+            String mediaType = parts[0].trim().toLowerCase();
+            if (!mediaType.equals(MEDIA_TYPE) && !mediaType.equals("application/json")
+                    && !mediaType.equals("application/*") && !mediaType.equals("*/*")) {
+                continue;
+            }
+            double quality = quality(parts);
+            if (quality > bestQuality) {
+                best = mediaType;
+                bestQuality = quality;
+            }
+        }
+        return MEDIA_TYPE.equals(best);
+    }
+
+    public static long historiesSize(int count) {
+        return HEADER_SIZE + Integer.BYTES + (long) HISTORY_SIZE * count;
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static ByteBuffer header(long size) {
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("바이너리로 담기에 너무 큽니다. size=" + size);
+        }
+        return ByteBuffer.allocate((int) size).put(VERSION);
+    }
+
+    private static ByteBuffer open(byte[] bytes, int expectedSize) {
+        if (bytes.length != expectedSize) {
+            throw new IllegalArgumentException("포인트 바이너리 길이가 올바르지 않습니다. expected=" + expectedSize + ", length=" + bytes.length);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("지원하지 않는 포인트 바이너리 버전입니다. version=" + version);
+        }
+        return buffer;
+    }
+}
@@ -0,0 +1,92 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * UserPoint, ChargeRequest, 포인트 내역 목록(List&lt;PointHistory&gt;)을 application/x-point-binary 로 읽고 쓴다. (PointBinaryCodec)
+ * - 다른 타입(에러 응답 등)은 다루지 않으므로 클라이언트는 Accept 에 JSON 을 낮은 품질로 함께 적는 것이 좋다.
+ *   예) Accept: application/x-point-binary, application/json;q=0.5
+ */
+public class PointBinaryHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(PointBinaryCodec.MEDIA_TYPE);
+
+    public PointBinaryHttpMessageConverter() {
+        super(MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == UserPoint.class || clazz == ChargeRequest.class;
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return (isHistoryList(type) || type instanceof Class<?> clazz && supports(clazz)) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        return (type != null && isHistoryList(type) || supports(clazz)) && canWrite(mediaType);
+    }
+
+    @Override
+    public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        byte[] bytes = StreamUtils.copyToByteArray(inputMessage.getBody());
+        try {
+            if (isHistoryList(type)) {
+                return PointBinaryCodec.decodeHistories(bytes);
+            }
+            return ResolvableType.forType(type).resolve() == UserPoint.class
+                    ? PointBinaryCodec.decodeUserPoint(bytes)
+                    : PointBinaryCodec.decodeChargeRequest(bytes);
+        } catch (IllegalArgumentException e) {
+            throw new HttpMessageNotReadableException(e.getMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return read(clazz, null, inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object value, @Nullable Type type, HttpOutputMessage outputMessage) throws IOException {
+        StreamUtils.copy(encode(value), outputMessage.getBody());
+    }
+
+    @Override
+    protected Long getContentLength(Object value, @Nullable MediaType contentType) {
+        if (value instanceof List<?> histories) {
+            return PointBinaryCodec.historiesSize(histories.size());
+        }
+        return (long) (value instanceof UserPoint ? PointBinaryCodec.USER_POINT_SIZE : PointBinaryCodec.CHARGE_REQUEST_SIZE);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static byte[] encode(Object value) {
+        if (value instanceof UserPoint userPoint) {
+            return PointBinaryCodec.encode(userPoint);
+        }
+        if (value instanceof ChargeRequest request) {
+            return PointBinaryCodec.encode(request);
+        }
+        return PointBinaryCodec.encodeHistories((List<PointHistory>) value);
+    }
+
+    private static boolean isHistoryList(Type type) {
+        ResolvableType resolved = ResolvableType.forType(type);
+        return List.class.isAssignableFrom(resolved.toClass()) && resolved.asCollection().resolveGeneric(0) == PointHistory.class;
+    }
+}
@@ -0,0 +1,10 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 변경 피드의 한 건. sequence 는 전체 유저에 걸쳐 1 부터 하나씩 늘어난다.
+ */
+public record PointChange(
+        long sequence,
+        PointHistory history
+) {
+}
@@ -0,0 +1,21 @@
+package io.hhplus.tdd.point;
+
+import java.util.List;
+
+/**
+ * 변경 피드 조회 결과
+ *
+ * @param epoch   피드를 구분하는 값. 다음 요청에 함께 넘긴다. (재시작하면 바뀐다)
+ * @param from    요청한 시작 순번
+ * @param next    다음에 요청할 시작 순번 (받은 변경이 없으면 from 과 같다)
+ * @param head    조회 시점에 발급된 마지막 순번
+ * @param changes 순번 순으로 정렬된 변경
+ */
+public record PointChangeBatch(
+        String epoch,
+        long from,
+        long next,
+        long head,
+        List<PointChange> changes
+) {
+}
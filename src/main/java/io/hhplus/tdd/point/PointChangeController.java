@@ -0,0 +1,54 @@
+package io.hhplus.tdd.point;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/point")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class PointChangeController {
+
+    private static final Logger log = LoggerFactory.getLogger(PointChangeController.class);
+
+    private final PointChangeFeed pointChangeFeed;
+
+    public PointChangeController(PointChangeFeed pointChangeFeed) {
+        this.pointChangeFeed = pointChangeFeed;
+    }
+
+    /**
+     * 포인트 변경 피드를 조회하는 API (롱 폴링)
+     * - 응답의 epoch 와 next 를 다음 요청의 epoch 와 from 으로 넘기면 빠짐없이 이어 읽는다.
+     * - 보관 기간이 지난 순번, 아직 발급되지 않은 순번, 다른 epoch 를 요청하면 410 을 돌려준다.
+     *   유저별 내역 조회로 다시 맞춘 뒤 epoch 없이 head 다음부터 읽는다.
+     *
+     * @param epoch      마지막으로 받은 epoch (처음이면 생략)
+     * @param from       읽기 시작할 순번 (1 부터)
+     * @param limit      최대 건수 (1 ~ 1000, 기본 100)
+     * @param waitMillis 변경이 없을 때 기다릴 시간 (0 ~ 30000, 기본 0)
+     */
+    @GetMapping("changes")
+    public CompletableFuture<PointChangeBatch> changes(@RequestParam(required = false) String epoch,
+                                                       @RequestParam(defaultValue = "1") long from,
+                                                       @RequestParam(defaultValue = "100") int limit,
+                                                       @RequestParam(defaultValue = "0") long waitMillis) {
+        try {
+            return pointChangeFeed.poll(epoch, from, limit, waitMillis);
+        } catch (IllegalArgumentException e) {
+            log.warn("변경 피드 조회 실패: from={}, limit={}, 사유={}", from, limit, e.getMessage());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IllegalStateException e) {
+            log.warn("변경 피드 조회 실패: epoch={}, from={}, 사유={}", epoch, from, e.getMessage());
+            throw new ResponseStatusException(HttpStatus.GONE, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.storage.HistoryStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 포인트 변경 피드 (CDC)
+ * - 내역이 저장될 때마다 전체 유저에 걸쳐 하나씩 늘어나는 순번을 붙여 발행한다. 소비자는 받은 마지막 순번 다음부터 이어서 읽는다.
+ * - 최근 변경은 고정 크기 링 버퍼에 내역 그대로 담는다.
+ * - 버퍼에서 밀려난 변경은 (유저 ID, 내역 ID) 만 담는 더 큰 색인 링에 남겨 두고, 뒤처진 소비자에게는 내역 저장소에서 다시 읽어 준다.
+ *   색인에서도 밀려난 순번을 요청하면 IllegalStateException 을 던진다. (유저별 내역 조회로 다시 맞춰야 한다)
+ * - 순번은 메모리에만 있어 재시작하면 1 부터 다시 붙는다. 시작할 때마다 새 epoch 를 만들어 응답에 싣고,
+ *   소비자가 넘긴 epoch 가 다르거나 아직 발급되지 않은 순번(head + 1 보다 큰)을 요청하면 IllegalStateException 을 던진다.
+ *   (재시작 전 순번으로 새 피드의 다른 변경을 받지 않게 한다)
+ * - 각 칸은 순번을 함께 기록하고, 읽는 쪽은 기대한 순번일 때만 받는다. 아직 쓰는 중인 칸(앞 순번)을 만나면 거기서 멈추므로 순서가 건너뛰지 않는다.
+ *   칸의 순번은 늘기만 한다. 순번을 받고 늦게 쓰는 발행이 다음 바퀴 변경을 덮으면 그 순번을 기다리는 소비자가 멈추기 때문이다.
+ * - 발행은 유저 락 안에서 호출되므로 락 없이 칸에 쓰고, 기다리는 소비자 깨우기는 pointTaskExecutor 로 넘긴다.
+ */
+@Component
+public class PointChangeFeed implements PointHistoryListener {
+
+    private static final Logger log = LoggerFactory.getLogger(PointChangeFeed.class);
+
+    public static final int MAX_LIMIT = 1000;
+    public static final long MAX_WAIT_MILLIS = 30_000;
+
+    private final HistoryStore historyStore;
+    private final Executor wakeUpExecutor;
+
+    private final String epoch = UUID.randomUUID().toString();
+    private final AtomicLong sequence = new AtomicLong();
+
+    // 최근 변경 (순번 & bufferMask 칸)
+    private final int bufferMask;
+    private final AtomicReferenceArray<PointChange> buffer;
+
+    // 버퍼에서 밀려난 변경을 내역 저장소에서 찾기 위한 색인 (순번 & indexMask 칸)
+    // 칸의 순번을 쓰기 전에 -순번으로 바꿔 두고, 다 쓴 뒤 순번을 기록한다
+    private final int indexMask;
+    private final long[] indexUserIds;
+    private final long[] indexHistoryIds;
+    private final AtomicLongArray indexSequences;
+
+    // 다음 발행을 기다리는 소비자가 있을 때만 만든다
+    private final AtomicReference<CompletableFuture<Void>> nextPublish = new AtomicReference<>();
+
+    /**
+     * @param bufferSize 내역을 그대로 담아 둘 최근 변경 수 (2의 거듭제곱으로 올림)
+     * @param indexSize  내역 저장소에서 다시 읽어 줄 수 있는 최근 변경 수 (2의 거듭제곱으로 올림, bufferSize 이상)
+     */
+    @Autowired
+    public PointChangeFeed(PointService pointService,
+                           HistoryStore historyStore,
+                           @Qualifier("pointTaskExecutor") Executor wakeUpExecutor,
+                           @Value("${point.changes.buffer-size:65536}") int bufferSize,
+                           @Value("${point.changes.index-size:1048576}") int indexSize) {
+        if (bufferSize <= 0 || indexSize < bufferSize || indexSize > (1 << 30)) {
+            throw new IllegalArgumentException("변경 피드 설정이 올바르지 않습니다. bufferSize=" + bufferSize + ", indexSize=" + indexSize);
+        }
+        this.historyStore = historyStore;
+        this.wakeUpExecutor = wakeUpExecutor;
+
+        int bufferCapacity = powerOfTwo(bufferSize);
+        this.bufferMask = bufferCapacity - 1;
+        this.buffer = new AtomicReferenceArray<>(bufferCapacity);
+
+        int indexCapacity = powerOfTwo(indexSize);
+        this.indexMask = indexCapacity - 1;
+        this.indexUserIds = new long[indexCapacity];
+        this.indexHistoryIds = new long[indexCapacity];
+        this.indexSequences = new AtomicLongArray(indexCapacity);
+
+        pointService.addHistoryListener(this);
+    }
+
+    @Override
+    public void onHistoryRecorded(PointHistory history) {
+        long seq = sequence.incrementAndGet();
+
+        int slot = (int) (seq & indexMask);
+        if (claimIndexSlot(slot, seq)) {
+            indexUserIds[slot] = history.userId();
+            indexHistoryIds[slot] = history.id();
+            indexSequences.set(slot, seq);
+        }
+
+        // 순번을 받은 뒤 늦게 도착했으면 그새 같은 칸에 쓴 다음 바퀴 변경을 덮지 않는다
+        PointChange change = new PointChange(seq, history);
+        buffer.accumulateAndGet((int) (seq & bufferMask), change,
+                (current, mine) -> current != null && current.sequence() > mine.sequence() ? current : mine);
+
+        if (nextPublish.get() != null) {
+            CompletableFuture<Void> waiting = nextPublish.getAndSet(null);
+            if (waiting != null) {
+                waiting.complete(null);
+            }
+        }
+    }
+
+    /**
+     * 이 피드의 순번을 구분하는 값. 시작할 때마다 바뀐다.
+     */
+    public String epoch() {
+        return epoch;
+    }
+
+    /**
+     * 마지막으로 발급된 순번 (발행 전이면 0)
+     */
+    public long head() {
+        return sequence.get();
+    }
+
+    public PointChangeBatch read(long from, int limit) {
+        return read(null, from, limit);
+    }
+
+    /**
+     * from 순번부터 최대 limit 건을 읽는다. 아직 발행된 변경이 없으면 빈 결과를 바로 돌려준다.
+     *
+     * @param epoch 소비자가 마지막으로 받은 epoch. 처음 읽으면 null
+     * @throws IllegalArgumentException from 이 1 보다 작거나 limit 이 범위를 벗어난 경우
+     * @throws IllegalStateException    epoch 가 다르거나, from 이 색인에서도 밀려났거나 아직 발급되지 않아 이어 읽을 수 없는 경우
+     */
+    public PointChangeBatch read(String epoch, long from, int limit) {
+        if (from < 1) {
+            throw new IllegalArgumentException("시작 순번은 1 이상이어야 합니다.");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("조회 건수는 1 이상 " + MAX_LIMIT + " 이하여야 합니다.");
+        }
+        if (epoch != null && !epoch.equals(this.epoch)) {
+            throw new IllegalStateException("변경 피드가 다시 시작되었습니다. epoch=" + epoch + ", 현재 epoch=" + this.epoch);
+        }
+        long head = sequence.get();
+        if (from > head + 1) {
+            throw new IllegalStateException("아직 발급되지 않은 순번입니다. from=" + from + ", head=" + head);
+        }
+        long oldestIndexed = Math.max(1, head - indexMask);
+        if (from < oldestIndexed) {
+            throw new IllegalStateException("보관 기간이 지난 변경입니다. from=" + from + ", 가장 오래된 순번=" + oldestIndexed);
+        }
+        long oldestBuffered = Math.max(1, head - bufferMask);
+
+        List<PointChange> changes = new ArrayList<>();
+        long next = from;
+        if (next < oldestBuffered) {
+            next = readFromHistoryStore(next, Math.min(oldestBuffered, from + limit), changes);
+            if (next < oldestBuffered) {
+                return new PointChangeBatch(this.epoch, from, next, head, changes);
+            }
+        }
+        while (changes.size() < limit && next <= head) {
+            PointChange change = buffer.get((int) (next & bufferMask));
+            if (change == null || change.sequence() != next) {
+                // 아직 쓰는 중이거나 그새 밀려났다. 다음 조회에서 이어 읽는다.
+                break;
+            }
+            changes.add(change);
+            next++;
+        }
+        return new PointChangeBatch(this.epoch, from, next, head, changes);
+    }
+
+    /**
+     * 롱 폴링. from 이후 변경이 있으면 바로, 없으면 발행될 때까지 최대 waitMillis 기다렸다가 돌려준다.
+     * 기다리는 동안 스레드를 점유하지 않고, 시간이 지나면 빈 결과로 완료된다.
+     */
+    public CompletableFuture<PointChangeBatch> poll(long from, int limit, long waitMillis) {
+        return poll(null, from, limit, waitMillis);
+    }
+
+    /**
+     * @param epoch 소비자가 마지막으로 받은 epoch. 처음 읽으면 null
+     */
+    public CompletableFuture<PointChangeBatch> poll(String epoch, long from, int limit, long waitMillis) {
+        if (waitMillis < 0 || waitMillis > MAX_WAIT_MILLIS) {
+            throw new IllegalArgumentException("대기 시간은 0 이상 " + MAX_WAIT_MILLIS + "ms 이하여야 합니다.");
+        }
+        PointChangeBatch batch = read(epoch, from, limit);
+        if (!batch.changes().isEmpty() || waitMillis == 0) {
+            return CompletableFuture.completedFuture(batch);
+        }
+        CompletableFuture<PointChangeBatch> result = new CompletableFuture<>();
+        awaitChange(from, limit, batch, result);
+        return result.completeOnTimeout(batch, waitMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 다음 발행 신호를 먼저 걸어 두고 다시 읽는다. 그 사이에 발행된 변경은 다시 읽을 때 보이고,
+     * 이후에 발행된 변경은 신호로 깨어나므로 놓치지 않는다.
+     */
+    private void awaitChange(long from, int limit, PointChangeBatch empty, CompletableFuture<PointChangeBatch> result) {
+        CompletableFuture<Void> published = nextPublish.updateAndGet(f -> f == null ? new CompletableFuture<>() : f);
+        try {
+            PointChangeBatch batch = read(from, limit);
+            if (!batch.changes().isEmpty()) {
+                result.complete(batch);
+                return;
+            }
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+            return;
+        }
+        published.thenRunAsync(() -> {
+            if (!result.isDone()) {
+                awaitChange(from, limit, empty, result);
+            }
+        }, wakeUpExecutor).exceptionally(e -> {
+            // 깨울 스레드가 없으면 빈 결과로 끝내고 소비자가 다시 요청하게 한다
+            log.warn("변경 피드 대기 소비자 깨우기 실패 - from={}, 사유={}", from, e.getMessage());
+            result.complete(empty);
+            return null;
+        });
+    }
+
+    /**
+     * 색인 칸을 쓰기 중(-순번)으로 바꾼다.
+     * 같은 칸에 다음 바퀴 변경이 이미 들어왔으면 쓰지 않고, 앞 바퀴 변경을 쓰는 중이면 끝날 때까지 기다린다.
+     *
+     * @return 칸을 차지했으면 true
+     */
+    private boolean claimIndexSlot(int slot, long seq) {
+        while (true) {
+            long current = indexSequences.get(slot);
+            if (Math.abs(current) > seq) {
+                return false;
+            }
+            if (current < 0) {
+                Thread.onSpinWait();
+            } else if (indexSequences.compareAndSet(slot, current, -seq)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 색인에 남은 (유저 ID, 내역 ID) 로 내역 저장소에서 변경을 다시 읽는다.
+     * 색인을 먼저 모두 읽은 뒤 유저별로 필요한 내역 id 만 한 번에 조회한다. (selectByIds)
+     *
+     * @return 다음에 읽을 순번
+     */
+    private long readFromHistoryStore(long from, long to, List<PointChange> changes) {
+        long[] userIds = new long[(int) (to - from)];
+        long[] historyIds = new long[userIds.length];
+        Map<Long, List<Long>> historyIdsByUser = new HashMap<>();
+        long next = from;
+        while (next < to) {
+            int slot = (int) (next & indexMask);
+            if (indexSequences.get(slot) != next) {
+                break;
+            }
+            long userId = indexUserIds[slot];
+            long historyId = indexHistoryIds[slot];
+            if (indexSequences.get(slot) != next) {
+                // 읽는 사이에 새 변경이 덮어썼다
+                break;
+            }
+            int i = (int) (next - from);
+            userIds[i] = userId;
+            historyIds[i] = historyId;
+            historyIdsByUser.computeIfAbsent(userId, id -> new ArrayList<>()).add(historyId);
+            next++;
+        }
+
+        Map<Long, PointHistory> found = new HashMap<>();
+        historyIdsByUser.forEach((userId, ids) -> {
+            long[] sorted = ids.stream().mapToLong(Long::longValue).sorted().toArray();
+            for (PointHistory history : historyStore.selectByIds(userId, sorted)) {
+                found.put(history.id(), history);
+            }
+        });
+        for (int i = 0; i < next - from; i++) {
+            PointHistory history = found.get(historyIds[i]);
+            if (history == null) {
+                log.warn("변경 피드 색인에 있는 내역을 찾지 못해 건너뜁니다. sequence={}, userId={}, historyId={}",
+                        from + i, userIds[i], historyIds[i]);
+            } else {
+                changes.add(new PointChange(from + i, history));
+            }
+        }
+        return next;
+    }
+
+    private static int powerOfTwo(int size) {
+        int capacity = 1;
+        while (capacity < size) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
@@ -2,14 +2,19 @@ package io.hhplus.tdd.point;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
+import java.util.OptionalLong;
 
 @RestController
 @RequestMapping("/point")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class PointController {
 
     private static final Logger log = LoggerFactory.getLogger(PointController.class);
@@ -24,26 +29,61 @@ public class PointController {
     /**
      * TODO - 특정 유저의 포인트를 조회하는 기능을 작성해주세요.
      */
+    /**
+     * 특정 유저의 포인트를 조회하는 API
+     * - 응답에 ETag 를 붙이고, If-None-Match 가 맞으면 본문 없이 304 로 응답한다.
+     * - Accept: application/x-point-binary 로 요청하면 바이너리로 응답한다. (PointBinaryCodec)
+     */
     @GetMapping("{id}")
-    public UserPoint point( @PathVariable long id) {
+    public ResponseEntity<UserPoint> point(@PathVariable long id,
+                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                           @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
 
 //        return new UserPoint(0, 0, 0);
-        return pointService.getPoint(id);
+        UserPoint userPoint = pointService.getPoint(id);
+        String etag = PointEtags.representedAs(PointEtags.balance(userPoint), accept);
+        if (PointEtags.matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(userPoint);
 
     }
 
     /**
      * TODO - 특정 유저의 포인트 충전/이용 내역을 조회하는 기능을 작성해주세요.
      */
+    /**
+     * 특정 유저의 포인트 충전/이용 내역을 조회하는 API
+     * - 마지막 내역 id 를 이미 알고 If-None-Match 가 맞으면 내역을 읽지 않고 304 로 응답한다.
+     * - 내역 id 가 저장 순서대로 늘지 않는 저장소(jdbc 여러 노드)면 읽은 목록 자체로 ETag 를 만든다.
+     * - Accept: application/x-point-binary 로 요청하면 바이너리로 응답한다. (PointBinaryCodec)
+     */
     @GetMapping("{id}/histories")
-    public List<PointHistory> history(@PathVariable long id)
+    public ResponseEntity<List<PointHistory>> history(@PathVariable long id,
+                                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept)
     {
+        OptionalLong lastHistoryId = pointService.lastHistoryId(id);
+        if (lastHistoryId.isPresent()) {
+            String etag = PointEtags.representedAs(PointEtags.histories(lastHistoryId.getAsLong()), accept);
+            if (PointEtags.matches(ifNoneMatch, etag)) {
+                return notModified(etag);
+            }
+        }
+        List<PointHistory> histories;
         try {
-            return pointService.getHistories(id);
+            histories = pointService.getHistories(id);
         } catch (IllegalArgumentException e) {
             log.warn("포인트 히스토리 조회 실패: userId={}, 사유={}", id, e.getMessage());
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
         }
+        String etag = PointEtags.representedAs(pointService.historyIdsIncrease()
+                ? PointEtags.histories(histories.get(histories.size() - 1).id())
+                : PointEtags.histories(histories), accept);
+        if (PointEtags.matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(histories);
     }
 
     /**
@@ -52,15 +92,17 @@ public class PointController {
     /**
      * 특정 유저의 포인트를 충전하는 API
      *
-     * @param id      충전할 유저의 ID
-     * @param request 충전할 포인트가 담긴 요청 DTO
+     * @param id            충전할 유저의 ID
+     * @param request       충전할 포인트가 담긴 요청 DTO (JSON 또는 Content-Type: application/x-point-binary)
+     * @param timeoutMillis 요청 처리 마감 시간(ms). 넘기면 503 으로 응답한다.
      * @return 충전 후 UserPoint 객체 반환
      */
     @PatchMapping("{id}/charge")
     public UserPoint charge(@PathVariable long id,
-                            @RequestBody ChargeRequest request) {
+                            @RequestBody ChargeRequest request,
+                            @RequestHeader(value = RequestTimeout.HEADER, defaultValue = RequestTimeout.DEFAULT_MILLIS) long timeoutMillis) {
         log.info("PATCH /point/{}/charge 요청됨. amount={}", id, request.amount());
-        return pointService.chargePoint(id, request.amount());
+        return pointService.chargePoint(id, request.amount(), RequestTimeout.deadline(timeoutMillis));
     }
 
     /**
@@ -69,9 +111,33 @@ public class PointController {
     @PatchMapping("{id}/use")
     public UserPoint use(
             @PathVariable long id,
-            @RequestBody long amount)
+            @RequestBody long amount,
+            @RequestHeader(value = RequestTimeout.HEADER, defaultValue = RequestTimeout.DEFAULT_MILLIS) long timeoutMillis)
     {
         log.info("PATCH /point/{}/use 요청됨. amount={}", id, amount);
-        return pointService.usePoint(id, amount);
+        return pointService.usePoint(id, amount, RequestTimeout.deadline(timeoutMillis));
+    }
+
+    /**
+     * 한 유저의 포인트를 다른 유저에게 옮기는 API
+     *
+     * @param request       보내는 유저, 받는 유저, 금액
+     * @param timeoutMillis 요청 처리 마감 시간(ms). 넘기면 503 으로 응답한다.
+     * @return 이체 후 두 유저의 UserPoint
+     */
+    @PostMapping("transfer")
+    public PointTransfer transfer(@RequestBody TransferRequest request,
+                                  @RequestHeader(value = RequestTimeout.HEADER, defaultValue = RequestTimeout.DEFAULT_MILLIS) long timeoutMillis) {
+        log.info("POST /point/transfer 요청됨. from={}, to={}, amount={}", request.from(), request.to(), request.amount());
+        try {
+            return pointService.transferPoint(request.from(), request.to(), request.amount(), RequestTimeout.deadline(timeoutMillis));
+        } catch (IllegalArgumentException e) {
+            log.warn("포인트 이체 실패: from={}, to={}, 사유={}", request.from(), request.to(), e.getMessage());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
     }
 }
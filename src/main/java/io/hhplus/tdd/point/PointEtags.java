@@ -0,0 +1,69 @@
+package io.hhplus.tdd.point;
+
+import java.util.List;
+
+/**
+ * 포인트 조회 응답의 강한(strong) ETag
+ * - 잔액: 포인트와 마지막 변경 시각이 같으면 응답 본문도 같다. (유저 id 는 URL 에 있다)
+ * - 내역: 이 노드만 내역 저장소에 쓰면 유저 내역은 id 순으로 덧붙기만 하므로 마지막 내역 id 가 같으면 목록도 같다.
+ *   내역 id 는 노드의 내역 저장소가 발급하므로 주 노드와 팔로워의 ETag 는 다를 수 있다. (다시 받을 뿐 틀린 304 는 없다)
+ * - 여러 노드가 id 구간을 나눠 받아 쓰는 저장소(jdbc)는 작은 id 가 나중에 끼어들 수 있으므로, 목록 자체(건수와 id 해시)로 만든다.
+ * - 같은 데이터라도 JSON 과 바이너리(PointBinaryCodec) 본문은 다르므로 표현마다 다른 ETag 를 붙인다. (representedAs)
+ */
+public final class PointEtags {
+
+    private PointEtags() {
+    }
+
+    public static String balance(UserPoint userPoint) {
+        return "\"p" + Long.toHexString(userPoint.updateMillis()) + "." + Long.toHexString(userPoint.point()) + "\"";
+    }
+
+    public static String histories(long lastHistoryId) {
+        return "\"h" + Long.toHexString(lastHistoryId) + "\"";
+    }
+
+    /**
+     * 목록 자체로 만든 내역 ETag. 마지막 id 가 그대로여도 사이에 내역이 끼어들면 바뀐다.
+     */
+    public static String histories(List<PointHistory> histories) {
+        long hash = histories.size();
+        for (PointHistory history : histories) {
+            hash = hash * 0x9E3779B97F4A7C15L + history.id();
+        }
+        return "\"l" + Integer.toHexString(histories.size()) + "." + Long.toHexString(hash) + "\"";
+    }
+
+    /**
+     * Accept 헤더로 고른 표현의 ETag. 바이너리면 끝에 표시를 붙인다.
+     */
+    public static String representedAs(String etag, String accept) {
+        return PointBinaryCodec.preferredBy(accept) ? etag.substring(0, etag.length() - 1) + ".b\"" : etag;
+    }
+
+    /**
+     * If-None-Match 헤더가 ETag 와 맞는지 본다. (RFC 9110 13.1.2, 약한 비교)
+     * - "*" 는 무엇이든 맞고, 쉼표로 나열된 태그 중 하나라도 같으면 맞는다. W/ 접두어는 무시한다.
+     *
+     * @param ifNoneMatch 요청 헤더 값. 없으면 null
+     * @param etag        따옴표를 포함한 ETag
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,47 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 테이블 호출(블로킹)을 서블릿 스레드 대신 실행할 전용 스레드 풀
+ * - 작업 큐 크기를 제한하고, 가득 차면 대기시키지 않고 거절한다. (TaskRejectedException)
+ * - 포인트 풀은 @Qualifier("pointTaskExecutor") 로만 주입한다.
+ * - Executor 빈이 하나라도 있으면 Boot 가 기본 applicationTaskExecutor 를 만들지 않으므로,
+ *   @Async 와 MVC 비동기 처리가 포인트 풀을 쓰지 않도록 Boot 와 같은 설정(spring.task.execution.*)으로 기본 풀을 따로 둔다.
+ */
+@Configuration
+public class PointExecutorConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor pointTaskExecutor(
+            @Value("${point.executor.pool-size:32}") int poolSize,
+            @Value("${point.executor.queue-capacity:256}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setKeepAliveSeconds(60);
+        executor.setThreadNamePrefix("point-io-");
+        executor.setDaemon(true);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    @Lazy
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    @ConditionalOnMissingBean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+}
@@ -0,0 +1,12 @@
+package io.hhplus.tdd.point;
+
+/**
+ * PointService 가 포인트 내역을 남길 때마다 호출되는 리스너
+ * - 해당 유저의 락 안에서 내역 저장 직후 호출되므로, 같은 유저의 내역은 저장된 순서대로 전달된다.
+ * - 락을 잡고 있는 동안 호출되므로 오래 걸리는 작업을 하면 안 된다. 리스너 예외는 포인트 처리를 실패시키지 않는다.
+ */
+@FunctionalInterface
+public interface PointHistoryListener {
+
+    void onHistoryRecorded(PointHistory history);
+}
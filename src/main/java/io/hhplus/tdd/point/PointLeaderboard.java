@@ -0,0 +1,110 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.storage.BalanceStore;
+import io.hhplus.tdd.storage.HistoryStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * 잔액 상위 N명 리더보드
+ * - (잔액 내림차순, userId 오름차순)으로 정렬된 skip-list 를 잔액이 바뀔 때마다 갱신하므로, 상위 N명 조회는 앞에서 N개만 읽는다.
+ * - 잔액 갱신은 유저 락 안에서 호출되어 같은 유저의 갱신이 겹치지 않는다. 새 위치를 먼저 넣고 이전 위치를 빼므로,
+ *   조회가 그 사이에 끼면 같은 유저가 두 번 보일 수 있어 조회할 때 userId 로 한 번 더 거른다.
+ * - 잔액이 0 인 유저는 담지 않는다.
+ * - 시작할 때(요청을 받기 전) 내역 저장소에 남아 있는 유저의 잔액으로 채운다. (file 저장소는 재시작해도 순위가 이어진다)
+ * - 다른 노드도 같은 저장소에 써서 이 노드가 모든 유저를 볼 수 없으면(jdbc) 순위를 담지 않고, 조회할 때마다 잔액 저장소에서 상위 N명을 읽는다.
+ * - 샤딩(point.shard.enabled)하면 노드마다 저장소가 따로이므로 이 노드가 담당하는 유저의 순위만 돌려준다.
+ */
+@Component
+public class PointLeaderboard implements PointBalanceListener {
+
+    private static final Logger log = LoggerFactory.getLogger(PointLeaderboard.class);
+
+    public static final int MAX_LIMIT = 100;
+
+    private static final Comparator<Rank> ORDER = Comparator.comparingLong(Rank::point).reversed()
+            .thenComparingLong(Rank::userId);
+
+    private final NavigableSet<Rank> ranking = new ConcurrentSkipListSet<>(ORDER);
+    // 유저별 현재 리더보드에 들어가 있는 잔액
+    private final Map<Long, Long> currentPoints = new ConcurrentHashMap<>();
+    private final BalanceStore balanceStore;
+    private final boolean local;
+
+    public PointLeaderboard(PointService pointService, BalanceStore balanceStore, HistoryStore historyStore) {
+        this.balanceStore = balanceStore;
+        this.local = historyStore.forEachUserId(userId -> onBalanceUpdated(balanceStore.selectById(userId)));
+        if (local) {
+            log.info("리더보드를 잔액 저장소로 채웠습니다. 유저 {}명", currentPoints.size());
+            pointService.addBalanceListener(this);
+        } else {
+            log.info("내역 저장소가 모든 유저를 알려 줄 수 없어 리더보드를 조회할 때마다 잔액 저장소에서 읽습니다. store={}",
+                    balanceStore.getClass().getSimpleName());
+        }
+    }
+
+    @Override
+    public void onBalanceUpdated(UserPoint userPoint) {
+        long userId = userPoint.id();
+        long point = userPoint.point();
+        Long previous = point > 0 ? currentPoints.put(userId, point) : currentPoints.remove(userId);
+        if (previous != null && previous == point) {
+            return;
+        }
+        if (point > 0) {
+            ranking.add(new Rank(point, userId));
+        }
+        if (previous != null) {
+            ranking.remove(new Rank(previous, userId));
+        }
+    }
+
+    /**
+     * 잔액 상위 limit 명
+     *
+     * @param limit 1 ~ MAX_LIMIT
+     */
+    public List<LeaderboardEntry> top(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit 은 1 이상 " + MAX_LIMIT + " 이하여야 합니다.");
+        }
+        List<LeaderboardEntry> entries = new ArrayList<>(limit);
+        if (!local) {
+            for (UserPoint userPoint : balanceStore.selectTop(limit)) {
+                entries.add(new LeaderboardEntry(entries.size() + 1, userPoint.id(), userPoint.point()));
+            }
+            return entries;
+        }
+        Set<Long> seen = new HashSet<>();
+        for (Rank rank : ranking) {
+            if (entries.size() == limit) {
+                break;
+            }
+            if (seen.add(rank.userId())) {
+                entries.add(new LeaderboardEntry(entries.size() + 1, rank.userId(), rank.point()));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * 리더보드에 들어 있는 유저 수 (잔액이 0 보다 큰 유저). 저장소에서 읽는 리더보드는 0
+     */
+    public int size() {
+        return currentPoints.size();
+    }
+
+    private record Rank(long point, long userId) {
+    }
+}
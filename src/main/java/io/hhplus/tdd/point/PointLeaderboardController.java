@@ -0,0 +1,43 @@
+package io.hhplus.tdd.point;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/point")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class PointLeaderboardController {
+
+    private static final Logger log = LoggerFactory.getLogger(PointLeaderboardController.class);
+
+    private final PointLeaderboard pointLeaderboard;
+
+    public PointLeaderboardController(PointLeaderboard pointLeaderboard) {
+        this.pointLeaderboard = pointLeaderboard;
+    }
+
+    /**
+     * 잔액 상위 유저를 조회하는 API
+     * - 샤딩하면 이 노드가 담당하는 유저 안에서의 순위다.
+     *
+     * @param limit 조회할 유저 수 (1 ~ 100, 기본 10)
+     */
+    @GetMapping("leaderboard")
+    public List<LeaderboardEntry> leaderboard(@RequestParam(defaultValue = "10") int limit) {
+        try {
+            return pointLeaderboard.top(limit);
+        } catch (IllegalArgumentException e) {
+            log.warn("리더보드 조회 실패: limit={}, 사유={}", limit, e.getMessage());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package io.hhplus.tdd.point;
+
+import java.util.Arrays;
+
+/**
+ * 한 유저의 포인트 묶음(lot) 장부
+ * - 만료 시각 오름차순으로 정렬된 long 배열 두 개(만료 시각, 남은 양)의 [head, tail) 구간에 담는다.
+ * - 충전은 보통 가장 늦은 만료 시각이라 맨 뒤에 붙고, 사용/만료는 맨 앞(head)부터 꺼내므로 묶음이 많아도 꺼낸 만큼만 비용이 든다.
+ * - 스레드 안전하지 않다. 유저 락 안에서만 다룬다.
+ */
+final class PointLotBook {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] expiresAt = new long[INITIAL_CAPACITY];
+    private long[] amounts = new long[INITIAL_CAPACITY];
+    private int head;
+    private int tail;
+    private long total;
+
+    // 만료 색인에 이 유저를 등록해 둔 가장 이른 버킷 (등록 전이면 Long.MAX_VALUE)
+    long indexedBucket = Long.MAX_VALUE;
+
+    long total() {
+        return total;
+    }
+
+    int size() {
+        return tail - head;
+    }
+
+    boolean isEmpty() {
+        return head == tail;
+    }
+
+    /**
+     * 가장 먼저 만료되는 묶음의 만료 시각. 비어 있으면 Long.MAX_VALUE
+     */
+    long earliestExpiresAt() {
+        return isEmpty() ? Long.MAX_VALUE : expiresAt[head];
+    }
+
+    void add(long expiry, long amount) {
+        if (amount <= 0) {
+            return;
+        }
+        total += amount;
+        if (!isEmpty() && expiresAt[tail - 1] <= expiry) {
+            if (expiresAt[tail - 1] == expiry) {
+                amounts[tail - 1] += amount;
+                return;
+            }
+            ensureCapacity();
+            expiresAt[tail] = expiry;
+            amounts[tail] = amount;
+            tail++;
+            return;
+        }
+
+        // 이체/예약 취소로 더 이른 만료 시각의 묶음이 들어오면 정렬 위치에 끼워 넣는다
+        int pos = upperBound(expiry);
+        if (pos > head && expiresAt[pos - 1] == expiry) {
+            amounts[pos - 1] += amount;
+            return;
+        }
+        ensureCapacity();
+        pos = upperBound(expiry); // ensureCapacity 가 배열을 당겼을 수 있다
+        System.arraycopy(expiresAt, pos, expiresAt, pos + 1, tail - pos);
+        System.arraycopy(amounts, pos, amounts, pos + 1, tail - pos);
+        expiresAt[pos] = expiry;
+        amounts[pos] = amount;
+        tail++;
+    }
+
+    /**
+     * 가장 오래된(먼저 만료되는) 묶음부터 amount 만큼 꺼낸다.
+     *
+     * @param collect true 면 꺼낸 묶음 목록을 돌려준다. false 면 PointLots.EMPTY
+     */
+    PointLots consume(long amount, boolean collect) {
+        if (amount > total) {
+            throw new IllegalStateException("묶음 합계보다 많이 꺼낼 수 없습니다. total=" + total + ", amount=" + amount);
+        }
+        long[] takenExpiresAt = collect ? new long[Math.min(size(), INITIAL_CAPACITY)] : null;
+        long[] takenAmounts = collect ? new long[Math.min(size(), INITIAL_CAPACITY)] : null;
+        int taken = 0;
+
+        long left = amount;
+        while (left > 0) {
+            long take = Math.min(amounts[head], left);
+            if (collect) {
+                if (taken == takenExpiresAt.length) {
+                    takenExpiresAt = Arrays.copyOf(takenExpiresAt, taken * 2);
+                    takenAmounts = Arrays.copyOf(takenAmounts, taken * 2);
+                }
+                takenExpiresAt[taken] = expiresAt[head];
+                takenAmounts[taken] = take;
+                taken++;
+            }
+            amounts[head] -= take;
+            left -= take;
+            if (amounts[head] == 0) {
+                head++;
+            }
+        }
+        total -= amount;
+        resetIfEmpty();
+        return collect ? new PointLots(takenExpiresAt, takenAmounts, taken) : PointLots.EMPTY;
+    }
+
+    /**
+     * 만료 시각이 now 이하인 묶음의 합계. 꺼내지는 않는다.
+     */
+    long expirable(long now) {
+        long expirable = 0;
+        for (int i = head; i < tail && expiresAt[i] <= now; i++) {
+            expirable += amounts[i];
+        }
+        return expirable;
+    }
+
+    /**
+     * 만료 시각이 now 이하인 묶음을 모두 꺼낸다.
+     *
+     * @return 만료된 포인트 합계
+     */
+    long expire(long now) {
+        long expired = 0;
+        while (head < tail && expiresAt[head] <= now) {
+            expired += amounts[head];
+            head++;
+        }
+        total -= expired;
+        resetIfEmpty();
+        return expired;
+    }
+
+    private void resetIfEmpty() {
+        if (head == tail) {
+            head = 0;
+            tail = 0;
+        }
+    }
+
+    /**
+     * [head, tail) 에서 만료 시각이 expiry 보다 큰 첫 위치
+     */
+    private int upperBound(long expiry) {
+        int low = head;
+        int high = tail;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (expiresAt[mid] <= expiry) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 맨 뒤에 한 칸을 확보한다. 앞쪽이 절반 이상 비었으면 당기고, 아니면 두 배로 늘린다.
+     */
+    private void ensureCapacity() {
+        if (tail < expiresAt.length) {
+            return;
+        }
+        int size = size();
+        long[] newExpiresAt = expiresAt;
+        long[] newAmounts = amounts;
+        if (size >= expiresAt.length / 2) {
+            newExpiresAt = new long[expiresAt.length * 2];
+            newAmounts = new long[amounts.length * 2];
+        }
+        System.arraycopy(expiresAt, head, newExpiresAt, 0, size);
+        System.arraycopy(amounts, head, newAmounts, 0, size);
+        expiresAt = newExpiresAt;
+        amounts = newAmounts;
+        head = 0;
+        tail = size;
+    }
+}
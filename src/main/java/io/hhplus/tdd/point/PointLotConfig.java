@@ -0,0 +1,45 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 포인트 유효기간(묶음 장부)과 소멸 스위퍼
+ * - 만료 색인 버킷 크기를 스위퍼 실행 간격과 같게 두어, 한 번의 스윕이 대략 한 버킷만 꺼내도록 한다.
+ * - 묶음 장부는 이 노드의 메모리에만 있다. 재시작하면 장부가 비고(file), 다른 노드의 사용은 장부에서 빠지지 않으므로(jdbc)
+ *   이미 쓴 포인트를 소멸시킬 수 있다. 이 저장소에서는 소멸을 켠 채로 시작하지 않는다. (point.lot.expire-enabled=false 로 끈다)
+ */
+@Configuration
+public class PointLotConfig {
+
+    private static final Set<String> DURABLE_STORAGE_TYPES = Set.of("file", "jdbc");
+
+    public PointLotConfig(@Value("${point.lot.expire-enabled:true}") boolean expireEnabled,
+                          @Value("${point.storage.type:memory}") String storageType) {
+        if (expireEnabled && DURABLE_STORAGE_TYPES.contains(storageType)) {
+            throw new IllegalStateException("포인트 묶음 장부는 메모리에만 남아 point.storage.type=" + storageType
+                    + " 에서는 소멸을 쓸 수 없습니다. point.lot.expire-enabled=false 로 소멸을 끄세요.");
+        }
+    }
+
+    @Bean
+    public PointLotLedger pointLotLedger(
+            @Value("${point.lot.expire-days:365}") long expireDays,
+            @Value("${point.lot.sweep-interval-millis:60000}") long sweepIntervalMillis) {
+        return new PointLotLedger(TimeUnit.DAYS.toMillis(expireDays), sweepIntervalMillis, System::currentTimeMillis);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @ConditionalOnProperty(name = "point.lot.expire-enabled", havingValue = "true", matchIfMissing = true)
+    public PointLotSweeper pointLotSweeper(
+            PointService pointService,
+            PointLotLedger pointLotLedger,
+            @Value("${point.lot.sweep-interval-millis:60000}") long sweepIntervalMillis) {
+        return new PointLotSweeper(pointService, pointLotLedger, sweepIntervalMillis);
+    }
+}
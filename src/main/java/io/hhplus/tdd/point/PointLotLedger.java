@@ -0,0 +1,200 @@
+package io.hhplus.tdd.point;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 유저별 포인트 묶음(lot) 장부와 만료 색인
+ * - 충전한 포인트는 유효기간(lotTtl)이 지나면 소멸한다. 사용/이체/예약은 가장 먼저 만료되는 묶음부터 꺼낸다.
+ * - 묶음으로 관리되지 않는 잔액(묶음 도입 전 잔액 등)은 만료되지 않으며, 가장 오래된 포인트로 보고 먼저 꺼낸다.
+ * - 만료 색인은 시간 버킷(bucketMillis) -> 유저 ID 집합이다. 유저는 가장 먼저 만료되는 묶음의 버킷에만 등록되므로,
+ *   스위퍼는 전체 유저를 훑지 않고 지금까지의 버킷에 등록된 유저만 확인한다.
+ * - 유저별 장부는 스레드 안전하지 않다. poll/requeue 를 뺀 메서드는 해당 유저의 락 안에서만 호출해야 한다.
+ */
+public class PointLotLedger {
+
+    private final long lotTtlMillis;
+    private final long bucketMillis;
+    private final LongSupplier clockMillis;
+
+    private final Map<Long, PointLotBook> books = new ConcurrentHashMap<>();
+    private final NavigableMap<Long, Set<Long>> expiryIndex = new ConcurrentSkipListMap<>();
+
+    /**
+     * @param lotTtlMillis 충전한 포인트의 유효기간(ms)
+     * @param bucketMillis 만료 색인 버킷 크기(ms). 스위퍼 실행 간격과 맞춘다.
+     * @param clockMillis  현재 시각(ms)
+     */
+    public PointLotLedger(long lotTtlMillis, long bucketMillis, LongSupplier clockMillis) {
+        if (lotTtlMillis <= 0 || bucketMillis <= 0) {
+            throw new IllegalArgumentException("포인트 유효기간 설정이 올바르지 않습니다. lotTtlMillis=" + lotTtlMillis + ", bucketMillis=" + bucketMillis);
+        }
+        this.lotTtlMillis = lotTtlMillis;
+        this.bucketMillis = bucketMillis;
+        this.clockMillis = clockMillis;
+    }
+
+    /**
+     * 기본 설정(유효기간 365일, 1분 버킷)
+     */
+    public static PointLotLedger withDefaults() {
+        return new PointLotLedger(TimeUnit.DAYS.toMillis(365), TimeUnit.MINUTES.toMillis(1), System::currentTimeMillis);
+    }
+
+    public long now() {
+        return clockMillis.getAsLong();
+    }
+
+    /**
+     * 지금 충전한 포인트를 새 묶음으로 추가한다.
+     */
+    public void add(long userId, long amount) {
+        if (amount <= 0) {
+            return;
+        }
+        PointLotBook book = books.computeIfAbsent(userId, k -> new PointLotBook());
+        book.add(now() + lotTtlMillis, amount);
+        index(userId, book);
+    }
+
+    /**
+     * 다른 곳에서 꺼낸 묶음을 만료 시각 그대로 추가한다. (이체 받기, 예약 취소/만료)
+     */
+    public void addAll(long userId, PointLots lots) {
+        if (lots.count() == 0) {
+            return;
+        }
+        PointLotBook book = books.computeIfAbsent(userId, k -> new PointLotBook());
+        for (int i = 0; i < lots.count(); i++) {
+            book.add(lots.expiresAt(i), lots.amount(i));
+        }
+        index(userId, book);
+    }
+
+    /**
+     * 잔액에서 amount 를 뺄 때 묶음에서 꺼내야 할 만큼 꺼낸다.
+     * - 묶음 합계를 넘는 잔액(묶음 밖 잔액)을 먼저 쓰고, 모자란 만큼만 가장 오래된 묶음부터 꺼낸다.
+     *
+     * @param balance 빼기 전 잔액
+     * @param collect 꺼낸 묶음 목록이 필요하면 true (이체, 예약)
+     */
+    public PointLots consume(long userId, long amount, long balance, boolean collect) {
+        PointLotBook book = books.get(userId);
+        if (book == null) {
+            return PointLots.EMPTY;
+        }
+        long untracked = Math.max(0, balance - book.total());
+        long fromLots = Math.min(amount - untracked, book.total());
+        if (fromLots <= 0) {
+            return PointLots.EMPTY;
+        }
+        PointLots lots = book.consume(fromLots, collect);
+        if (book.isEmpty()) {
+            books.remove(userId);
+        }
+        return lots;
+    }
+
+    /**
+     * now 시점에 유효기간이 지난 묶음의 합계. 장부는 바꾸지 않는다.
+     * - 잔액을 먼저 줄이고, 성공한 뒤에 같은 now 로 expire 를 호출해 장부에서 꺼낸다.
+     */
+    public long expirable(long userId, long now) {
+        PointLotBook book = books.get(userId);
+        return book == null ? 0 : book.expirable(now);
+    }
+
+    /**
+     * now 시점에 유효기간이 지난 묶음을 꺼낸다. 남은 묶음이 있으면 가장 먼저 만료되는 묶음의 버킷에 다시 등록한다.
+     *
+     * @return 소멸한 포인트 합계
+     */
+    public long expire(long userId, long now) {
+        PointLotBook book = books.get(userId);
+        if (book == null) {
+            return 0;
+        }
+        long expired = book.expire(now);
+        book.indexedBucket = Long.MAX_VALUE; // 스위퍼가 색인에서 꺼냈다
+        if (book.isEmpty()) {
+            books.remove(userId);
+        } else {
+            index(userId, book);
+        }
+        return expired;
+    }
+
+    /**
+     * 지금까지의 버킷에 등록된 유저를 색인에서 꺼낸다. (스위퍼 전용, 락 없이 호출)
+     */
+    public List<Long> pollDueUsers() {
+        long currentBucket = bucketOf(now());
+        List<Long> dueUsers = new ArrayList<>();
+        Map.Entry<Long, Set<Long>> first;
+        while ((first = expiryIndex.firstEntry()) != null && first.getKey() <= currentBucket) {
+            Set<Long> users = expiryIndex.remove(first.getKey());
+            if (users != null) {
+                dueUsers.addAll(users);
+            }
+        }
+        return dueUsers;
+    }
+
+    /**
+     * 만료 처리에 실패한 유저를 다음 스윕에서 다시 확인하도록 현재 버킷에 등록한다. (스위퍼 전용, 락 없이 호출)
+     */
+    public void requeue(long userId) {
+        addToIndex(bucketOf(now()), userId);
+    }
+
+    /**
+     * 묶음으로 관리되는 포인트 합계
+     */
+    public long lotTotal(long userId) {
+        PointLotBook book = books.get(userId);
+        return book == null ? 0 : book.total();
+    }
+
+    /**
+     * 남아 있는 묶음 수
+     */
+    public int openLots(long userId) {
+        PointLotBook book = books.get(userId);
+        return book == null ? 0 : book.size();
+    }
+
+    /**
+     * 가장 먼저 만료되는 묶음의 버킷이 이미 등록된 버킷보다 이르면 색인에 등록한다.
+     * (이전 버킷의 등록은 그대로 두고, 스위퍼가 꺼낼 때 만료할 것이 없으면 다시 등록한다)
+     */
+    private void index(long userId, PointLotBook book) {
+        long bucket = bucketOf(book.earliestExpiresAt());
+        if (bucket < book.indexedBucket) {
+            addToIndex(bucket, userId);
+            book.indexedBucket = bucket;
+        }
+    }
+
+    /**
+     * compute 로 추가해야 스위퍼가 버킷을 꺼내는 것과 겹쳐도 등록이 사라지지 않는다.
+     * (꺼낸 뒤라면 값 교체 CAS 가 실패해 새 집합을 만들어 다시 등록한다)
+     */
+    private void addToIndex(long bucket, long userId) {
+        expiryIndex.compute(bucket, (k, users) -> {
+            Set<Long> target = users == null ? ConcurrentHashMap.newKeySet() : users;
+            target.add(userId);
+            return target;
+        });
+    }
+
+    private long bucketOf(long millis) {
+        return Math.floorDiv(millis, bucketMillis);
+    }
+}
@@ -0,0 +1,81 @@
+package io.hhplus.tdd.point;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 유효기간이 지난 포인트 묶음을 주기적으로 소멸시키는 스위퍼
+ * - 전체 유저를 훑지 않고, 만료 색인에서 지금까지의 시간 버킷에 등록된 유저만 꺼내 처리한다.
+ */
+public class PointLotSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(PointLotSweeper.class);
+
+    private final PointService pointService;
+    private final PointLotLedger pointLotLedger;
+    private final long intervalMillis;
+
+    private ScheduledExecutorService scheduler;
+
+    public PointLotSweeper(PointService pointService, PointLotLedger pointLotLedger, long intervalMillis) {
+        this.pointService = pointService;
+        this.pointLotLedger = pointLotLedger;
+        this.intervalMillis = intervalMillis;
+    }
+
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "point-lot-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::sweepSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * 만료 색인에서 만료 시각이 된 유저를 꺼내 소멸 처리한다.
+     *
+     * @return 포인트가 소멸한 유저 수
+     */
+    public int sweep() {
+        List<Long> dueUsers = pointLotLedger.pollDueUsers();
+        int expiredUsers = 0;
+        for (long userId : dueUsers) {
+            try {
+                if (pointService.expirePoints(userId) > 0) {
+                    expiredUsers++;
+                }
+            } catch (RuntimeException e) {
+                log.warn("포인트 소멸 처리 실패, 다음 스윕에서 다시 시도합니다. userId={}", userId, e);
+                pointLotLedger.requeue(userId);
+            }
+        }
+        if (!dueUsers.isEmpty()) {
+            log.info("포인트 소멸 스윕 - 확인한 유저 {}명, 소멸 {}명", dueUsers.size(), expiredUsers);
+        }
+        return expiredUsers;
+    }
+
+    private void sweepSafely() {
+        try {
+            sweep();
+        } catch (RuntimeException e) {
+            log.warn("포인트 소멸 스윕 실패", e);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package io.hhplus.tdd.point;
+
+import java.util.Arrays;
+
+/**
+ * 포인트 묶음(lot) 목록. 사용/이체/예약으로 꺼낸 포인트가 어느 만료 시각의 묶음에서 나왔는지 담는다.
+ * - 이체 받은 유저, 취소된 예약은 같은 만료 시각으로 되돌려 받으므로 유효기간이 늘어나지 않는다.
+ */
+public final class PointLots {
+
+    public static final PointLots EMPTY = new PointLots(new long[0], new long[0], 0);
+
+    private final long[] expiresAt;
+    private final long[] amounts;
+    private final int count;
+
+    PointLots(long[] expiresAt, long[] amounts, int count) {
+        this.expiresAt = expiresAt;
+        this.amounts = amounts;
+        this.count = count;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public long expiresAt(int index) {
+        return expiresAt[index];
+    }
+
+    public long amount(int index) {
+        return amounts[index];
+    }
+
+    public long total() {
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total += amounts[i];
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return "PointLots{expiresAt=" + Arrays.toString(Arrays.copyOf(expiresAt, count))
+                + ", amounts=" + Arrays.toString(Arrays.copyOf(amounts, count)) + "}";
+    }
+}
@@ -0,0 +1,23 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 포인트 예약
+ *
+ * @param id              예약 ID
+ * @param userId          유저 ID
+ * @param amount          잡아둔 포인트 양
+ * @param status          예약 상태
+ * @param expiresAtMillis 이 시각까지 확정되지 않으면 자동으로 풀린다
+ */
+public record PointReservation(
+        long id,
+        long userId,
+        long amount,
+        ReservationStatus status,
+        long expiresAtMillis
+) {
+
+    public PointReservation withStatus(ReservationStatus status) {
+        return new PointReservation(id, userId, amount, status, expiresAtMillis);
+    }
+}
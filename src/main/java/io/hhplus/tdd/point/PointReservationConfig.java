@@ -0,0 +1,38 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.timer.HashedWheelTimer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 포인트 예약 만료용 타이머
+ * - 기본값(100ms x 4096칸)이면 한 바퀴가 약 7분이라 기본 예약 유지 시간(10분)은 두 바퀴 안에 만료된다.
+ * - 예약(hold)은 이 노드의 메모리에만 있다. 잔액이 재시작 뒤에도 남거나(file) 여러 노드가 함께 쓰는(jdbc) 저장소에서는
+ *   잡아둔 포인트를 돌려줄 예약이 사라지므로, 예약을 켠 채로는 시작하지 않는다. (point.reservation.enabled=false 로 끈다)
+ * - 예약을 끄면 타이머 스레드도 띄우지 않는다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "point.reservation.enabled", havingValue = "true", matchIfMissing = true)
+public class PointReservationConfig {
+
+    private static final Set<String> DURABLE_STORAGE_TYPES = Set.of("file", "jdbc");
+
+    public PointReservationConfig(@Value("${point.storage.type:memory}") String storageType) {
+        if (DURABLE_STORAGE_TYPES.contains(storageType)) {
+            throw new IllegalStateException("포인트 예약은 메모리에만 남아 point.storage.type=" + storageType
+                    + " 와 함께 쓸 수 없습니다. point.reservation.enabled=false 로 예약을 끄세요.");
+        }
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public HashedWheelTimer pointReservationTimer(
+            @Value("${point.reservation.timer.tick-millis:100}") long tickMillis,
+            @Value("${point.reservation.timer.wheel-size:4096}") int wheelSize) {
+        return new HashedWheelTimer(tickMillis, TimeUnit.MILLISECONDS, wheelSize, "point-reservation-timer");
+    }
+}
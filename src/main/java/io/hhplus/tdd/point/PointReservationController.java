@@ -0,0 +1,117 @@
+package io.hhplus.tdd.point;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 포인트 예약 API
+ * - 결제가 끝날 때까지 포인트를 잡아두고(hold), 결제 결과에 따라 확정(capture)하거나 취소(release)한다.
+ * - 확정/취소는 유저 ID 가 들어간 경로(/point/{id}/reservations/{reservationId}/...)로 부른다.
+ *   샤딩하면 예약 ID 만으로는 담당 노드를 찾을 수 없어, 유저 ID 가 없는 예전 경로는 421 로 거절한다. (ShardForwardingFilter)
+ * - point.reservation.enabled=false 면 등록하지 않는다. (PointReservationConfig)
+ */
+@RestController
+@RequestMapping("/point")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "point.reservation.enabled", havingValue = "true", matchIfMissing = true)
+public class PointReservationController {
+
+    private static final Logger log = LoggerFactory.getLogger(PointReservationController.class);
+
+    private final PointReservationService pointReservationService;
+
+    public PointReservationController(PointReservationService pointReservationService) {
+        this.pointReservationService = pointReservationService;
+    }
+
+    /**
+     * 유저의 사용 가능 포인트와 예약으로 잡혀 있는 포인트를 조회하는 API
+     */
+    @GetMapping("{id}/reservations")
+    public ReservedUserPoint reservedPoint(@PathVariable long id) {
+        return pointReservationService.getReservedPoint(id);
+    }
+
+    /**
+     * 포인트를 예약하는 API
+     *
+     * @param id      유저 ID
+     * @param request 잡아둘 포인트와 예약 유지 시간
+     * @return HELD 상태의 예약
+     */
+    @PostMapping("{id}/reservations")
+    public PointReservation hold(@PathVariable long id,
+                                 @RequestBody ReservationRequest request,
+                                 @RequestHeader(value = RequestTimeout.HEADER, defaultValue = RequestTimeout.DEFAULT_MILLIS) long timeoutMillis) {
+        log.info("POST /point/{}/reservations 요청됨. amount={}, ttlMillis={}", id, request.amount(), request.ttlMillis());
+        try {
+            return pointReservationService.hold(id, request.amount(), request.ttlMillis(), RequestTimeout.deadline(timeoutMillis));
+        } catch (IllegalArgumentException e) {
+            log.warn("포인트 예약 실패: userId={}, 사유={}", id, e.getMessage());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    /**
+     * 유저의 예약을 확정하는 API. 이미 확정/취소/만료되었거나 이 유저의 예약이 아니면 409
+     */
+    @PostMapping("{id}/reservations/{reservationId}/capture")
+    public PointReservation capture(@PathVariable long id,
+                                    @PathVariable long reservationId,
+                                    @RequestHeader(value = RequestTimeout.HEADER, defaultValue = RequestTimeout.DEFAULT_MILLIS) long timeoutMillis) {
+        log.info("POST /point/{}/reservations/{}/capture 요청됨", id, reservationId);
+        try {
+            return pointReservationService.capture(id, reservationId, RequestTimeout.deadline(timeoutMillis));
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+
+    /**
+     * 유저의 예약을 취소하는 API. 이미 확정/취소/만료되었거나 이 유저의 예약이 아니면 409
+     */
+    @PostMapping("{id}/reservations/{reservationId}/release")
+    public PointReservation release(@PathVariable long id,
+                                    @PathVariable long reservationId,
+                                    @RequestHeader(value = RequestTimeout.HEADER, defaultValue = RequestTimeout.DEFAULT_MILLIS) long timeoutMillis) {
+        log.info("POST /point/{}/reservations/{}/release 요청됨", id, reservationId);
+        try {
+            return pointReservationService.release(id, reservationId, RequestTimeout.deadline(timeoutMillis));
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+
+    /**
+     * 예약을 확정하는 API. 이미 확정/취소/만료된 예약이면 409
+     */
+    @PostMapping("reservations/{reservationId}/capture")
+    public PointReservation capture(@PathVariable long reservationId,
+                                    @RequestHeader(value = RequestTimeout.HEADER, defaultValue = RequestTimeout.DEFAULT_MILLIS) long timeoutMillis) {
+        log.info("POST /point/reservations/{}/capture 요청됨", reservationId);
+        try {
+            return pointReservationService.capture(reservationId, RequestTimeout.deadline(timeoutMillis));
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+
+    /**
+     * 예약을 취소하는 API. 이미 확정/취소/만료된 예약이면 409
+     */
+    @PostMapping("reservations/{reservationId}/release")
+    public PointReservation release(@PathVariable long reservationId,
+                                    @RequestHeader(value = RequestTimeout.HEADER, defaultValue = RequestTimeout.DEFAULT_MILLIS) long timeoutMillis) {
+        log.info("POST /point/reservations/{}/release 요청됨", reservationId);
+        try {
+            return pointReservationService.release(reservationId, RequestTimeout.deadline(timeoutMillis));
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.timer.HashedWheelTimer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 포인트 예약 (hold / capture / release)
+ * - 예약하면 사용 가능 잔액에서 금액을 빼 held 로 옮긴다. 확정(capture)하면 USE 내역을 남기고, 취소(release)/만료되면 잔액으로 돌려준다.
+ * - 예약 상태 변경은 유저 락 안에서 진행 중인 예약 맵에서 먼저 꺼낸 쪽만 처리하므로, 확정과 만료가 겹쳐도 한 번만 반영된다.
+ * - 만료는 예약마다 해시드 휠 타이머에 등록한다. 확정/취소되면 타이머 등록도 취소한다.
+ * - 만료 처리는 유저 락과 저장소를 거치므로 타이머 워커가 아닌 pointTaskExecutor 에서 실행한다. (다음 tick 이 밀리지 않도록)
+ * - point.reservation.enabled=false 면 컨트롤러, 타이머와 함께 빈을 만들지 않는다.
+ */
+@Service
+@ConditionalOnProperty(name = "point.reservation.enabled", havingValue = "true", matchIfMissing = true)
+public class PointReservationService {
+
+    private static final Logger log = LoggerFactory.getLogger(PointReservationService.class);
+
+    // 만료 처리 중 유저 락이 바쁘거나 실행기가 가득 차면 스레드를 붙잡지 않고 이 시간 뒤에 다시 시도한다
+    private static final long EXPIRY_LOCK_WAIT_MILLIS = 10;
+    private static final long EXPIRY_RETRY_MILLIS = 50;
+
+    private final PointService pointService;
+    private final UserLockManager userLockManager;
+    private final HashedWheelTimer reservationTimer;
+    private final Executor expiryExecutor;
+    private final long defaultTtlMillis;
+    private final long maxTtlMillis;
+
+    private final AtomicLong reservationSequence = new AtomicLong(1);
+    // 진행 중(HELD)인 예약만 담는다
+    private final Map<Long, Hold> activeReservations = new ConcurrentHashMap<>();
+    // 유저별 예약으로 잡혀 있는 포인트 합계 (0 이 되면 제거)
+    private final Map<Long, Long> heldPoints = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PointReservationService(PointService pointService,
+                                   UserLockManager userLockManager,
+                                   HashedWheelTimer reservationTimer,
+                                   @Qualifier("pointTaskExecutor") Executor expiryExecutor,
+                                   @Value("${point.reservation.default-ttl-millis:600000}") long defaultTtlMillis,
+                                   @Value("${point.reservation.max-ttl-millis:3600000}") long maxTtlMillis) {
+        this.pointService = pointService;
+        this.userLockManager = userLockManager;
+        this.reservationTimer = reservationTimer;
+        this.expiryExecutor = expiryExecutor;
+        this.defaultTtlMillis = defaultTtlMillis;
+        this.maxTtlMillis = maxTtlMillis;
+    }
+
+    /**
+     * 포인트를 예약한다.
+     *
+     * @param userId    유저 ID
+     * @param amount    잡아둘 포인트 양 (1 이상)
+     * @param ttlMillis 예약 유지 시간(ms). null 이면 기본값
+     * @param deadline  요청 처리 마감 시각
+     * @return HELD 상태의 예약
+     */
+    public PointReservation hold(long userId, long amount, Long ttlMillis, Deadline deadline) {
+        log.info("Holding points. userId={} amount={} ttlMillis={}", userId, amount, ttlMillis);
+
+        if (amount <= 0) {
+            throw new IllegalArgumentException("예약 금액은 1 이상이어야 합니다.");
+        }
+        long ttl = ttlMillis == null ? defaultTtlMillis : ttlMillis;
+        if (ttl <= 0 || ttl > maxTtlMillis) {
+            throw new IllegalArgumentException("예약 유지 시간은 1ms 이상 " + maxTtlMillis + "ms 이하여야 합니다.");
+        }
+
+        return userLockManager.executeWithLock(userId, deadline, () -> {
+            PointLots lots = pointService.holdPoint(userId, amount, deadline);
+
+            PointReservation reservation = new PointReservation(reservationSequence.getAndIncrement(), userId, amount,
+                    ReservationStatus.HELD, System.currentTimeMillis() + ttl);
+            Hold hold = new Hold(reservation, lots);
+            activeReservations.put(reservation.id(), hold);
+            heldPoints.merge(userId, amount, Long::sum);
+            scheduleExpiry(hold, ttl);
+
+            log.info("예약 완료 - reservationId={}, userId={}, amount={}", reservation.id(), userId, amount);
+            return reservation;
+        });
+    }
+
+    /**
+     * 예약을 확정한다. 잡아둔 포인트의 USE 내역을 남긴다.
+     *
+     * @throws IllegalStateException 이미 확정/취소/만료되었거나 없는 예약
+     */
+    public PointReservation capture(long reservationId, Deadline deadline) {
+        return finish(null, reservationId, ReservationStatus.CAPTURED, deadline);
+    }
+
+    /**
+     * 유저의 예약을 확정한다. 다른 유저의 예약이면 없는 예약으로 본다.
+     *
+     * @throws IllegalStateException 이미 확정/취소/만료되었거나 없는 예약
+     */
+    public PointReservation capture(long userId, long reservationId, Deadline deadline) {
+        return finish(userId, reservationId, ReservationStatus.CAPTURED, deadline);
+    }
+
+    /**
+     * 예약을 취소한다. 잡아둔 포인트를 사용 가능 잔액으로 돌려준다.
+     *
+     * @throws IllegalStateException 이미 확정/취소/만료되었거나 없는 예약
+     */
+    public PointReservation release(long reservationId, Deadline deadline) {
+        return finish(null, reservationId, ReservationStatus.RELEASED, deadline);
+    }
+
+    /**
+     * 유저의 예약을 취소한다. 다른 유저의 예약이면 없는 예약으로 본다.
+     *
+     * @throws IllegalStateException 이미 확정/취소/만료되었거나 없는 예약
+     */
+    public PointReservation release(long userId, long reservationId, Deadline deadline) {
+        return finish(userId, reservationId, ReservationStatus.RELEASED, deadline);
+    }
+
+    /**
+     * 유저의 사용 가능 포인트와 예약으로 잡혀 있는 포인트를 함께 조회한다.
+     */
+    public ReservedUserPoint getReservedPoint(long userId) {
+        long held = heldPoints.getOrDefault(userId, 0L);
+        return new ReservedUserPoint(userId, pointService.getPoint(userId).point(), held);
+    }
+
+    /**
+     * 유저별 예약으로 잡혀 있는 포인트 합계
+     */
+    public long getHeldPoint(long userId) {
+        return heldPoints.getOrDefault(userId, 0L);
+    }
+
+    /**
+     * @param userId null 이 아니면 이 유저의 예약만 처리한다
+     */
+    private PointReservation finish(Long userId, long reservationId, ReservationStatus status, Deadline deadline) {
+        Hold hold = activeReservations.get(reservationId);
+        if (hold == null || (userId != null && hold.reservation.userId() != userId)) {
+            throw new IllegalStateException("이미 확정/취소/만료되었거나 존재하지 않는 예약입니다. reservationId=" + reservationId);
+        }
+        PointReservation reservation = hold.reservation;
+
+        return userLockManager.executeWithLock(reservation.userId(), deadline, () -> {
+            deadline.check(status == ReservationStatus.CAPTURED ? "예약 확정" : "예약 취소");
+
+            if (!settle(hold, status)) {
+                throw new IllegalStateException("이미 확정/취소/만료되었거나 존재하지 않는 예약입니다. reservationId=" + reservationId);
+            }
+            if (hold.expiry != null) {
+                hold.expiry.cancel();
+            }
+
+            log.info("예약 {} - reservationId={}, userId={}, amount={}", status, reservationId, reservation.userId(), reservation.amount());
+            return reservation.withStatus(status);
+        });
+    }
+
+    private void scheduleExpiry(Hold hold, long delayMillis) {
+        hold.expiry = reservationTimer.newTimeout(() -> dispatchExpiry(hold), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 타이머 스레드에서 호출된다. 실행기에 넘기기만 하고, 거절되면 타이머에 다시 등록한다.
+     */
+    private void dispatchExpiry(Hold hold) {
+        if (activeReservations.get(hold.reservation.id()) != hold) {
+            return;
+        }
+        try {
+            expiryExecutor.execute(() -> expire(hold.reservation.id()));
+        } catch (RejectedExecutionException e) {
+            log.warn("예약 만료 처리를 실행기에 넘기지 못해 다시 시도합니다. reservationId={}", hold.reservation.id());
+            scheduleExpiry(hold, EXPIRY_RETRY_MILLIS);
+        }
+    }
+
+    /**
+     * 만료 실행기(pointTaskExecutor)에서 호출된다.
+     */
+    private void expire(long reservationId) {
+        Hold hold = activeReservations.get(reservationId);
+        if (hold == null) {
+            return;
+        }
+        PointReservation reservation = hold.reservation;
+        try {
+            userLockManager.executeWithLock(reservation.userId(), Deadline.afterMillis(EXPIRY_LOCK_WAIT_MILLIS), () -> {
+                if (settle(hold, ReservationStatus.EXPIRED)) {
+                    log.info("예약 만료 - reservationId={}, userId={}, amount={}", reservationId, reservation.userId(), reservation.amount());
+                }
+                return null;
+            });
+        } catch (DeadlineExceededException e) {
+            scheduleExpiry(hold, EXPIRY_RETRY_MILLIS);
+        } catch (RuntimeException e) {
+            log.warn("예약 만료 처리 실패, 다시 시도합니다. reservationId={}", reservationId, e);
+            scheduleExpiry(hold, EXPIRY_RETRY_MILLIS);
+        }
+    }
+
+    /**
+     * 진행 중인 예약 맵에서 꺼낸 뒤 상태에 맞게 잔액/내역에 반영한다. 유저 락 안에서 호출된다.
+     * - 확정과 만료가 겹치면 맵에서 먼저 꺼낸 쪽만 반영하고, 나머지는 false 를 받는다.
+     * - 반영에 실패하면 예약을 맵에 되돌려 다시 처리할 수 있게 한다.
+     */
+    private boolean settle(Hold hold, ReservationStatus status) {
+        PointReservation reservation = hold.reservation;
+        if (!activeReservations.remove(reservation.id(), hold)) {
+            return false;
+        }
+        try {
+            if (status == ReservationStatus.CAPTURED) {
+                pointService.recordCapturedPoint(reservation.userId(), reservation.amount());
+            } else {
+                pointService.restoreHeldPoint(reservation.userId(), reservation.amount(), hold.lots);
+            }
+        } catch (RuntimeException e) {
+            activeReservations.put(reservation.id(), hold);
+            throw e;
+        }
+        heldPoints.merge(reservation.userId(), -reservation.amount(), (held, delta) -> held + delta == 0 ? null : held + delta);
+        return true;
+    }
+
+    private static final class Hold {
+
+        private final PointReservation reservation;
+        private final PointLots lots; // 잡아둔 포인트가 나온 묶음 (취소/만료 시 같은 만료 시각으로 되돌린다)
+        private volatile HashedWheelTimer.Timeout expiry;
+
+        private Hold(PointReservation reservation, PointLots lots) {
+            this.reservation = reservation;
+            this.lots = lots;
+        }
+    }
+}
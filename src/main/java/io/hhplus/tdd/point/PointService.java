@@ -2,42 +2,234 @@ package io.hhplus.tdd.point;
 
 import io.hhplus.tdd.database.PointHistoryTable;
 import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.limit.PointRateLimiter;
+import io.hhplus.tdd.lock.LockLostException;
+import io.hhplus.tdd.limit.RateLimitExceededException;
+import io.hhplus.tdd.storage.BalanceStore;
+import io.hhplus.tdd.storage.HistoryStore;
+import io.hhplus.tdd.storage.TableBalanceStore;
+import io.hhplus.tdd.storage.TableHistoryStore;
+import io.hhplus.tdd.storage.VersionedBalance;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongUnaryOperator;
 
 @Service
 public class PointService {
 
-    private final UserPointTable userPointTable;
-    private final PointHistoryTable pointHistoryTable;
+    private final BalanceStore balanceStore;
+    private final HistoryStore historyStore;
 
-    // 사용자 단위로 락을 걸기 위한 맵
-    private final Map<Long, Object> userLocks = new ConcurrentHashMap<>();
+    private final UserLockManager userLockManager;
+    private final PointRateLimiter pointRateLimiter;
+    private final PointLotLedger pointLotLedger;
+    private final HistoryUserFilter historyUserFilter;
+
+    // 내역이 저장될 때마다 알림을 받는 리스너 (요약 집계 등)
+    private final List<PointHistoryListener> historyListeners = new CopyOnWriteArrayList<>();
+    // 잔액이 바뀔 때마다 알림을 받는 리스너 (리더보드 등)
+    private final List<PointBalanceListener> balanceListeners = new CopyOnWriteArrayList<>();
+
+    // 같은 유저에 대해 진행 중인 잔액 조회 (동시 조회는 저장소 호출 하나를 공유한다)
+    private final Map<Long, CompletableFuture<UserPoint>> inFlightReads = new ConcurrentHashMap<>();
+
+    // 내역을 조회한 적 있는 유저의 마지막 내역 id (조건부 조회의 ETag 용). 조회 중이라 아직 모르면 UNKNOWN_HISTORY_ID
+    private final Map<Long, Long> lastHistoryIds = new ConcurrentHashMap<>();
 
     private static final Logger log = LoggerFactory.getLogger(PointService.class);
 
     private static final long MAX_POINT = 100_000_000L; // 최대 포인트 제한
+    private static final int MAX_UPDATE_ATTEMPTS = 16; // 다른 노드와 잔액 저장이 충돌할 때 다시 읽어 계산하는 최대 횟수
+    private static final long UNKNOWN_HISTORY_ID = 0L; // 내역 id 는 1 부터 발급된다
 
     public PointService(UserPointTable userPointTable, PointHistoryTable pointHistoryTable) {
+        this(userPointTable, pointHistoryTable, new UserLockManager(), PointRateLimiter.unlimited());
+    }
 
-        this.userPointTable = userPointTable;
-        this.pointHistoryTable = pointHistoryTable;
+    public PointService(UserPointTable userPointTable, PointHistoryTable pointHistoryTable,
+                        UserLockManager userLockManager, PointRateLimiter pointRateLimiter) {
+        this(userPointTable, pointHistoryTable, userLockManager, pointRateLimiter, PointLotLedger.withDefaults());
+    }
+
+    public PointService(UserPointTable userPointTable, PointHistoryTable pointHistoryTable,
+                        UserLockManager userLockManager, PointRateLimiter pointRateLimiter,
+                        PointLotLedger pointLotLedger) {
+        this(new TableBalanceStore(userPointTable), new TableHistoryStore(pointHistoryTable),
+                userLockManager, pointRateLimiter, pointLotLedger);
+    }
+
+    public PointService(BalanceStore balanceStore, HistoryStore historyStore,
+                        UserLockManager userLockManager, PointRateLimiter pointRateLimiter,
+                        PointLotLedger pointLotLedger) {
+        this(balanceStore, historyStore, userLockManager, pointRateLimiter, pointLotLedger, HistoryUserFilter.disabled());
+    }
+
+    /**
+     * 잔액/내역 저장소는 설정(point.storage.type)으로 고른다. (StorageConfig)
+     *
+     * @param historyUserFilter 내역이 있는 유저 필터. 저장소의 기존 내역 유저로 미리 채워져 있어야 한다. (HistoryUserFilterConfig)
+     */
+    @Autowired
+    public PointService(BalanceStore balanceStore, HistoryStore historyStore,
+                        UserLockManager userLockManager, PointRateLimiter pointRateLimiter,
+                        PointLotLedger pointLotLedger, HistoryUserFilter historyUserFilter) {
+
+        this.balanceStore = balanceStore;
+        this.historyStore = historyStore;
+        this.userLockManager = userLockManager;
+        this.pointRateLimiter = pointRateLimiter;
+        this.pointLotLedger = pointLotLedger;
+        this.historyUserFilter = historyUserFilter;
     }
 
     /**
      * 특정 유저의 포인트를 조회하는 메서드
+     * - 같은 유저를 동시에 조회하면 먼저 들어온 요청의 저장소 호출 결과를 함께 받는다. (single-flight)
      *
      * @param userId 조회할 유저 아이디
      * @return 해당 유저의 UserPoint 객체 (없으면 잔고 0인 빈 객체 반환)
      */
     public UserPoint getPoint(long userId) {
+        CompletableFuture<UserPoint> flight = new CompletableFuture<>();
+        CompletableFuture<UserPoint> inFlight = inFlightReads.putIfAbsent(userId, flight);
+        if (inFlight != null) {
+            return awaitRead(inFlight);
+        }
+
+        try {
+            UserPoint userPoint = balanceStore.selectById(userId);
+            flight.complete(userPoint);
+            return userPoint;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightReads.remove(userId, flight);
+        }
+    }
+
+    private UserPoint awaitRead(CompletableFuture<UserPoint> inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 잔액이 바뀐 뒤에는 진행 중인 조회를 더 이상 새 조회와 공유하지 않는다.
+     */
+    private void invalidateInFlightRead(long userId) {
+        inFlightReads.remove(userId);
+    }
+
+    /**
+     * 잔액을 읽어 새 잔액을 저장하고, 진행 중인 조회를 무효화한 뒤 리스너에 알린다. 유저 락 안에서 호출한다.
+     * - 진행 중인 조회를 공유하지 않고 저장소에서 직접 읽는다. (락을 얻기 전에 시작된 조회는 직전 커밋을 반영하지 못했을 수 있다)
+     * - 여러 노드가 같은 저장소(jdbc)를 쓰면 읽은 버전 그대로일 때만 저장된다. 그 사이 다른 노드가 바꿨으면 다시 읽어 계산한다.
+     *   쥐고 있는 유저 락의 펜싱 토큰도 함께 넘겨, 임대가 끝난 뒤의 늦은 쓰기는 저장소가 거절한다.
+     *
+     * @param change 현재 잔액으로 새 잔액을 계산한다. 검증에 실패하면 IllegalArgumentException 을 던진다.
+     * @throws BalanceConflictException 정해진 횟수 안에 저장하지 못함
+     * @throws LockLostException 유저 락 임대가 끝나 다른 노드가 이미 썼음
+     */
+    private BalanceUpdate updateBalance(long userId, LongUnaryOperator change) {
+        for (int attempt = 1; attempt <= MAX_UPDATE_ATTEMPTS; attempt++) {
+            VersionedBalance current = balanceStore.selectForUpdate(userId);
+            UserPoint updated = balanceStore.compareAndSet(current, change.applyAsLong(current.userPoint().point()),
+                    userLockManager.fencingToken(userId));
+            if (updated == null) {
+                log.debug("잔액 저장 충돌, 다시 읽습니다: userId={}, attempt={}", userId, attempt);
+                continue;
+            }
+            invalidateInFlightRead(userId);
+            for (PointBalanceListener listener : balanceListeners) {
+                try {
+                    listener.onBalanceUpdated(updated);
+                } catch (RuntimeException e) {
+                    log.warn("잔액 리스너 처리 실패: userId={}", userId, e);
+                }
+            }
+            return new BalanceUpdate(current.userPoint(), updated);
+        }
+        log.warn("잔액 저장 충돌이 반복되어 포기합니다: userId={}", userId);
+        throw new BalanceConflictException("다른 요청과 충돌해 잔액을 저장하지 못했습니다. 다시 시도해 주세요.");
+    }
 
-        return userPointTable.selectById(userId);
+    private record BalanceUpdate(UserPoint before, UserPoint after) {
+    }
+
+    /**
+     * 잔액이 바뀔 때마다 호출될 리스너를 등록한다.
+     */
+    public void addBalanceListener(PointBalanceListener listener) {
+        balanceListeners.add(listener);
+    }
+
+    /**
+     * 내역이 저장될 때마다 호출될 리스너를 등록한다.
+     */
+    public void addHistoryListener(PointHistoryListener listener) {
+        historyListeners.add(listener);
+    }
+
+    /**
+     * 주 노드에서 복제된 잔액을 그대로 저장하고 리스너에 알린다. (팔로워 노드 전용)
+     * - 변경 시각도 주 노드의 것을 그대로 담으므로 잔액 ETag 가 주 노드와 같다.
+     * - 팔로워는 복제 스레드 하나만 쓰므로 유저 락 없이 로그 순서대로 저장한다.
+     * - 진행 중인 조회를 무효화하므로, 이 메서드가 끝난 뒤 시작된 조회는 복제된 잔액을 본다.
+     *
+     * @throws UnsupportedOperationException 잔액 저장소가 변경 시각을 그대로 저장할 수 없는 경우
+     */
+    public void applyReplicatedBalance(UserPoint userPoint) {
+        UserPoint stored = balanceStore.replace(userPoint);
+        invalidateInFlightRead(userPoint.id());
+        for (PointBalanceListener listener : balanceListeners) {
+            try {
+                listener.onBalanceUpdated(stored);
+            } catch (RuntimeException e) {
+                log.warn("잔액 리스너 처리 실패: userId={}", userPoint.id(), e);
+            }
+        }
+    }
+
+    /**
+     * 주 노드에서 복제된 내역을 저장하고 리스너에 알린다. (팔로워 노드 전용)
+     * - 내역 id 는 팔로워의 내역 저장소가 새로 붙이므로 주 노드의 id 와 다를 수 있다.
+     */
+    public void applyReplicatedHistory(PointHistory history) {
+        recordHistory(history.userId(), history.amount(), history.type(), history.updateMillis());
+    }
+
+    /**
+     * 내역을 저장하고 리스너에 알린다. 유저 락 안에서 호출한다.
+     * - 내역 유저 필터에 먼저 더한다. 저장된 내역이 필터에 없어 조회가 거절되는 순간이 없다.
+     */
+    private PointHistory recordHistory(long userId, long amount, TransactionType type, long updateMillis) {
+        historyUserFilter.add(userId);
+        PointHistory history = historyStore.insert(userId, amount, type, updateMillis);
+        lastHistoryIds.computeIfPresent(userId, (id, last) -> Math.max(last, history.id()));
+        for (PointHistoryListener listener : historyListeners) {
+            try {
+                listener.onHistoryRecorded(history);
+            } catch (RuntimeException e) {
+                log.warn("포인트 내역 리스너 처리 실패: userId={}, type={}", userId, type, e);
+            }
+        }
+        return history;
     }
 
 
@@ -49,6 +241,18 @@ public class PointService {
      * @return 충전된 후의 UserPoint 객체
      */
     public UserPoint chargePoint(long userId, long amount) {
+        return chargePoint(userId, amount, Deadline.none());
+    }
+
+    /**
+     * 마감 시각 안에서만 포인트를 충전하는 메서드
+     * - 마감 시각까지 유저 락을 얻지 못하거나, 락을 얻은 시점에 이미 마감 시각이 지났다면 테이블에 접근하지 않는다.
+     *
+     * @param deadline 요청 처리 마감 시각
+     * @throws DeadlineExceededException  마감 시각 초과
+     * @throws RateLimitExceededException 유저별 충전 빈도 제한 초과
+     */
+    public UserPoint chargePoint(long userId, long amount, Deadline deadline) {
         log.info("Charging userId={} with amount={}", userId, amount);
 
         if (amount < 0) {
@@ -56,25 +260,26 @@ public class PointService {
             throw new IllegalArgumentException("충전 금액은 0 이상이어야 합니다.");
         }
 
-        // 사용자별 lock 객체 가져오기
-        Object lock = userLocks.computeIfAbsent(userId, k -> new Object());
+        // 빈도 제한에 걸린 요청은 락 대기열에 들어가지 않는다
+        pointRateLimiter.check(userId, TransactionType.CHARGE);
 
-        synchronized (lock) {
-            // 현재 포인트 조회 (없으면 0으로 시작)
-            UserPoint current = getPoint(userId);
-            long newAmount = current.point() + amount;
-
-            if (newAmount > MAX_POINT) {
-                throw new IllegalArgumentException("최대 보유 포인트를 초과할 수 없습니다.");
-            }
+        return userLockManager.executeWithLock(userId, deadline, () -> {
+            deadline.check("충전");
 
-            // 저장
-            UserPoint updated = userPointTable.insertOrUpdate(userId, newAmount);
-            pointHistoryTable.insert(userId, amount, TransactionType.CHARGE, System.currentTimeMillis());
+            // 현재 포인트(없으면 0)에 더해 저장
+            UserPoint updated = updateBalance(userId, point -> {
+                long newAmount = point + amount;
+                if (newAmount > MAX_POINT) {
+                    throw new IllegalArgumentException("최대 보유 포인트를 초과할 수 없습니다.");
+                }
+                return newAmount;
+            }).after();
+            pointLotLedger.add(userId, amount);
+            recordHistory(userId, amount, TransactionType.CHARGE, System.currentTimeMillis());
             log.info("충전 완료 - userId={}, amount={}, 최종 point={}", userId, amount, updated.point());
 
             return updated;
-        }
+        });
     }
 
     /**
@@ -85,29 +290,210 @@ public class PointService {
      * @return 사용 후의 UserPoint 객체
      */
     public UserPoint usePoint(long userId, long amount) {
+        return usePoint(userId, amount, Deadline.none());
+    }
+
+    /**
+     * 마감 시각 안에서만 포인트를 사용하는 메서드
+     *
+     * @param deadline 요청 처리 마감 시각
+     * @throws DeadlineExceededException  마감 시각 초과
+     * @throws RateLimitExceededException 유저별 사용 빈도 제한 초과
+     */
+    public UserPoint usePoint(long userId, long amount, Deadline deadline) {
         log.info("Using points. userId={} amount={}", userId, amount);
 
         if (amount < 0) {
             throw new IllegalArgumentException("사용 금액은 0 이상이어야 합니다.");
         }
 
-        // 현재 포인트 조회
-        UserPoint current = getPoint(userId);
+        pointRateLimiter.check(userId, TransactionType.USE);
+
+        return userLockManager.executeWithLock(userId, deadline, () -> {
+            deadline.check("사용");
+
+            BalanceUpdate update = updateBalance(userId, point -> debit(point, amount));
+            UserPoint updated = update.after();
+            pointLotLedger.consume(userId, amount, update.before().point(), false); // 가장 오래된 묶음부터 사용
+            recordHistory(userId, amount, TransactionType.USE, System.currentTimeMillis());
+
+            log.info("사용한 포인트. 잔액 userId={} is {}", userId, updated.point());
 
-        if (current.point() < amount) {
-            throw new IllegalArgumentException("잔액이 부족합니다. 현재 잔액: " + current.point());
+            return updated;
+        });
+    }
+
+    /**
+     * 한 유저의 포인트를 다른 유저에게 옮기는 메서드
+     * - 두 유저의 락을 userId 오름차순으로 잡으므로 A->B, B->A 이체가 동시에 들어와도 교착 상태가 생기지 않는다.
+     * - 보내는 유저에게는 USE, 받는 유저에게는 CHARGE 내역을 남긴다.
+     *
+     * @param fromUserId 보내는 유저 ID
+     * @param toUserId   받는 유저 ID
+     * @param amount     옮길 포인트 양 (1 이상의 정수)
+     * @param deadline   요청 처리 마감 시각
+     * @return 이체 후 두 유저의 UserPoint
+     * @throws DeadlineExceededException  마감 시각 초과
+     * @throws RateLimitExceededException 보내는 유저의 사용 빈도 제한 초과
+     */
+    public PointTransfer transferPoint(long fromUserId, long toUserId, long amount, Deadline deadline) {
+        log.info("Transferring points. from={} to={} amount={}", fromUserId, toUserId, amount);
+
+        if (amount <= 0) {
+            throw new IllegalArgumentException("이체 금액은 1 이상이어야 합니다.");
+        }
+        if (fromUserId == toUserId) {
+            throw new IllegalArgumentException("자기 자신에게는 이체할 수 없습니다.");
         }
 
-        long newAmount = current.point() - amount;
-        UserPoint updated = userPointTable.insertOrUpdate(userId, newAmount);
+        pointRateLimiter.check(fromUserId, TransactionType.USE);
 
-        log.info("사용한 포인트. 잔액 userId={} is {}", userId, updated.point());
+        return userLockManager.executeWithLocks(fromUserId, toUserId, deadline, () -> {
+            deadline.check("이체");
 
-        return updated;
+            UserPoint to = balanceStore.selectById(toUserId);
+            if (to.point() + amount > MAX_POINT) {
+                throw new IllegalArgumentException("받는 유저의 최대 보유 포인트를 초과할 수 없습니다.");
+            }
+
+            long now = System.currentTimeMillis();
+            BalanceUpdate debit = updateBalance(fromUserId, point -> debit(point, amount));
+            UserPoint credited;
+            try {
+                credited = updateBalance(toUserId, point -> {
+                    if (point + amount > MAX_POINT) {
+                        throw new IllegalArgumentException("받는 유저의 최대 보유 포인트를 초과할 수 없습니다.");
+                    }
+                    return point + amount;
+                }).after();
+            } catch (RuntimeException e) {
+                // 확인한 뒤 다른 노드가 받는 유저 잔액을 바꿨다. 보낸 유저에게서 뺀 포인트를 돌려준다
+                updateBalance(fromUserId, point -> point + amount);
+                throw e;
+            }
+            UserPoint debited = debit.after();
+            // 보낸 유저의 묶음을 만료 시각 그대로 넘겨 이체로 유효기간이 늘어나지 않게 한다
+            pointLotLedger.addAll(toUserId, pointLotLedger.consume(fromUserId, amount, debit.before().point(), true));
+            recordHistory(fromUserId, amount, TransactionType.USE, now);
+            recordHistory(toUserId, amount, TransactionType.CHARGE, now);
+
+            log.info("이체 완료 - from={}({}), to={}({}), amount={}", fromUserId, debited.point(), toUserId, credited.point(), amount);
+            return new PointTransfer(debited, credited, amount);
+        });
+    }
+
+    /**
+     * 예약을 위해 사용 가능 잔액에서 포인트를 빼 둔다. (PointReservationService 전용)
+     * - 아직 사용이 확정된 것이 아니므로 내역은 남기지 않는다. 확정되면 recordCapturedPoint 가 USE 내역을 남긴다.
+     *
+     * @return 잡아둔 포인트가 나온 묶음 (취소/만료 시 restoreHeldPoint 로 되돌린다)
+     */
+    PointLots holdPoint(long userId, long amount, Deadline deadline) {
+        pointRateLimiter.check(userId, TransactionType.USE);
+
+        return userLockManager.executeWithLock(userId, deadline, () -> {
+            deadline.check("예약");
+
+            BalanceUpdate update = updateBalance(userId, point -> debit(point, amount));
+            return pointLotLedger.consume(userId, amount, update.before().point(), true);
+        });
+    }
+
+    /**
+     * 취소/만료된 예약 포인트를 사용 가능 잔액으로 돌려준다. (PointReservationService 전용)
+     * - 예약 때 빼 둔 금액을 되돌리는 것이므로 최대 보유 포인트 검사와 내역 기록을 하지 않는다.
+     */
+    UserPoint restoreHeldPoint(long userId, long amount, PointLots lots) {
+        return userLockManager.executeWithLock(userId, Deadline.none(), () -> {
+            UserPoint updated = updateBalance(userId, point -> point + amount).after();
+            pointLotLedger.addAll(userId, lots);
+            return updated;
+        });
     }
 
+    /**
+     * 확정된 예약 포인트의 사용(USE) 내역을 남긴다. (PointReservationService 전용)
+     * - 잔액은 예약할 때 이미 빠졌다.
+     */
+    void recordCapturedPoint(long userId, long amount) {
+        recordHistory(userId, amount, TransactionType.USE, System.currentTimeMillis());
+    }
+
+    /**
+     * 유효기간이 지난 포인트 묶음을 소멸시키고 EXPIRE 내역을 남긴다. (PointLotSweeper 전용)
+     * - 잔액이 만료분보다 적으면 잔액만큼만 빼고, 내역에도 실제로 뺀 만큼 남긴다.
+     *
+     * @return 잔액에서 실제로 뺀 포인트
+     */
+    long expirePoints(long userId) {
+        return userLockManager.executeWithLock(userId, Deadline.none(), () -> {
+            long now = pointLotLedger.now();
+            long expired = pointLotLedger.expirable(userId, now);
+            if (expired == 0) {
+                pointLotLedger.expire(userId, now); // 만료 색인에 다시 등록한다
+                return 0L;
+            }
+
+            // 잔액 저장에 실패하면 장부를 건드리지 않은 채로 예외가 나가고, 스위퍼가 다음에 다시 시도한다
+            BalanceUpdate update = updateBalance(userId, point -> point - Math.min(expired, point));
+            pointLotLedger.expire(userId, now);
+            long debited = update.before().point() - update.after().point();
+            if (debited > 0) {
+                recordHistory(userId, debited, TransactionType.EXPIRE, System.currentTimeMillis());
+            }
+
+            log.info("포인트 소멸 - userId={}, 만료={}, 차감={}, 최종 point={}", userId, expired, debited, update.after().point());
+            return debited;
+        });
+    }
+
+    private static long debit(long point, long amount) {
+        if (point < amount) {
+            throw new IllegalArgumentException("잔액이 부족합니다. 현재 잔액: " + point);
+        }
+        return point - amount;
+    }
+
+    /**
+     * 저장소를 읽지 않고 알 수 있는 유저의 마지막 내역 id (조건부 조회의 ETag 용)
+     * - 한 번 내역을 조회한 유저부터 기억하고, 그 뒤로 저장되는 내역마다 함께 올린다.
+     * - 이 노드가 모든 내역 저장을 보지 못하면(내역 유저 필터가 꺼져 있으면, 예: jdbc) 기억하지 않는다.
+     *
+     * @return 모르면 빈 값. 그때는 getHistories 로 읽어야 한다.
+     */
+    public OptionalLong lastHistoryId(long userId) {
+        Long last = lastHistoryIds.get(userId);
+        return last == null || last == UNKNOWN_HISTORY_ID ? OptionalLong.empty() : OptionalLong.of(last);
+    }
+
+    /**
+     * 유저 내역 id 가 저장한 순서대로 늘어나는지 (마지막 내역 id 로 목록을 가려도 되는지)
+     * - 이 노드만 내역 저장소에 쓸 때(내역 유저 필터가 켜져 있을 때)만 그렇다. 여러 노드가 id 구간을 나눠 받는 jdbc 는 아니다.
+     */
+    public boolean historyIdsIncrease() {
+        return historyUserFilter.isEnabled();
+    }
+
+    /**
+     * 특정 유저의 포인트 내역을 조회하는 메서드
+     * - 내역 유저 필터에 없는 유저는 저장소를 읽지 않고 바로 거절한다.
+     *
+     * @throws IllegalArgumentException 내역이 없는 경우
+     */
     public List<PointHistory> getHistories(long userId) {
-        List<PointHistory> histories = pointHistoryTable.selectAllByUserId(userId);
+        if (!historyUserFilter.mightHaveHistory(userId)) {
+            log.debug("userId={}는 내역 유저 필터에 없어 내역 조회를 건너뜀", userId);
+            throw new IllegalArgumentException("포인트 사용/충전 내역이 없습니다.");
+        }
+        boolean tracked = historyUserFilter.isEnabled();
+        if (tracked) {
+            // 읽는 동안 저장된 내역은 recordHistory 가 이 자리에 남긴다
+            lastHistoryIds.putIfAbsent(userId, UNKNOWN_HISTORY_ID);
+        }
+        List<PointHistory> histories = historyStore.selectAllByUserId(userId);
+        if (tracked && !histories.isEmpty()) {
+            lastHistoryIds.merge(userId, histories.get(histories.size() - 1).id(), Math::max);
+        }
         if (histories.isEmpty()) {
             log.warn("userId={}에 대한 포인트 내역이 존재하지 않음", userId);
             throw new IllegalArgumentException("포인트 사용/충전 내역이 없습니다.");
@@ -0,0 +1,18 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class PointStreamConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public PointBalanceStream pointBalanceStream(PointService pointService,
+                                                 UserLockManager userLockManager,
+                                                 @Value("${point.stream.sender-threads:4}") int senderThreads,
+                                                 @Value("${point.stream.max-subscriptions:50000}") int maxSubscriptions,
+                                                 @Value("${point.stream.send-timeout-millis:5000}") long sendTimeoutMillis) {
+        return new PointBalanceStream(pointService, userLockManager, senderThreads, maxSubscriptions, sendTimeoutMillis);
+    }
+}
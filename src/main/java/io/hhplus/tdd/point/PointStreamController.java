@@ -0,0 +1,61 @@
+package io.hhplus.tdd.point;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/point")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class PointStreamController {
+
+    private static final Logger log = LoggerFactory.getLogger(PointStreamController.class);
+
+    private final PointBalanceStream pointBalanceStream;
+    private final long streamTimeoutMillis;
+
+    public PointStreamController(PointBalanceStream pointBalanceStream,
+                                 @Value("${point.stream.timeout-millis:1800000}") long streamTimeoutMillis) {
+        this.pointBalanceStream = pointBalanceStream;
+        this.streamTimeoutMillis = streamTimeoutMillis;
+    }
+
+    /**
+     * 유저 잔액을 Server-Sent Events 로 구독하는 API
+     * - 연결 직후 현재 잔액을, 이후 충전/사용 등으로 잔액이 바뀔 때마다 "point" 이벤트로 UserPoint 를 보낸다.
+     * - 느린 클라이언트에게는 중간 잔액을 건너뛰고 최신 잔액만 보낸다.
+     * - timeout-millis 가 지나거나, 전송이 실패하거나 send-timeout-millis 안에 끝나지 않아 구독이 해지되면 연결을 닫으므로 클라이언트는 다시 연결한다.
+     * - 이 노드에서 바뀐 잔액만 보낸다. 여러 노드가 같은 저장소를 쓰면 다른 노드에서 바뀐 잔액은 오지 않는다.
+     */
+    @GetMapping(value = "{id}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@PathVariable long id,
+                             @RequestHeader(value = RequestTimeout.HEADER, defaultValue = RequestTimeout.DEFAULT_MILLIS) long timeoutMillis) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        PointBalanceStream.Subscription subscription = pointBalanceStream.subscribe(id, new PointBalanceStream.Sink() {
+            @Override
+            public void send(UserPoint userPoint) throws IOException {
+                emitter.send(SseEmitter.event().name("point").data(userPoint, MediaType.APPLICATION_JSON));
+            }
+
+            @Override
+            public void close(Exception cause) {
+                emitter.completeWithError(cause);
+            }
+        }, RequestTimeout.deadline(timeoutMillis));
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(e -> subscription.cancel());
+        log.debug("잔액 구독 시작 - userId={}, 구독 수={}", id, pointBalanceStream.subscriptions());
+        return emitter;
+    }
+}
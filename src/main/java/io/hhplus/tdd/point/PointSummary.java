@@ -0,0 +1,57 @@
+package io.hhplus.tdd.point;
+
+import java.util.List;
+
+/**
+ * 유저별 포인트 내역 요약
+ *
+ * @param userId           유저 ID
+ * @param totalCharged     충전 합계
+ * @param totalUsed        사용 합계
+ * @param totalExpired     소멸 합계
+ * @param chargeCount      충전 건수
+ * @param useCount         사용 건수
+ * @param expireCount      소멸 건수
+ * @param lastUpdateMillis 마지막 내역 시각 (내역이 없으면 0)
+ */
+public record PointSummary(
+        long userId,
+        long totalCharged,
+        long totalUsed,
+        long totalExpired,
+        long chargeCount,
+        long useCount,
+        long expireCount,
+        long lastUpdateMillis
+) {
+
+    public static PointSummary empty(long userId) {
+        return new PointSummary(userId, 0, 0, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * 내역 목록 전체를 다시 집계한다. (검증용)
+     */
+    public static PointSummary from(long userId, List<PointHistory> histories) {
+        PointSummary summary = empty(userId);
+        for (PointHistory history : histories) {
+            summary = summary.plus(history);
+        }
+        return summary;
+    }
+
+    /**
+     * 내역 한 건을 더한 요약
+     */
+    public PointSummary plus(PointHistory history) {
+        long lastUpdate = Math.max(lastUpdateMillis, history.updateMillis());
+        return switch (history.type()) {
+            case CHARGE -> new PointSummary(userId, totalCharged + history.amount(), totalUsed, totalExpired,
+                    chargeCount + 1, useCount, expireCount, lastUpdate);
+            case USE -> new PointSummary(userId, totalCharged, totalUsed + history.amount(), totalExpired,
+                    chargeCount, useCount + 1, expireCount, lastUpdate);
+            case EXPIRE -> new PointSummary(userId, totalCharged, totalUsed, totalExpired + history.amount(),
+                    chargeCount, useCount, expireCount + 1, lastUpdate);
+        };
+    }
+}
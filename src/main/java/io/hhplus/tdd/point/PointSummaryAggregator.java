@@ -0,0 +1,55 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.storage.HistoryStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 유저별 포인트 내역 요약 집계
+ * - 내역이 저장될 때마다 해당 유저의 요약에 한 건씩 더하므로, 요약 조회는 내역 길이와 상관없이 O(1) 이다.
+ * - 요약은 불변 객체로 통째로 바꿔 끼우므로, 조회하는 쪽은 항상 어떤 시점의 일관된 요약을 받는다.
+ * - 시작할 때(요청을 받기 전) 내역 저장소에 남아 있는 내역으로 채운다. (file 저장소는 재시작해도 요약이 이어진다)
+ * - 다른 노드도 같은 저장소에 써서 이 노드가 모든 내역을 볼 수 없으면(jdbc) 집계하지 않고, 조회할 때마다 저장소의 내역으로 다시 집계한다.
+ */
+@Component
+public class PointSummaryAggregator implements PointHistoryListener {
+
+    private static final Logger log = LoggerFactory.getLogger(PointSummaryAggregator.class);
+
+    private final HistoryStore historyStore;
+    private final Map<Long, PointSummary> summaries = new ConcurrentHashMap<>();
+    private final boolean local;
+
+    public PointSummaryAggregator(PointService pointService, HistoryStore historyStore) {
+        this.historyStore = historyStore;
+        this.local = historyStore.forEachUserId(userId ->
+                summaries.put(userId, PointSummary.from(userId, historyStore.selectAllByUserId(userId))));
+        if (local) {
+            log.info("포인트 내역 요약을 내역 저장소로 채웠습니다. 유저 {}명", summaries.size());
+            pointService.addHistoryListener(this);
+        } else {
+            log.info("내역 저장소가 모든 내역을 알려 줄 수 없어 요약을 조회할 때마다 다시 집계합니다. store={}",
+                    historyStore.getClass().getSimpleName());
+        }
+    }
+
+    @Override
+    public void onHistoryRecorded(PointHistory history) {
+        summaries.compute(history.userId(), (userId, summary) ->
+                (summary == null ? PointSummary.empty(userId) : summary).plus(history));
+    }
+
+    /**
+     * 유저의 요약. 내역이 없으면 모두 0 인 요약
+     */
+    public PointSummary getSummary(long userId) {
+        if (!local) {
+            return PointSummary.from(userId, historyStore.selectAllByUserId(userId));
+        }
+        return summaries.getOrDefault(userId, PointSummary.empty(userId));
+    }
+}
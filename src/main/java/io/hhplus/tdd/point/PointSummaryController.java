@@ -0,0 +1,28 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/point")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class PointSummaryController {
+
+    private final PointSummaryAggregator pointSummaryAggregator;
+
+    public PointSummaryController(PointSummaryAggregator pointSummaryAggregator) {
+        this.pointSummaryAggregator = pointSummaryAggregator;
+    }
+
+    /**
+     * 특정 유저의 충전/사용/소멸 합계와 건수를 조회하는 API
+     * - 내역 전체를 읽지 않고 미리 집계해 둔 요약을 돌려준다.
+     */
+    @GetMapping("{id}/summary")
+    public PointSummary summary(@PathVariable long id) {
+        return pointSummaryAggregator.getSummary(id);
+    }
+}
@@ -0,0 +1,15 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 포인트 이체 결과
+ *
+ * @param from   이체 후 보낸 유저의 포인트
+ * @param to     이체 후 받은 유저의 포인트
+ * @param amount 옮긴 포인트 양
+ */
+public record PointTransfer(
+        UserPoint from,
+        UserPoint to,
+        long amount
+) {
+}
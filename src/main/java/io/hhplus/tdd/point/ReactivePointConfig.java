@@ -0,0 +1,23 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * WebFlux 프로필에서 블로킹 테이블 호출을 Netty 이벤트 루프 밖으로 격리할 스케줄러
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactivePointConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler pointBlockingScheduler(
+            @Value("${point.reactive.scheduler.thread-cap:64}") int threadCap,
+            @Value("${point.reactive.scheduler.queued-task-cap:10000}") int queuedTaskCap) {
+        return Schedulers.newBoundedElastic(threadCap, queuedTaskCap, "point-blocking");
+    }
+}
@@ -0,0 +1,82 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.limit.ServiceOverloadedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * WebFlux 프로필용 PointController
+ * - 블로킹 테이블 호출은 pointBlockingScheduler 에서만 실행한다.
+ * - 스케줄러 대기열(queued-task-cap)이 가득 차면 서블릿 비동기 API 와 같이 ServiceOverloadedException(503 + Retry-After)으로 거절한다.
+ * - 히스토리는 Flux 로 내보내며, application/x-ndjson 으로 요청하면 구독자의 요청량(backpressure)만큼씩 흘려보낸다.
+ */
+@RestController
+@RequestMapping("/point")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactivePointController {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactivePointController.class);
+
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final PointService pointService;
+    private final Scheduler pointBlockingScheduler;
+
+    public ReactivePointController(PointService pointService, Scheduler pointBlockingScheduler) {
+        this.pointService = pointService;
+        this.pointBlockingScheduler = pointBlockingScheduler;
+    }
+
+    @GetMapping("{id}")
+    public Mono<UserPoint> point(@PathVariable long id) {
+        return onBlockingScheduler(() -> pointService.getPoint(id));
+    }
+
+    @GetMapping(value = "{id}/histories", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<PointHistory> history(@PathVariable long id) {
+        return onBlockingScheduler(() -> pointService.getHistories(id))
+                .onErrorMap(IllegalArgumentException.class, e -> {
+                    log.warn("포인트 히스토리 조회 실패: userId={}, 사유={}", id, e.getMessage());
+                    return new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+                })
+                .flatMapMany(Flux::fromIterable);
+    }
+
+    @PatchMapping("{id}/charge")
+    public Mono<UserPoint> charge(@PathVariable long id,
+                                  @RequestBody ChargeRequest request,
+                                  @RequestHeader(value = RequestTimeout.HEADER, defaultValue = RequestTimeout.DEFAULT_MILLIS) long timeoutMillis) {
+        log.info("PATCH /point/{}/charge 요청됨. amount={}", id, request.amount());
+        Deadline deadline = RequestTimeout.deadline(timeoutMillis);
+        return onBlockingScheduler(() -> pointService.chargePoint(id, request.amount(), deadline));
+    }
+
+    @PatchMapping("{id}/use")
+    public Mono<UserPoint> use(@PathVariable long id,
+                               @RequestBody long amount,
+                               @RequestHeader(value = RequestTimeout.HEADER, defaultValue = RequestTimeout.DEFAULT_MILLIS) long timeoutMillis) {
+        log.info("PATCH /point/{}/use 요청됨. amount={}", id, amount);
+        Deadline deadline = RequestTimeout.deadline(timeoutMillis);
+        return onBlockingScheduler(() -> pointService.usePoint(id, amount, deadline));
+    }
+
+    private <T> Mono<T> onBlockingScheduler(Callable<T> task) {
+        return Mono.fromCallable(task)
+                .subscribeOn(pointBlockingScheduler)
+                .onErrorMap(RejectedExecutionException.class, e -> {
+                    log.warn("포인트 블로킹 스케줄러 대기열이 가득 차 요청 거절");
+                    return new ServiceOverloadedException("요청이 많아 처리하지 못했습니다. 잠시 후 다시 시도해주세요.", RETRY_AFTER_SECONDS);
+                });
+    }
+}
@@ -0,0 +1,32 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * X-Request-Timeout 헤더(ms)로 받은 요청 처리 마감 시간
+ * - 1ms 부터 MAX_MILLIS 까지만 받는다. 0 이하나 너무 큰 값은 이미 지난 마감 시각이 되거나 나노초로 바꿀 때 넘치므로 400 으로 거절한다.
+ */
+public final class RequestTimeout {
+
+    public static final String HEADER = "X-Request-Timeout";
+    /**
+     * 헤더가 없을 때의 마감 시간. 클라이언트 타임아웃(2초)에 맞췄다. (@RequestHeader defaultValue 로 쓰므로 문자열)
+     */
+    public static final String DEFAULT_MILLIS = "2000";
+    public static final long MAX_MILLIS = 60_000;
+
+    private RequestTimeout() {
+    }
+
+    /**
+     * @throws ResponseStatusException 400. 범위를 벗어난 경우
+     */
+    public static Deadline deadline(long timeoutMillis) {
+        if (timeoutMillis <= 0 || timeoutMillis > MAX_MILLIS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    HEADER + " 는 1 ~ " + MAX_MILLIS + "ms 사이여야 합니다. timeoutMillis=" + timeoutMillis);
+        }
+        return Deadline.afterMillis(timeoutMillis);
+    }
+}
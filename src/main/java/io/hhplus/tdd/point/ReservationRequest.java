@@ -0,0 +1,13 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 포인트 예약 요청 DTO
+ *
+ * @param amount    잡아둘 포인트 양
+ * @param ttlMillis 예약 유지 시간(ms). 없으면 기본값을 쓴다.
+ */
+public record ReservationRequest(
+        long amount,
+        Long ttlMillis
+) {
+}
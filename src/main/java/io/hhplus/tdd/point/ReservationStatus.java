@@ -0,0 +1,12 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 포인트 예약 상태
+ * - HELD : 사용 가능 잔액에서 빼서 잡아둔 상태
+ * - CAPTURED : 확정되어 사용(USE) 처리됨
+ * - RELEASED : 취소되어 사용 가능 잔액으로 돌려줌
+ * - EXPIRED : 만료 시각까지 확정되지 않아 사용 가능 잔액으로 돌려줌
+ */
+public enum ReservationStatus {
+    HELD, CAPTURED, RELEASED, EXPIRED
+}
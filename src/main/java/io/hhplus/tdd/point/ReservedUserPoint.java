@@ -0,0 +1,15 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 예약을 반영한 유저 포인트
+ *
+ * @param id        유저 ID
+ * @param available 바로 사용할 수 있는 포인트 (UserPoint.point 와 같다)
+ * @param held      예약으로 잡혀 있는 포인트
+ */
+public record ReservedUserPoint(
+        long id,
+        long available,
+        long held
+) {
+}
@@ -0,0 +1,15 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 포인트 이체 요청 DTO
+ *
+ * @param from   보내는 유저 ID
+ * @param to     받는 유저 ID
+ * @param amount 옮길 포인트 양
+ */
+public record TransferRequest(
+        long from,
+        long to,
+        long amount
+) {
+}
@@ -0,0 +1,97 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.lock.LocalUserLockProvider;
+import io.hhplus.tdd.lock.UserLock;
+import io.hhplus.tdd.lock.UserLockProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 유저 단위 락 관리
+ * - synchronized 대신 락 제공자(UserLockProvider)의 tryAcquire 로 마감 시각까지만 대기한다.
+ *   제공자는 설정으로 고른다. (이 JVM 안에서만 잠그거나, Redis 로 여러 노드 사이에서 잠근다)
+ * - 이미 잡은 유저 락을 같은 스레드가 다시 잡으면 제공자를 거치지 않고 그대로 실행한다. (재진입)
+ * - 여러 유저를 동시에 잠글 때는 항상 userId 오름차순으로 잠가 교착 상태를 막는다.
+ */
+@Component
+public class UserLockManager {
+
+    private static final Logger log = LoggerFactory.getLogger(UserLockManager.class);
+
+    private final UserLockProvider userLockProvider;
+
+    // 현재 스레드가 잡고 있는 유저 락
+    private final ThreadLocal<Map<Long, UserLock>> heldLocks = ThreadLocal.withInitial(HashMap::new);
+
+    public UserLockManager() {
+        this(new LocalUserLockProvider());
+    }
+
+    @Autowired
+    public UserLockManager(UserLockProvider userLockProvider) {
+        this.userLockProvider = userLockProvider;
+    }
+
+    /**
+     * 유저 락을 잡은 상태로 작업을 실행한다.
+     *
+     * @param userId   잠글 유저 ID
+     * @param deadline 락 대기 마감 시각
+     * @param action   락 안에서 실행할 작업
+     * @return 작업 결과
+     */
+    public <T> T executeWithLock(long userId, Deadline deadline, Supplier<T> action) {
+        Map<Long, UserLock> held = heldLocks.get();
+        if (held.containsKey(userId)) {
+            return action.get();
+        }
+        UserLock lock = acquire(userId, deadline);
+        held.put(userId, lock);
+        try {
+            return action.get();
+        } finally {
+            held.remove(userId);
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 두 유저의 락을 userId 오름차순으로 잡은 상태로 작업을 실행한다.
+     */
+    public <T> T executeWithLocks(long userId, long otherUserId, Deadline deadline, Supplier<T> action) {
+        if (userId == otherUserId) {
+            return executeWithLock(userId, deadline, action);
+        }
+        long first = Math.min(userId, otherUserId);
+        long second = Math.max(userId, otherUserId);
+
+        return executeWithLock(first, deadline, () -> executeWithLock(second, deadline, action));
+    }
+
+    /**
+     * 현재 스레드가 잡고 있는 유저 락의 펜싱 토큰. 잡고 있지 않거나 펜싱을 쓰지 않는 락이면 0
+     */
+    public long fencingToken(long userId) {
+        UserLock lock = heldLocks.get().get(userId);
+        return lock == null ? 0 : lock.fencingToken();
+    }
+
+    private UserLock acquire(long userId, Deadline deadline) {
+        try {
+            UserLock lock = userLockProvider.tryAcquire(userId, deadline.remainingNanos());
+            if (lock != null) {
+                return lock;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.warn("유저 락 획득 실패 (마감 시각 초과): userId={}", userId);
+        throw new DeadlineExceededException("요청이 많아 처리하지 못했습니다. 잠시 후 다시 시도해주세요.");
+    }
+}
@@ -0,0 +1,21 @@
+package io.hhplus.tdd.reconciliation;
+
+/**
+ * 잔액 불일치
+ *
+ * @param userId         유저 ID
+ * @param balance        UserPointTable 의 잔액
+ * @param historyBalance 내역 합계 (충전 - 사용 - 소멸)
+ * @param held           예약으로 잡혀 있는 포인트 (잔액 = 내역 합계 - held 여야 한다)
+ */
+public record BalanceMismatch(
+        long userId,
+        long balance,
+        long historyBalance,
+        long held
+) {
+
+    public long difference() {
+        return balance - (historyBalance - held);
+    }
+}
@@ -0,0 +1,418 @@
+package io.hhplus.tdd.reconciliation;
+
+import io.hhplus.tdd.point.*;
+import io.hhplus.tdd.storage.BalanceStore;
+import io.hhplus.tdd.storage.HistoryStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 잔액 대사(reconciliation)
+ * - 유저별로 잔액 저장소의 잔액이 내역 합계(충전 - 사용 - 소멸)에서 예약으로 잡혀 있는 포인트를 뺀 값과 같은지 확인한다.
+ * - 유저 목록을 나눠 fork-join 으로 병렬 대사하고, 내역이 아주 긴 유저는 내역 합산도 나눠서 한다.
+ * - 전체 대사는 내역 저장소를 한 번 훑어(forEachHistory) 유저별 합계를 파티션에 모은 뒤 파티션 단위로 병렬 확인한다.
+ *   훑기 시작한 뒤 바뀐 유저만 유저 락 안에서 내역을 다시 읽는다. 훑을 수 없는 저장소(jdbc 등)는 유저별로 조회한다.
+ * - 시작할 때 내역 저장소에 남아 있는 유저(forEachUserId)를 전체 대사 대상과 변경 유저로 채운다. (file 저장소는 재시작해도 대사가 이어진다)
+ * - 유저마다 유저 락을 잡고 잔액/내역/예약을 읽으므로 처리 중인 충전/사용과 겹쳐도 잘못된 불일치를 보고하지 않는다.
+ * - 내역이 저장될 때마다 해당 유저를 변경 유저로 표시해 두고, 증분 대사는 직전 체크포인트 이후 변경된 유저만 확인한다.
+ *   (대사 중 다시 바뀐 유저는 표시가 남아 다음 증분 대사에서 다시 확인한다)
+ * - 내역 없이 저장소에 직접 들어간 잔액은 알 수 없으므로, 그런 유저는 reconcile(userIds) 로 지정해서 확인한다.
+ */
+public class PointReconciler implements PointHistoryListener {
+
+    private static final Logger log = LoggerFactory.getLogger(PointReconciler.class);
+
+    // 리프 작업 하나가 맡는 유저 수
+    private static final int USERS_PER_TASK = 64;
+    // 내역이 이보다 길면 합산도 나눠서 한다
+    private static final int HISTORY_ROWS_PER_TASK = 64 * 1024;
+    // 병렬도당 합계 파티션 수
+    private static final int PARTITIONS_PER_THREAD = 4;
+
+    private final BalanceStore balanceStore;
+    private final HistoryStore historyStore;
+    private final UserLockManager userLockManager;
+    private final HeldPoints heldPoints;
+    private final ForkJoinPool pool;
+    private final long lockWaitMillis;
+
+    // 내역이 있는 유저 -> 마지막 변경 순번 (시작할 때 채운 유저는 0)
+    private final Map<Long, Long> knownUsers = new ConcurrentHashMap<>();
+    // 변경 유저 -> 마지막 변경 순번. 대사한 시점의 순번과 같을 때만 지운다
+    private final Map<Long, Long> dirtyUsers = new ConcurrentHashMap<>();
+    private final AtomicLong changeSequence = new AtomicLong();
+
+    private volatile ReconciliationReport lastReport;
+
+    /**
+     * @param parallelism    대사에 쓸 스레드 수
+     * @param lockWaitMillis 유저 락 대기 시간. 넘기면 그 유저는 다음 대사로 미룬다.
+     */
+    public PointReconciler(PointService pointService,
+                           BalanceStore balanceStore,
+                           HistoryStore historyStore,
+                           UserLockManager userLockManager,
+                           PointReservationService pointReservationService,
+                           int parallelism,
+                           long lockWaitMillis) {
+        this(pointService, balanceStore, historyStore, userLockManager,
+                pointReservationService::getHeldPoint, parallelism, lockWaitMillis);
+    }
+
+    /**
+     * @param heldPoints     유저별 예약으로 잡혀 있는 포인트 (예약을 끄면 항상 0)
+     * @param parallelism    대사에 쓸 스레드 수
+     * @param lockWaitMillis 유저 락 대기 시간. 넘기면 그 유저는 다음 대사로 미룬다.
+     */
+    public PointReconciler(PointService pointService,
+                           BalanceStore balanceStore,
+                           HistoryStore historyStore,
+                           UserLockManager userLockManager,
+                           HeldPoints heldPoints,
+                           int parallelism,
+                           long lockWaitMillis) {
+        this.balanceStore = balanceStore;
+        this.historyStore = historyStore;
+        this.userLockManager = userLockManager;
+        this.heldPoints = heldPoints;
+        this.pool = new ForkJoinPool(parallelism);
+        this.lockWaitMillis = lockWaitMillis;
+        historyStore.forEachUserId(userId -> {
+            knownUsers.put(userId, 0L);
+            dirtyUsers.put(userId, 0L);
+        });
+        log.info("잔액 대사 대상을 내역 저장소로 채웠습니다. 유저 {}명", knownUsers.size());
+        pointService.addHistoryListener(this);
+    }
+
+    @Override
+    public void onHistoryRecorded(PointHistory history) {
+        long sequence = changeSequence.incrementAndGet();
+        knownUsers.put(history.userId(), sequence);
+        dirtyUsers.put(history.userId(), sequence);
+    }
+
+    /**
+     * 내역이 한 번이라도 저장된 전체 유저를 대사한다.
+     */
+    public ReconciliationReport reconcileAll() {
+        Map<Long, Long> checkpoint = new HashMap<>(dirtyUsers);
+        long scanSequence = changeSequence.get();
+        List<Map<Long, HistoryTotal>> partitions = new ArrayList<>();
+        for (int i = 0; i < pool.getParallelism() * PARTITIONS_PER_THREAD; i++) {
+            partitions.add(new HashMap<>());
+        }
+        boolean scanned = historyStore.forEachHistory(history -> partitions
+                .get(partitionOf(history.userId(), partitions.size()))
+                .computeIfAbsent(history.userId(), userId -> new HistoryTotal())
+                .add(history));
+        if (!scanned) {
+            long[] ids = knownUsers.keySet().stream().mapToLong(Long::longValue).toArray();
+            return run(ReconciliationReport.Mode.FULL, () -> pool.invoke(new UsersTask(ids, 0, ids.length)), checkpoint);
+        }
+        for (Long userId : knownUsers.keySet()) {
+            partitions.get(partitionOf(userId, partitions.size())).putIfAbsent(userId, new HistoryTotal());
+        }
+        return run(ReconciliationReport.Mode.FULL,
+                () -> pool.invoke(new PartitionsTask(partitions, 0, partitions.size(), scanSequence)), checkpoint);
+    }
+
+    /**
+     * 직전 체크포인트 이후 내역이 저장된 유저만 대사한다.
+     */
+    public ReconciliationReport reconcileIncremental() {
+        Map<Long, Long> checkpoint = new HashMap<>(dirtyUsers);
+        return run(ReconciliationReport.Mode.INCREMENTAL, checkpoint.keySet(), checkpoint);
+    }
+
+    /**
+     * 지정한 유저만 대사한다. 변경 유저 표시는 건드리지 않는다.
+     */
+    public ReconciliationReport reconcile(Collection<Long> userIds) {
+        return run(ReconciliationReport.Mode.MANUAL, userIds, Map.of());
+    }
+
+    public ReconciliationReport lastReport() {
+        return lastReport;
+    }
+
+    /**
+     * 다음 증분 대사에서 확인할 유저 수
+     */
+    public int pendingUsers() {
+        return dirtyUsers.size();
+    }
+
+    public int knownUsers() {
+        return knownUsers.size();
+    }
+
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private ReconciliationReport run(ReconciliationReport.Mode mode, Collection<Long> userIds, Map<Long, Long> checkpoint) {
+        long[] ids = userIds.stream().mapToLong(Long::longValue).toArray();
+        return run(mode, () -> pool.invoke(new UsersTask(ids, 0, ids.length)), checkpoint);
+    }
+
+    private ReconciliationReport run(ReconciliationReport.Mode mode, Supplier<Partial> work, Map<Long, Long> checkpoint) {
+        long startedAt = System.currentTimeMillis();
+        long start = System.nanoTime();
+
+        Partial result = work.get();
+
+        // 이번에 확인한 유저 중 대사 이후 다시 바뀌지 않은 유저만 체크포인트에서 지운다
+        for (long userId : result.checkedUserIds) {
+            Long version = checkpoint.get(userId);
+            if (version != null) {
+                dirtyUsers.remove(userId, version);
+            }
+        }
+
+        ReconciliationReport report = new ReconciliationReport(mode, startedAt,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                result.checkedUserIds.size(), result.skippedUsers, result.historyRows, result.mismatchCount,
+                List.copyOf(result.mismatches));
+        lastReport = report;
+
+        if (report.isConsistent()) {
+            log.info("잔액 대사 완료 - mode={}, 유저 {}명, 내역 {}건, {}ms, 미룬 유저 {}명",
+                    mode, report.checkedUsers(), report.historyRows(), report.elapsedMillis(), report.skippedUsers());
+        } else {
+            log.warn("잔액 대사 불일치 발견 - mode={}, 불일치 {}명 / 유저 {}명, 예시={}",
+                    mode, report.mismatchCount(), report.checkedUsers(), report.mismatches().get(0));
+        }
+        return report;
+    }
+
+    /**
+     * 유저 한 명을 대사한다. 유저 락을 얻지 못하면 null
+     */
+    private UserCheck check(long userId) {
+        try {
+            return userLockManager.executeWithLock(userId, Deadline.afterMillis(lockWaitMillis), () -> checkLocked(userId));
+        } catch (DeadlineExceededException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 훑어서 모은 합계로 유저 한 명을 대사한다. 훑기 시작한 뒤 바뀐 유저는 내역을 다시 읽는다. 유저 락을 얻지 못하면 null
+     */
+    private UserCheck check(long userId, HistoryTotal total, long scanSequence) {
+        try {
+            return userLockManager.executeWithLock(userId, Deadline.afterMillis(lockWaitMillis), () -> {
+                if (knownUsers.getOrDefault(userId, 0L) > scanSequence) {
+                    return checkLocked(userId);
+                }
+                return compare(userId, total.balance, total.rows);
+            });
+        } catch (DeadlineExceededException e) {
+            return null;
+        }
+    }
+
+    private UserCheck checkLocked(long userId) {
+        List<PointHistory> histories = historyStore.selectAllByUserId(userId);
+        long historyBalance = histories.size() > HISTORY_ROWS_PER_TASK
+                ? new HistorySumTask(histories, 0, histories.size()).invoke()
+                : signedSum(histories, 0, histories.size());
+        return compare(userId, historyBalance, histories.size());
+    }
+
+    private UserCheck compare(long userId, long historyBalance, int historyRows) {
+        long balance = balanceStore.selectById(userId).point();
+        long held = heldPoints.of(userId);
+        BalanceMismatch mismatch = balance == historyBalance - held
+                ? null
+                : new BalanceMismatch(userId, balance, historyBalance, held);
+        return new UserCheck(historyRows, mismatch);
+    }
+
+    private static long signedSum(List<PointHistory> histories, int from, int to) {
+        long sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += signed(histories.get(i));
+        }
+        return sum;
+    }
+
+    private static long signed(PointHistory history) {
+        return history.type() == TransactionType.CHARGE ? history.amount() : -history.amount();
+    }
+
+    private static int partitionOf(long userId, int partitions) {
+        return Math.floorMod(Long.hashCode(userId) * 0x9E3779B9, partitions);
+    }
+
+    private record UserCheck(int historyRows, BalanceMismatch mismatch) {
+    }
+
+    /**
+     * 훑는 동안 유저 한 명의 내역 합계. 훑기는 한 스레드에서 하므로 동기화하지 않는다.
+     */
+    private static final class HistoryTotal {
+        private long balance;
+        private int rows;
+
+        private HistoryTotal add(PointHistory history) {
+            balance += signed(history);
+            rows++;
+            return this;
+        }
+    }
+
+    /**
+     * 리프 작업 결과. 합칠 때만 쓰이므로 스레드 간에 공유되지 않는다.
+     */
+    private static final class Partial {
+        private final List<Long> checkedUserIds = new ArrayList<>();
+        private final List<BalanceMismatch> mismatches = new ArrayList<>();
+        private int skippedUsers;
+        private long historyRows;
+        private long mismatchCount;
+
+        private void add(long userId, UserCheck check) {
+            if (check == null) {
+                skippedUsers++;
+                return;
+            }
+            checkedUserIds.add(userId);
+            historyRows += check.historyRows();
+            if (check.mismatch() != null) {
+                mismatchCount++;
+                if (mismatches.size() < ReconciliationReport.MAX_REPORTED_MISMATCHES) {
+                    mismatches.add(check.mismatch());
+                }
+            }
+        }
+
+        private Partial merge(Partial other) {
+            checkedUserIds.addAll(other.checkedUserIds);
+            skippedUsers += other.skippedUsers;
+            historyRows += other.historyRows;
+            mismatchCount += other.mismatchCount;
+            for (BalanceMismatch mismatch : other.mismatches) {
+                if (mismatches.size() >= ReconciliationReport.MAX_REPORTED_MISMATCHES) {
+                    break;
+                }
+                mismatches.add(mismatch);
+            }
+            return this;
+        }
+    }
+
+    private final class UsersTask extends RecursiveTask<Partial> {
+
+        private final long[] userIds;
+        private final int from;
+        private final int to;
+
+        private UsersTask(long[] userIds, int from, int to) {
+            this.userIds = userIds;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from <= USERS_PER_TASK) {
+                return computeDirectly();
+            }
+            int mid = (from + to) >>> 1;
+            UsersTask left = new UsersTask(userIds, from, mid);
+            left.fork();
+            Partial right = new UsersTask(userIds, mid, to).compute();
+            return left.join().merge(right);
+        }
+
+        private Partial computeDirectly() {
+            Partial partial = new Partial();
+            for (int i = from; i < to; i++) {
+                partial.add(userIds[i], check(userIds[i]));
+            }
+            return partial;
+        }
+    }
+
+    /**
+     * 훑어서 모은 합계 파티션을 나눠 확인한다.
+     */
+    private final class PartitionsTask extends RecursiveTask<Partial> {
+
+        private final List<Map<Long, HistoryTotal>> partitions;
+        private final int from;
+        private final int to;
+        private final long scanSequence;
+
+        private PartitionsTask(List<Map<Long, HistoryTotal>> partitions, int from, int to, long scanSequence) {
+            this.partitions = partitions;
+            this.from = from;
+            this.to = to;
+            this.scanSequence = scanSequence;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from <= 1) {
+                Partial partial = new Partial();
+                for (int i = from; i < to; i++) {
+                    partitions.get(i).forEach((userId, total) -> partial.add(userId, check(userId, total, scanSequence)));
+                }
+                return partial;
+            }
+            int mid = (from + to) >>> 1;
+            PartitionsTask left = new PartitionsTask(partitions, from, mid, scanSequence);
+            left.fork();
+            Partial right = new PartitionsTask(partitions, mid, to, scanSequence).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    private static final class HistorySumTask extends RecursiveTask<Long> {
+
+        private final List<PointHistory> histories;
+        private final int from;
+        private final int to;
+
+        private HistorySumTask(List<PointHistory> histories, int from, int to) {
+            this.histories = histories;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from <= HISTORY_ROWS_PER_TASK) {
+                return signedSum(histories, from, to);
+            }
+            int mid = (from + to) >>> 1;
+            HistorySumTask left = new HistorySumTask(histories, from, mid);
+            left.fork();
+            long right = new HistorySumTask(histories, mid, to).compute();
+            return left.join() + right;
+        }
+    }
+
+    /**
+     * 유저별 예약으로 잡혀 있는 포인트
+     */
+    @FunctionalInterface
+    public interface HeldPoints {
+
+        long of(long userId);
+    }
+}
@@ -0,0 +1,34 @@
+package io.hhplus.tdd.reconciliation;
+
+import io.hhplus.tdd.point.PointReservationService;
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.UserLockManager;
+import io.hhplus.tdd.storage.BalanceStore;
+import io.hhplus.tdd.storage.HistoryStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ReconciliationConfig {
+
+    /**
+     * @param parallelism 0 이면 CPU 코어 수
+     * @param pointReservationService 예약을 끄면(point.reservation.enabled=false) 없으므로 잡혀 있는 포인트를 0 으로 본다
+     */
+    @Bean(destroyMethod = "shutdown")
+    public PointReconciler pointReconciler(PointService pointService,
+                                           BalanceStore balanceStore,
+                                           HistoryStore historyStore,
+                                           UserLockManager userLockManager,
+                                           ObjectProvider<PointReservationService> pointReservationService,
+                                           @Value("${point.reconciliation.parallelism:0}") int parallelism,
+                                           @Value("${point.reconciliation.lock-wait-millis:100}") long lockWaitMillis) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        PointReservationService reservations = pointReservationService.getIfAvailable();
+        PointReconciler.HeldPoints heldPoints = reservations != null ? reservations::getHeldPoint : userId -> 0L;
+        return new PointReconciler(pointService, balanceStore, historyStore, userLockManager,
+                heldPoints, threads, lockWaitMillis);
+    }
+}
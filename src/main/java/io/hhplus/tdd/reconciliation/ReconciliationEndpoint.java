@@ -0,0 +1,48 @@
+package io.hhplus.tdd.reconciliation;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * 잔액 대사 actuator 엔드포인트
+ * - GET  /actuator/reconciliation : 마지막 대사 결과와 다음 증분 대사 대상 유저 수
+ * - POST /actuator/reconciliation : 대사 실행. body 의 mode 가 "full" 이면 전체, 없으면 증분
+ */
+@Component
+@Endpoint(id = "reconciliation")
+public class ReconciliationEndpoint {
+
+    private final PointReconciler pointReconciler;
+
+    public ReconciliationEndpoint(PointReconciler pointReconciler) {
+        this.pointReconciler = pointReconciler;
+    }
+
+    @ReadOperation
+    public ReconciliationStatus status() {
+        return new ReconciliationStatus(pointReconciler.knownUsers(), pointReconciler.pendingUsers(), pointReconciler.lastReport());
+    }
+
+    @WriteOperation
+    public ReconciliationReport run(@Nullable String mode) {
+        if ("full".equalsIgnoreCase(mode)) {
+            return pointReconciler.reconcileAll();
+        }
+        return pointReconciler.reconcileIncremental();
+    }
+
+    /**
+     * @param knownUsers   내역이 한 번이라도 저장된 유저 수
+     * @param pendingUsers 다음 증분 대사에서 확인할 유저 수
+     * @param lastReport   마지막 대사 결과 (아직 없으면 null)
+     */
+    public record ReconciliationStatus(
+            int knownUsers,
+            int pendingUsers,
+            ReconciliationReport lastReport
+    ) {
+    }
+}
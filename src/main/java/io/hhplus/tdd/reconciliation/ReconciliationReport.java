@@ -0,0 +1,37 @@
+package io.hhplus.tdd.reconciliation;
+
+import java.util.List;
+
+/**
+ * 잔액 대사 결과
+ *
+ * @param mode            FULL(알려진 전체 유저) / INCREMENTAL(직전 체크포인트 이후 변경된 유저) / MANUAL(지정한 유저)
+ * @param startedAtMillis 시작 시각
+ * @param elapsedMillis   걸린 시간
+ * @param checkedUsers    대사한 유저 수
+ * @param skippedUsers    유저 락을 얻지 못해 다음 대사로 미룬 유저 수
+ * @param historyRows     읽은 내역 건수
+ * @param mismatchCount   불일치 유저 수
+ * @param mismatches      불일치 목록 (최대 MAX_REPORTED_MISMATCHES 건)
+ */
+public record ReconciliationReport(
+        Mode mode,
+        long startedAtMillis,
+        long elapsedMillis,
+        int checkedUsers,
+        int skippedUsers,
+        long historyRows,
+        long mismatchCount,
+        List<BalanceMismatch> mismatches
+) {
+
+    public static final int MAX_REPORTED_MISMATCHES = 1_000;
+
+    public enum Mode {
+        FULL, INCREMENTAL, MANUAL
+    }
+
+    public boolean isConsistent() {
+        return mismatchCount == 0;
+    }
+}
@@ -0,0 +1,66 @@
+package io.hhplus.tdd.replication;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * 주 노드의 GET /replication/log 로 복제 로그를, GET /replication/snapshot 으로 스냅숏을 받는다.
+ */
+public class HttpReplicationSource implements ReplicationSource {
+
+    // 주 노드가 대기 시간을 다 쓰고 응답할 시간
+    private static final long RESPONSE_SLACK_MILLIS = 5_000;
+    // 스냅숏은 유저 수에 비례해 오래 걸린다
+    private static final long SNAPSHOT_TIMEOUT_MILLIS = 300_000;
+
+    private final String primaryUrl;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param primaryUrl 주 노드 주소 (예: http://10.0.0.1:8080)
+     */
+    public HttpReplicationSource(String primaryUrl, HttpClient httpClient, ObjectMapper objectMapper) {
+        this.primaryUrl = primaryUrl;
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public ReplicationBatch fetch(long from, int limit, long waitMillis) throws IOException, InterruptedException {
+        URI uri = URI.create(primaryUrl + "/replication/log?from=" + from + "&limit=" + limit + "&waitMillis=" + waitMillis);
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofMillis(waitMillis + RESPONSE_SLACK_MILLIS))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() == 410) {
+            throw new IllegalStateException("주 노드 복제 로그에서 밀려났습니다. from=" + from);
+        }
+        if (response.statusCode() != 200) {
+            throw new IOException("주 노드가 복제 로그 요청을 거절했습니다. status=" + response.statusCode());
+        }
+        return objectMapper.readValue(response.body(), ReplicationBatch.class);
+    }
+
+    @Override
+    public ReplicationSnapshot snapshot() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(primaryUrl + "/replication/snapshot"))
+                .timeout(Duration.ofMillis(SNAPSHOT_TIMEOUT_MILLIS))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IOException("주 노드가 스냅숏 요청을 거절했습니다. status=" + response.statusCode());
+        }
+        return objectMapper.readValue(response.body(), ReplicationSnapshot.class);
+    }
+}
@@ -0,0 +1,21 @@
+package io.hhplus.tdd.replication;
+
+import java.util.List;
+
+/**
+ * 복제 로그 조회 결과
+ *
+ * @param epoch   주 노드 실행 ID. 주 노드가 다시 시작하면 바뀌고 순번도 1 부터 다시 매겨진다.
+ * @param from    요청한 시작 순번
+ * @param next    다음에 요청할 시작 순번 (받은 로그가 없으면 from 과 같다)
+ * @param head    조회 시점에 발급된 마지막 순번
+ * @param entries 순번 순으로 정렬된 로그
+ */
+public record ReplicationBatch(
+        String epoch,
+        long from,
+        long next,
+        long head,
+        List<ReplicationEntry> entries
+) {
+}
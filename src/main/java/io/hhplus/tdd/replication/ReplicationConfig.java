@@ -0,0 +1,91 @@
+package io.hhplus.tdd.replication;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.storage.HistoryStore;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+/**
+ * 주-팔로워 복제 (point.replication.role)
+ * - none: 복제하지 않는다. (기본값)
+ * - primary: 충전/사용/이체 등 모든 변경을 처리하고 복제 로그를 GET /replication/log 로 내보낸다.
+ * - follower: point.replication.primary-url 의 로그를 받아 저장하고 잔액/내역 조회를 처리한다. 나머지 요청은 주 노드로 보낸다.
+ *   주 노드 잔액을 변경 시각까지 그대로 담아야 하므로 table 저장소(UserPointTable)로는 띄우지 않는다.
+ */
+@Configuration
+public class ReplicationConfig {
+
+    @Configuration
+    @ConditionalOnProperty(name = "point.replication.role", havingValue = "primary")
+    static class PrimaryConfig {
+
+        /**
+         * @param size 팔로워가 뒤처져도 이어 받을 수 있는 최근 로그 수
+         */
+        @Bean
+        public ReplicationLog replicationLog(PointService pointService,
+                                             HistoryStore historyStore,
+                                             @Qualifier("pointTaskExecutor") Executor pointTaskExecutor,
+                                             @Value("${point.replication.log-size:1048576}") int size) {
+            return new ReplicationLog(pointService, historyStore, pointTaskExecutor, size);
+        }
+    }
+
+    @Configuration
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnProperty(name = "point.replication.role", havingValue = "follower")
+    static class FollowerConfig {
+
+        FollowerConfig(@Value("${point.storage.type:memory}") String storageType) {
+            if ("table".equals(storageType)) {
+                throw new IllegalStateException(
+                        "팔로워는 잔액 변경 시각을 그대로 저장할 수 있는 저장소를 써야 합니다. point.storage.type=memory|file|tiered|jdbc");
+            }
+        }
+
+        @Bean(destroyMethod = "close")
+        public ReplicationFollower replicationFollower(PointService pointService,
+                                                       ObjectMapper objectMapper,
+                                                       @Value("${point.replication.primary-url}") String primaryUrl,
+                                                       @Value("${point.replication.batch-size:1000}") int batchSize,
+                                                       @Value("${point.replication.poll-wait-millis:10000}") long pollWaitMillis,
+                                                       @Value("${point.replication.retry-millis:1000}") long retryMillis) {
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofMillis(retryMillis))
+                    .build();
+            ReplicationFollower follower = new ReplicationFollower(pointService,
+                    new HttpReplicationSource(primaryUrl, httpClient, objectMapper), batchSize, pollWaitMillis, retryMillis);
+            follower.start();
+            return follower;
+        }
+
+        /**
+         * @param readWaitMillis X-Point-Min-LSN 조회가 복제를 기다릴 최대 시간
+         */
+        @Bean
+        public FilterRegistrationBean<ReplicationFollowerFilter> replicationFollowerFilter(
+                ReplicationFollower replicationFollower,
+                ObjectMapper objectMapper,
+                @Value("${point.replication.primary-url}") String primaryUrl,
+                @Value("${point.replication.read-wait-millis:1000}") long readWaitMillis) {
+            FilterRegistrationBean<ReplicationFollowerFilter> registration = new FilterRegistrationBean<>(
+                    new ReplicationFollowerFilter(replicationFollower, primaryUrl, readWaitMillis, objectMapper));
+            registration.addUrlPatterns("/point/*", "/async/point/*");
+            // 주 노드로 보낼 요청은 이 노드의 동시 처리 한도나 빈도 제한을 쓰지 않는다
+            registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+            return registration;
+        }
+    }
+}
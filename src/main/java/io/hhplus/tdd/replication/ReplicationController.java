@@ -0,0 +1,62 @@
+package io.hhplus.tdd.replication;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/replication")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "point.replication.role", havingValue = "primary")
+public class ReplicationController {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicationController.class);
+
+    private final ReplicationLog replicationLog;
+
+    public ReplicationController(ReplicationLog replicationLog) {
+        this.replicationLog = replicationLog;
+    }
+
+    /**
+     * 팔로워가 복제 로그를 받아 가는 API (롱 폴링)
+     * - 응답의 next 를 다음 요청의 from 으로 넘기면 빠짐없이 이어 받는다.
+     * - 보관 기간이 지난 순번을 요청하면 410 을 돌려준다.
+     *
+     * @param from       받기 시작할 순번 (1 부터)
+     * @param limit      최대 건수 (1 ~ 1000, 기본 100)
+     * @param waitMillis 새 로그가 없을 때 기다릴 시간 (0 ~ 30000, 기본 0)
+     */
+    @GetMapping("log")
+    public CompletableFuture<ReplicationBatch> log(@RequestParam(defaultValue = "1") long from,
+                                                   @RequestParam(defaultValue = "100") int limit,
+                                                   @RequestParam(defaultValue = "0") long waitMillis) {
+        try {
+            return replicationLog.poll(from, limit, waitMillis);
+        } catch (IllegalArgumentException e) {
+            log.warn("복제 로그 조회 실패: from={}, limit={}, 사유={}", from, limit, e.getMessage());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IllegalStateException e) {
+            log.warn("복제 로그 조회 실패: from={}, 사유={}", from, e.getMessage());
+            throw new ResponseStatusException(HttpStatus.GONE, e.getMessage());
+        }
+    }
+
+    /**
+     * 팔로워가 로그를 이어 받을 수 없을 때(시작, 주 노드 재시작, 로그에서 밀려남) 받아 가는 잔액과 내역 스냅숏
+     * - 응답의 lsn 다음 순번부터 로그를 이어 받는다.
+     */
+    @GetMapping("snapshot")
+    public ReplicationSnapshot snapshot() {
+        return replicationLog.snapshot();
+    }
+}
@@ -0,0 +1,26 @@
+package io.hhplus.tdd.replication;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.UserPoint;
+
+/**
+ * 복제 로그의 한 건. balance 와 history 중 하나만 채워진다.
+ *
+ * @param lsn     로그 순번. 주 노드 전체에 걸쳐 1 부터 하나씩 늘어난다.
+ * @param balance 저장된 잔액
+ * @param history 저장된 내역
+ */
+public record ReplicationEntry(
+        long lsn,
+        UserPoint balance,
+        PointHistory history
+) {
+
+    public static ReplicationEntry balance(long lsn, UserPoint balance) {
+        return new ReplicationEntry(lsn, balance, null);
+    }
+
+    public static ReplicationEntry history(long lsn, PointHistory history) {
+        return new ReplicationEntry(lsn, null, history);
+    }
+}
@@ -0,0 +1,246 @@
+package io.hhplus.tdd.replication;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 팔로워 노드의 복제 스레드
+ * - 주 노드의 복제 로그를 롱 폴링으로 이어 받아 순번 순서대로 이 노드의 저장소에 저장한다.
+ * - 반영한 마지막 순번(appliedLsn)을 기다리는 조회는 awaitApplied 로 그 순번까지 반영되기를 기다린다.
+ * - 주 노드에 연결하지 못하면 잠시 쉬었다가 같은 순번부터 다시 받는다.
+ * - 시작할 때, 주 노드가 다시 시작해 epoch 가 바뀌었을 때, 주 노드 로그에서 밀려났을 때는 스냅숏으로 다시 맞춘 뒤
+ *   스냅숏 순번 다음부터 이어 받는다. 맞추는 동안에는 stale 로 보여 조회를 주 노드에 보낸다.
+ * - 내역은 유저별로 반영한 주 노드 내역 id 를 기억해 이미 반영한 내역을 건너뛴다. (스냅숏과 로그가 겹치는 구간)
+ *   스냅숏으로 맞출 때는 이 노드에 남아 있는 유저 내역(file 저장소라면 재시작 전 내역)을 앞부분으로 보고 나머지만 더한다.
+ * - 이 노드의 내역이 주 노드 내역의 앞부분이 아니면(주 노드가 내역을 잃었다) 내역을 지울 수 없으므로 복제를 멈추고 stale 이 된다.
+ */
+public class ReplicationFollower implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicationFollower.class);
+
+    private final PointService pointService;
+    private final ReplicationSource source;
+    private final int batchSize;
+    private final long pollWaitMillis;
+    private final long retryMillis;
+    private final Thread thread;
+
+    private final Object appliedMonitor = new Object();
+    // 복제 스레드만 쓴다
+    private volatile long appliedLsn;
+    private volatile boolean stale;
+    private volatile boolean bootstrapping = true;
+    // 복제 스레드만 쓴다. 이어 받고 있는 주 노드 실행 ID (스냅숏으로 맞추기 전이면 null)
+    private String epoch;
+    // 복제 스레드만 쓴다. 유저별로 반영한 마지막 주 노드 내역 id. 유저마다 한 칸씩 남는다
+    private final Map<Long, Long> appliedHistoryIds = new HashMap<>();
+    private volatile boolean running = true;
+
+    /**
+     * @param batchSize      한 번에 받을 최대 로그 수
+     * @param pollWaitMillis 새 로그가 없을 때 주 노드에서 기다릴 시간
+     * @param retryMillis    주 노드에 연결하지 못했을 때 다시 시도하기 전 쉬는 시간
+     */
+    public ReplicationFollower(PointService pointService, ReplicationSource source,
+                               int batchSize, long pollWaitMillis, long retryMillis) {
+        this.pointService = pointService;
+        this.source = source;
+        this.batchSize = batchSize;
+        this.pollWaitMillis = pollWaitMillis;
+        this.retryMillis = retryMillis;
+        this.thread = new Thread(this::run, "point-replication-follower");
+        this.thread.setDaemon(true);
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    /**
+     * 반영한 마지막 순번
+     */
+    public long appliedLsn() {
+        return appliedLsn;
+    }
+
+    /**
+     * 복제를 멈췄거나 스냅숏으로 맞추는 중이면 true. 이 노드의 잔액과 내역을 믿을 수 없다.
+     */
+    public boolean isStale() {
+        return stale || bootstrapping;
+    }
+
+    /**
+     * lsn 까지 반영될 때까지 최대 timeoutMillis 기다린다.
+     *
+     * @return 반영되었으면 true. 시간이 지났거나 stale 이 되었으면 false
+     */
+    public boolean awaitApplied(long lsn, long timeoutMillis) throws InterruptedException {
+        if (appliedLsn >= lsn && !bootstrapping) {
+            return true;
+        }
+        long deadline = System.nanoTime() + timeoutMillis * 1_000_000;
+        synchronized (appliedMonitor) {
+            while ((appliedLsn < lsn || bootstrapping) && !stale) {
+                long remainingMillis = (deadline - System.nanoTime()) / 1_000_000;
+                if (remainingMillis <= 0) {
+                    return false;
+                }
+                appliedMonitor.wait(remainingMillis);
+            }
+            return appliedLsn >= lsn && !bootstrapping;
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        thread.interrupt();
+        try {
+            thread.join(retryMillis + pollWaitMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                if (epoch == null) {
+                    if (!bootstrap()) {
+                        stale = true;
+                        signalApplied();
+                        return;
+                    }
+                    continue;
+                }
+                ReplicationBatch batch = source.fetch(appliedLsn + 1, batchSize, pollWaitMillis);
+                if (!epoch.equals(batch.epoch())) {
+                    log.warn("주 노드가 다시 시작되었습니다. 스냅숏으로 다시 맞춥니다. epoch={} -> {}, appliedLsn={}",
+                            epoch, batch.epoch(), appliedLsn);
+                    epoch = null;
+                    continue;
+                }
+                if (!batch.entries().isEmpty()) {
+                    for (ReplicationEntry entry : batch.entries()) {
+                        apply(entry);
+                        appliedLsn = entry.lsn();
+                    }
+                    signalApplied();
+                }
+            } catch (IllegalStateException e) {
+                log.warn("주 노드 복제 로그를 이어 받을 수 없어 스냅숏으로 다시 맞춥니다. appliedLsn={}, 사유={}", appliedLsn, e.getMessage());
+                epoch = null;
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("주 노드 복제 로그를 받지 못했습니다. {}ms 뒤 다시 시도합니다. appliedLsn={}, 사유={}",
+                        retryMillis, appliedLsn, e.getMessage());
+                try {
+                    Thread.sleep(retryMillis);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 주 노드 스냅숏으로 잔액과 내역을 맞춘다.
+     *
+     * @return 이 노드의 내역이 주 노드와 달라 맞출 수 없으면 false
+     */
+    private boolean bootstrap() throws IOException, InterruptedException {
+        bootstrapping = true;
+        ReplicationSnapshot snapshot = source.snapshot();
+        appliedHistoryIds.clear();
+        for (ReplicationSnapshot.UserState user : snapshot.users()) {
+            if (!applySnapshot(user)) {
+                return false;
+            }
+        }
+        epoch = snapshot.epoch();
+        appliedLsn = snapshot.lsn();
+        bootstrapping = false;
+        signalApplied();
+        log.info("주 노드 스냅숏으로 맞췄습니다. epoch={}, lsn={}, 유저 {}명", epoch, appliedLsn, snapshot.users().size());
+        return true;
+    }
+
+    private boolean applySnapshot(ReplicationSnapshot.UserState user) {
+        long userId = user.balance().id();
+        List<PointHistory> primary = user.histories();
+        List<PointHistory> local = localHistories(userId);
+        if (!isPrefix(local, primary)) {
+            log.error("이 노드의 내역이 주 노드 내역의 앞부분이 아니어서 복제를 멈춥니다. userId={}, 이 노드 {}건, 주 노드 {}건",
+                    userId, local.size(), primary.size());
+            return false;
+        }
+        for (int i = local.size(); i < primary.size(); i++) {
+            pointService.applyReplicatedHistory(primary.get(i));
+        }
+        if (!primary.isEmpty()) {
+            appliedHistoryIds.put(userId, primary.get(primary.size() - 1).id());
+        }
+        pointService.applyReplicatedBalance(user.balance());
+        return true;
+    }
+
+    private List<PointHistory> localHistories(long userId) {
+        try {
+            return pointService.getHistories(userId);
+        } catch (IllegalArgumentException e) {
+            // 내역이 없다
+            return List.of();
+        }
+    }
+
+    /**
+     * 내역 id 는 노드마다 다르므로 금액, 종류, 시각으로 비교한다.
+     */
+    private static boolean isPrefix(List<PointHistory> local, List<PointHistory> primary) {
+        if (local.size() > primary.size()) {
+            return false;
+        }
+        for (int i = 0; i < local.size(); i++) {
+            PointHistory mine = local.get(i);
+            PointHistory theirs = primary.get(i);
+            if (mine.amount() != theirs.amount() || mine.type() != theirs.type() || mine.updateMillis() != theirs.updateMillis()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void apply(ReplicationEntry entry) {
+        if (entry.balance() != null) {
+            pointService.applyReplicatedBalance(entry.balance());
+        } else if (entry.history() != null) {
+            PointHistory history = entry.history();
+            Long applied = appliedHistoryIds.get(history.userId());
+            if (applied != null && history.id() <= applied) {
+                // 스냅숏에 이미 담긴 내역
+                return;
+            }
+            pointService.applyReplicatedHistory(history);
+            appliedHistoryIds.put(history.userId(), history.id());
+        }
+    }
+
+    private void signalApplied() {
+        synchronized (appliedMonitor) {
+            appliedMonitor.notifyAll();
+        }
+    }
+}
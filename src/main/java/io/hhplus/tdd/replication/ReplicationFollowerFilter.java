@@ -0,0 +1,84 @@
+package io.hhplus.tdd.replication;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hhplus.tdd.ErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+/**
+ * 팔로워 노드의 포인트 API 필터
+ * - 잔액/내역 조회(GET /point/{id}, GET /point/{id}/histories)만 이 노드가 처리하고, 나머지는 307 로 주 노드에 보낸다.
+ *   (307 은 메서드와 본문을 그대로 다시 보내게 한다)
+ * - 조회에 X-Point-Min-LSN 이 있으면 그 순번까지 반영되기를 최대 readWaitMillis 기다린다. 그래도 따라오지 못했으면 주 노드에 보낸다.
+ * - 복제를 멈췄거나 스냅숏으로 맞추는 중인(stale) 팔로워는 조회도 주 노드에 보낸다.
+ * - 처리한 조회에는 반영한 마지막 순번을 X-Point-LSN 으로 돌려준다.
+ */
+public class ReplicationFollowerFilter extends OncePerRequestFilter {
+
+    private static final Pattern READ_PATH = Pattern.compile("^/point/-?\\d+(?:/histories)?$");
+
+    private final ReplicationFollower follower;
+    private final String primaryUrl;
+    private final long readWaitMillis;
+    private final ObjectMapper objectMapper;
+
+    public ReplicationFollowerFilter(ReplicationFollower follower, String primaryUrl, long readWaitMillis, ObjectMapper objectMapper) {
+        this.follower = follower;
+        this.primaryUrl = primaryUrl;
+        this.readWaitMillis = readWaitMillis;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (HttpMethod.GET.matches(request.getMethod()) && READ_PATH.matcher(path).matches() && !follower.isStale()) {
+            String minLsn = request.getHeader(ReplicationLog.MIN_LSN_HEADER);
+            if (minLsn == null || awaitApplied(minLsn, response)) {
+                response.setHeader(ReplicationLog.LSN_HEADER, String.valueOf(follower.appliedLsn()));
+                chain.doFilter(request, response);
+                return;
+            }
+            if (response.isCommitted()) {
+                return;
+            }
+        }
+        String query = request.getQueryString();
+        response.setStatus(HttpStatus.TEMPORARY_REDIRECT.value());
+        response.setHeader(HttpHeaders.LOCATION, primaryUrl + request.getRequestURI() + (query == null ? "" : "?" + query));
+    }
+
+    /**
+     * @return 요청한 순번까지 반영되었으면 true. 잘못된 순번이면 400 을 쓰고 false
+     */
+    private boolean awaitApplied(String minLsn, HttpServletResponse response) throws IOException {
+        long lsn;
+        try {
+            lsn = Long.parseLong(minLsn.trim());
+        } catch (NumberFormatException e) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    new ErrorResponse("400", ReplicationLog.MIN_LSN_HEADER + " 는 숫자여야 합니다."));
+            response.flushBuffer();
+            return false;
+        }
+        try {
+            return follower.awaitApplied(lsn, readWaitMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package io.hhplus.tdd.replication;
+
+import io.hhplus.tdd.point.PointBalanceListener;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryListener;
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.storage.HistoryStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 주 노드의 복제 로그
+ * - 잔액이 저장되거나 내역이 남을 때마다 주 노드 전체에 걸쳐 하나씩 늘어나는 순번(LSN)을 붙여 고정 크기 링 버퍼에 담는다.
+ *   팔로워는 받은 마지막 순번 다음부터 이어 받아 순서대로 저장한다.
+ * - 순번은 유저 락 안에서 붙으므로 같은 유저의 변경은 저장된 순서대로 순번이 늘어난다.
+ * - 각 칸은 순번을 함께 기록하고, 읽는 쪽은 기대한 순번일 때만 받는다. 아직 쓰는 중인 칸을 만나면 거기서 멈춘다.
+ *   버퍼에서 밀려난 순번을 요청하면 IllegalStateException 을 던진다. 팔로워는 스냅숏(snapshot)으로 다시 맞춘다.
+ * - 실행마다 새 epoch 를 붙여 돌려준다. 주 노드가 다시 시작해 순번이 처음부터 매겨지면 팔로워가 epoch 로 알아챈다.
+ * - 스냅숏은 변경된 적 있는 유저(시작할 때 내역 저장소에 남아 있던 유저 포함)의 잔액과 내역을 담는다.
+ * - 변경 응답에는 그 시점의 마지막 순번을 LSN_HEADER 로 돌려준다. 팔로워에 MIN_LSN_HEADER 로 넘기면 그 순번까지 반영된 뒤 조회한다.
+ */
+public class ReplicationLog implements PointBalanceListener, PointHistoryListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicationLog.class);
+
+    public static final String LSN_HEADER = "X-Point-LSN";
+    public static final String MIN_LSN_HEADER = "X-Point-Min-LSN";
+
+    public static final int MAX_LIMIT = 1000;
+    public static final long MAX_WAIT_MILLIS = 30_000;
+
+    private final PointService pointService;
+    private final Executor wakeUpExecutor;
+    private final String epoch = UUID.randomUUID().toString();
+    // 스냅숏에 담을 유저. 순번을 붙이기 전에 더한다
+    private final Set<Long> users = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong lsn = new AtomicLong();
+    private final int mask;
+    private final AtomicReferenceArray<ReplicationEntry> entries;
+
+    // 다음 기록을 기다리는 팔로워가 있을 때만 만든다
+    private final AtomicReference<CompletableFuture<Void>> nextAppend = new AtomicReference<>();
+
+    /**
+     * @param size 팔로워가 뒤처져도 이어 받을 수 있는 최근 로그 수 (2의 거듭제곱으로 올림)
+     */
+    public ReplicationLog(PointService pointService, HistoryStore historyStore, Executor wakeUpExecutor, int size) {
+        if (size <= 0 || size > (1 << 30)) {
+            throw new IllegalArgumentException("복제 로그 크기가 올바르지 않습니다. size=" + size);
+        }
+        this.pointService = pointService;
+        this.wakeUpExecutor = wakeUpExecutor;
+        int capacity = 1;
+        while (capacity < size) {
+            capacity <<= 1;
+        }
+        this.mask = capacity - 1;
+        this.entries = new AtomicReferenceArray<>(capacity);
+
+        if (!historyStore.forEachUserId(users::add)) {
+            log.warn("내역 저장소가 유저 목록을 알려 줄 수 없어, 스냅숏에는 이 노드가 시작한 뒤 변경된 유저만 담깁니다. store={}",
+                    historyStore.getClass().getSimpleName());
+        }
+        pointService.addBalanceListener(this);
+        pointService.addHistoryListener(this);
+    }
+
+    @Override
+    public void onBalanceUpdated(UserPoint userPoint) {
+        users.add(userPoint.id());
+        long seq = lsn.incrementAndGet();
+        append(ReplicationEntry.balance(seq, userPoint));
+    }
+
+    @Override
+    public void onHistoryRecorded(PointHistory history) {
+        users.add(history.userId());
+        long seq = lsn.incrementAndGet();
+        append(ReplicationEntry.history(seq, history));
+    }
+
+    private void append(ReplicationEntry entry) {
+        entries.set((int) (entry.lsn() & mask), entry);
+        if (nextAppend.get() != null) {
+            CompletableFuture<Void> waiting = nextAppend.getAndSet(null);
+            if (waiting != null) {
+                waiting.complete(null);
+            }
+        }
+    }
+
+    /**
+     * 이 실행의 ID
+     */
+    public String epoch() {
+        return epoch;
+    }
+
+    /**
+     * 마지막으로 발급된 순번 (기록 전이면 0)
+     */
+    public long head() {
+        return lsn.get();
+    }
+
+    /**
+     * from 순번부터 최대 limit 건을 읽는다.
+     *
+     * @throws IllegalArgumentException from 이 1 보다 작거나 limit 이 범위를 벗어난 경우
+     * @throws IllegalStateException    from 이 버퍼에서 밀려나 이어 읽을 수 없는 경우
+     */
+    public ReplicationBatch read(long from, int limit) {
+        if (from < 1) {
+            throw new IllegalArgumentException("시작 순번은 1 이상이어야 합니다.");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("조회 건수는 1 이상 " + MAX_LIMIT + " 이하여야 합니다.");
+        }
+        long head = lsn.get();
+        List<ReplicationEntry> batch = new ArrayList<>();
+        long next = from;
+        while (batch.size() < limit && next <= head) {
+            ReplicationEntry entry = entries.get((int) (next & mask));
+            if (entry == null || entry.lsn() < next) {
+                // 아직 쓰는 중이다. 다음 조회에서 이어 읽는다.
+                break;
+            }
+            if (entry.lsn() > next) {
+                throw new IllegalStateException("보관 기간이 지난 로그입니다. from=" + from + ", 가장 오래된 순번=" + Math.max(1, head - mask));
+            }
+            batch.add(entry);
+            next++;
+        }
+        return new ReplicationBatch(epoch, from, next, head, batch);
+    }
+
+    /**
+     * 잔액과 내역 스냅숏. 순번을 먼저 읽고 유저를 훑으므로 그 순번까지의 변경은 모두 담긴다.
+     * 유저를 하나씩 읽으므로 유저 수와 내역 수에 비례해 오래 걸린다. 팔로워가 로그를 이어 받을 수 없을 때만 부른다.
+     */
+    public ReplicationSnapshot snapshot() {
+        long head = lsn.get();
+        List<ReplicationSnapshot.UserState> states = new ArrayList<>(users.size());
+        for (long userId : users) {
+            List<PointHistory> histories;
+            try {
+                histories = pointService.getHistories(userId);
+            } catch (IllegalArgumentException e) {
+                // 내역 없이 잔액만 있다
+                histories = List.of();
+            }
+            states.add(new ReplicationSnapshot.UserState(pointService.getPoint(userId), histories));
+        }
+        log.info("복제 스냅숏을 떴습니다. epoch={}, lsn={}, 유저 {}명", epoch, head, states.size());
+        return new ReplicationSnapshot(epoch, head, states);
+    }
+
+    /**
+     * 롱 폴링. from 이후 로그가 있으면 바로, 없으면 기록될 때까지 최대 waitMillis 기다렸다가 돌려준다.
+     * 기다리는 동안 스레드를 점유하지 않고, 시간이 지나면 빈 결과로 완료된다.
+     */
+    public CompletableFuture<ReplicationBatch> poll(long from, int limit, long waitMillis) {
+        if (waitMillis < 0 || waitMillis > MAX_WAIT_MILLIS) {
+            throw new IllegalArgumentException("대기 시간은 0 이상 " + MAX_WAIT_MILLIS + "ms 이하여야 합니다.");
+        }
+        ReplicationBatch batch = read(from, limit);
+        if (!batch.entries().isEmpty() || waitMillis == 0) {
+            return CompletableFuture.completedFuture(batch);
+        }
+        CompletableFuture<ReplicationBatch> result = new CompletableFuture<>();
+        awaitAppend(from, limit, batch, result);
+        return result.completeOnTimeout(batch, waitMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 다음 기록 신호를 먼저 걸어 두고 다시 읽는다. (PointChangeFeed 와 같은 방식)
+     */
+    private void awaitAppend(long from, int limit, ReplicationBatch empty, CompletableFuture<ReplicationBatch> result) {
+        CompletableFuture<Void> appended = nextAppend.updateAndGet(f -> f == null ? new CompletableFuture<>() : f);
+        try {
+            ReplicationBatch batch = read(from, limit);
+            if (!batch.entries().isEmpty()) {
+                result.complete(batch);
+                return;
+            }
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+            return;
+        }
+        appended.thenRunAsync(() -> {
+            if (!result.isDone()) {
+                awaitAppend(from, limit, empty, result);
+            }
+        }, wakeUpExecutor).exceptionally(e -> {
+            log.warn("복제 로그 대기 팔로워 깨우기 실패 - from={}, 사유={}", from, e.getMessage());
+            result.complete(empty);
+            return null;
+        });
+    }
+}
@@ -0,0 +1,45 @@
+package io.hhplus.tdd.replication;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * 주 노드의 포인트 변경 응답에 복제 로그 순번(X-Point-LSN)을 붙인다.
+ * - 응답을 쓰는 시점의 마지막 순번이므로 이 요청이 남긴 로그의 순번 이상이다.
+ *   팔로워 조회에 X-Point-Min-LSN 으로 넘기면 자기 변경을 반영한 잔액/내역을 받는다.
+ */
+@ControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "point.replication.role", havingValue = "primary")
+public class ReplicationLsnAdvice implements ResponseBodyAdvice<Object> {
+
+    private final ReplicationLog replicationLog;
+
+    public ReplicationLsnAdvice(ReplicationLog replicationLog) {
+        this.replicationLog = replicationLog;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        String path = request.getURI().getPath();
+        if (!HttpMethod.GET.equals(request.getMethod()) && (path.startsWith("/point/") || path.startsWith("/async/point/"))) {
+            response.getHeaders().set(ReplicationLog.LSN_HEADER, String.valueOf(replicationLog.head()));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,31 @@
+package io.hhplus.tdd.replication;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.UserPoint;
+
+import java.util.List;
+
+/**
+ * 주 노드의 잔액과 내역 스냅숏. 팔로워가 복제 로그를 이어 받을 수 없을 때 처음부터 다시 맞춘다.
+ * - lsn 까지의 변경은 모두 담겨 있다. 그 뒤 변경도 일부 담겨 있을 수 있으므로 팔로워는 lsn 다음부터 이어 받으며 겹치는 내역을 건너뛴다.
+ *
+ * @param epoch 주 노드 실행 ID
+ * @param lsn   스냅숏을 뜨기 시작할 때 발급된 마지막 순번
+ * @param users 유저별 잔액과 내역
+ */
+public record ReplicationSnapshot(
+        String epoch,
+        long lsn,
+        List<UserState> users
+) {
+
+    /**
+     * @param balance   잔액
+     * @param histories id 순으로 정렬된 내역. id 는 주 노드의 내역 id
+     */
+    public record UserState(
+            UserPoint balance,
+            List<PointHistory> histories
+    ) {
+    }
+}
@@ -0,0 +1,24 @@
+package io.hhplus.tdd.replication;
+
+import java.io.IOException;
+
+/**
+ * 팔로워가 주 노드의 복제 로그를 받아 오는 곳
+ */
+public interface ReplicationSource {
+
+    /**
+     * from 순번부터 최대 limit 건을 받는다. 새 로그가 없으면 최대 waitMillis 기다린다.
+     *
+     * @throws IllegalStateException from 이 주 노드 로그에서 밀려나 이어 받을 수 없는 경우
+     * @throws IOException           주 노드에 연결하지 못한 경우
+     */
+    ReplicationBatch fetch(long from, int limit, long waitMillis) throws IOException, InterruptedException;
+
+    /**
+     * 주 노드의 잔액과 내역 스냅숏을 받는다.
+     *
+     * @throws IOException 주 노드에 연결하지 못한 경우
+     */
+    ReplicationSnapshot snapshot() throws IOException, InterruptedException;
+}
@@ -0,0 +1,126 @@
+package io.hhplus.tdd.shard;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 일관된 해싱 링 (불변)
+ * - 노드마다 가상 노드를 virtualNodes 개씩 링 위에 흩어 두고, 키는 해시값에서 시계 방향으로 처음 만나는 가상 노드의 주인에게 간다.
+ * - 노드를 하나 더하면 새 노드의 가상 노드 바로 앞 구간의 키만 새 노드로 옮겨 가고, 나머지 키의 주인은 바뀌지 않는다. (약 1/N)
+ * - 가상 노드 위치는 정렬된 long 배열에 두고 이진 탐색한다. 노드 구성을 바꾸면 새 링을 만든다.
+ */
+public final class ConsistentHashRing {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final Set<String> nodeIds;
+    private final int virtualNodes;
+    private final long[] points;
+    private final String[] owners;
+
+    /**
+     * @param virtualNodes 노드 하나가 링 위에 두는 가상 노드 수. 많을수록 키가 고르게 나뉜다.
+     */
+    public ConsistentHashRing(Collection<String> nodeIds, int virtualNodes) {
+        if (nodeIds.isEmpty()) {
+            throw new IllegalArgumentException("노드가 하나 이상 있어야 합니다.");
+        }
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("가상 노드 수는 1 이상이어야 합니다. virtualNodes=" + virtualNodes);
+        }
+        this.nodeIds = new LinkedHashSet<>(nodeIds);
+        this.virtualNodes = virtualNodes;
+
+        int size = this.nodeIds.size() * virtualNodes;
+        long[] hashes = new long[size];
+        String[] hashOwners = new String[size];
+        int i = 0;
+        for (String nodeId : this.nodeIds) {
+            long base = hash(nodeId);
+            for (int replica = 0; replica < virtualNodes; replica++) {
+                hashes[i] = fmix64(base + replica * GOLDEN_GAMMA);
+                hashOwners[i] = nodeId;
+                i++;
+            }
+        }
+        // 해시값 순으로 정렬한다. 같은 해시값이면 노드 ID 순으로 정해 어느 노드에서 만들어도 같은 링이 된다
+        Integer[] order = new Integer[size];
+        for (int j = 0; j < size; j++) {
+            order[j] = j;
+        }
+        Arrays.sort(order, (a, b) -> {
+            int compared = Long.compareUnsigned(hashes[a], hashes[b]);
+            return compared != 0 ? compared : hashOwners[a].compareTo(hashOwners[b]);
+        });
+        this.points = new long[size];
+        this.owners = new String[size];
+        for (int j = 0; j < size; j++) {
+            points[j] = hashes[order[j]];
+            owners[j] = hashOwners[order[j]];
+        }
+    }
+
+    /**
+     * 키의 주인 노드 ID
+     */
+    public String owner(long key) {
+        long hash = fmix64(key);
+        int low = 0;
+        int high = points.length - 1;
+        // hash 이상인 첫 가상 노드. 없으면 링을 한 바퀴 돌아 첫 가상 노드
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (Long.compareUnsigned(points[mid], hash) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return owners[low == points.length ? 0 : low];
+    }
+
+    public ConsistentHashRing withNode(String nodeId) {
+        List<String> ids = new ArrayList<>(nodeIds);
+        ids.add(nodeId);
+        return new ConsistentHashRing(ids, virtualNodes);
+    }
+
+    public ConsistentHashRing withoutNode(String nodeId) {
+        List<String> ids = new ArrayList<>(nodeIds);
+        ids.remove(nodeId);
+        return new ConsistentHashRing(ids, virtualNodes);
+    }
+
+    public Set<String> nodeIds() {
+        return Set.copyOf(nodeIds);
+    }
+
+    /**
+     * 노드 ID 의 64비트 FNV-1a 해시
+     */
+    private static long hash(String nodeId) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : nodeId.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * MurmurHash3 의 64비트 마무리 함수. 연속된 userId 도 링 위에 고르게 흩어진다.
+     */
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
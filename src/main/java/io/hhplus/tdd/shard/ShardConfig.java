@@ -0,0 +1,87 @@
+package io.hhplus.tdd.shard;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hhplus.tdd.storage.HistoryStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 유저 샤딩 (point.shard.enabled=true)
+ * - point.shard.nodes 의 노드들이 일관된 해싱 링으로 유저를 나눠 맡고, 담당이 아닌 유저의 요청은 담당 노드로 넘긴다.
+ * - 노드마다 같은 nodes 와 virtual-nodes 를 쓰고, self 에 자기 노드 ID 를 준다.
+ * - 노드 사이에 잔액과 내역을 넘기지 않는다. 노드별 저장소(memory, file, tiered)에 데이터가 생긴 뒤 nodes 를 바꾸면
+ *   주인이 바뀐 유저의 데이터가 예전 노드에 남으므로, 데이터를 옮긴 뒤 모든 노드를 새 설정으로 다시 띄운다.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "point.shard.enabled", havingValue = "true")
+public class ShardConfig {
+
+    /**
+     * @param nodes "id=baseUrl" 을 쉼표로 이은 전체 노드 목록 (예: node-1=http://10.0.0.1:8080,node-2=http://10.0.0.2:8080)
+     */
+    @Bean
+    public ShardRouter shardRouter(@Value("${point.shard.self}") String self,
+                                   @Value("${point.shard.nodes}") String nodes,
+                                   @Value("${point.shard.virtual-nodes:160}") int virtualNodes,
+                                   HistoryStore historyStore) {
+        List<ShardNode> shardNodes = parseNodes(nodes);
+        ShardNode selfNode = shardNodes.stream()
+                .filter(node -> node.id().equals(self))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("point.shard.nodes 에 이 노드가 없습니다. self=" + self));
+        // 잔액이 바뀌면 내역도 남으므로 내역 유저가 이 노드의 유저다.
+        // 여러 노드가 함께 쓰는 저장소(jdbc)는 유저를 넘기지 않는다. 데이터가 노드 밖에 있어 옮길 것도 없다
+        return new ShardRouter(selfNode, shardNodes, virtualNodes, action -> {
+            historyStore.forEachUserId(action);
+            return true;
+        });
+    }
+
+    @Bean
+    public FilterRegistrationBean<ShardForwardingFilter> shardForwardingFilter(
+            ShardRouter shardRouter,
+            ObjectMapper objectMapper,
+            @Value("${point.shard.connect-timeout-millis:500}") long connectTimeoutMillis) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .build();
+        FilterRegistrationBean<ShardForwardingFilter> registration =
+                new FilterRegistrationBean<>(new ShardForwardingFilter(shardRouter, httpClient, objectMapper));
+        registration.addUrlPatterns("/point/*", "/async/point/*");
+        // 담당이 아닌 요청은 이 노드의 동시 처리 한도나 빈도 제한을 쓰지 않고 바로 넘긴다
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    static List<ShardNode> parseNodes(String nodes) {
+        List<ShardNode> shardNodes = new ArrayList<>();
+        for (String entry : nodes.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int separator = trimmed.indexOf('=');
+            if (separator <= 0 || separator == trimmed.length() - 1) {
+                throw new IllegalArgumentException("노드 설정 형식은 id=baseUrl 입니다. entry=" + trimmed);
+            }
+            String baseUrl = trimmed.substring(separator + 1).trim();
+            while (baseUrl.endsWith("/")) {
+                baseUrl = baseUrl.substring(0, baseUrl.length() - 1);
+            }
+            shardNodes.add(new ShardNode(trimmed.substring(0, separator).trim(), baseUrl));
+        }
+        return shardNodes;
+    }
+}
@@ -0,0 +1,270 @@
+package io.hhplus.tdd.shard;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hhplus.tdd.ErrorResponse;
+import io.hhplus.tdd.point.RequestTimeout;
+import io.hhplus.tdd.point.TransferRequest;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 유저 단위 포인트 API 를 담당 노드로 넘기는 필터
+ * - 유저 ID 가 경로에 있는 API(/point/{id}/**, /async/point/{id}/**)는 {id} 의 담당 노드가,
+ *   이체(POST /point/transfer)는 보내는 유저의 담당 노드가 처리한다.
+ *   받는 유저가 다른 노드 담당이면 한 노드의 유저 락으로 묶을 수 없으므로 409 (code=CROSS_SHARD_TRANSFER)로 거절한다.
+ * - 담당 노드가 이 노드면 그대로 통과시키고, 아니면 요청을 담당 노드에 보내 받은 상태 코드와 본문을 그대로 돌려준다.
+ * - 잔액 스트림(/point/{id}/stream)은 본문을 모아 돌려줄 수 없으므로 담당 노드 주소로 307 리다이렉트한다.
+ * - 예약 ID 만 있는 확정/취소(/point/reservations/{reservationId}/...)는 담당 노드를 알 수 없어 421 로 거절한다.
+ *   유저 ID 가 들어간 경로(/point/{id}/reservations/{reservationId}/...)를 쓴다.
+ * - 넘겨받은 요청은 다시 넘기지 않는다. 노드마다 알고 있는 구성이 달라 담당이 아니면 421 로 거절한다.
+ * - 담당 노드에 연결하지 못하면 503 으로 거절한다. 다른 노드가 대신 처리하면 잔액이 갈라지므로 넘겨 처리하지 않는다.
+ */
+public class ShardForwardingFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardForwardingFilter.class);
+
+    static final String FORWARDED_BY_HEADER = "X-Point-Forwarded-By";
+
+    static final String CROSS_SHARD_TRANSFER = "CROSS_SHARD_TRANSFER";
+
+    private static final Pattern USER_PATH = Pattern.compile(
+            "^(?:/async)?/point/(-?\\d+)(?:/(?:histories|charge|use|summary|reservations(?:/\\d+/(?:capture|release))?))?$");
+    private static final Pattern STREAM_PATH = Pattern.compile("^/point/(-?\\d+)/stream$");
+    private static final Pattern RESERVATION_PATH = Pattern.compile("^/point/reservations/[^/]+/(?:capture|release)$");
+    private static final String TRANSFER_PATH = "/point/transfer";
+    private static final List<String> FORWARDED_HEADERS = List.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.ACCEPT, HttpHeaders.IF_NONE_MATCH, RequestTimeout.HEADER);
+    // 담당 노드가 요청 마감을 다 쓰고 응답할 시간
+    private static final long RESPONSE_SLACK_MILLIS = 500;
+    private static final long DEFAULT_TIMEOUT_MILLIS = 2000;
+    private static final int MISDIRECTED_REQUEST = 421;
+
+    private final ShardRouter router;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+
+    public ShardForwardingFilter(ShardRouter router, HttpClient httpClient, ObjectMapper objectMapper) {
+        this.router = router;
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        Matcher matcher = USER_PATH.matcher(path);
+        Matcher stream = STREAM_PATH.matcher(path);
+        if (matcher.matches()) {
+            Long userId = parseUserId(matcher.group(1));
+            if (userId != null) {
+                route(userId, request, response, chain, null);
+                return;
+            }
+        } else if (stream.matches()) {
+            Long userId = parseUserId(stream.group(1));
+            if (userId != null && !router.isLocal(userId)) {
+                redirect(router.owner(userId), request, response);
+                return;
+            }
+        } else if (RESERVATION_PATH.matcher(path).matches()) {
+            writeError(response, MISDIRECTED_REQUEST,
+                    "예약 ID 로는 담당 노드를 찾을 수 없습니다. /point/{id}/reservations/{reservationId}/... 로 요청해주세요.");
+            return;
+        } else if (TRANSFER_PATH.equals(path) && "POST".equals(request.getMethod())) {
+            byte[] body = request.getInputStream().readAllBytes();
+            HttpServletRequest cached = new CachedBodyRequest(request, body);
+            TransferRequest transfer = parseTransfer(body);
+            if (transfer != null) {
+                if (!router.owner(transfer.from()).equals(router.owner(transfer.to()))) {
+                    writeError(response, HttpStatus.CONFLICT.value(), CROSS_SHARD_TRANSFER, "다른 샤드의 유저에게는 이체할 수 없습니다.");
+                    return;
+                }
+                route(transfer.from(), cached, response, chain, body);
+                return;
+            }
+            // 본문이 잘못된 요청은 컨트롤러가 거절한다
+            chain.doFilter(cached, response);
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private void route(long userId, HttpServletRequest request, HttpServletResponse response, FilterChain chain, byte[] body)
+            throws ServletException, IOException {
+        ShardNode owner = router.owner(userId);
+        if (owner.id().equals(router.self().id())) {
+            chain.doFilter(request, response);
+            return;
+        }
+        String forwardedBy = request.getHeader(FORWARDED_BY_HEADER);
+        if (forwardedBy != null) {
+            log.warn("담당이 아닌 유저 요청을 넘겨받음: userId={}, owner={}, forwardedBy={}", userId, owner.id(), forwardedBy);
+            writeError(response, MISDIRECTED_REQUEST, "이 노드가 담당하는 유저가 아닙니다.");
+            return;
+        }
+        forward(owner, request, response, body != null ? body : request.getInputStream().readAllBytes());
+    }
+
+    private void forward(ShardNode owner, HttpServletRequest request, HttpServletResponse response, byte[] body) throws IOException {
+        String query = request.getQueryString();
+        URI uri = URI.create(owner.baseUrl() + request.getRequestURI() + (query == null ? "" : "?" + query));
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofMillis(timeoutMillis(request) + RESPONSE_SLACK_MILLIS))
+                .method(request.getMethod(), body.length == 0
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(body))
+                .header(FORWARDED_BY_HEADER, router.self().id());
+        for (String name : FORWARDED_HEADERS) {
+            String value = request.getHeader(name);
+            if (value != null) {
+                builder.header(name, value);
+            }
+        }
+
+        HttpResponse<byte[]> forwarded;
+        try {
+            forwarded = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            log.warn("담당 노드로 요청을 넘기지 못함: owner={}, uri={}", owner.id(), uri, e);
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            writeError(response, HttpStatus.SERVICE_UNAVAILABLE.value(), "담당 노드에 연결하지 못했습니다. 잠시 후 다시 시도해주세요.");
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writeError(response, HttpStatus.SERVICE_UNAVAILABLE.value(), "요청 처리가 중단되었습니다.");
+            return;
+        }
+        response.setStatus(forwarded.statusCode());
+        forwarded.headers().firstValue(HttpHeaders.CONTENT_TYPE).ifPresent(response::setContentType);
+        forwarded.headers().firstValue(HttpHeaders.ETAG).ifPresent(value -> response.setHeader(HttpHeaders.ETAG, value));
+        forwarded.headers().firstValue(HttpHeaders.RETRY_AFTER).ifPresent(value -> response.setHeader(HttpHeaders.RETRY_AFTER, value));
+        response.setContentLength(forwarded.body().length);
+        response.getOutputStream().write(forwarded.body());
+    }
+
+    /**
+     * 스트림은 연결을 붙잡고 이벤트를 흘려보내므로 넘겨 처리하지 않고, 클라이언트가 담당 노드에 직접 붙게 한다.
+     */
+    private void redirect(ShardNode owner, HttpServletRequest request, HttpServletResponse response) {
+        String query = request.getQueryString();
+        response.setStatus(HttpStatus.TEMPORARY_REDIRECT.value());
+        response.setHeader(HttpHeaders.LOCATION, owner.baseUrl() + request.getRequestURI() + (query == null ? "" : "?" + query));
+    }
+
+    private static long timeoutMillis(HttpServletRequest request) {
+        String value = request.getHeader(RequestTimeout.HEADER);
+        if (value == null) {
+            return DEFAULT_TIMEOUT_MILLIS;
+        }
+        try {
+            return Math.min(Math.max(0, Long.parseLong(value.trim())), RequestTimeout.MAX_MILLIS);
+        } catch (NumberFormatException e) {
+            return DEFAULT_TIMEOUT_MILLIS;
+        }
+    }
+
+    /**
+     * long 범위를 넘는 id 는 null. 컨트롤러가 거절한다.
+     */
+    private static Long parseUserId(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private TransferRequest parseTransfer(byte[] body) {
+        try {
+            return objectMapper.readValue(body, TransferRequest.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void writeError(HttpServletResponse response, int status, String message) throws IOException {
+        writeError(response, status, String.valueOf(status), message);
+    }
+
+    private void writeError(HttpServletResponse response, int status, String code, String message) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(code, message));
+    }
+
+    /**
+     * 필터에서 읽은 본문을 컨트롤러가 다시 읽을 수 있게 한다.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package io.hhplus.tdd.shard;
+
+/**
+ * 샤드 노드
+ *
+ * @param id      링에서 쓰는 노드 ID. 모든 노드 설정에서 같아야 한다.
+ * @param baseUrl 다른 노드가 요청을 넘길 주소 (예: http://10.0.0.1:8080)
+ */
+public record ShardNode(String id, String baseUrl) {
+}
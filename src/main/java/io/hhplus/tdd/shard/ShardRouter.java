@@ -0,0 +1,113 @@
+package io.hhplus.tdd.shard;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * 유저 ID 로 담당 노드를 찾는다.
+ * - 노드 구성이 바뀌면 새 링과 노드 목록을 한 번에 바꿔 끼우므로 조회는 락 없이 한다.
+ * - 노드 사이에 잔액과 내역을 옮기지 않는다. 그래서 노드를 더할 때 이 노드가 가진 유저 중 새 노드로 옮겨 갈 유저가 있으면 거절한다.
+ *   (새 노드에서는 그 유저가 잔액 0, 내역 없음으로 보이기 때문이다) 데이터가 있는 클러스터의 노드 구성은 데이터를 옮긴 뒤 설정으로 바꿔 다시 띄운다.
+ * - 노드를 빼는 것은 지원하지 않는다. 빠지는 노드의 유저 데이터를 이 노드에서 알 수 없기 때문이다.
+ */
+public class ShardRouter {
+
+    private final ShardNode self;
+    private final int virtualNodes;
+    private final LocalUsers localUsers;
+
+    private volatile Membership membership;
+
+    /**
+     * 이 노드에 데이터가 없는 라우터 (데이터가 생기기 전에만 노드를 더할 수 있다고 볼 때)
+     */
+    public ShardRouter(ShardNode self, List<ShardNode> nodes, int virtualNodes) {
+        this(self, nodes, virtualNodes, action -> true);
+    }
+
+    /**
+     * @param self       이 노드. nodes 에 들어 있어야 한다.
+     * @param nodes      전체 노드
+     * @param localUsers 이 노드에 데이터가 있는 유저 (예: HistoryStore::forEachUserId)
+     */
+    public ShardRouter(ShardNode self, List<ShardNode> nodes, int virtualNodes, LocalUsers localUsers) {
+        Map<String, ShardNode> byId = new LinkedHashMap<>();
+        for (ShardNode node : nodes) {
+            if (byId.put(node.id(), node) != null) {
+                throw new IllegalArgumentException("노드 ID 가 중복됩니다. id=" + node.id());
+            }
+        }
+        if (!self.equals(byId.get(self.id()))) {
+            throw new IllegalArgumentException("노드 목록에 이 노드가 없습니다. self=" + self);
+        }
+        this.self = self;
+        this.virtualNodes = virtualNodes;
+        this.localUsers = localUsers;
+        this.membership = new Membership(new ConsistentHashRing(byId.keySet(), virtualNodes), Map.copyOf(byId));
+    }
+
+    public ShardNode owner(long userId) {
+        Membership current = membership;
+        return current.nodes.get(current.ring.owner(userId));
+    }
+
+    public boolean isLocal(long userId) {
+        return owner(userId).id().equals(self.id());
+    }
+
+    public ShardNode self() {
+        return self;
+    }
+
+    public List<ShardNode> nodes() {
+        return List.copyOf(membership.nodes.values());
+    }
+
+    /**
+     * 노드를 더한다. 잔액과 내역은 옮기지 않으므로, 이 노드의 유저 중 새 노드로 주인이 바뀌는 유저가 있으면 거절한다.
+     *
+     * @throws IllegalStateException 새 노드로 옮겨 갈 유저가 있거나, 이 노드의 유저를 알 수 없는 경우
+     */
+    public synchronized void addNode(ShardNode node) {
+        Membership current = membership;
+        if (current.nodes.containsKey(node.id())) {
+            throw new IllegalArgumentException("이미 있는 노드입니다. id=" + node.id());
+        }
+        ConsistentHashRing ring = current.ring.withNode(node.id());
+        long[] moved = new long[1];
+        if (!localUsers.forEachUserId(userId -> {
+            if (ring.owner(userId).equals(node.id())) {
+                moved[0]++;
+            }
+        })) {
+            throw new IllegalStateException("이 노드의 유저를 알 수 없어 노드를 더하지 않습니다. id=" + node.id());
+        }
+        if (moved[0] > 0) {
+            throw new IllegalStateException("새 노드로 옮겨 갈 유저 " + moved[0] + "명의 데이터를 넘길 수 없어 노드를 더하지 않습니다. id=" + node.id());
+        }
+        Map<String, ShardNode> nodes = new LinkedHashMap<>(current.nodes);
+        nodes.put(node.id(), node);
+        membership = new Membership(ring, Map.copyOf(nodes));
+    }
+
+    int virtualNodes() {
+        return virtualNodes;
+    }
+
+    /**
+     * 이 노드에 데이터가 있는 유저
+     */
+    @FunctionalInterface
+    public interface LocalUsers {
+
+        /**
+         * @return 모든 유저를 넘겼으면 true. 알 수 없으면 false
+         */
+        boolean forEachUserId(LongConsumer action);
+    }
+
+    private record Membership(ConsistentHashRing ring, Map<String, ShardNode> nodes) {
+    }
+}
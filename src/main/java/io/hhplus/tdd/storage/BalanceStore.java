@@ -0,0 +1,70 @@
+package io.hhplus.tdd.storage;
+
+import io.hhplus.tdd.lock.LockLostException;
+import io.hhplus.tdd.point.UserPoint;
+
+import java.util.List;
+
+/**
+ * 유저 잔액 저장소 SPI
+ * - 구현체는 point.storage.type 설정으로 고른다. (table, memory, file, jdbc, tiered)
+ * - 서로 다른 유저에 대한 동시 호출에 안전해야 한다. 한 노드 안에서 같은 유저의 읽기-계산-쓰기 원자성은 호출하는 쪽(유저 락)이 보장한다.
+ * - 여러 노드가 같은 저장소를 쓰는 구현은 selectForUpdate/compareAndSet 으로 버전을 검사해 다른 노드의 쓰기를 덮어쓰지 않는다.
+ *   노드 사이 유저 락(펜싱 토큰)을 쓰면 임대가 끝난 노드의 늦은 쓰기도 거절한다.
+ */
+public interface BalanceStore {
+
+    /**
+     * 저장된 잔액이 없으면 0 포인트인 UserPoint 를 돌려준다.
+     */
+    UserPoint selectById(long userId);
+
+    UserPoint insertOrUpdate(long userId, long amount);
+
+    /**
+     * 잔액을 변경 시각까지 그대로 저장한다. 팔로워가 주 노드의 잔액을 복제할 때 쓴다.
+     *
+     * @throws UnsupportedOperationException 변경 시각을 정해 저장할 수 없는 저장소
+     */
+    default UserPoint replace(UserPoint userPoint) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " 는 변경 시각을 그대로 저장할 수 없습니다.");
+    }
+
+    /**
+     * 잔액을 버전과 함께 읽는다. 기본 구현은 버전을 쓰지 않는다. (항상 0)
+     */
+    default VersionedBalance selectForUpdate(long userId) {
+        return new VersionedBalance(selectById(userId), 0);
+    }
+
+    /**
+     * 읽은 뒤로 다른 쓰기가 없었을 때만 잔액을 저장한다.
+     * 기본 구현은 유저 락으로 충분하다고 보고 그대로 저장한다.
+     *
+     * @param current selectForUpdate 로 읽은 잔액
+     * @return 저장한 잔액. 그 사이 버전이 바뀌었으면 null
+     */
+    default UserPoint compareAndSet(VersionedBalance current, long amount) {
+        return insertOrUpdate(current.userPoint().id(), amount);
+    }
+
+    /**
+     * 펜싱 토큰을 함께 검사하는 compareAndSet. 기본 구현은 토큰을 무시한다. (노드들이 함께 쓰지 않는 저장소)
+     *
+     * @param fencingToken 쓰는 쪽이 쥔 유저 락의 펜싱 토큰. 0 이면 검사하지 않는다.
+     * @throws LockLostException 이미 더 큰 토큰으로 쓰였다.
+     */
+    default UserPoint compareAndSet(VersionedBalance current, long amount, long fencingToken) {
+        return compareAndSet(current, amount);
+    }
+
+    /**
+     * 잔액이 0 보다 큰 유저를 (잔액 내림차순, userId 오름차순)으로 limit 명 돌려준다.
+     * 여러 노드가 함께 쓰는 저장소만 구현한다. 나머지는 노드의 리더보드(PointLeaderboard)가 순위를 들고 있다.
+     *
+     * @throws UnsupportedOperationException 순위를 조회할 수 없는 저장소
+     */
+    default List<UserPoint> selectTop(int limit) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " 는 잔액 순위를 조회할 수 없습니다.");
+    }
+}
@@ -0,0 +1,97 @@
+package io.hhplus.tdd.storage;
+
+import io.hhplus.tdd.point.UserPoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * 파일 저널 잔액 저장소
+ * - 잔액을 바꿀 때마다 (유저 ID, 잔액, 시각) 레코드를 저널에 붙이고, 조회는 메모리 잔액 저장소에서 한다.
+ * - 시작할 때 저널을 재생해 유저별 마지막 잔액을 복구한다.
+ * - 유저마다 마지막 잔액만 있으면 되므로, 저널 레코드가 유저 수의 두 배와 minCompactRecords 를 모두 넘으면
+ *   지금 잔액만 담은 스냅숏으로 저널을 바꿔 끼운다. 압축하는 동안 쓰기는 기다리지만, 저널이 두 배로 자랄 때마다 한 번이므로
+ *   쓰기 한 번에 나눠 보면 상수 비용이다.
+ */
+public class FileBalanceStore implements BalanceStore, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(FileBalanceStore.class);
+
+    private static final int RECORD_SIZE = Long.BYTES * 3;
+    private static final long DEFAULT_MIN_COMPACT_RECORDS = 1_000_000;
+
+    private final MemoryBalanceStore memory = new MemoryBalanceStore();
+    private final JournalFile journal;
+    private final long minCompactRecords;
+
+    /**
+     * @param file 저널 파일 경로 (없으면 만든다)
+     * @param sync 쓸 때마다 fsync 할지
+     */
+    public FileBalanceStore(Path file, boolean sync) {
+        this(file, sync, DEFAULT_MIN_COMPACT_RECORDS);
+    }
+
+    /**
+     * @param minCompactRecords 저널 레코드가 이보다 적으면 압축하지 않는다.
+     */
+    public FileBalanceStore(Path file, boolean sync, long minCompactRecords) {
+        this.minCompactRecords = minCompactRecords;
+        this.journal = new JournalFile(file, RECORD_SIZE, sync,
+                record -> memory.put(new UserPoint(record.getLong(), record.getLong(), record.getLong())));
+    }
+
+    @Override
+    public UserPoint selectById(long userId) {
+        return memory.selectById(userId);
+    }
+
+    @Override
+    public UserPoint insertOrUpdate(long userId, long amount) {
+        return replace(new UserPoint(userId, amount, System.currentTimeMillis()));
+    }
+
+    @Override
+    public UserPoint replace(UserPoint userPoint) {
+        journal.append(record -> encode(record, userPoint), () -> memory.put(userPoint));
+        if (journal.records() > minCompactRecords) {
+            compact(Math.max(minCompactRecords, memory.size() * 2));
+        }
+        return userPoint;
+    }
+
+    /**
+     * 지금 잔액만 담도록 저널을 압축한다.
+     */
+    public void compact() {
+        compact(0);
+    }
+
+    /**
+     * 저널에 든 레코드 수
+     */
+    public long journalRecords() {
+        return journal.records();
+    }
+
+    @Override
+    public void close() {
+        journal.close();
+    }
+
+    private void compact(long minRecords) {
+        long before = journal.records();
+        if (journal.compact(minRecords, writer -> memory.forEach(userPoint -> writer.write(record -> encode(record, userPoint))))) {
+            log.info("잔액 저널 압축 - 레코드 {} -> {}", before, journal.records());
+        }
+    }
+
+    private static void encode(ByteBuffer record, UserPoint userPoint) {
+        record.putLong(userPoint.id())
+                .putLong(userPoint.point())
+                .putLong(userPoint.updateMillis());
+    }
+}
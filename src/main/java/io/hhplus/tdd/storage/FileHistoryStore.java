@@ -0,0 +1,73 @@
+package io.hhplus.tdd.storage;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+
+import java.io.Closeable;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * 파일 저널 내역 저장소
+ * - 내역을 저널에 먼저 붙인 뒤 메모리 내역 저장소에 담고, 조회는 메모리에서 한다.
+ * - id 발급과 저널 쓰기를 같은 락 안에서 하므로 저널의 레코드는 id 순이다.
+ * - 시작할 때 저널을 재생해 내역과 id 순번을 복구한다.
+ */
+public class FileHistoryStore implements HistoryStore, Closeable {
+
+    private static final int RECORD_SIZE = Long.BYTES * 4 + Byte.BYTES;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final MemoryHistoryStore memory = new MemoryHistoryStore();
+    private final JournalFile journal;
+
+    /**
+     * @param file 저널 파일 경로 (없으면 만든다)
+     * @param sync 쓸 때마다 fsync 할지
+     */
+    public FileHistoryStore(Path file, boolean sync) {
+        this.journal = new JournalFile(file, RECORD_SIZE, sync, record -> memory.restore(new PointHistory(
+                record.getLong(), record.getLong(), record.getLong(), TYPES[record.get()], record.getLong())));
+    }
+
+    @Override
+    public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        PointHistory[] inserted = new PointHistory[1];
+        journal.append(record -> {
+            inserted[0] = new PointHistory(memory.allocateId(), userId, amount, type, updateMillis);
+            record.putLong(inserted[0].id())
+                    .putLong(userId)
+                    .putLong(amount)
+                    .put((byte) type.ordinal())
+                    .putLong(updateMillis);
+        }, () -> memory.append(inserted[0]));
+        return inserted[0];
+    }
+
+    @Override
+    public List<PointHistory> selectAllByUserId(long userId) {
+        return memory.selectAllByUserId(userId);
+    }
+
+    @Override
+    public List<PointHistory> selectByIds(long userId, long[] historyIds) {
+        return memory.selectByIds(userId, historyIds);
+    }
+
+    @Override
+    public boolean forEachUserId(LongConsumer action) {
+        return memory.forEachUserId(action);
+    }
+
+    @Override
+    public boolean forEachHistory(Consumer<PointHistory> action) {
+        return memory.forEachHistory(action);
+    }
+
+    @Override
+    public void close() {
+        journal.close();
+    }
+}
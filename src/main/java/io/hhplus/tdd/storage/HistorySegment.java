@@ -0,0 +1,318 @@
+package io.hhplus.tdd.storage;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+/**
+ * 오래된 포인트 내역을 담는 불변 세그먼트 파일
+ * - 유저 ID 순으로 유저마다 블록 하나에 내역을 id 순으로 담는다. 블록 안의 행은 바로 앞 행과의 차이만 가변 길이 정수(varint)로 쓴다.
+ *   (id 차이, 금액(zigzag), 유형 1바이트, 시각 차이(zigzag)). 고정 길이 41바이트 행이 보통 10바이트 안팎이 된다.
+ * - 파일 끝에 (유저 ID, 블록 위치, 길이, 행 수) 색인과 꼬리(유저 수, 행 수, 색인 위치, 매직)를 둔다.
+ *   열 때 색인만 힙 배열로 읽고, 블록은 메모리 매핑한 파일에서 그때그때 풀어 읽는다.
+ * - 파일 하나는 쓸 때 정한 크기 상한을 넘지 않는다. 넘을 것 같으면 다음 파일로 이어 쓴다. (한 유저의 내역이 두 파일에 나뉠 수 있다)
+ *   상한은 MAX_SIZE_BYTES 이하로만 정할 수 있어, 매핑 버퍼의 int 위치가 넘치지 않는다.
+ * - 임시 파일에 다 쓴 뒤 이름을 바꿔 만들므로 덜 쓰인 세그먼트가 보이지 않는다.
+ */
+final class HistorySegment {
+
+    static final long MAX_SIZE_BYTES = 1L << 30;
+    static final long MIN_SIZE_BYTES = 4 * 1024;
+
+    private static final int MAGIC = 0x50484753; // "PHGS"
+    private static final int TRAILER_SIZE = Integer.BYTES + Long.BYTES + Long.BYTES + Integer.BYTES;
+    private static final int INDEX_ENTRY_SIZE = Long.BYTES + Long.BYTES + Integer.BYTES + Integer.BYTES;
+    // varint 세 개(최대 10바이트씩)와 유형 1바이트
+    private static final int MAX_ROW_SIZE = 31;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final Path path;
+    private final MappedByteBuffer mapped;
+    private final long[] userIds;
+    private final long[] offsets;
+    private final int[] lengths;
+    private final long rowCount;
+
+    private HistorySegment(Path path, MappedByteBuffer mapped, long[] userIds, long[] offsets, int[] lengths, long rowCount) {
+        this.path = path;
+        this.mapped = mapped;
+        this.userIds = userIds;
+        this.offsets = offsets;
+        this.lengths = lengths;
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * 세그먼트를 쓰고 연다. 파일마다 maxBytes 를 넘지 않게 필요한 만큼 나눠 쓴다. 내역이 없는 유저는 담지 않는다.
+     *
+     * @param paths    새 세그먼트 파일 경로를 하나씩 내준다
+     * @param userIds  담을 유저 ID (오름차순)
+     * @param rowsOf   유저의 내역 (id 순)
+     * @param maxBytes 파일 하나의 크기 상한 (MIN_SIZE_BYTES ~ MAX_SIZE_BYTES)
+     * @return 쓴 세그먼트. 담을 내역이 없으면 빈 목록
+     */
+    static List<HistorySegment> write(Supplier<Path> paths, long[] userIds, LongFunction<List<PointHistory>> rowsOf, long maxBytes) {
+        if (maxBytes < MIN_SIZE_BYTES || maxBytes > MAX_SIZE_BYTES) {
+            throw new IllegalArgumentException("세그먼트 크기 상한은 " + MIN_SIZE_BYTES + " 이상 " + MAX_SIZE_BYTES + " 이하여야 합니다. maxBytes=" + maxBytes);
+        }
+        List<HistorySegment> written = new ArrayList<>();
+        Writer writer = null;
+        try {
+            byte[] block = new byte[256];
+            for (long userId : userIds) {
+                int length = 0;
+                int rows = 0;
+                long prevId = 0;
+                long prevMillis = 0;
+                for (PointHistory history : rowsOf.apply(userId)) {
+                    if (writer == null) {
+                        writer = new Writer(paths.get());
+                    }
+                    if (!writer.fits(length + MAX_ROW_SIZE, maxBytes)) {
+                        // 이 파일을 닫고 유저의 나머지 행은 다음 파일의 새 블록에 쓴다
+                        writer.addBlock(userId, block, length, rows);
+                        written.add(writer.finish());
+                        writer = new Writer(paths.get());
+                        length = 0;
+                        rows = 0;
+                        prevId = 0;
+                        prevMillis = 0;
+                    }
+                    if (block.length - length < MAX_ROW_SIZE) {
+                        block = Arrays.copyOf(block, block.length * 2);
+                    }
+                    length = putVarLong(block, length, history.id() - prevId);
+                    length = putVarLong(block, length, zigzag(history.amount()));
+                    block[length++] = (byte) history.type().ordinal();
+                    length = putVarLong(block, length, zigzag(history.updateMillis() - prevMillis));
+                    prevId = history.id();
+                    prevMillis = history.updateMillis();
+                    rows++;
+                }
+                if (writer != null) {
+                    writer.addBlock(userId, block, length, rows);
+                }
+            }
+            if (writer != null && writer.userCount > 0) {
+                written.add(writer.finish());
+            }
+            return written;
+        } catch (IOException | RuntimeException e) {
+            if (writer != null) {
+                writer.abort();
+            }
+            written.forEach(HistorySegment::delete);
+            if (e instanceof IOException) {
+                throw new StorageException("내역 세그먼트를 쓰지 못했습니다. path=" + (writer == null ? null : writer.path), e);
+            }
+            throw (RuntimeException) e;
+        }
+    }
+
+    static HistorySegment open(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < TRAILER_SIZE || size > MAX_SIZE_BYTES) {
+                throw new StorageException("내역 세그먼트 크기가 올바르지 않습니다. path=" + path + ", size=" + size);
+            }
+            // 매핑은 채널을 닫아도 남는다
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            ByteBuffer trailer = mapped.slice((int) size - TRAILER_SIZE, TRAILER_SIZE);
+            int userCount = trailer.getInt();
+            long rowCount = trailer.getLong();
+            long indexOffset = trailer.getLong();
+            if (trailer.getInt() != MAGIC || indexOffset + (long) userCount * INDEX_ENTRY_SIZE != size - TRAILER_SIZE) {
+                throw new StorageException("내역 세그먼트가 손상되었습니다. path=" + path);
+            }
+            long[] userIds = new long[userCount];
+            long[] offsets = new long[userCount];
+            int[] lengths = new int[userCount];
+            ByteBuffer index = mapped.slice((int) indexOffset, userCount * INDEX_ENTRY_SIZE);
+            for (int i = 0; i < userCount; i++) {
+                userIds[i] = index.getLong();
+                offsets[i] = index.getLong();
+                lengths[i] = index.getInt();
+                index.getInt();
+            }
+            return new HistorySegment(path, mapped, userIds, offsets, lengths, rowCount);
+        } catch (IOException e) {
+            throw new StorageException("내역 세그먼트를 열지 못했습니다. path=" + path, e);
+        }
+    }
+
+    /**
+     * 유저의 내역을 id 순으로 target 에 붙인다.
+     */
+    void readInto(long userId, List<PointHistory> target) {
+        int i = Arrays.binarySearch(userIds, userId);
+        if (i < 0) {
+            return;
+        }
+        ByteBuffer block = mapped.slice((int) offsets[i], lengths[i]);
+        long id = 0;
+        long millis = 0;
+        while (block.hasRemaining()) {
+            id += getVarLong(block);
+            long amount = unzigzag(getVarLong(block));
+            TransactionType type = TYPES[block.get()];
+            millis += unzigzag(getVarLong(block));
+            target.add(new PointHistory(id, userId, amount, type, millis));
+        }
+    }
+
+    long[] userIds() {
+        return userIds;
+    }
+
+    long rowCount() {
+        return rowCount;
+    }
+
+    long sizeBytes() {
+        return mapped.capacity();
+    }
+
+    /**
+     * 힙에 올린 색인 크기 (바이트, 대략)
+     */
+    long indexHeapBytes() {
+        return (long) userIds.length * (Long.BYTES + Long.BYTES + Integer.BYTES);
+    }
+
+    Path path() {
+        return path;
+    }
+
+    /**
+     * 파일을 지운다. 매핑은 읽던 쪽이 다 쓸 때까지 남는다.
+     */
+    void delete() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new StorageException("내역 세그먼트를 지우지 못했습니다. path=" + path, e);
+        }
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int putVarLong(byte[] target, int position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            target[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        target[position++] = (byte) value;
+        return position;
+    }
+
+    private static long getVarLong(ByteBuffer source) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = source.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    /**
+     * 세그먼트 파일 하나를 쓴다. 블록을 붙이고 finish 에서 색인과 꼬리를 쓴 뒤 이름을 바꾼다.
+     */
+    private static final class Writer {
+
+        private final Path path;
+        private final Path temp;
+        private final DataOutputStream out;
+        private long[] userIds = new long[64];
+        private long[] offsets = new long[64];
+        private int[] lengths = new int[64];
+        private int[] rows = new int[64];
+        private int userCount;
+        private long dataBytes;
+        private long rowCount;
+
+        private Writer(Path path) throws IOException {
+            this.path = path;
+            this.temp = path.resolveSibling(path.getFileName() + ".tmp");
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 64 * 1024));
+        }
+
+        /**
+         * 블록 하나(blockBytes)를 더 붙여도 색인과 꼬리까지 maxBytes 안에 드는지
+         */
+        private boolean fits(long blockBytes, long maxBytes) {
+            return dataBytes + blockBytes + (long) (userCount + 1) * INDEX_ENTRY_SIZE + TRAILER_SIZE <= maxBytes;
+        }
+
+        private void addBlock(long userId, byte[] block, int length, int blockRows) throws IOException {
+            if (blockRows == 0) {
+                return;
+            }
+            if (userCount == userIds.length) {
+                userIds = Arrays.copyOf(userIds, userCount * 2);
+                offsets = Arrays.copyOf(offsets, userCount * 2);
+                lengths = Arrays.copyOf(lengths, userCount * 2);
+                rows = Arrays.copyOf(rows, userCount * 2);
+            }
+            userIds[userCount] = userId;
+            offsets[userCount] = dataBytes;
+            lengths[userCount] = length;
+            rows[userCount] = blockRows;
+            userCount++;
+            out.write(block, 0, length);
+            dataBytes += length;
+            rowCount += blockRows;
+        }
+
+        private HistorySegment finish() throws IOException {
+            for (int i = 0; i < userCount; i++) {
+                out.writeLong(userIds[i]);
+                out.writeLong(offsets[i]);
+                out.writeInt(lengths[i]);
+                out.writeInt(rows[i]);
+            }
+            out.writeInt(userCount);
+            out.writeLong(rowCount);
+            out.writeLong(dataBytes);
+            out.writeInt(MAGIC);
+            out.close();
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return open(path);
+        }
+
+        private void abort() {
+            try {
+                out.close();
+                Files.deleteIfExists(temp);
+            } catch (IOException e) {
+                // 다음 시작 때 디렉터리를 비운다
+            }
+        }
+    }
+}
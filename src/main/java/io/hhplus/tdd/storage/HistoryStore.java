@@ -0,0 +1,68 @@
+package io.hhplus.tdd.storage;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * 포인트 내역 저장소 SPI
+ * - 구현체는 point.storage.type 설정으로 고른다. (table, memory, file, jdbc, tiered)
+ * - 동시 삽입에 안전해야 하고, 내역 id 는 저장소 안에서 유일해야 한다.
+ */
+public interface HistoryStore {
+
+    PointHistory insert(long userId, long amount, TransactionType type, long updateMillis);
+
+    /**
+     * 유저의 내역을 id 순으로 돌려준다. 없으면 빈 목록
+     */
+    List<PointHistory> selectAllByUserId(long userId);
+
+    /**
+     * 유저의 내역 중 주어진 id 의 내역만 id 순으로 돌려준다. 없는 id 는 건너뛴다.
+     * 기본 구현은 유저 내역을 모두 읽어 고른다. id 로 바로 찾을 수 있는 저장소는 다시 구현한다.
+     *
+     * @param historyIds 오름차순으로 정렬된 내역 id
+     */
+    default List<PointHistory> selectByIds(long userId, long[] historyIds) {
+        List<PointHistory> found = new ArrayList<>(historyIds.length);
+        int next = 0;
+        for (PointHistory history : selectAllByUserId(userId)) {
+            while (next < historyIds.length && historyIds[next] < history.id()) {
+                next++;
+            }
+            if (next == historyIds.length) {
+                break;
+            }
+            if (historyIds[next] == history.id()) {
+                found.add(history);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * 내역이 있는 유저 ID 를 모두 넘긴다. 시작할 때 내역 유저 필터(HistoryUserFilter)를 채운다.
+     * - 다른 노드도 같은 저장소에 쓰는 등 이 노드가 모든 유저를 알 수 없으면 false 를 돌려준다. 그러면 필터를 쓰지 않는다.
+     *
+     * @return 넘긴 유저 밖에는 내역이 없으면 true
+     */
+    default boolean forEachUserId(LongConsumer action) {
+        return false;
+    }
+
+    /**
+     * 저장된 내역을 한 번씩 모두 넘긴다. 순서는 정하지 않는다. 잔액 대사(PointReconciler)가 전체 내역을 한 번에 훑을 때 쓴다.
+     * - 훑는 중에 저장된 내역은 넘길 수도, 넘기지 않을 수도 있다.
+     * - 이 노드가 모든 내역을 볼 수 없거나 훑을 방법이 없으면 false 를 돌려준다. 그러면 유저별로 조회한다.
+     *
+     * @return 훑기 시작한 시점까지 저장된 내역을 모두 넘겼으면 true
+     */
+    default boolean forEachHistory(Consumer<PointHistory> action) {
+        return false;
+    }
+}
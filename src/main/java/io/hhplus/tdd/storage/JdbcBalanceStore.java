@@ -0,0 +1,188 @@
+package io.hhplus.tdd.storage;
+
+import io.hhplus.tdd.lock.LockLostException;
+import io.hhplus.tdd.point.UserPoint;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * JDBC 잔액 저장소 (H2)
+ * - user_point 테이블에 유저별 한 행을 두고, 저장할 때마다 version 을 1씩 올린다. 없으면 시작할 때 만든다.
+ * - compareAndSet 은 읽은 버전일 때만 바꾼다. (UPDATE ... WHERE id = ? AND version = ?, 없던 유저는 INSERT)
+ *   바뀐 행이 없거나 다른 노드가 먼저 INSERT 했으면 충돌로 보고 null 을 돌려주고, 다시 읽어 계산하는 것은 호출하는 쪽(PointService) 몫이다.
+ *   DB 행 잠금은 문장 하나 동안만 잡으므로 여러 노드가 같은 DB 를 써도 노드 간 락 없이 잔액이 맞는다.
+ * - 노드 사이 유저 락의 펜싱 토큰을 받으면 행에 기록된 가장 큰 토큰(fence)보다 작은 토큰의 쓰기를 거절한다. (LockLostException)
+ * - 리더보드용 상위 N명 조회(selectTop)는 (point DESC, id) 색인을 앞에서부터 읽는다.
+ * - 모든 문장은 자동 커밋한다.
+ */
+public class JdbcBalanceStore implements BalanceStore {
+
+    private static final String CREATE_TABLE = """
+            CREATE TABLE IF NOT EXISTS user_point (
+                id BIGINT PRIMARY KEY,
+                point BIGINT NOT NULL,
+                update_millis BIGINT NOT NULL,
+                version BIGINT NOT NULL DEFAULT 0,
+                fence BIGINT NOT NULL DEFAULT 0
+            )""";
+    // version/fence 없이 만들어진 테이블. 기존 행은 version 0 이 된다 (행이 없으면 VersionedBalance.ABSENT)
+    private static final String ADD_VERSION = "ALTER TABLE user_point ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0";
+    private static final String ADD_FENCE = "ALTER TABLE user_point ADD COLUMN IF NOT EXISTS fence BIGINT NOT NULL DEFAULT 0";
+    private static final String SELECT = "SELECT point, update_millis, version FROM user_point WHERE id = ?";
+    private static final String MERGE = """
+            MERGE INTO user_point t
+            USING (VALUES (CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT))) s (id, point, update_millis) ON t.id = s.id
+            WHEN MATCHED THEN UPDATE SET point = s.point, update_millis = s.update_millis, version = t.version + 1
+            WHEN NOT MATCHED THEN INSERT (id, point, update_millis, version) VALUES (s.id, s.point, s.update_millis, 1)""";
+    private static final String UPDATE_IF_VERSION = """
+            UPDATE user_point SET point = ?, update_millis = ?, version = version + 1, fence = GREATEST(fence, ?)
+            WHERE id = ? AND version = ? AND (? = 0 OR fence <= ?)""";
+    private static final String INSERT = "INSERT INTO user_point (id, point, update_millis, version, fence) VALUES (?, ?, ?, 1, ?)";
+    private static final String SELECT_FENCE = "SELECT fence FROM user_point WHERE id = ?";
+    private static final String CREATE_RANK_INDEX = "CREATE INDEX IF NOT EXISTS user_point_rank ON user_point (point DESC, id)";
+    private static final String SELECT_TOP = "SELECT id, point, update_millis FROM user_point WHERE point > 0 ORDER BY point DESC, id LIMIT ?";
+
+    private final DataSource dataSource;
+    private final LongAdder conflicts = new LongAdder();
+
+    public JdbcBalanceStore(DataSource dataSource) {
+        this.dataSource = dataSource;
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_TABLE);
+            statement.execute(ADD_VERSION);
+            statement.execute(ADD_FENCE);
+            statement.execute(CREATE_RANK_INDEX);
+        } catch (SQLException e) {
+            throw new StorageException("user_point 테이블을 만들지 못했습니다.", e);
+        }
+    }
+
+    @Override
+    public UserPoint selectById(long userId) {
+        return selectForUpdate(userId).userPoint();
+    }
+
+    @Override
+    public UserPoint insertOrUpdate(long userId, long amount) {
+        return replace(new UserPoint(userId, amount, System.currentTimeMillis()));
+    }
+
+    @Override
+    public UserPoint replace(UserPoint userPoint) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(MERGE)) {
+            statement.setLong(1, userPoint.id());
+            statement.setLong(2, userPoint.point());
+            statement.setLong(3, userPoint.updateMillis());
+            statement.executeUpdate();
+            return userPoint;
+        } catch (SQLException e) {
+            throw new StorageException("잔액을 저장하지 못했습니다. userId=" + userPoint.id(), e);
+        }
+    }
+
+    @Override
+    public VersionedBalance selectForUpdate(long userId) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT)) {
+            statement.setLong(1, userId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next()
+                        ? new VersionedBalance(new UserPoint(userId, resultSet.getLong(1), resultSet.getLong(2)), resultSet.getLong(3))
+                        : new VersionedBalance(UserPoint.empty(userId), VersionedBalance.ABSENT);
+            }
+        } catch (SQLException e) {
+            throw new StorageException("잔액을 조회하지 못했습니다. userId=" + userId, e);
+        }
+    }
+
+    @Override
+    public UserPoint compareAndSet(VersionedBalance current, long amount) {
+        return compareAndSet(current, amount, 0);
+    }
+
+    @Override
+    public UserPoint compareAndSet(VersionedBalance current, long amount, long fencingToken) {
+        long userId = current.userPoint().id();
+        UserPoint userPoint = new UserPoint(userId, amount, System.currentTimeMillis());
+        boolean insert = current.version() == VersionedBalance.ABSENT;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(insert ? INSERT : UPDATE_IF_VERSION)) {
+            if (insert) {
+                statement.setLong(1, userId);
+                statement.setLong(2, amount);
+                statement.setLong(3, userPoint.updateMillis());
+                statement.setLong(4, fencingToken);
+            } else {
+                statement.setLong(1, amount);
+                statement.setLong(2, userPoint.updateMillis());
+                statement.setLong(3, fencingToken);
+                statement.setLong(4, userId);
+                statement.setLong(5, current.version());
+                statement.setLong(6, fencingToken);
+                statement.setLong(7, fencingToken);
+            }
+            if (statement.executeUpdate() == 1) {
+                return userPoint;
+            }
+        } catch (SQLIntegrityConstraintViolationException e) {
+            // 다른 노드가 먼저 INSERT 했다
+        } catch (SQLException e) {
+            throw new StorageException("잔액을 저장하지 못했습니다. userId=" + userId, e);
+        }
+        if (fencingToken > 0 && fence(userId) > fencingToken) {
+            throw new LockLostException("유저 락 임대가 끝나 다른 요청이 먼저 처리했습니다. 다시 시도해 주세요.");
+        }
+        conflicts.increment();
+        return null;
+    }
+
+    @Override
+    public List<UserPoint> selectTop(int limit) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_TOP)) {
+            statement.setInt(1, limit);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                List<UserPoint> top = new ArrayList<>(limit);
+                while (resultSet.next()) {
+                    top.add(new UserPoint(resultSet.getLong(1), resultSet.getLong(2), resultSet.getLong(3)));
+                }
+                return top;
+            }
+        } catch (SQLException e) {
+            throw new StorageException("잔액 순위를 조회하지 못했습니다. limit=" + limit, e);
+        }
+    }
+
+    /**
+     * 저장된 행의 가장 큰 펜싱 토큰. 행이 없으면 0
+     */
+    private long fence(long userId) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_FENCE)) {
+            statement.setLong(1, userId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getLong(1) : 0;
+            }
+        } catch (SQLException e) {
+            throw new StorageException("펜싱 토큰을 조회하지 못했습니다. userId=" + userId, e);
+        }
+    }
+
+    /**
+     * 지금까지 버전이 맞지 않아 저장하지 못한 횟수
+     */
+    public long conflicts() {
+        return conflicts.sum();
+    }
+}
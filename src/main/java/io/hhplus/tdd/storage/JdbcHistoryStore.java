@@ -0,0 +1,251 @@
+package io.hhplus.tdd.storage;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * JDBC 내역 저장소 (H2)
+ * - 동시에 들어온 삽입을 모아 한 번의 배치 INSERT 와 커밋으로 쓴다. (그룹 커밋)
+ *   삽입하는 스레드는 대기열에 행을 넣고 쓰기 락을 기다린다. 락을 얻은 스레드가 그동안 쌓인 행을 최대 batchSize 개씩 한꺼번에 쓰고,
+ *   자기 행이 이미 다른 스레드의 배치로 쓰였으면 바로 돌아간다.
+ * - 내역 id 는 point_history_id 테이블에서 블록 단위로 받아 와 배치 안에서 나눠 준다.
+ *   블록은 행 잠금으로 받아 오므로 여러 노드가 같은 DB 를 써도 id 가 겹치지 않는다. (재시작하면 남은 블록만큼 번호가 빈다)
+ */
+public class JdbcHistoryStore implements HistoryStore {
+
+    private static final String CREATE_TABLE = """
+            CREATE TABLE IF NOT EXISTS point_history (
+                id BIGINT PRIMARY KEY,
+                user_id BIGINT NOT NULL,
+                amount BIGINT NOT NULL,
+                type VARCHAR(16) NOT NULL,
+                update_millis BIGINT NOT NULL
+            )""";
+    private static final String CREATE_INDEX = "CREATE INDEX IF NOT EXISTS idx_point_history_user_id ON point_history (user_id, id)";
+    private static final String CREATE_ID_TABLE = "CREATE TABLE IF NOT EXISTS point_history_id (id INT PRIMARY KEY, next_id BIGINT NOT NULL)";
+    private static final String INIT_ID = "INSERT INTO point_history_id (id, next_id) SELECT 1, 1 WHERE NOT EXISTS (SELECT 1 FROM point_history_id WHERE id = 1)";
+    private static final String RESERVE_IDS = "UPDATE point_history_id SET next_id = next_id + ? WHERE id = 1";
+    private static final String SELECT_NEXT_ID = "SELECT next_id FROM point_history_id WHERE id = 1";
+    private static final String INSERT = "INSERT INTO point_history (id, user_id, amount, type, update_millis) VALUES (?, ?, ?, ?, ?)";
+    private static final String SELECT_BY_USER = "SELECT id, amount, type, update_millis FROM point_history WHERE user_id = ? ORDER BY id";
+    private static final String SELECT_BY_USER_BETWEEN =
+            "SELECT id, amount, type, update_millis FROM point_history WHERE user_id = ? AND id BETWEEN ? AND ? ORDER BY id";
+
+    private static final int ID_BLOCK_SIZE = 1_000;
+
+    private final DataSource dataSource;
+    private final int batchSize;
+
+    private final Queue<PendingRow> pendingRows = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    // 아래 필드는 writeLock 안에서만 읽고 쓴다
+    private long nextId;
+    private long lastReservedId = -1;
+
+    /**
+     * @param batchSize 배치 하나에 담을 최대 행 수
+     */
+    public JdbcHistoryStore(DataSource dataSource, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("배치 크기는 1 이상이어야 합니다. batchSize=" + batchSize);
+        }
+        this.dataSource = dataSource;
+        this.batchSize = batchSize;
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_TABLE);
+            statement.execute(CREATE_INDEX);
+            statement.execute(CREATE_ID_TABLE);
+            try {
+                statement.executeUpdate(INIT_ID);
+            } catch (SQLIntegrityConstraintViolationException ignored) {
+                // 다른 노드가 먼저 만들었다
+            }
+        } catch (SQLException e) {
+            throw new StorageException("point_history 테이블을 만들지 못했습니다.", e);
+        }
+    }
+
+    @Override
+    public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        PendingRow row = new PendingRow(userId, amount, type, updateMillis);
+        pendingRows.add(row);
+        writeLock.lock();
+        try {
+            while (row.inserted == null && row.failure == null) {
+                flush();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        if (row.failure != null) {
+            throw new StorageException("포인트 내역을 저장하지 못했습니다. userId=" + userId, row.failure);
+        }
+        return row.inserted;
+    }
+
+    @Override
+    public List<PointHistory> selectAllByUserId(long userId) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_BY_USER)) {
+            statement.setLong(1, userId);
+            List<PointHistory> histories = new ArrayList<>();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    histories.add(new PointHistory(resultSet.getLong(1), userId, resultSet.getLong(2),
+                            TransactionType.valueOf(resultSet.getString(3)), resultSet.getLong(4)));
+                }
+            }
+            return List.copyOf(histories);
+        } catch (SQLException e) {
+            throw new StorageException("포인트 내역을 조회하지 못했습니다. userId=" + userId, e);
+        }
+    }
+
+    /**
+     * (user_id, id) 색인에서 가장 작은 id 부터 가장 큰 id 까지만 읽어 고른다.
+     */
+    @Override
+    public List<PointHistory> selectByIds(long userId, long[] historyIds) {
+        if (historyIds.length == 0) {
+            return List.of();
+        }
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_BY_USER_BETWEEN)) {
+            statement.setLong(1, userId);
+            statement.setLong(2, historyIds[0]);
+            statement.setLong(3, historyIds[historyIds.length - 1]);
+            List<PointHistory> found = new ArrayList<>(historyIds.length);
+            int next = 0;
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next() && next < historyIds.length) {
+                    long id = resultSet.getLong(1);
+                    while (next < historyIds.length && historyIds[next] < id) {
+                        next++;
+                    }
+                    if (next < historyIds.length && historyIds[next] == id) {
+                        found.add(new PointHistory(id, userId, resultSet.getLong(2),
+                                TransactionType.valueOf(resultSet.getString(3)), resultSet.getLong(4)));
+                    }
+                }
+            }
+            return found;
+        } catch (SQLException e) {
+            throw new StorageException("포인트 내역을 조회하지 못했습니다. userId=" + userId, e);
+        }
+    }
+
+    /**
+     * 대기열의 행을 최대 batchSize 개 꺼내 한 트랜잭션으로 쓴다. writeLock 안에서 호출된다.
+     */
+    private void flush() {
+        List<PendingRow> batch = new ArrayList<>(Math.min(batchSize, 64));
+        PendingRow row;
+        while (batch.size() < batchSize && (row = pendingRows.poll()) != null) {
+            batch.add(row);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                List<PointHistory> histories = new ArrayList<>(batch.size());
+                try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+                    for (PendingRow pending : batch) {
+                        PointHistory history = new PointHistory(nextId(), pending.userId, pending.amount,
+                                pending.type, pending.updateMillis);
+                        statement.setLong(1, history.id());
+                        statement.setLong(2, history.userId());
+                        statement.setLong(3, history.amount());
+                        statement.setString(4, history.type().name());
+                        statement.setLong(5, history.updateMillis());
+                        statement.addBatch();
+                        histories.add(history);
+                    }
+                    statement.executeBatch();
+                }
+                connection.commit();
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).inserted = histories.get(i);
+                }
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException | RuntimeException e) {
+            for (PendingRow pending : batch) {
+                pending.failure = e;
+            }
+        }
+    }
+
+    /**
+     * 받아 둔 블록에서 id 를 하나 꺼낸다. 블록을 다 쓰면 별도 트랜잭션으로 다음 블록을 받아 온다.
+     */
+    private long nextId() throws SQLException {
+        if (nextId > lastReservedId) {
+            reserveIdBlock();
+        }
+        return nextId++;
+    }
+
+    private void reserveIdBlock() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement reserve = connection.prepareStatement(RESERVE_IDS);
+                 PreparedStatement select = connection.prepareStatement(SELECT_NEXT_ID)) {
+                reserve.setLong(1, ID_BLOCK_SIZE);
+                reserve.executeUpdate();
+                try (ResultSet resultSet = select.executeQuery()) {
+                    resultSet.next();
+                    long end = resultSet.getLong(1);
+                    connection.commit();
+                    nextId = end - ID_BLOCK_SIZE;
+                    lastReservedId = end - 1;
+                }
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private static final class PendingRow {
+
+        private final long userId;
+        private final long amount;
+        private final TransactionType type;
+        private final long updateMillis;
+
+        // 쓰기 락 안에서 채우고, 삽입한 스레드는 쓰기 락을 얻은 뒤 읽는다
+        private PointHistory inserted;
+        private Exception failure;
+
+        private PendingRow(long userId, long amount, TransactionType type, long updateMillis) {
+            this.userId = userId;
+            this.amount = amount;
+            this.type = type;
+            this.updateMillis = updateMillis;
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package io.hhplus.tdd.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * 고정 크기 레코드를 덧붙이기만 하는 저널 파일
+ * - 파일 앞에 머리말(형식 표시, 레코드 크기)을 두고, 레코드마다 뒤에 CRC32C 체크섬을 붙인다.
+ * - 열 때 처음부터 끝까지 읽어 레코드를 재생한다. 마지막 레코드가 덜 쓰였거나 체크섬이 맞지 않으면 잘라내고,
+ *   중간 레코드의 체크섬이 맞지 않으면 열지 않는다. (StorageException)
+ * - 머리말이 없는 예전 형식 파일은 재생한 뒤 새 형식으로 다시 써서 바꿔 끼운다.
+ * - 쓰기는 한 번에 하나씩(락) 파일 끝에 붙인다. 쓰기 직후 실행할 작업(메모리 반영)도 같은 락 안에서 실행해
+ *   저널 순서와 메모리 반영 순서가 같다.
+ * - 쓰기나 fsync 가 실패하면 파일을 쓰기 전 길이로 잘라 되돌린다. 되돌리지도 못하면 이후 쓰기를 모두 거절한다.
+ * - sync 가 true 면 쓸 때마다 디스크에 내려 쓴다(fsync). false 면 OS 캐시에 맡기므로 프로세스 장애에는 안전하지만 전원 장애에는 최근 기록을 잃을 수 있다.
+ * - 압축(compact)은 넘겨받은 레코드만 담은 새 파일을 옆에 써서 원자적으로 바꿔 끼운다. 도중에 죽어도 예전 파일이 그대로 남는다.
+ */
+final class JournalFile implements Closeable {
+
+    private static final int MAGIC = 0x504A4E32; // "PJN2"
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+    private static final int CHECKSUM_SIZE = Integer.BYTES;
+    private static final int REPLAY_BUFFER_RECORDS = 32 * 1024;
+
+    private final Path path;
+    private final int recordSize;
+    private final int frameSize;
+    private final boolean sync;
+    private final ByteBuffer writeBuffer;
+    private final CRC32C crc = new CRC32C();
+
+    private FileChannel channel;
+    // 지금 파일에 든 레코드 수
+    private long records;
+    // 실패한 쓰기를 되돌리지 못했다
+    private boolean broken;
+
+    JournalFile(Path path, int recordSize, boolean sync, Consumer<ByteBuffer> replay) {
+        this.path = path;
+        this.recordSize = recordSize;
+        this.frameSize = recordSize + CHECKSUM_SIZE;
+        this.sync = sync;
+        this.writeBuffer = ByteBuffer.allocateDirect(frameSize);
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (channel.size() == 0) {
+                writeHeader(channel);
+                channel.force(true);
+            } else if (!hasHeader()) {
+                upgrade(replay);
+                return;
+            }
+            long valid = replay(replay);
+            if (valid < channel.size()) {
+                channel.truncate(valid);
+            }
+            channel.position(valid);
+        } catch (IOException e) {
+            throw new StorageException("저널 파일을 열지 못했습니다. path=" + path, e);
+        }
+    }
+
+    /**
+     * 레코드 하나를 붙인다.
+     *
+     * @param encoder 레코드 내용을 채운다. (recordSize 바이트)
+     * @param applied 저널에 쓴 뒤 같은 락 안에서 실행한다.
+     */
+    synchronized void append(Consumer<ByteBuffer> encoder, Runnable applied) {
+        if (broken) {
+            throw new StorageException("이전 쓰기를 되돌리지 못해 저널을 더 쓰지 않습니다. path=" + path);
+        }
+        encode(encoder);
+        long start;
+        try {
+            start = channel.position();
+        } catch (IOException e) {
+            throw new StorageException("저널 파일에 쓰지 못했습니다. path=" + path, e);
+        }
+        try {
+            while (writeBuffer.hasRemaining()) {
+                channel.write(writeBuffer);
+            }
+            if (sync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            StorageException failure = new StorageException("저널 파일에 쓰지 못했습니다. path=" + path, e);
+            rollback(start, failure);
+            throw failure;
+        }
+        records++;
+        applied.run();
+    }
+
+    /**
+     * 지금 파일에 든 레코드 수 (재생한 레코드 포함)
+     */
+    synchronized long records() {
+        return records;
+    }
+
+    /**
+     * 레코드가 minRecords 보다 많으면, snapshot 이 넘겨 주는 레코드만 담은 파일로 바꾼다.
+     * 바꾸는 동안 쓰기는 기다리므로 snapshot 은 메모리 상태를 그대로 옮겨 쓰면 된다.
+     *
+     * @return 바꿨으면 true
+     */
+    synchronized boolean compact(long minRecords, Consumer<RecordWriter> snapshot) {
+        if (broken) {
+            throw new StorageException("이전 쓰기를 되돌리지 못해 저널을 더 쓰지 않습니다. path=" + path);
+        }
+        if (records <= minRecords) {
+            return false;
+        }
+        try {
+            replaceWith(snapshot);
+        } catch (IOException e) {
+            throw new StorageException("저널 파일을 압축하지 못했습니다. path=" + path, e);
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            channel.force(true);
+            channel.close();
+        } catch (IOException e) {
+            throw new StorageException("저널 파일을 닫지 못했습니다. path=" + path, e);
+        }
+    }
+
+    /**
+     * 압축할 때 새 파일에 레코드를 쓴다.
+     */
+    @FunctionalInterface
+    interface RecordWriter {
+
+        void write(Consumer<ByteBuffer> encoder);
+    }
+
+    /**
+     * writeBuffer 에 레코드와 체크섬을 채우고 읽을 수 있게 뒤집는다.
+     */
+    private void encode(Consumer<ByteBuffer> encoder) {
+        writeBuffer.clear();
+        encoder.accept(writeBuffer);
+        if (writeBuffer.position() != recordSize) {
+            throw new IllegalStateException("레코드 크기가 맞지 않습니다. expected=" + recordSize + ", actual=" + writeBuffer.position());
+        }
+        writeBuffer.putInt(checksum(writeBuffer.slice(0, recordSize)));
+        writeBuffer.flip();
+    }
+
+    /**
+     * 실패한 쓰기를 되돌린다. 되돌리지 못하면 이후 쓰기를 거절한다.
+     */
+    private void rollback(long start, StorageException failure) {
+        try {
+            channel.truncate(start);
+            channel.position(start);
+            if (sync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+            broken = true;
+        }
+    }
+
+    private int checksum(ByteBuffer record) {
+        crc.reset();
+        crc.update(record);
+        return (int) crc.getValue();
+    }
+
+    private boolean hasHeader() throws IOException {
+        if (channel.size() < HEADER_SIZE) {
+            return false;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        channel.read(header, 0);
+        header.flip();
+        if (header.getInt() != MAGIC) {
+            return false;
+        }
+        int size = header.getInt();
+        if (size != recordSize) {
+            throw new StorageException("저널 레코드 크기가 맞지 않습니다. path=" + path + ", expected=" + recordSize + ", actual=" + size);
+        }
+        return true;
+    }
+
+    private void writeHeader(FileChannel target) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(recordSize).flip();
+        while (header.hasRemaining()) {
+            target.write(header, header.position());
+        }
+        target.position(HEADER_SIZE);
+    }
+
+    /**
+     * @return 끝까지 온전히 읽은 바이트 수
+     */
+    private long replay(Consumer<ByteBuffer> replay) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(frameSize * REPLAY_BUFFER_RECORDS);
+        long size = channel.size();
+        long position = HEADER_SIZE;
+        channel.position(position);
+        while (channel.read(buffer) > 0 || buffer.position() >= frameSize) {
+            buffer.flip();
+            while (buffer.remaining() >= frameSize) {
+                ByteBuffer record = buffer.slice(buffer.position(), recordSize);
+                if (checksum(record.duplicate()) != buffer.getInt(buffer.position() + recordSize)) {
+                    if (position + frameSize == size) {
+                        // 마지막 레코드가 덜 쓰였다
+                        return position;
+                    }
+                    throw new StorageException("저널 레코드의 체크섬이 맞지 않습니다. path=" + path + ", offset=" + position);
+                }
+                replay.accept(record);
+                buffer.position(buffer.position() + frameSize);
+                position += frameSize;
+                records++;
+            }
+            buffer.compact();
+        }
+        return position;
+    }
+
+    /**
+     * 머리말과 체크섬이 없는 예전 형식 파일을 재생하고, 온전한 레코드를 새 형식으로 옮겨 쓴다.
+     */
+    private void upgrade(Consumer<ByteBuffer> replay) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(recordSize * REPLAY_BUFFER_RECORDS);
+        channel.position(0);
+        replaceWith(writer -> {
+            try {
+                while (channel.read(buffer) > 0 || buffer.position() >= recordSize) {
+                    buffer.flip();
+                    while (buffer.remaining() >= recordSize) {
+                        ByteBuffer record = buffer.slice(buffer.position(), recordSize);
+                        replay.accept(record.duplicate());
+                        writer.write(target -> target.put(record));
+                        buffer.position(buffer.position() + recordSize);
+                    }
+                    buffer.compact();
+                }
+            } catch (IOException e) {
+                throw new StorageException("예전 형식 저널을 읽지 못했습니다. path=" + path, e);
+            }
+        });
+    }
+
+    /**
+     * snapshot 이 쓰는 레코드만 담은 새 파일을 옆에 쓰고, 디스크에 내린 뒤 원자적으로 바꿔 끼운다.
+     */
+    private void replaceWith(Consumer<RecordWriter> snapshot) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        long written;
+        try (FileChannel target = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeHeader(target);
+            long[] count = new long[1];
+            snapshot.accept(encoder -> {
+                encode(encoder);
+                try {
+                    while (writeBuffer.hasRemaining()) {
+                        target.write(writeBuffer);
+                    }
+                } catch (IOException e) {
+                    throw new StorageException("저널 파일을 다시 쓰지 못했습니다. path=" + temporary, e);
+                }
+                count[0]++;
+            });
+            target.force(true);
+            written = count[0];
+        }
+        channel.close();
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory();
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        records = written;
+    }
+
+    /**
+     * 이름 바꾸기를 디스크에 내린다. 디렉터리를 열 수 없는 플랫폼이면 넘어간다.
+     */
+    private void syncDirectory() {
+        Path directory = path.toAbsolutePath().getParent();
+        try (FileChannel directoryChannel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            directoryChannel.force(true);
+        } catch (IOException e) {
+            // 디렉터리 fsync 를 지원하지 않는다
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package io.hhplus.tdd.storage;
+
+import io.hhplus.tdd.database.StripedLongMap;
+import io.hhplus.tdd.point.UserPoint;
+
+import java.util.function.Consumer;
+
+/**
+ * 메모리 잔액 저장소
+ * - long 키 스트라이프 맵(StripedLongMap)에 담는다. 다른 유저끼리는 대부분 경합하지 않고, 조회는 락 없이 한다.
+ */
+public class MemoryBalanceStore implements BalanceStore {
+
+    private final StripedLongMap<UserPoint> balances;
+
+    public MemoryBalanceStore() {
+        this(new StripedLongMap<>());
+    }
+
+    public MemoryBalanceStore(StripedLongMap<UserPoint> balances) {
+        this.balances = balances;
+    }
+
+    @Override
+    public UserPoint selectById(long userId) {
+        return balances.getOrDefault(userId, UserPoint.empty(userId));
+    }
+
+    @Override
+    public UserPoint insertOrUpdate(long userId, long amount) {
+        return put(new UserPoint(userId, amount, System.currentTimeMillis()));
+    }
+
+    @Override
+    public UserPoint replace(UserPoint userPoint) {
+        return put(userPoint);
+    }
+
+    /**
+     * 저장된 시각을 그대로 담는다. (저널 복구)
+     */
+    UserPoint put(UserPoint userPoint) {
+        balances.put(userPoint.id(), userPoint);
+        return userPoint;
+    }
+
+    /**
+     * 저장된 잔액을 모두 넘긴다. (저널 압축)
+     */
+    void forEach(Consumer<UserPoint> action) {
+        balances.forEachValue(action);
+    }
+
+    /**
+     * 저장된 유저 수
+     */
+    public long size() {
+        return balances.size();
+    }
+}
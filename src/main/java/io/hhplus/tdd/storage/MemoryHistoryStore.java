@@ -0,0 +1,160 @@
+package io.hhplus.tdd.storage;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * 메모리 내역 저장소
+ * - id 는 AtomicLong 에서 발급하므로 1 부터 빈 번호 없이 유일하다.
+ * - 내역은 id 순서대로 고정 크기 청크를 이어 붙인 로그에 쓴다. 청크는 처음 쓰는 스레드가 CAS 로 만들고, 칸은 id 마다 하나라 락 없이 쓴다.
+ * - 유저별 조회를 위해 유저별 큐에도 넣는다. 유저 내역은 id 순으로 돌려준다.
+ */
+public class MemoryHistoryStore implements HistoryStore {
+
+    private static final int CHUNK_BITS = 14;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    // 청크 1만 6천여 칸 x 13만여 개 = 약 21억 건
+    private static final int MAX_CHUNKS = 1 << 17;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicReferenceArray<AtomicReferenceArray<PointHistory>> chunks = new AtomicReferenceArray<>(MAX_CHUNKS);
+    private final Map<Long, Queue<PointHistory>> userHistories = new ConcurrentHashMap<>();
+
+    @Override
+    public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        long id = sequence.incrementAndGet();
+        PointHistory pointHistory = new PointHistory(id, userId, amount, type, updateMillis);
+        append(pointHistory);
+        return pointHistory;
+    }
+
+    @Override
+    public List<PointHistory> selectAllByUserId(long userId) {
+        Queue<PointHistory> histories = userHistories.get(userId);
+        if (histories == null) {
+            return List.of();
+        }
+        List<PointHistory> result = new ArrayList<>(histories);
+        // 같은 유저에 동시에 넣으면 발급 순서와 큐 순서가 어긋날 수 있다
+        for (int i = 1; i < result.size(); i++) {
+            if (result.get(i - 1).id() > result.get(i).id()) {
+                result.sort(Comparator.comparingLong(PointHistory::id));
+                break;
+            }
+        }
+        return List.copyOf(result);
+    }
+
+    @Override
+    public boolean forEachUserId(LongConsumer action) {
+        userHistories.keySet().forEach(action::accept);
+        return true;
+    }
+
+    /**
+     * 로그에서 id 로 바로 찾는다.
+     */
+    @Override
+    public List<PointHistory> selectByIds(long userId, long[] historyIds) {
+        List<PointHistory> found = new ArrayList<>(historyIds.length);
+        for (long historyId : historyIds) {
+            PointHistory history = selectById(historyId);
+            if (history != null && history.userId() == userId) {
+                found.add(history);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * 로그를 id 순으로 훑는다. 발급됐지만 아직 쓰는 중인 칸은 건너뛴다.
+     */
+    @Override
+    public boolean forEachHistory(Consumer<PointHistory> action) {
+        long last = sequence.get();
+        for (int c = 0; (long) c << CHUNK_BITS < last; c++) {
+            AtomicReferenceArray<PointHistory> chunk = chunks.get(c);
+            if (chunk == null) {
+                continue;
+            }
+            int end = (int) Math.min(CHUNK_SIZE, last - ((long) c << CHUNK_BITS));
+            for (int i = 0; i < end; i++) {
+                PointHistory history = chunk.get(i);
+                if (history != null) {
+                    action.accept(history);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * id 로 내역을 조회한다. 발급되지 않았거나 아직 쓰는 중이면 null
+     */
+    public PointHistory selectById(long id) {
+        if (id < 1 || id > sequence.get()) {
+            return null;
+        }
+        long index = id - 1;
+        AtomicReferenceArray<PointHistory> chunk = chunks.get((int) (index >>> CHUNK_BITS));
+        return chunk == null ? null : chunk.get((int) (index & CHUNK_MASK));
+    }
+
+    /**
+     * 지금까지 발급한 id 수
+     */
+    public long size() {
+        return sequence.get();
+    }
+
+    /**
+     * 이미 id 가 있는 내역을 담는다. (저널 복구, 단일 스레드에서만 호출)
+     */
+    void restore(PointHistory pointHistory) {
+        if (pointHistory.id() > sequence.get()) {
+            sequence.set(pointHistory.id());
+        }
+        append(pointHistory);
+    }
+
+    /**
+     * 다음 id 를 발급한다. 발급한 id 의 내역은 append 로 담는다. (저널에 먼저 쓰는 저장소용)
+     */
+    long allocateId() {
+        return sequence.incrementAndGet();
+    }
+
+    void append(PointHistory pointHistory) {
+        long index = pointHistory.id() - 1;
+        if (index < 0 || index >= (long) MAX_CHUNKS * CHUNK_SIZE) {
+            throw new IllegalStateException("포인트 내역 저장 한도를 넘었습니다. id=" + pointHistory.id());
+        }
+        chunk((int) (index >>> CHUNK_BITS)).set((int) (index & CHUNK_MASK), pointHistory);
+        userHistories.computeIfAbsent(pointHistory.userId(), k -> new ConcurrentLinkedQueue<>()).add(pointHistory);
+    }
+
+    private AtomicReferenceArray<PointHistory> chunk(int chunkIndex) {
+        AtomicReferenceArray<PointHistory> chunk = chunks.get(chunkIndex);
+        if (chunk != null) {
+            return chunk;
+        }
+        AtomicReferenceArray<PointHistory> created = new AtomicReferenceArray<>(CHUNK_SIZE);
+        if (chunks.compareAndSet(chunkIndex, null, created)) {
+            return created;
+        }
+        return chunks.get(chunkIndex);
+    }
+}
@@ -0,0 +1,120 @@
+package io.hhplus.tdd.storage;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 잔액/내역 저장소 선택 (point.storage.type)
+ * - memory: 메모리 저장소. 테이블 API 를 거치지 않는다. (기본값)
+ * - table: 기존 테이블 빈(UserPointTable, PointHistoryTable)을 그대로 쓴다.
+ *   테이블은 서로 다른 유저의 동시 쓰기에 안전하지 않아(HashMap, 동기화 없는 cursor) 저장소 계약을 지키지 못하므로,
+ *   테이블 빈을 직접 들여다보는 기존 테스트처럼 한 유저만 쓰는 경우에만 고른다.
+ * - file: 파일 저널 저장소. 재시작해도 잔액과 내역이 남는다.
+ * - jdbc: 내장 H2 저장소. 내역은 배치로 모아 쓴다.
+ * - tiered: 메모리 저장소에서 오래된 내역만 압축한 세그먼트 파일로 옮긴다.
+ */
+@Configuration
+public class StorageConfig {
+
+    @Configuration
+    @ConditionalOnProperty(name = "point.storage.type", havingValue = "table")
+    static class TableStorageConfig {
+
+        @Bean
+        public BalanceStore balanceStore(UserPointTable userPointTable) {
+            return new TableBalanceStore(userPointTable);
+        }
+
+        @Bean
+        public HistoryStore historyStore(PointHistoryTable pointHistoryTable) {
+            return new TableHistoryStore(pointHistoryTable);
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "point.storage.type", havingValue = "memory", matchIfMissing = true)
+    static class MemoryStorageConfig {
+
+        @Bean
+        public BalanceStore balanceStore() {
+            return new MemoryBalanceStore();
+        }
+
+        @Bean
+        public HistoryStore historyStore() {
+            return new MemoryHistoryStore();
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "point.storage.type", havingValue = "file")
+    static class FileStorageConfig {
+
+        @Bean(destroyMethod = "close")
+        public FileBalanceStore balanceStore(@Value("${point.storage.file.directory:data}") Path directory,
+                                             @Value("${point.storage.file.sync:false}") boolean sync) {
+            return new FileBalanceStore(directory.resolve("user-point.journal"), sync);
+        }
+
+        @Bean(destroyMethod = "close")
+        public FileHistoryStore historyStore(@Value("${point.storage.file.directory:data}") Path directory,
+                                             @Value("${point.storage.file.sync:false}") boolean sync) {
+            return new FileHistoryStore(directory.resolve("point-history.journal"), sync);
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "point.storage.type", havingValue = "tiered")
+    static class TieredStorageConfig {
+
+        @Bean
+        public BalanceStore balanceStore() {
+            return new MemoryBalanceStore();
+        }
+
+        @Bean(initMethod = "start", destroyMethod = "close")
+        public TieredHistoryStore historyStore(@Value("${point.storage.tiered.directory:data/history-segments}") Path directory,
+                                               @Value("${point.storage.tiered.hot-age-days:28}") long hotAgeDays,
+                                               @Value("${point.storage.tiered.hot-rows-per-user:64}") int hotRowsPerUser,
+                                               @Value("${point.storage.tiered.segments-per-tier:4}") int segmentsPerTier,
+                                               @Value("${point.storage.tiered.max-segment-bytes:268435456}") long maxSegmentBytes,
+                                               @Value("${point.storage.tiered.compact-interval-millis:60000}") long compactIntervalMillis) {
+            return new TieredHistoryStore(directory, TimeUnit.DAYS.toMillis(hotAgeDays), hotRowsPerUser, segmentsPerTier,
+                    maxSegmentBytes, compactIntervalMillis, System::currentTimeMillis);
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "point.storage.type", havingValue = "jdbc")
+    static class JdbcStorageConfig {
+
+        @Bean(destroyMethod = "dispose")
+        public JdbcConnectionPool pointDataSource(@Value("${point.storage.jdbc.url:jdbc:h2:mem:point;DB_CLOSE_DELAY=-1}") String url,
+                                                  @Value("${point.storage.jdbc.username:sa}") String username,
+                                                  @Value("${point.storage.jdbc.password:}") String password,
+                                                  @Value("${point.storage.jdbc.max-connections:32}") int maxConnections) {
+            JdbcConnectionPool pool = JdbcConnectionPool.create(url, username, password);
+            pool.setMaxConnections(maxConnections);
+            return pool;
+        }
+
+        @Bean
+        public BalanceStore balanceStore(JdbcConnectionPool pointDataSource) {
+            return new JdbcBalanceStore(pointDataSource);
+        }
+
+        @Bean
+        public HistoryStore historyStore(JdbcConnectionPool pointDataSource,
+                                         @Value("${point.storage.jdbc.batch-size:256}") int batchSize) {
+            return new JdbcHistoryStore(pointDataSource, batchSize);
+        }
+    }
+}
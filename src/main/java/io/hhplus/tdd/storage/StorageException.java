@@ -0,0 +1,15 @@
+package io.hhplus.tdd.storage;
+
+/**
+ * 저장소(파일, DB) 입출력 실패
+ */
+public class StorageException extends RuntimeException {
+
+    public StorageException(String message) {
+        super(message);
+    }
+
+    public StorageException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,27 @@
+package io.hhplus.tdd.storage;
+
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.UserPoint;
+
+/**
+ * UserPointTable 을 그대로 쓰는 잔액 저장소 (point.storage.type=table)
+ * - 테이블이 HashMap 이라 서로 다른 유저를 동시에 쓰면 값이 사라질 수 있다. 저장소 계약을 지키지 못하므로 기본값이 아니다.
+ */
+public class TableBalanceStore implements BalanceStore {
+
+    private final UserPointTable userPointTable;
+
+    public TableBalanceStore(UserPointTable userPointTable) {
+        this.userPointTable = userPointTable;
+    }
+
+    @Override
+    public UserPoint selectById(long userId) {
+        return userPointTable.selectById(userId);
+    }
+
+    @Override
+    public UserPoint insertOrUpdate(long userId, long amount) {
+        return userPointTable.insertOrUpdate(userId, amount);
+    }
+}
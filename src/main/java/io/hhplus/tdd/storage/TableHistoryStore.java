@@ -0,0 +1,37 @@
+package io.hhplus.tdd.storage;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * PointHistoryTable 을 그대로 쓰는 내역 저장소 (point.storage.type=table)
+ * - 테이블이 cursor++ 와 ArrayList.add 를 동기화 없이 하므로 동시에 넣으면 id 가 겹칠 수 있다. 저장소 계약을 지키지 못하므로 기본값이 아니다.
+ * - 테이블은 메모리에만 있어 시작할 때 비어 있고 이 저장소로만 쓰므로, 시작할 때 넘길 내역 유저가 없다.
+ */
+public class TableHistoryStore implements HistoryStore {
+
+    private final PointHistoryTable pointHistoryTable;
+
+    public TableHistoryStore(PointHistoryTable pointHistoryTable) {
+        this.pointHistoryTable = pointHistoryTable;
+    }
+
+    @Override
+    public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        return pointHistoryTable.insert(userId, amount, type, updateMillis);
+    }
+
+    @Override
+    public List<PointHistory> selectAllByUserId(long userId) {
+        return pointHistoryTable.selectAllByUserId(userId);
+    }
+
+    @Override
+    public boolean forEachUserId(LongConsumer action) {
+        return true;
+    }
+}
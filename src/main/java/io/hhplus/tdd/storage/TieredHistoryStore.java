@@ -0,0 +1,374 @@
+package io.hhplus.tdd.storage;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+import java.util.stream.LongStream;
+
+/**
+ * 계층형 내역 저장소
+ * - 최근 내역은 유저별 큐에 객체로 두고(hot), 오래된 내역은 주기적으로 세그먼트 파일로 옮긴다(cold). 조회는 두 계층을 id 순으로 이어 붙인다.
+ * - 압축(compact)은 유저 큐 앞쪽에서 hotAgeMillis 보다 오래되었거나 최근 hotRowsPerUser 건 밖으로 밀려난 행을 골라 새 세그먼트로 쓴다.
+ *   세그먼트를 쓰는 동안에도 삽입과 조회는 그대로 진행하고, 다 쓴 뒤 쓰기 락 안에서 세그먼트를 붙이고 옮긴 행을 큐에서 뺀다.
+ *   조회는 낙관적 읽기로 세그먼트 목록과 큐를 함께 읽고, 그 사이 압축이 끼어들었으면 읽기 락으로 다시 읽는다. 같은 행이 두 계층에서 보이거나 빠지지 않는다.
+ * - 세그먼트 파일 하나는 maxSegmentBytes 를 넘지 않는다. 넘을 것 같으면 여러 파일로 나눠 쓴다.
+ * - 세그먼트는 크기 계층(1MB 미만, 그 뒤로 segmentsPerTier 배씩)으로 묶어, 같은 계층에 segmentsPerTier 개가 쌓이면 그 계층만 합친다. (size-tiered)
+ *   행 하나가 다시 쓰이는 횟수는 계층 수만큼으로 제한되고, 크기 상한의 절반을 넘은 세그먼트는 더 합치지 않는다.
+ * - 큐에는 삽입 순서대로 들어가고 압축만 앞에서 꺼낸다. (같은 유저 내역은 유저 락 안에서 삽입되므로 id 순이다)
+ * - 잔액처럼 메모리 저장소이므로 재시작하면 비어 있다. 시작할 때 디렉터리에 남은 세그먼트는 지운다.
+ */
+public class TieredHistoryStore implements HistoryStore, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(TieredHistoryStore.class);
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final long DEFAULT_MAX_SEGMENT_BYTES = 256L * 1024 * 1024;
+    // 이보다 작은 세그먼트는 모두 첫 계층이다
+    private static final long FIRST_TIER_BYTES = 1024 * 1024;
+
+    private final Path directory;
+    private final long hotAgeMillis;
+    private final int hotRowsPerUser;
+    private final int segmentsPerTier;
+    private final long maxSegmentBytes;
+    private final long compactIntervalMillis;
+    private final LongSupplier clock;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Long, Queue<PointHistory>> hot = new ConcurrentHashMap<>();
+    private final StampedLock tierLock = new StampedLock();
+    // tierLock 쓰기 락 안에서만 바꾼다. 오래된 세그먼트가 앞에 온다
+    private volatile List<HistorySegment> segments = List.of();
+
+    // 압축은 한 번에 하나만 (예약 실행과 직접 호출)
+    private final Object compactionMonitor = new Object();
+    private long segmentSequence;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param directory             세그먼트 파일을 둘 디렉터리
+     * @param hotAgeMillis          이보다 오래된 내역은 세그먼트로 옮긴다
+     * @param hotRowsPerUser        유저마다 메모리에 둘 최근 내역 수의 상한
+     * @param segmentsPerTier       같은 크기 계층에 이만큼 쌓이면 합친다 (2 이상)
+     * @param compactIntervalMillis 압축 주기 (0 이면 compact 를 직접 호출할 때만)
+     */
+    public TieredHistoryStore(Path directory, long hotAgeMillis, int hotRowsPerUser, int segmentsPerTier,
+                              long compactIntervalMillis, LongSupplier clock) {
+        this(directory, hotAgeMillis, hotRowsPerUser, segmentsPerTier, DEFAULT_MAX_SEGMENT_BYTES, compactIntervalMillis, clock);
+    }
+
+    /**
+     * @param maxSegmentBytes 세그먼트 파일 하나의 크기 상한 (4KB ~ 1GB)
+     */
+    public TieredHistoryStore(Path directory, long hotAgeMillis, int hotRowsPerUser, int segmentsPerTier,
+                              long maxSegmentBytes, long compactIntervalMillis, LongSupplier clock) {
+        if (hotAgeMillis < 0 || hotRowsPerUser < 0 || segmentsPerTier < 2 || compactIntervalMillis < 0
+                || maxSegmentBytes < HistorySegment.MIN_SIZE_BYTES || maxSegmentBytes > HistorySegment.MAX_SIZE_BYTES) {
+            throw new IllegalArgumentException("계층형 내역 저장소 설정이 올바르지 않습니다.");
+        }
+        this.directory = directory;
+        this.hotAgeMillis = hotAgeMillis;
+        this.hotRowsPerUser = hotRowsPerUser;
+        this.segmentsPerTier = segmentsPerTier;
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.compactIntervalMillis = compactIntervalMillis;
+        this.clock = clock;
+        try {
+            Files.createDirectories(directory);
+            try (DirectoryStream<Path> stale = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX + "*")) {
+                for (Path path : stale) {
+                    Files.delete(path);
+                }
+            }
+        } catch (IOException e) {
+            throw new StorageException("내역 세그먼트 디렉터리를 준비하지 못했습니다. directory=" + directory, e);
+        }
+    }
+
+    public synchronized void start() {
+        if (scheduler != null || compactIntervalMillis == 0) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "point-history-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::compactSafely, compactIntervalMillis, compactIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        PointHistory pointHistory = new PointHistory(sequence.incrementAndGet(), userId, amount, type, updateMillis);
+        hot.computeIfAbsent(userId, k -> new ConcurrentLinkedQueue<>()).add(pointHistory);
+        return pointHistory;
+    }
+
+    @Override
+    public List<PointHistory> selectAllByUserId(long userId) {
+        List<HistorySegment> cold;
+        List<PointHistory> recent;
+        long stamp = tierLock.tryOptimisticRead();
+        cold = segments;
+        recent = snapshot(hot.get(userId));
+        if (!tierLock.validate(stamp)) {
+            stamp = tierLock.readLock();
+            try {
+                cold = segments;
+                recent = snapshot(hot.get(userId));
+            } finally {
+                tierLock.unlockRead(stamp);
+            }
+        }
+        if (cold.isEmpty()) {
+            return sorted(recent);
+        }
+        List<PointHistory> result = new ArrayList<>();
+        for (HistorySegment segment : cold) {
+            segment.readInto(userId, result);
+        }
+        result.addAll(recent);
+        return sorted(result);
+    }
+
+    /**
+     * 세그먼트로 옮긴 유저도 큐는 비운 채 남아 있으므로 큐의 유저만 넘긴다.
+     */
+    @Override
+    public boolean forEachUserId(LongConsumer action) {
+        hot.keySet().forEach(action::accept);
+        return true;
+    }
+
+    /**
+     * 유저마다 두 계층을 이어 읽는다. 압축과 겹쳐도 한 유저의 행이 빠지거나 두 번 넘어가지 않는다.
+     */
+    @Override
+    public boolean forEachHistory(Consumer<PointHistory> action) {
+        for (Long userId : hot.keySet()) {
+            selectAllByUserId(userId).forEach(action);
+        }
+        return true;
+    }
+
+    /**
+     * 오래된 내역을 세그먼트로 옮기고, 같은 크기 계층에 세그먼트가 쌓였으면 합친다.
+     *
+     * @return 옮긴 행 수
+     */
+    public int compact() {
+        synchronized (compactionMonitor) {
+            long cutoff = clock.getAsLong() - hotAgeMillis;
+            Map<Long, List<PointHistory>> moving = new HashMap<>();
+            int moved = 0;
+            for (Map.Entry<Long, Queue<PointHistory>> entry : hot.entrySet()) {
+                List<PointHistory> rows = coldPrefix(entry.getValue(), cutoff);
+                if (!rows.isEmpty()) {
+                    moving.put(entry.getKey(), rows);
+                    moved += rows.size();
+                }
+            }
+            if (moved > 0) {
+                long[] userIds = moving.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+                List<HistorySegment> written = HistorySegment.write(this::nextSegmentPath, userIds, moving::get, maxSegmentBytes);
+                List<HistorySegment> next = new ArrayList<>(segments);
+                next.addAll(written);
+                long stamp = tierLock.writeLock();
+                try {
+                    segments = List.copyOf(next);
+                    for (Map.Entry<Long, List<PointHistory>> entry : moving.entrySet()) {
+                        Queue<PointHistory> queue = hot.get(entry.getKey());
+                        for (int i = 0; i < entry.getValue().size(); i++) {
+                            queue.poll();
+                        }
+                    }
+                } finally {
+                    tierLock.unlockWrite(stamp);
+                }
+                log.info("포인트 내역 압축 - 옮긴 행 {}건, 유저 {}명, 새 세그먼트 {}개, 세그먼트 {}개",
+                        moved, moving.size(), written.size(), next.size());
+            }
+            mergeTiers();
+            return moved;
+        }
+    }
+
+    /**
+     * 메모리에 있는 내역 수
+     */
+    public long hotRows() {
+        return hot.values().stream().mapToLong(Queue::size).sum();
+    }
+
+    /**
+     * 세그먼트에 있는 내역 수
+     */
+    public long coldRows() {
+        return segments.stream().mapToLong(HistorySegment::rowCount).sum();
+    }
+
+    /**
+     * 세그먼트 파일 크기 합 (바이트)
+     */
+    public long coldBytes() {
+        return segments.stream().mapToLong(HistorySegment::sizeBytes).sum();
+    }
+
+    /**
+     * 세그먼트 색인이 힙에서 차지하는 크기 (바이트, 대략)
+     */
+    public long coldIndexHeapBytes() {
+        return segments.stream().mapToLong(HistorySegment::indexHeapBytes).sum();
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * 같은 크기 계층에 segmentsPerTier 개 이상 쌓인 세그먼트를 합친다. 합친 결과가 윗 계층을 채우면 이어서 합친다.
+     * 세그먼트끼리만 다시 쓰므로 삽입은 막지 않고, 바꿔 끼울 때만 쓰기 락을 잡는다. (합치기 전후 행은 같다)
+     */
+    private void mergeTiers() {
+        List<HistorySegment> sources;
+        while (!(sources = mergeCandidates(segments)).isEmpty()) {
+            List<HistorySegment> merging = sources;
+            List<HistorySegment> merged = HistorySegment.write(this::nextSegmentPath, userIds(merging), userId -> {
+                List<PointHistory> rows = new ArrayList<>();
+                for (HistorySegment source : merging) {
+                    source.readInto(userId, rows);
+                }
+                return sorted(rows);
+            }, maxSegmentBytes);
+            List<HistorySegment> next = new ArrayList<>(segments);
+            next.removeAll(merging);
+            next.addAll(merged);
+            long stamp = tierLock.writeLock();
+            try {
+                segments = List.copyOf(next);
+            } finally {
+                tierLock.unlockWrite(stamp);
+            }
+            for (HistorySegment source : merging) {
+                source.delete();
+            }
+            log.info("포인트 내역 세그먼트 병합 - {}개 -> {}개, 세그먼트 {}개", merging.size(), merged.size(), next.size());
+        }
+    }
+
+    /**
+     * 가장 낮은 계층부터 보고, segmentsPerTier 개 이상 쌓인 첫 계층의 세그먼트. 없으면 빈 목록
+     */
+    private List<HistorySegment> mergeCandidates(List<HistorySegment> current) {
+        Map<Integer, List<HistorySegment>> tiers = new TreeMap<>();
+        for (HistorySegment segment : current) {
+            if (segment.sizeBytes() * 2 >= maxSegmentBytes) {
+                // 거의 찬 세그먼트는 합쳐도 다시 나뉘므로 그대로 둔다
+                continue;
+            }
+            tiers.computeIfAbsent(tierOf(segment.sizeBytes()), tier -> new ArrayList<>()).add(segment);
+        }
+        for (List<HistorySegment> tier : tiers.values()) {
+            if (tier.size() >= segmentsPerTier) {
+                return tier;
+            }
+        }
+        return List.of();
+    }
+
+    private int tierOf(long sizeBytes) {
+        int tier = 0;
+        for (long bound = FIRST_TIER_BYTES; sizeBytes >= bound; bound *= segmentsPerTier) {
+            tier++;
+        }
+        return tier;
+    }
+
+    /**
+     * compactionMonitor 안에서만 부른다.
+     */
+    private Path nextSegmentPath() {
+        return directory.resolve(String.format("history-%08d%s", ++segmentSequence, SEGMENT_SUFFIX));
+    }
+
+    private void compactSafely() {
+        try {
+            compact();
+        } catch (RuntimeException e) {
+            log.warn("포인트 내역 압축 실패, 다음 주기에 다시 시도합니다.", e);
+        }
+    }
+
+    /**
+     * 큐 앞쪽에서 옮길 행. 압축만 앞에서 꺼내므로 고른 행은 쓰기 락을 잡을 때까지 큐 앞쪽에 그대로 있다.
+     */
+    private List<PointHistory> coldPrefix(Queue<PointHistory> queue, long cutoff) {
+        int excess = queue.size() - hotRowsPerUser;
+        List<PointHistory> rows = new ArrayList<>();
+        for (PointHistory history : queue) {
+            if (rows.size() < excess || history.updateMillis() < cutoff) {
+                rows.add(history);
+            } else {
+                break;
+            }
+        }
+        // 같은 유저에 동시에 넣으면 발급 순서와 큐 순서가 어긋날 수 있다. 세그먼트 블록은 id 순이어야 한다
+        return sorted(rows);
+    }
+
+    private static long[] userIds(List<HistorySegment> sources) {
+        LongStream ids = LongStream.empty();
+        for (HistorySegment source : sources) {
+            ids = LongStream.concat(ids, Arrays.stream(source.userIds()));
+        }
+        return ids.sorted().distinct().toArray();
+    }
+
+    private static List<PointHistory> snapshot(Queue<PointHistory> queue) {
+        return queue == null ? List.of() : new ArrayList<>(queue);
+    }
+
+    private static List<PointHistory> sorted(List<PointHistory> histories) {
+        for (int i = 1; i < histories.size(); i++) {
+            if (histories.get(i - 1).id() > histories.get(i).id()) {
+                List<PointHistory> copy = new ArrayList<>(histories);
+                copy.sort(Comparator.comparingLong(PointHistory::id));
+                return List.copyOf(copy);
+            }
+        }
+        return List.copyOf(histories);
+    }
+}
@@ -0,0 +1,14 @@
+package io.hhplus.tdd.storage;
+
+import io.hhplus.tdd.point.UserPoint;
+
+/**
+ * 버전이 붙은 잔액
+ *
+ * @param version 저장된 적 없으면 ABSENT. 저장할 때마다 1씩 늘어난다. (버전을 쓰지 않는 저장소는 항상 0)
+ *                버전 열이 없던 때 저장된 행은 0 부터 시작하므로 0 은 "행 없음"이 아니다.
+ */
+public record VersionedBalance(UserPoint userPoint, long version) {
+
+    public static final long ABSENT = -1;
+}
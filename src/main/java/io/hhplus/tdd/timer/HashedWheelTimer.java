@@ -0,0 +1,306 @@
+package io.hhplus.tdd.timer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 해시드 휠 타이머
+ * - 만료 시각을 tick 단위로 잘라 원형 배열(휠)의 칸에 담고, 워커 스레드가 tick 마다 한 칸씩만 확인한다.
+ * - 예약 수가 많아도 tick 마다 보는 것은 현재 칸뿐이라, 전체를 훑는 방식과 달리 만료 비용이 만료되는 건수에 비례한다.
+ * - 등록/취소는 락 없는 큐에만 넣고, 휠 자료구조는 워커 스레드 혼자서만 만진다.
+ * - 만료 작업은 워커 스레드에서 실행되므로 오래 걸리는 작업은 다른 스레드로 넘겨야 다음 tick 이 밀리지 않는다.
+ * - 정밀도는 tick 단위다. 만료 작업은 예정 시각보다 일찍 실행되지 않고, 최대 한 tick 늦게 실행된다.
+ * - 만든 뒤 start() 를 한 번 호출해야 등록을 받는다. 등록 경로에는 락이 없다.
+ */
+public class HashedWheelTimer {
+
+    private static final Logger log = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+    // 한 tick 에 휠로 옮기는 최대 등록 건수 (등록이 몰려도 tick 이 한없이 밀리지 않도록)
+    private static final int MAX_TRANSFER_PER_TICK = 100_000;
+
+    private final long tickNanos;
+    private final int mask;
+    private final Bucket[] wheel;
+    private final Queue<WheelTimeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    private final Queue<WheelTimeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pendingCount = new AtomicLong();
+    private final Thread worker;
+
+    private volatile long startNanos;
+    private volatile boolean running;
+    private boolean started; // this 로 보호
+
+    /**
+     * @param tickDuration tick 간격 (만료 정밀도)
+     * @param unit         tick 간격 단위
+     * @param wheelSize    휠 칸 수 (2의 거듭제곱으로 올림). tick x wheelSize 보다 먼 만료는 휠을 여러 바퀴 돈다.
+     * @param threadName   워커 스레드 이름
+     */
+    public HashedWheelTimer(long tickDuration, TimeUnit unit, int wheelSize, String threadName) {
+        if (tickDuration <= 0 || wheelSize <= 0 || wheelSize > (1 << 30)) {
+            throw new IllegalArgumentException("타이머 설정이 올바르지 않습니다. tickDuration=" + tickDuration + ", wheelSize=" + wheelSize);
+        }
+        int size = 1;
+        while (size < wheelSize) {
+            size <<= 1;
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.mask = size - 1;
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.worker = new Thread(this::run, threadName);
+        this.worker.setDaemon(true);
+    }
+
+    /**
+     * delay 뒤에 task 를 실행하도록 등록한다.
+     *
+     * @return 만료 전에 취소할 수 있는 핸들
+     * @throws IllegalStateException 시작하지 않았거나 이미 종료된 타이머
+     */
+    public Timeout newTimeout(Runnable task, long delay, TimeUnit unit) {
+        if (!running) {
+            throw new IllegalStateException("시작하지 않았거나 이미 종료된 타이머입니다.");
+        }
+        long deadline = System.nanoTime() + Math.max(0, unit.toNanos(delay)) - startNanos;
+        WheelTimeout timeout = new WheelTimeout(task, deadline);
+        pendingCount.incrementAndGet();
+        pendingTimeouts.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * 만료도 취소도 되지 않은 등록 건수
+     */
+    public long pendingTimeouts() {
+        return pendingCount.get();
+    }
+
+    /**
+     * 워커 스레드를 시작한다. 여러 번 호출해도 한 번만 시작하고, 종료한 뒤에는 다시 시작하지 않는다.
+     */
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        startNanos = System.nanoTime();
+        running = true;
+        worker.start();
+    }
+
+    /**
+     * 워커 스레드를 멈춘다. 아직 만료되지 않은 작업은 실행하지 않는다.
+     */
+    public void stop() {
+        synchronized (this) {
+            if (!started) {
+                started = true; // 이후 등록도 막는다
+                return;
+            }
+        }
+        running = false;
+        worker.interrupt();
+        try {
+            worker.join(TimeUnit.NANOSECONDS.toMillis(tickNanos) + 1_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        long tick = 0;
+        while (running) {
+            long tickDeadline = tickNanos * (tick + 1);
+            if (!sleepUntil(tickDeadline)) {
+                break;
+            }
+            removeCancelled();
+            transferPending(tick);
+            wheel[(int) (tick & mask)].expire();
+            tick++;
+        }
+        log.info("타이머 종료 - 실행되지 않은 예약 {}건", pendingCount.get());
+    }
+
+    private boolean sleepUntil(long tickDeadline) {
+        while (running) {
+            long sleepNanos = startNanos + tickDeadline - System.nanoTime();
+            if (sleepNanos <= 0) {
+                return true;
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(sleepNanos);
+            } catch (InterruptedException e) {
+                if (!running) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void removeCancelled() {
+        WheelTimeout timeout;
+        while ((timeout = cancelledTimeouts.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void transferPending(long tick) {
+        for (int i = 0; i < MAX_TRANSFER_PER_TICK; i++) {
+            WheelTimeout timeout = pendingTimeouts.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            long expireTick = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (expireTick - tick) / wheel.length;
+            // 이미 지난 만료는 현재 칸에 넣어 이번 tick 에 실행한다
+            long targetTick = Math.max(expireTick, tick);
+            wheel[(int) (targetTick & mask)].add(timeout);
+        }
+    }
+
+    /**
+     * 등록된 만료 작업의 핸들
+     */
+    public interface Timeout {
+
+        /**
+         * 아직 실행되지 않았다면 취소한다.
+         *
+         * @return 이 호출로 취소되었으면 true, 이미 실행/취소된 경우 false
+         */
+        boolean cancel();
+
+        boolean isExpired();
+
+        boolean isCancelled();
+    }
+
+    private final class WheelTimeout implements Timeout {
+
+        private static final int INIT = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable task;
+        private final long deadline; // startNanos 기준 상대 시각
+        private final AtomicInteger state = new AtomicInteger(INIT);
+
+        // 아래 필드는 워커 스레드만 읽고 쓴다
+        private long remainingRounds;
+        private Bucket bucket;
+        private WheelTimeout prev;
+        private WheelTimeout next;
+
+        private WheelTimeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!state.compareAndSet(INIT, CANCELLED)) {
+                return false;
+            }
+            pendingCount.decrementAndGet();
+            cancelledTimeouts.add(this);
+            return true;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        private void expire() {
+            if (!state.compareAndSet(INIT, EXPIRED)) {
+                return;
+            }
+            pendingCount.decrementAndGet();
+            try {
+                task.run();
+            } catch (Throwable t) {
+                log.warn("타이머 작업 실행 중 오류", t);
+            }
+        }
+    }
+
+    /**
+     * 휠의 한 칸. 취소된 항목을 O(1) 로 빼기 위해 이중 연결 리스트로 둔다.
+     */
+    private static final class Bucket {
+
+        private WheelTimeout head;
+        private WheelTimeout tail;
+
+        private void add(WheelTimeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        /**
+         * 이번 바퀴에 만료될 항목만 실행하고, 나머지는 남은 바퀴 수를 하나 줄인다.
+         */
+        private void expire() {
+            WheelTimeout timeout = head;
+            while (timeout != null) {
+                WheelTimeout next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    remove(timeout);
+                    timeout.expire();
+                } else if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        private void remove(WheelTimeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            } else {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.limit.AdaptiveConcurrencyLimiter;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 동시 처리 한도 리미터 부하 테스트
+ * 처리 용량의 3배 부하에서도 목표 응답 시간 안에 끝나는 요청 수(goodput)가 유지되는지 검증
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveConcurrencyLimiterTest.class);
+
+    private static final int CAPACITY = 8;         // 서버가 지연 없이 동시에 처리할 수 있는 요청 수
+    private static final long BASE_MILLIS = 20;    // 용량 이내일 때 처리 시간
+    private static final long SLA_MILLIS = 40;     // 클라이언트가 기다려주는 시간
+    private static final long DURATION_MILLIS = 3_000;
+
+    @Test
+    void 한도를_넘는_요청은_대기하지_않고_거절된다() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 2, 1, 10, 100);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(10), false);
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void 응답시간이_목표를_넘으면_한도를_줄인다() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 100, 1, 100, 50);
+
+        for (int i = 0; i < 1_000; i++) {
+            limiter.tryAcquire();
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(200), false);
+        }
+
+        assertThat(limiter.limit()).isLessThan(100);
+    }
+
+    @Tag("benchmark")
+    @Test
+    void 용량의_3배_부하에서도_goodput이_유지된다() throws InterruptedException {
+        // given: 적정 부하에서의 goodput
+        double baseline = runLoad(CAPACITY, newLimiter());
+
+        // when: 3배 부하 (리미터 유무 비교)
+        double overloadedWithLimiter = runLoad(CAPACITY * 3, newLimiter());
+        double overloadedWithoutLimiter = runLoad(CAPACITY * 3, null);
+
+        log.info("goodput(req/s) - 적정 부하: {}, 3배 부하(리미터): {}, 3배 부하(리미터 없음): {}",
+                (long) baseline, (long) overloadedWithLimiter, (long) overloadedWithoutLimiter);
+
+        // then
+        assertThat(overloadedWithLimiter).isGreaterThan(baseline * 0.7);
+        assertThat(overloadedWithLimiter).isGreaterThan(overloadedWithoutLimiter);
+    }
+
+    private AdaptiveConcurrencyLimiter newLimiter() {
+        // 초기 한도를 용량보다 크게 잡아 한도가 스스로 줄어드는지도 함께 확인한다
+        return new AdaptiveConcurrencyLimiter("load-test", CAPACITY * 4, 1, CAPACITY * 8, BASE_MILLIS * 3 / 2);
+    }
+
+    /**
+     * 클라이언트 스레드들이 쉬지 않고 요청을 보내고, SLA 안에 끝난 요청의 초당 처리량을 반환한다.
+     * 서버는 용량을 넘는 만큼 처리 시간이 늘어나는 것으로 흉내낸다.
+     */
+    private double runLoad(int clients, AdaptiveConcurrencyLimiter limiter) throws InterruptedException {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger good = new AtomicInteger();
+        ExecutorService executorService = Executors.newFixedThreadPool(clients);
+        CountDownLatch endLatch = new CountDownLatch(clients);
+        long endAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DURATION_MILLIS);
+
+        for (int i = 0; i < clients; i++) {
+            executorService.submit(() -> {
+                try {
+                    while (System.nanoTime() < endAt) {
+                        if (limiter != null && !limiter.tryAcquire()) {
+                            TimeUnit.MILLISECONDS.sleep(2); // 503 을 받고 잠시 후 재시도
+                            continue;
+                        }
+                        long start = System.nanoTime();
+                        int concurrent = active.incrementAndGet();
+                        try {
+                            TimeUnit.MILLISECONDS.sleep(BASE_MILLIS * Math.max(CAPACITY, concurrent) / CAPACITY);
+                        } finally {
+                            active.decrementAndGet();
+                        }
+                        long latency = System.nanoTime() - start;
+                        if (limiter != null) {
+                            limiter.release(latency, false);
+                        }
+                        if (latency <= TimeUnit.MILLISECONDS.toNanos(SLA_MILLIS)) {
+                            good.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    endLatch.countDown();
+                }
+            });
+        }
+        endLatch.await(DURATION_MILLIS * 2, TimeUnit.MILLISECONDS);
+        executorService.shutdown();
+
+        if (limiter != null) {
+            log.info("clients={}, 최종 한도={}, 평균 응답시간={}ms", clients, limiter.limit(), limiter.latencyMillis());
+        }
+        return good.get() * 1000.0 / DURATION_MILLIS;
+    }
+}
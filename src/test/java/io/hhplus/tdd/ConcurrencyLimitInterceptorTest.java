@@ -0,0 +1,76 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.point.PointController;
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.UserPoint;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 동시 처리 한도 인터셉터 테스트
+ * 조회 한도를 1로 고정하고 요청 하나가 처리 중일 때 들어온 요청이 503 + Retry-After 로 거절되는지 검증
+ */
+@WebMvcTest(controllers = PointController.class, properties = {
+        "point.concurrency-limit.read.initial=1",
+        "point.concurrency-limit.read.max=1",
+        "point.concurrency-limit.retry-after-seconds=3"
+})
+class ConcurrencyLimitInterceptorTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private PointService pointService;
+
+    @Test
+    void 한도가_찬_상태에서_들어온_요청은_503과_Retry_After_로_거절된다() throws Exception {
+        // given: 첫 번째 조회가 테이블 호출에서 멈춰 슬롯을 잡고 있다
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        given(pointService.getPoint(anyLong())).willAnswer(invocation -> {
+            entered.countDown();
+            release.await();
+            return new UserPoint(invocation.getArgument(0), 1000L, System.currentTimeMillis());
+        });
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() -> {
+            try {
+                return mockMvc.perform(get("/point/{id}", 1L)).andReturn().getResponse().getStatus();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        try {
+            // when & then
+            mockMvc.perform(get("/point/{id}", 2L))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "3"))
+                    .andExpect(jsonPath("$.code").value("503"));
+        } finally {
+            release.countDown();
+        }
+
+        // then: 슬롯을 반납하면 다시 받는다
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(200);
+        mockMvc.perform(get("/point/{id}", 3L))
+                .andExpect(status().isOk());
+    }
+}
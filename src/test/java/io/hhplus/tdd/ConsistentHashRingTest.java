@@ -0,0 +1,165 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.shard.ConsistentHashRing;
+import io.hhplus.tdd.shard.ShardNode;
+import io.hhplus.tdd.shard.ShardRouter;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConsistentHashRingTest {
+
+    private static final int USER_COUNT = 100_000;
+    private static final int VIRTUAL_NODES = 160;
+
+    @Test
+    void 유저가_노드마다_고르게_나뉜다() {
+        // given
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("node-1", "node-2", "node-3", "node-4"), VIRTUAL_NODES);
+
+        // when
+        Map<String, Integer> counts = new HashMap<>();
+        for (long userId = 1; userId <= USER_COUNT; userId++) {
+            counts.merge(ring.owner(userId), 1, Integer::sum);
+        }
+
+        // then: 노드마다 평균(25%)에서 ±20% 안쪽
+        assertThat(counts).hasSize(4);
+        counts.values().forEach(count ->
+                assertThat(count).isBetween(USER_COUNT / 4 * 8 / 10, USER_COUNT / 4 * 12 / 10));
+    }
+
+    @Test
+    void 노드를_더하면_약_1_N_의_유저만_새_노드로_옮겨_간다() {
+        // given
+        ConsistentHashRing before = new ConsistentHashRing(List.of("node-1", "node-2", "node-3", "node-4"), VIRTUAL_NODES);
+
+        // when
+        ConsistentHashRing after = before.withNode("node-5");
+
+        // then
+        int moved = 0;
+        for (long userId = 1; userId <= USER_COUNT; userId++) {
+            String oldOwner = before.owner(userId);
+            String newOwner = after.owner(userId);
+            if (!oldOwner.equals(newOwner)) {
+                moved++;
+                assertThat(newOwner).isEqualTo("node-5");
+            }
+        }
+        assertThat(moved).isBetween(USER_COUNT / 5 * 8 / 10, USER_COUNT / 5 * 12 / 10);
+    }
+
+    @Test
+    void 노드를_빼면_그_노드의_유저만_옮겨_간다() {
+        // given
+        ConsistentHashRing before = new ConsistentHashRing(List.of("node-1", "node-2", "node-3", "node-4"), VIRTUAL_NODES);
+
+        // when
+        ConsistentHashRing after = before.withoutNode("node-2");
+
+        // then
+        for (long userId = 1; userId <= USER_COUNT; userId++) {
+            String oldOwner = before.owner(userId);
+            if (!oldOwner.equals("node-2")) {
+                assertThat(after.owner(userId)).isEqualTo(oldOwner);
+            } else {
+                assertThat(after.owner(userId)).isNotEqualTo("node-2");
+            }
+        }
+    }
+
+    @Test
+    void 노드_순서가_달라도_같은_링이_된다() {
+        // given
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("node-1", "node-2", "node-3"), VIRTUAL_NODES);
+        ConsistentHashRing reordered = new ConsistentHashRing(List.of("node-3", "node-1", "node-2"), VIRTUAL_NODES);
+
+        // when & then
+        for (long userId = -1_000; userId <= 1_000; userId++) {
+            assertThat(reordered.owner(userId)).isEqualTo(ring.owner(userId));
+        }
+    }
+
+    @Test
+    void 라우터는_노드_목록에_자기_노드가_없으면_만들_수_없다() {
+        // given
+        ShardNode self = new ShardNode("node-9", "http://localhost:9");
+        List<ShardNode> nodes = List.of(new ShardNode("node-1", "http://localhost:1"), new ShardNode("node-2", "http://localhost:2"));
+
+        // when & then
+        assertThatThrownBy(() -> new ShardRouter(self, nodes, VIRTUAL_NODES))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void 라우터에_노드를_더하면_새_노드가_맡은_유저는_더_이상_로컬이_아니다() {
+        // given
+        ShardNode self = new ShardNode("node-1", "http://localhost:1");
+        ShardRouter router = new ShardRouter(self, List.of(self), VIRTUAL_NODES);
+        assertThat(router.isLocal(42L)).isTrue();
+
+        // when
+        router.addNode(new ShardNode("node-2", "http://localhost:2"));
+
+        // then
+        int remote = 0;
+        for (long userId = 1; userId <= 10_000; userId++) {
+            if (!router.isLocal(userId)) {
+                remote++;
+                assertThat(router.owner(userId).id()).isEqualTo("node-2");
+            }
+        }
+        assertThat(remote).isBetween(4_000, 6_000);
+    }
+
+    @Test
+    void 이_노드의_유저가_새_노드로_옮겨_가야_하면_노드를_더하지_않는다() {
+        // given: 이 노드에 유저 1..1000 의 데이터가 있다
+        ShardNode self = new ShardNode("node-1", "http://localhost:1");
+        ShardNode added = new ShardNode("node-2", "http://localhost:2");
+        ShardRouter router = new ShardRouter(self, List.of(self), VIRTUAL_NODES, action -> {
+            for (long userId = 1; userId <= 1_000; userId++) {
+                action.accept(userId);
+            }
+            return true;
+        });
+
+        // when & then
+        assertThatThrownBy(() -> router.addNode(added))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(router.nodes()).containsExactly(self);
+        assertThat(router.isLocal(42L)).isTrue();
+    }
+
+    @Test
+    void 옮겨_갈_유저가_없으면_노드를_더하고_유저를_알_수_없으면_거절한다() {
+        // given: 이 노드의 유저는 새 노드가 생겨도 이 노드에 남는다
+        ShardNode self = new ShardNode("node-1", "http://localhost:1");
+        ShardNode added = new ShardNode("node-2", "http://localhost:2");
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("node-1", "node-2"), VIRTUAL_NODES);
+        long staying = 1;
+        while (!ring.owner(staying).equals("node-1")) {
+            staying++;
+        }
+        long stayingUserId = staying;
+        ShardRouter router = new ShardRouter(self, List.of(self), VIRTUAL_NODES, action -> {
+            action.accept(stayingUserId);
+            return true;
+        });
+        ShardRouter unknown = new ShardRouter(self, List.of(self), VIRTUAL_NODES, action -> false);
+
+        // when
+        router.addNode(added);
+
+        // then
+        assertThat(router.nodes()).containsExactlyInAnyOrder(self, added);
+        assertThat(router.isLocal(stayingUserId)).isTrue();
+        assertThatThrownBy(() -> unknown.addNode(added)).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,199 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.storage.BalanceStore;
+import io.hhplus.tdd.storage.FileBalanceStore;
+import io.hhplus.tdd.storage.FileHistoryStore;
+import io.hhplus.tdd.storage.HistoryStore;
+import io.hhplus.tdd.storage.StorageException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 파일 저널 저장소 (point.storage.type=file)
+ * - 공통 테스트에 더해, 다시 열었을 때 저널을 재생해 복구하는지 검증
+ */
+class FileStoreConformanceTest extends StoreConformanceTest {
+
+    private Path directory;
+
+    @Override
+    protected BalanceStore createBalanceStore() throws IOException {
+        directory = Files.createTempDirectory("point-store");
+        return new FileBalanceStore(directory.resolve("user-point.journal"), false);
+    }
+
+    @Override
+    protected HistoryStore createHistoryStore() {
+        return new FileHistoryStore(directory.resolve("point-history.journal"), false);
+    }
+
+    @Override
+    protected void closeStores() throws IOException {
+        ((FileBalanceStore) balanceStore).close();
+        ((FileHistoryStore) historyStore).close();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Override
+    protected int benchmarkOpsPerThread() {
+        return 200_000;
+    }
+
+    @Test
+    void 다시_열면_저널을_재생해_잔액과_내역을_복구한다() throws IOException {
+        // given
+        balanceStore.insertOrUpdate(1L, 100L);
+        balanceStore.insertOrUpdate(1L, 700L);
+        balanceStore.insertOrUpdate(2L, 300L);
+        PointHistory charge = historyStore.insert(1L, 1_000L, TransactionType.CHARGE, 10L);
+        PointHistory use = historyStore.insert(1L, 300L, TransactionType.USE, 11L);
+
+        // when
+        reopen();
+
+        // then
+        assertThat(balanceStore.selectById(1L).point()).isEqualTo(700L);
+        assertThat(balanceStore.selectById(2L).point()).isEqualTo(300L);
+        assertThat(historyStore.selectAllByUserId(1L)).containsExactly(charge, use);
+        // 이어서 발급하는 id 는 복구한 id 다음부터다
+        assertThat(historyStore.insert(1L, 1L, TransactionType.CHARGE, 12L).id()).isGreaterThan(use.id());
+    }
+
+    @Test
+    void 마지막_레코드가_덜_쓰였으면_잘라내고_복구한다() throws IOException {
+        // given: 내역 두 건 뒤에 덜 쓰인 레코드를 붙인다
+        Path journal = directory.resolve("point-history.journal");
+        PointHistory charge = historyStore.insert(1L, 1_000L, TransactionType.CHARGE, 10L);
+        long oneRecord = Files.size(journal);
+        PointHistory use = historyStore.insert(1L, 300L, TransactionType.USE, 11L);
+        ((FileHistoryStore) historyStore).close();
+        long twoRecords = Files.size(journal);
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{1, 2, 3}));
+        }
+
+        // when
+        historyStore = new FileHistoryStore(journal, false);
+        PointHistory next = historyStore.insert(1L, 50L, TransactionType.CHARGE, 12L);
+
+        // then
+        assertThat(Files.size(journal)).isEqualTo(twoRecords + (twoRecords - oneRecord));
+        assertThat(historyStore.selectAllByUserId(1L)).containsExactly(charge, use, next);
+    }
+
+    @Test
+    void 체크섬이_맞지_않는_레코드가_끝에_있으면_잘라내고_중간에_있으면_열지_않는다() throws IOException {
+        // given: 내역 세 건
+        Path journal = directory.resolve("point-history.journal");
+        PointHistory charge = historyStore.insert(1L, 1_000L, TransactionType.CHARGE, 10L);
+        long oneRecord = Files.size(journal);
+        historyStore.insert(1L, 300L, TransactionType.USE, 11L);
+        long twoRecords = Files.size(journal);
+        historyStore.insert(1L, 200L, TransactionType.USE, 12L);
+        ((FileHistoryStore) historyStore).close();
+
+        // when: 마지막 레코드의 금액 한 바이트를 바꾼다
+        flipByte(journal, twoRecords + Long.BYTES * 2 + 7);
+        historyStore = new FileHistoryStore(journal, false);
+
+        // then
+        assertThat(Files.size(journal)).isEqualTo(twoRecords);
+        assertThat(historyStore.selectAllByUserId(1L)).hasSize(2);
+
+        // when: 이번에는 첫 레코드를 바꾼다
+        ((FileHistoryStore) historyStore).close();
+        flipByte(journal, oneRecord - 1 - Integer.BYTES);
+
+        // then: 잘라내지 않고 그대로 둔다
+        assertThatThrownBy(() -> new FileHistoryStore(journal, false)).isInstanceOf(StorageException.class);
+        assertThat(Files.size(journal)).isEqualTo(twoRecords);
+        flipByte(journal, oneRecord - 1 - Integer.BYTES);
+        historyStore = new FileHistoryStore(journal, false);
+        assertThat(historyStore.selectAllByUserId(1L).get(0)).isEqualTo(charge);
+    }
+
+    @Test
+    void 잔액_저널이_커지면_지금_잔액만_남도록_압축한다() {
+        // given: 압축 기준 100 레코드, 유저 10명의 잔액을 1000번 바꾼다
+        ((FileBalanceStore) balanceStore).close();
+        balanceStore = new FileBalanceStore(directory.resolve("compacted-point.journal"), false, 100);
+        for (int i = 1; i <= 1_000; i++) {
+            balanceStore.insertOrUpdate(i % 10, i);
+        }
+        FileBalanceStore fileBalanceStore = (FileBalanceStore) balanceStore;
+        assertThat(fileBalanceStore.journalRecords()).isLessThanOrEqualTo(100L);
+
+        // when
+        fileBalanceStore.compact();
+        long compacted = fileBalanceStore.journalRecords();
+        fileBalanceStore.close();
+        balanceStore = new FileBalanceStore(directory.resolve("compacted-point.journal"), false, 100);
+
+        // then
+        assertThat(compacted).isEqualTo(10L);
+        assertThat(balanceStore.selectById(0L).point()).isEqualTo(1_000L);
+        assertThat(balanceStore.selectById(7L).point()).isEqualTo(997L);
+        assertThat(((FileBalanceStore) balanceStore).journalRecords()).isEqualTo(10L);
+    }
+
+    @Test
+    void 예전_형식_저널은_복구한_뒤_새_형식으로_바꾼다() throws IOException {
+        // given: 머리말과 체크섬 없이 (유저 ID, 잔액, 시각) 레코드 두 건과 덜 쓰인 레코드
+        Path journal = directory.resolve("legacy-point.journal");
+        ByteBuffer legacy = ByteBuffer.allocate(Long.BYTES * 3 * 2 + 5)
+                .putLong(1L).putLong(100L).putLong(10L)
+                .putLong(1L).putLong(700L).putLong(11L)
+                .put(new byte[5])
+                .flip();
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.write(legacy);
+        }
+
+        // when
+        FileBalanceStore upgraded = new FileBalanceStore(journal, false);
+        upgraded.insertOrUpdate(2L, 300L);
+        upgraded.close();
+        FileBalanceStore reopened = new FileBalanceStore(journal, false);
+
+        // then
+        assertThat(reopened.selectById(1L)).isEqualTo(new UserPoint(1L, 700L, 11L));
+        assertThat(reopened.selectById(2L).point()).isEqualTo(300L);
+        assertThat(reopened.journalRecords()).isEqualTo(3L);
+        reopened.close();
+    }
+
+    private static void flipByte(Path file, long offset) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer one = ByteBuffer.allocate(1);
+            channel.read(one, offset);
+            one.flip();
+            one.put(0, (byte) (one.get(0) ^ 0x5A));
+            channel.write(one, offset);
+        }
+    }
+
+    private void reopen() {
+        ((FileBalanceStore) balanceStore).close();
+        ((FileHistoryStore) historyStore).close();
+        balanceStore = new FileBalanceStore(directory.resolve("user-point.journal"), false);
+        historyStore = new FileHistoryStore(directory.resolve("point-history.journal"), false);
+    }
+}
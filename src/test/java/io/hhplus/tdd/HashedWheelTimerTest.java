@@ -0,0 +1,141 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.timer.HashedWheelTimer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 해시드 휠 타이머 테스트
+ */
+class HashedWheelTimerTest {
+
+    private static final Logger log = LoggerFactory.getLogger(HashedWheelTimerTest.class);
+
+    private HashedWheelTimer timer;
+
+    @AfterEach
+    void tearDown() {
+        if (timer != null) {
+            timer.stop();
+        }
+    }
+
+    @Test
+    void 백만건을_등록해도_모두_예정_시각_이후에_한번씩_실행된다() throws InterruptedException {
+        // given: 10ms x 64칸 = 한 바퀴 640ms 라 1초 안의 만료도 여러 바퀴를 돈다
+        timer = new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 64, "test-timer");
+        timer.start();
+        int count = 1_000_000;
+        CountDownLatch latch = new CountDownLatch(count);
+        AtomicInteger earlyCount = new AtomicInteger();
+
+        // when
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            long delayMillis = ThreadLocalRandom.current().nextLong(0, 1_500);
+            long dueNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+            timer.newTimeout(() -> {
+                if (System.nanoTime() < dueNanos) {
+                    earlyCount.incrementAndGet();
+                }
+                latch.countDown();
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        }
+        boolean finished = latch.await(30, TimeUnit.SECONDS);
+
+        // then
+        log.info("{}건 만료 완료까지 {}ms", count, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        assertThat(finished).isTrue();
+        assertThat(earlyCount.get()).isZero();
+        assertThat(timer.pendingTimeouts()).isZero();
+    }
+
+    @Test
+    void 시작하기_전과_종료한_뒤에는_등록을_받지_않는다() throws InterruptedException {
+        // given
+        timer = new HashedWheelTimer(1, TimeUnit.MILLISECONDS, 32, "test-timer");
+        CountDownLatch latch = new CountDownLatch(1);
+
+        // when & then
+        assertThatThrownBy(() -> timer.newTimeout(() -> { }, 1, TimeUnit.MILLISECONDS)).isInstanceOf(IllegalStateException.class);
+        timer.start();
+        timer.start();
+        timer.newTimeout(latch::countDown, 1, TimeUnit.MILLISECONDS);
+        assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+        timer.stop();
+        timer.start();
+        assertThatThrownBy(() -> timer.newTimeout(() -> { }, 1, TimeUnit.MILLISECONDS)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void 취소한_작업은_실행되지_않는다() throws InterruptedException {
+        // given
+        timer = new HashedWheelTimer(1, TimeUnit.MILLISECONDS, 32, "test-timer");
+        timer.start();
+        AtomicInteger executed = new AtomicInteger();
+        List<HashedWheelTimer.Timeout> timeouts = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            timeouts.add(timer.newTimeout(executed::incrementAndGet, 100, TimeUnit.MILLISECONDS));
+        }
+
+        // when: 절반만 취소
+        int cancelled = 0;
+        for (int i = 0; i < timeouts.size(); i += 2) {
+            if (timeouts.get(i).cancel()) {
+                cancelled++;
+            }
+        }
+        TimeUnit.MILLISECONDS.sleep(500);
+
+        // then
+        assertThat(cancelled).isEqualTo(5_000);
+        assertThat(executed.get()).isEqualTo(5_000);
+        assertThat(timeouts.get(0).isCancelled()).isTrue();
+        assertThat(timeouts.get(1).isExpired()).isTrue();
+        assertThat(timeouts.get(1).cancel()).isFalse();
+        assertThat(timer.pendingTimeouts()).isZero();
+    }
+
+    @Test
+    void 먼_미래의_예약이_많아도_가까운_만료는_제때_실행된다() throws InterruptedException {
+        // given: 한 시간 뒤 만료될 예약 20만 건
+        timer = new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 512, "test-timer");
+        timer.start();
+        for (int i = 0; i < 200_000; i++) {
+            timer.newTimeout(() -> { }, 1, TimeUnit.HOURS);
+        }
+
+        // when: 100ms 뒤 만료될 예약 1000 건
+        int nearCount = 1_000;
+        CountDownLatch latch = new CountDownLatch(nearCount);
+        AtomicLong lastFiredNanos = new AtomicLong();
+        long start = System.nanoTime();
+        for (int i = 0; i < nearCount; i++) {
+            timer.newTimeout(() -> {
+                lastFiredNanos.accumulateAndGet(System.nanoTime(), Math::max);
+                latch.countDown();
+            }, 100, TimeUnit.MILLISECONDS);
+        }
+        boolean finished = latch.await(5, TimeUnit.SECONDS);
+
+        // then: 매 tick 은 현재 칸만 보므로 먼 미래의 예약 수와 상관없이 tick 몇 개 안에 끝난다
+        long lagMillis = TimeUnit.NANOSECONDS.toMillis(lastFiredNanos.get() - start) - 100;
+        log.info("먼 미래 예약 20만 건이 있을 때 100ms 만료 지연: {}ms", lagMillis);
+        assertThat(finished).isTrue();
+        assertThat(lagMillis).isLessThan(500L);
+        assertThat(timer.pendingTimeouts()).isEqualTo(200_000L);
+    }
+}
@@ -0,0 +1,129 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.limit.PointRateLimiter;
+import io.hhplus.tdd.point.HistoryUserFilter;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointLotLedger;
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserLockManager;
+import io.hhplus.tdd.storage.MemoryBalanceStore;
+import io.hhplus.tdd.storage.MemoryHistoryStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HistoryUserFilterTest {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    @Test
+    void 비트맵_범위의_유저는_오탐_없이_정확하다() {
+        // given
+        HistoryUserFilter filter = new HistoryUserFilter(1L << 20, 1_000, FALSE_POSITIVE_RATE);
+
+        // when
+        for (long userId = 0; userId < 1L << 20; userId += 3) {
+            filter.add(userId);
+        }
+
+        // then
+        for (long userId = 0; userId < 1L << 20; userId++) {
+            assertThat(filter.mightHaveHistory(userId)).isEqualTo(userId % 3 == 0);
+        }
+        assertThat(filter.stageCount()).isEqualTo(1);
+    }
+
+    @Test
+    void 블룸_필터는_커져도_오탐률이_상한_안쪽이고_미탐이_없다() {
+        // given: 첫 단계 1만 명에서 시작해 50만 명을 담는다 (단계가 여러 번 늘어난다)
+        HistoryUserFilter filter = new HistoryUserFilter(0, 10_000, FALSE_POSITIVE_RATE);
+        SplittableRandom random = new SplittableRandom(42);
+        long[] added = new long[500_000];
+        for (int i = 0; i < added.length; i++) {
+            added[i] = random.nextLong() | 1L; // 홀수만 더한다
+            filter.add(added[i]);
+        }
+
+        // when: 더하지 않은(짝수) 유저 100만 명을 확인한다
+        int falsePositives = 0;
+        int probes = 1_000_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightHaveHistory(random.nextLong() & ~1L)) {
+                falsePositives++;
+            }
+        }
+
+        // then
+        double rate = (double) falsePositives / probes;
+        for (long userId : added) {
+            assertThat(filter.mightHaveHistory(userId)).isTrue();
+        }
+        assertThat(filter.stageCount()).isGreaterThan(1);
+        assertThat(rate).isLessThan(FALSE_POSITIVE_RATE);
+    }
+
+    @Test
+    void 필터에_없는_유저의_내역_조회는_저장소를_읽지_않는다() {
+        // given
+        CountingHistoryStore historyStore = new CountingHistoryStore();
+        PointService pointService = new PointService(new MemoryBalanceStore(), historyStore, new UserLockManager(),
+                PointRateLimiter.unlimited(), PointLotLedger.withDefaults(),
+                new HistoryUserFilter(1L << 20, 1_000, FALSE_POSITIVE_RATE));
+        pointService.chargePoint(1L, 1_000L);
+
+        // when & then
+        assertThatThrownBy(() -> pointService.getHistories(2L)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> pointService.getHistories(-5L)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(historyStore.reads.get()).isZero();
+        assertThat(pointService.getHistories(1L)).extracting(PointHistory::amount).containsExactly(1_000L);
+        assertThat(historyStore.reads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void 저장소의_기존_내역_유저로_채우면_다시_시작해도_조회된다() {
+        // given
+        MemoryHistoryStore historyStore = new MemoryHistoryStore();
+        historyStore.insert(7L, 100L, TransactionType.CHARGE, 0L);
+        historyStore.insert(Long.MAX_VALUE, 100L, TransactionType.CHARGE, 0L);
+        HistoryUserFilter filter = new HistoryUserFilter(1L << 20, 1_000, FALSE_POSITIVE_RATE);
+
+        // when
+        boolean complete = historyStore.forEachUserId(filter::add);
+
+        // then
+        assertThat(complete).isTrue();
+        assertThat(filter.mightHaveHistory(7L)).isTrue();
+        assertThat(filter.mightHaveHistory(Long.MAX_VALUE)).isTrue();
+        assertThat(filter.mightHaveHistory(8L)).isFalse();
+    }
+
+    @Test
+    void 쓰지_않는_필터는_모든_유저에_내역이_있을_수_있다고_답한다() {
+        // given
+        HistoryUserFilter filter = HistoryUserFilter.disabled();
+
+        // when
+        filter.add(1L);
+
+        // then
+        assertThat(filter.isEnabled()).isFalse();
+        assertThat(filter.mightHaveHistory(2L)).isTrue();
+    }
+
+    static class CountingHistoryStore extends MemoryHistoryStore {
+
+        private final AtomicInteger reads = new AtomicInteger();
+
+        @Override
+        public List<PointHistory> selectAllByUserId(long userId) {
+            reads.incrementAndGet();
+            return super.selectAllByUserId(userId);
+        }
+    }
+}
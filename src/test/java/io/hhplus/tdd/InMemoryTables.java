@@ -0,0 +1,57 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 여러 테스트가 함께 쓰는 메모리 테이블
+ * - 지연 없이 여러 스레드에서 동시에 써도 안전하다.
+ */
+final class InMemoryTables {
+
+    private InMemoryTables() {
+    }
+
+    static class InMemoryUserPointTable extends UserPointTable {
+        private final Map<Long, UserPoint> table = new ConcurrentHashMap<>();
+
+        @Override
+        public UserPoint selectById(Long id) {
+            return table.getOrDefault(id, UserPoint.empty(id));
+        }
+
+        @Override
+        public UserPoint insertOrUpdate(long id, long amount) {
+            UserPoint userPoint = new UserPoint(id, amount, System.currentTimeMillis());
+            table.put(id, userPoint);
+            return userPoint;
+        }
+    }
+
+    static class InMemoryPointHistoryTable extends PointHistoryTable {
+        private final AtomicLong cursor = new AtomicLong(1);
+        private final Map<Long, List<PointHistory>> table = new ConcurrentHashMap<>();
+
+        // id 발급과 추가를 함께 해야 유저 내역이 id 순으로 쌓인다
+        @Override
+        public synchronized PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+            PointHistory pointHistory = new PointHistory(cursor.getAndIncrement(), userId, amount, type, updateMillis);
+            table.computeIfAbsent(userId, k -> new CopyOnWriteArrayList<>()).add(pointHistory);
+            return pointHistory;
+        }
+
+        @Override
+        public List<PointHistory> selectAllByUserId(long userId) {
+            return List.copyOf(table.getOrDefault(userId, List.of()));
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.limit.PointRateLimiter;
+import io.hhplus.tdd.point.LeaderboardEntry;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointLeaderboard;
+import io.hhplus.tdd.point.PointLotLedger;
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.UserLockManager;
+import io.hhplus.tdd.storage.JdbcBalanceStore;
+import io.hhplus.tdd.storage.JdbcHistoryStore;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 여러 노드가 하나의 DB 를 쓰는 상황 테스트
+ * - 노드마다 PointService, 유저 락, 커넥션 풀을 따로 두고 같은 H2 메모리 DB 에 붙인다.
+ * - 노드 간에는 락이 없으므로 잔액은 버전 검사(UPDATE ... WHERE version = ?)와 재시도로만 맞아야 한다.
+ */
+class JdbcMultiNodeTest {
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcMultiNodeTest.class);
+
+    private static final AtomicInteger DATABASE_SEQUENCE = new AtomicInteger();
+    private static final int THREADS_PER_NODE = 4;
+
+    private Node nodeA;
+    private Node nodeB;
+
+    @BeforeEach
+    void setUp() {
+        String url = "jdbc:h2:mem:multi-node-" + DATABASE_SEQUENCE.incrementAndGet();
+        nodeA = new Node(url);
+        nodeB = new Node(url);
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeA.dataSource.dispose();
+        nodeB.dataSource.dispose();
+    }
+
+    @Test
+    void 두_노드가_같은_유저를_동시에_충전해도_잔액과_내역이_맞는다() throws InterruptedException {
+        // given
+        long userId = 1L;
+        int chargesPerThread = 250;
+
+        // when
+        runOnBothNodes(node -> {
+            for (int i = 0; i < chargesPerThread; i++) {
+                node.pointService.chargePoint(userId, 10L);
+            }
+        });
+
+        // then
+        int total = 2 * THREADS_PER_NODE * chargesPerThread;
+        assertThat(nodeA.pointService.getPoint(userId).point()).isEqualTo(10L * total);
+        assertThat(nodeB.pointService.getPoint(userId).point()).isEqualTo(10L * total);
+        List<PointHistory> histories = nodeB.pointService.getHistories(userId);
+        assertThat(histories).hasSize(total);
+        Set<Long> ids = new HashSet<>();
+        histories.forEach(history -> ids.add(history.id()));
+        assertThat(ids).hasSize(total);
+    }
+
+    @Test
+    void 두_노드가_동시에_사용해도_잔액보다_많이_쓰지_않는다() throws InterruptedException {
+        // given: 1000 포인트에 10 포인트씩 사용 요청 400번
+        long userId = 1L;
+        nodeA.pointService.chargePoint(userId, 1_000L);
+        AtomicInteger succeeded = new AtomicInteger();
+
+        // when
+        runOnBothNodes(node -> {
+            for (int i = 0; i < 50; i++) {
+                try {
+                    node.pointService.usePoint(userId, 10L);
+                    succeeded.incrementAndGet();
+                } catch (IllegalArgumentException e) {
+                    // 잔액 부족
+                }
+            }
+        });
+
+        // then
+        assertThat(succeeded.get()).isEqualTo(100);
+        assertThat(nodeA.pointService.getPoint(userId).point()).isEqualTo(0L);
+        assertThat(nodeB.pointService.getHistories(userId)).hasSize(101);
+    }
+
+    @Test
+    void 리더보드는_다른_노드가_바꾼_잔액까지_저장소에서_읽는다() {
+        // given
+        PointLeaderboard leaderboard = new PointLeaderboard(nodeA.pointService, nodeA.balanceStore, nodeA.historyStore);
+
+        // when
+        nodeA.pointService.chargePoint(1L, 100L);
+        nodeB.pointService.chargePoint(2L, 300L);
+        nodeB.pointService.chargePoint(3L, 300L);
+        nodeB.pointService.chargePoint(4L, 50L);
+        nodeB.pointService.usePoint(4L, 50L);
+
+        // then
+        assertThat(leaderboard.top(10)).containsExactly(
+                new LeaderboardEntry(1, 2L, 300L),
+                new LeaderboardEntry(2, 3L, 300L),
+                new LeaderboardEntry(3, 1L, 100L));
+    }
+
+    @Test
+    void 버전_열이_없던_테이블의_유저도_충전하고_사용할_수_있다() throws SQLException {
+        // given: version/fence 열이 생기기 전에 저장된 잔액
+        String url = "jdbc:h2:mem:legacy-" + DATABASE_SEQUENCE.incrementAndGet();
+        JdbcConnectionPool legacy = JdbcConnectionPool.create(url, "sa", "");
+        try (Connection connection = legacy.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE user_point (id BIGINT PRIMARY KEY, point BIGINT NOT NULL, update_millis BIGINT NOT NULL)");
+            statement.execute("INSERT INTO user_point (id, point, update_millis) VALUES (1, 1000, 1)");
+        }
+        Node node = new Node(url);
+        legacy.dispose();
+
+        try {
+            // when
+            node.pointService.chargePoint(1L, 500L);
+            node.pointService.usePoint(1L, 300L);
+
+            // then
+            assertThat(node.pointService.getPoint(1L).point()).isEqualTo(1_200L);
+            assertThat(node.balanceStore.selectForUpdate(1L).version()).isEqualTo(2L);
+            assertThat(node.balanceStore.conflicts()).isEqualTo(0L);
+        } finally {
+            node.dataSource.dispose();
+        }
+    }
+
+    @Tag("benchmark")
+    @Test
+    void 두_노드_처리량() throws InterruptedException {
+        // given
+        int userCount = 1_000;
+        int opsPerThread = 2_000;
+
+        // when: 충전 50%, 사용 25%, 조회 25%
+        long start = System.nanoTime();
+        runOnBothNodes(node -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < opsPerThread; i++) {
+                long userId = random.nextLong(userCount);
+                int dice = random.nextInt(4);
+                try {
+                    if (dice < 2) {
+                        node.pointService.chargePoint(userId, 10L);
+                    } else if (dice == 2) {
+                        node.pointService.usePoint(userId, 10L);
+                    } else {
+                        node.pointService.getPoint(userId);
+                    }
+                } catch (IllegalArgumentException e) {
+                    // 잔액 부족
+                }
+            }
+        });
+        long elapsedNanos = System.nanoTime() - start;
+
+        // then
+        double opsPerSecond = (double) 2 * THREADS_PER_NODE * opsPerThread / elapsedNanos * TimeUnit.SECONDS.toNanos(1);
+        log.info("노드 2개 x 스레드 {}개: {} ops/s, 버전 충돌 {}회", THREADS_PER_NODE, (long) opsPerSecond,
+                nodeA.balanceStore.conflicts() + nodeB.balanceStore.conflicts());
+        for (long userId = 0; userId < userCount; userId++) {
+            assertThat(nodeA.pointService.getPoint(userId).point()).isGreaterThanOrEqualTo(0L);
+        }
+    }
+
+    private void runOnBothNodes(NodeTask task) throws InterruptedException {
+        ExecutorService executorService = Executors.newFixedThreadPool(2 * THREADS_PER_NODE);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        CountDownLatch endLatch = new CountDownLatch(2 * THREADS_PER_NODE);
+        for (int t = 0; t < 2 * THREADS_PER_NODE; t++) {
+            Node node = t % 2 == 0 ? nodeA : nodeB;
+            executorService.submit(() -> {
+                try {
+                    startLatch.await();
+                    task.run(node);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    endLatch.countDown();
+                }
+            });
+        }
+        startLatch.countDown();
+        assertThat(endLatch.await(120, TimeUnit.SECONDS)).isTrue();
+        executorService.shutdown();
+    }
+
+    @FunctionalInterface
+    private interface NodeTask {
+        void run(Node node);
+    }
+
+    private static final class Node {
+
+        private final JdbcConnectionPool dataSource;
+        private final JdbcBalanceStore balanceStore;
+        private final JdbcHistoryStore historyStore;
+        private final PointService pointService;
+
+        private Node(String url) {
+            dataSource = JdbcConnectionPool.create(url, "sa", "");
+            dataSource.setMaxConnections(16);
+            balanceStore = new JdbcBalanceStore(dataSource);
+            historyStore = new JdbcHistoryStore(dataSource, 256);
+            pointService = new PointService(balanceStore, historyStore,
+                    new UserLockManager(), PointRateLimiter.unlimited(), PointLotLedger.withDefaults());
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.storage.BalanceStore;
+import io.hhplus.tdd.storage.HistoryStore;
+import io.hhplus.tdd.storage.JdbcBalanceStore;
+import io.hhplus.tdd.storage.JdbcHistoryStore;
+import org.h2.jdbcx.JdbcConnectionPool;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 내장 H2 저장소 (point.storage.type=jdbc)
+ * - 테스트마다 새 메모리 DB 를 쓰고, 커넥션 풀을 닫으면 DB 도 사라진다.
+ */
+class JdbcStoreConformanceTest extends StoreConformanceTest {
+
+    private static final AtomicInteger DATABASE_SEQUENCE = new AtomicInteger();
+
+    private JdbcConnectionPool dataSource;
+
+    @Override
+    protected BalanceStore createBalanceStore() {
+        dataSource = JdbcConnectionPool.create("jdbc:h2:mem:point-store-" + DATABASE_SEQUENCE.incrementAndGet(), "sa", "");
+        dataSource.setMaxConnections(32);
+        return new JdbcBalanceStore(dataSource);
+    }
+
+    @Override
+    protected HistoryStore createHistoryStore() {
+        return new JdbcHistoryStore(dataSource, 256);
+    }
+
+    @Override
+    protected void closeStores() {
+        dataSource.dispose();
+    }
+}
@@ -0,0 +1,137 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.StripedLongMap;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.storage.MemoryBalanceStore;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 메모리 잔액 저장소(스트라이프 맵) 테스트
+ * - 서로 다른 유저를 동시에 써도 값이 사라지지 않는지, 스레드 수에 따른 처리량을 검증
+ */
+class MemoryBalanceStoreTest {
+
+    private static final Logger log = LoggerFactory.getLogger(MemoryBalanceStoreTest.class);
+
+    private static final int USER_COUNT = 1_000_000;
+
+    @Test
+    void 저장하지_않은_유저는_0_포인트로_조회된다() {
+        // given
+        MemoryBalanceStore store = new MemoryBalanceStore();
+
+        // when
+        UserPoint userPoint = store.selectById(1L);
+
+        // then
+        assertThat(userPoint.id()).isEqualTo(1L);
+        assertThat(userPoint.point()).isEqualTo(0L);
+        assertThat(store.size()).isEqualTo(0L);
+    }
+
+    @Test
+    void 같은_유저를_다시_저장하면_덮어쓴다() {
+        // given
+        MemoryBalanceStore store = new MemoryBalanceStore(new StripedLongMap<>(1));
+
+        // when
+        store.insertOrUpdate(1L, 100L);
+        store.insertOrUpdate(-1L, 300L);
+        store.insertOrUpdate(1L, 200L);
+
+        // then
+        assertThat(store.selectById(1L).point()).isEqualTo(200L);
+        assertThat(store.selectById(-1L).point()).isEqualTo(300L);
+        assertThat(store.size()).isEqualTo(2L);
+    }
+
+    @Test
+    void 백만_명을_동시에_저장해도_값이_사라지지_않는다() throws InterruptedException {
+        // given
+        MemoryBalanceStore store = new MemoryBalanceStore();
+        int threadCount = 8;
+
+        // when: 스레드마다 서로 다른 유저를 저장하고, 저장하는 동안 다른 유저를 조회한다
+        runConcurrently(threadCount, thread -> {
+            for (long userId = thread; userId < USER_COUNT; userId += threadCount) {
+                store.insertOrUpdate(userId, userId * 10);
+                store.selectById(ThreadLocalRandom.current().nextLong(USER_COUNT));
+            }
+        });
+
+        // then
+        assertThat(store.size()).isEqualTo((long) USER_COUNT);
+        for (long userId = 0; userId < USER_COUNT; userId++) {
+            assertThat(store.selectById(userId).point()).isEqualTo(userId * 10);
+        }
+    }
+
+    @Tag("benchmark")
+    @Test
+    void 스레드_수에_따른_처리량() throws InterruptedException {
+        // given: 백만 명의 잔액
+        MemoryBalanceStore store = new MemoryBalanceStore();
+        for (long userId = 0; userId < USER_COUNT; userId++) {
+            store.insertOrUpdate(userId, 1_000L);
+        }
+        int opsPerThread = 500_000;
+
+        // when & then: 조회 90%, 저장 10%
+        for (int threadCount : new int[]{1, 2, 4, 8}) {
+            long start = System.nanoTime();
+            runConcurrently(threadCount, thread -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < opsPerThread; i++) {
+                    long userId = random.nextLong(USER_COUNT);
+                    if (random.nextInt(10) == 0) {
+                        store.insertOrUpdate(userId, random.nextLong(100_000));
+                    } else {
+                        store.selectById(userId);
+                    }
+                }
+            });
+            long elapsedNanos = System.nanoTime() - start;
+            double opsPerSecond = (double) threadCount * opsPerThread / elapsedNanos * TimeUnit.SECONDS.toNanos(1);
+            log.info("스레드 {}개: {} ops/s", threadCount, (long) opsPerSecond);
+        }
+        assertThat(store.size()).isEqualTo((long) USER_COUNT);
+    }
+
+    private static void runConcurrently(int threadCount, ThreadTask task) throws InterruptedException {
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        CountDownLatch endLatch = new CountDownLatch(threadCount);
+        for (int t = 0; t < threadCount; t++) {
+            int thread = t;
+            executorService.submit(() -> {
+                try {
+                    startLatch.await();
+                    task.run(thread);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    endLatch.countDown();
+                }
+            });
+        }
+        startLatch.countDown();
+        assertThat(endLatch.await(60, TimeUnit.SECONDS)).isTrue();
+        executorService.shutdown();
+    }
+
+    @FunctionalInterface
+    private interface ThreadTask {
+        void run(int thread);
+    }
+}
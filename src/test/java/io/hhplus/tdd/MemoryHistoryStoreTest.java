@@ -0,0 +1,97 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.storage.MemoryHistoryStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 메모리 내역 저장소(청크 로그) 테스트
+ * - 동시에 넣어도 id 가 1 부터 빈 번호 없이 유일하고, 넣은 내역이 사라지지 않는지 검증
+ */
+class MemoryHistoryStoreTest {
+
+    private final MemoryHistoryStore store = new MemoryHistoryStore();
+
+    @Test
+    void 유저별_내역을_id_순으로_조회한다() {
+        // given
+        store.insert(1L, 100L, TransactionType.CHARGE, 1L);
+        store.insert(2L, 200L, TransactionType.CHARGE, 2L);
+        store.insert(1L, 50L, TransactionType.USE, 3L);
+
+        // when
+        List<PointHistory> histories = store.selectAllByUserId(1L);
+
+        // then
+        assertThat(histories).extracting(PointHistory::id).containsExactly(1L, 3L);
+        assertThat(histories).extracting(PointHistory::type).containsExactly(TransactionType.CHARGE, TransactionType.USE);
+        assertThat(store.selectAllByUserId(3L)).isEmpty();
+        assertThat(store.selectById(2L).userId()).isEqualTo(2L);
+        assertThat(store.selectById(4L)).isNull();
+    }
+
+    @Test
+    void 백만_건을_동시에_넣어도_id_가_유일하고_빈_번호가_없다() throws InterruptedException {
+        // given
+        int threadCount = 8;
+        int insertsPerThread = 125_000;
+        int userCount = 1_000;
+        int total = threadCount * insertsPerThread;
+        long[][] issuedIds = new long[threadCount][insertsPerThread];
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        CountDownLatch endLatch = new CountDownLatch(threadCount);
+
+        // when
+        for (int t = 0; t < threadCount; t++) {
+            int thread = t;
+            executorService.submit(() -> {
+                try {
+                    startLatch.await();
+                    for (int i = 0; i < insertsPerThread; i++) {
+                        long userId = (thread * (long) insertsPerThread + i) % userCount;
+                        issuedIds[thread][i] = store.insert(userId, 1L, TransactionType.CHARGE, i).id();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    endLatch.countDown();
+                }
+            });
+        }
+        startLatch.countDown();
+        assertThat(endLatch.await(60, TimeUnit.SECONDS)).isTrue();
+        executorService.shutdown();
+
+        // then: 발급된 id 가 1..total 을 한 번씩 채운다
+        boolean[] seen = new boolean[total + 1];
+        for (long[] ids : issuedIds) {
+            for (long id : ids) {
+                assertThat(id).isBetween(1L, (long) total);
+                assertThat(seen[(int) id]).isFalse();
+                seen[(int) id] = true;
+            }
+        }
+        assertThat(store.size()).isEqualTo((long) total);
+        for (long id = 1; id <= total; id++) {
+            assertThat(store.selectById(id).id()).isEqualTo(id);
+        }
+        long rows = 0;
+        for (long userId = 0; userId < userCount; userId++) {
+            List<PointHistory> histories = store.selectAllByUserId(userId);
+            assertThat(histories).isSortedAccordingTo(Comparator.comparingLong(PointHistory::id));
+            rows += histories.size();
+        }
+        assertThat(rows).isEqualTo((long) total);
+    }
+}
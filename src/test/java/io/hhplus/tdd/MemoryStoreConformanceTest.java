@@ -0,0 +1,27 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.storage.BalanceStore;
+import io.hhplus.tdd.storage.HistoryStore;
+import io.hhplus.tdd.storage.MemoryBalanceStore;
+import io.hhplus.tdd.storage.MemoryHistoryStore;
+
+/**
+ * 메모리 저장소 (point.storage.type=memory)
+ */
+class MemoryStoreConformanceTest extends StoreConformanceTest {
+
+    @Override
+    protected BalanceStore createBalanceStore() {
+        return new MemoryBalanceStore();
+    }
+
+    @Override
+    protected HistoryStore createHistoryStore() {
+        return new MemoryHistoryStore();
+    }
+
+    @Override
+    protected int benchmarkOpsPerThread() {
+        return 500_000;
+    }
+}
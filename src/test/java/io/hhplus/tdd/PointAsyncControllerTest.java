@@ -0,0 +1,81 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.UserPoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+
+/**
+ * 비동기 API 동시 처리 테스트
+ * Tomcat 스레드를 2개로 고정해도 비동기 API 는 테이블 호출을 기다리는 요청을 동시에 여러 개 처리하는지 검증
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.tomcat.threads.max=2",
+        "server.tomcat.threads.min-spare=2"
+})
+class PointAsyncControllerTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PointAsyncControllerTest.class);
+
+    private static final int REQUEST_COUNT = 40;
+    private static final long TABLE_LATENCY_MILLIS = 200;
+
+    @LocalServerPort
+    private int port;
+
+    @MockBean
+    private PointService pointService;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void setUp() {
+        given(pointService.getPoint(anyLong())).willAnswer(invocation -> {
+            TimeUnit.MILLISECONDS.sleep(TABLE_LATENCY_MILLIS);
+            return new UserPoint(invocation.getArgument(0), 1000L, System.currentTimeMillis());
+        });
+    }
+
+    @Tag("benchmark")
+    @Test
+    void 서블릿_스레드_2개로도_비동기_조회는_동시에_처리된다() {
+        // when
+        long syncMillis = fireConcurrently("/point/");
+        long asyncMillis = fireConcurrently("/async/point/");
+
+        // then: 동기 API 는 스레드 2개로 순차 처리(40 x 200ms / 2 = 약 4초), 비동기 API 는 전용 풀에서 동시에 처리
+        log.info("동시 요청 {}건 처리 시간 - 동기: {}ms, 비동기: {}ms", REQUEST_COUNT, syncMillis, asyncMillis);
+        assertThat(syncMillis).isGreaterThanOrEqualTo(REQUEST_COUNT * TABLE_LATENCY_MILLIS / 2);
+        assertThat(asyncMillis).isLessThan(syncMillis / 2);
+    }
+
+    private long fireConcurrently(String path) {
+        long start = System.nanoTime();
+        List<CompletableFuture<HttpResponse<String>>> responses = IntStream.range(0, REQUEST_COUNT)
+                .mapToObj(i -> HttpRequest.newBuilder(URI.create("http://localhost:" + port + path + i)).GET().build())
+                .map(request -> httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()))
+                .toList();
+
+        responses.forEach(response -> assertThat(response.join().statusCode()).isEqualTo(200));
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+}
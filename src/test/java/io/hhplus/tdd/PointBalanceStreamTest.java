@@ -0,0 +1,333 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.limit.PointRateLimiter;
+import io.hhplus.tdd.limit.ServiceOverloadedException;
+import io.hhplus.tdd.point.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 잔액 구독 테스트
+ * - 구독 시 현재 잔액을 먼저 받고, 느린 구독자는 최신 잔액으로 합쳐 받으며, 구독자가 많아도 모두 최종 잔액에 도달하는지 검증
+ */
+class PointBalanceStreamTest {
+
+    private UserLockManager userLockManager;
+    private PointService pointService;
+    private PointBalanceStream stream;
+
+    @BeforeEach
+    void setUp() {
+        userLockManager = new UserLockManager();
+        pointService = new PointService(new InMemoryTables.InMemoryUserPointTable(),
+                new InMemoryTables.InMemoryPointHistoryTable(), userLockManager,
+                PointRateLimiter.unlimited());
+        stream = new PointBalanceStream(pointService, userLockManager, 4, 10_000, 5_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stream.shutdown();
+    }
+
+    @Test
+    void 구독하면_현재_잔액을_먼저_받고_잔액이_바뀔_때마다_받는다() throws InterruptedException {
+        // given
+        pointService.chargePoint(1L, 1000L);
+        List<Long> received = new CopyOnWriteArrayList<>();
+        stream.subscribe(1L, userPoint -> received.add(userPoint.point()), Deadline.afterMillis(1000));
+        awaitUntil(() -> received.size() == 1);
+
+        // when
+        pointService.usePoint(1L, 300L);
+        awaitUntil(() -> received.size() == 2);
+        pointService.chargePoint(1L, 50L);
+        awaitUntil(() -> received.size() == 3);
+
+        // then
+        assertThat(received).containsExactly(1000L, 700L, 750L);
+    }
+
+    @Test
+    void 느린_구독자는_밀린_잔액을_최신_값으로_합쳐서_받는다() throws InterruptedException {
+        // given: 첫 전송에서 멈춰 있는 구독자
+        CountDownLatch blocked = new CountDownLatch(1);
+        List<Long> received = new CopyOnWriteArrayList<>();
+        stream.subscribe(1L, userPoint -> {
+            received.add(userPoint.point());
+            try {
+                blocked.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+        }, Deadline.afterMillis(1000));
+        awaitUntil(() -> received.size() == 1);
+
+        // when: 멈춰 있는 동안 100번 충전
+        for (int i = 0; i < 100; i++) {
+            pointService.chargePoint(1L, 10L);
+        }
+        blocked.countDown();
+        awaitUntil(() -> !received.isEmpty() && received.get(received.size() - 1) == 1000L);
+
+        // then: 처음 잔액과 최신 잔액만 받는다
+        assertThat(received).containsExactly(0L, 1000L);
+    }
+
+    @Test
+    void 해지하면_더_이상_받지_않는다() throws InterruptedException {
+        // given
+        List<Long> received = new CopyOnWriteArrayList<>();
+        PointBalanceStream.Subscription subscription = stream.subscribe(1L, userPoint -> received.add(userPoint.point()),
+                Deadline.afterMillis(1000));
+        awaitUntil(() -> received.size() == 1);
+
+        // when
+        subscription.cancel();
+        subscription.cancel();
+        pointService.chargePoint(1L, 100L);
+        TimeUnit.MILLISECONDS.sleep(50);
+
+        // then
+        assertThat(received).containsExactly(0L);
+        assertThat(stream.subscriptions()).isEqualTo(0);
+    }
+
+    @Test
+    void 전송에_실패하면_구독을_해지하고_연결을_닫는다() throws InterruptedException {
+        // given
+        AtomicReference<Exception> closedBy = new AtomicReference<>();
+        PointBalanceStream.Subscription subscription = stream.subscribe(1L, new PointBalanceStream.Sink() {
+            @Override
+            public void send(UserPoint userPoint) throws IOException {
+                throw new IOException("연결 끊김");
+            }
+
+            @Override
+            public void close(Exception cause) {
+                closedBy.set(cause);
+            }
+        }, Deadline.afterMillis(1000));
+
+        // when
+        awaitUntil(() -> closedBy.get() != null);
+
+        // then
+        assertThat(subscription.isCancelled()).isTrue();
+        assertThat(closedBy.get().getMessage()).isEqualTo("연결 끊김");
+        assertThat(stream.subscriptions()).isEqualTo(0);
+    }
+
+    @Test
+    void 전송이_시간을_넘기면_구독을_해지하고_다른_구독은_계속_받는다() throws InterruptedException {
+        // given: 전송 스레드 하나, 첫 전송에서 막히는 구독자
+        stream.shutdown();
+        stream = new PointBalanceStream(pointService, userLockManager, 1, 10, 100);
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        PointBalanceStream.Subscription stuck = stream.subscribe(1L, userPoint -> {
+            blocked.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw new IOException("전송 중단");
+            }
+        }, Deadline.afterMillis(1000));
+        assertThat(blocked.await(2, TimeUnit.SECONDS)).isTrue();
+
+        // when
+        List<Long> received = new CopyOnWriteArrayList<>();
+        stream.subscribe(2L, userPoint -> received.add(userPoint.point()), Deadline.afterMillis(1000));
+        pointService.chargePoint(2L, 100L);
+
+        // then
+        awaitUntil(() -> received.contains(100L));
+        assertThat(stuck.isCancelled()).isTrue();
+        assertThat(interrupted.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(stream.subscriptions()).isEqualTo(1);
+    }
+
+    @Test
+    void 전송이_시간을_넘겨_해지된_구독은_연결도_닫고_소비자가_해지한_구독은_닫지_않는다() throws InterruptedException {
+        // given: 첫 전송에서 막히는 구독자와 바로 받는 구독자
+        stream.shutdown();
+        stream = new PointBalanceStream(pointService, userLockManager, 2, 10, 100);
+        ClosingSink stuck = new ClosingSink(true);
+        ClosingSink idle = new ClosingSink(false);
+        stream.subscribe(1L, stuck, Deadline.afterMillis(1000));
+        PointBalanceStream.Subscription idleSubscription = stream.subscribe(2L, idle, Deadline.afterMillis(1000));
+
+        // when
+        assertThat(stuck.closed.await(2, TimeUnit.SECONDS)).isTrue();
+        idleSubscription.cancel();
+        TimeUnit.MILLISECONDS.sleep(50);
+
+        // then
+        assertThat(stuck.cause.get()).isInstanceOf(IOException.class);
+        assertThat(idle.closed.getCount()).isEqualTo(1);
+        assertThat(stream.subscriptions()).isEqualTo(0);
+    }
+
+    @Test
+    void 인터럽트에도_막힌_전송이_있으면_전송_스레드를_더_두어_다른_구독에_보낸다() throws InterruptedException {
+        // given: 전송 스레드 하나, 인터럽트를 무시하고 막히는 구독자
+        stream.shutdown();
+        stream = new PointBalanceStream(pointService, userLockManager, 1, 10, 100);
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        stream.subscribe(1L, userPoint -> {
+            blocked.countDown();
+            while (release.getCount() > 0) {
+                try {
+                    release.await();
+                } catch (InterruptedException ignored) {
+                    // 소켓 쓰기처럼 인터럽트로 풀리지 않는다
+                }
+            }
+        }, Deadline.afterMillis(1000));
+        assertThat(blocked.await(2, TimeUnit.SECONDS)).isTrue();
+
+        // when
+        List<Long> received = new CopyOnWriteArrayList<>();
+        stream.subscribe(2L, userPoint -> received.add(userPoint.point()), Deadline.afterMillis(1000));
+        pointService.chargePoint(2L, 100L);
+
+        // then
+        try {
+            awaitUntil(() -> received.contains(100L));
+            assertThat(stream.subscriptions()).isEqualTo(1);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void 최대_구독_수를_넘으면_거절한다() {
+        // given
+        stream.shutdown();
+        stream = new PointBalanceStream(pointService, userLockManager, 1, 2, 5_000);
+        stream.subscribe(1L, userPoint -> {
+        }, Deadline.afterMillis(1000));
+        stream.subscribe(2L, userPoint -> {
+        }, Deadline.afterMillis(1000));
+
+        // when & then
+        assertThatThrownBy(() -> stream.subscribe(3L, userPoint -> {
+        }, Deadline.afterMillis(1000))).isInstanceOf(ServiceOverloadedException.class);
+        assertThat(stream.subscriptions()).isEqualTo(2);
+    }
+
+    @Test
+    void 구독자가_수천_명이어도_모두_최종_잔액을_받는다() throws InterruptedException {
+        // given: 500명의 유저에 유저당 10개씩 5000개 구독, 그중 일부는 느린 구독자
+        int userCount = 500;
+        int subscribersPerUser = 10;
+        List<AtomicReference<UserPoint>> lastReceived = new ArrayList<>();
+        AtomicInteger sent = new AtomicInteger();
+        for (long userId = 0; userId < userCount; userId++) {
+            for (int s = 0; s < subscribersPerUser; s++) {
+                AtomicReference<UserPoint> last = new AtomicReference<>();
+                boolean slow = s == 0;
+                lastReceived.add(last);
+                stream.subscribe(userId, userPoint -> {
+                    if (slow) {
+                        try {
+                            TimeUnit.MICROSECONDS.sleep(200);
+                        } catch (InterruptedException e) {
+                            throw new IOException(e);
+                        }
+                    }
+                    sent.incrementAndGet();
+                    last.set(userPoint);
+                }, Deadline.afterMillis(1000));
+            }
+        }
+        assertThat(stream.subscriptions()).isEqualTo(userCount * subscribersPerUser);
+
+        // when: 8개 스레드가 유저마다 20번씩 충전
+        int threadCount = 8;
+        int chargesPerUser = 20;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch endLatch = new CountDownLatch(threadCount);
+        for (int t = 0; t < threadCount; t++) {
+            int thread = t;
+            executorService.submit(() -> {
+                try {
+                    for (int i = 0; i < chargesPerUser; i++) {
+                        for (long userId = thread; userId < userCount; userId += threadCount) {
+                            pointService.chargePoint(userId, 1);
+                        }
+                    }
+                } finally {
+                    endLatch.countDown();
+                }
+            });
+        }
+        assertThat(endLatch.await(30, TimeUnit.SECONDS)).isTrue();
+        executorService.shutdown();
+
+        // then: 모든 구독자가 최종 잔액을 받고, 합쳐진 만큼 전송 횟수가 줄어든다
+        awaitUntil(() -> lastReceived.stream().allMatch(last -> last.get() != null && last.get().point() == chargesPerUser));
+        int maxSends = userCount * subscribersPerUser * (chargesPerUser + 1);
+        assertThat(sent.get()).isLessThanOrEqualTo(maxSends);
+    }
+
+    /**
+     * 닫힌 원인을 남기는 구독자. stuck 이면 첫 전송에서 인터럽트될 때까지 막힌다.
+     */
+    private static class ClosingSink implements PointBalanceStream.Sink {
+
+        private final boolean stuck;
+        private final CountDownLatch closed = new CountDownLatch(1);
+        private final AtomicReference<Exception> cause = new AtomicReference<>();
+
+        ClosingSink(boolean stuck) {
+            this.stuck = stuck;
+        }
+
+        @Override
+        public void send(UserPoint userPoint) throws IOException {
+            if (!stuck) {
+                return;
+            }
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                throw new IOException("전송 중단");
+            }
+        }
+
+        @Override
+        public void close(Exception cause) {
+            this.cause.set(cause);
+            closed.countDown();
+        }
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("조건을 만족하지 못했습니다.");
+            }
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package io.hhplus.tdd;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hhplus.tdd.point.ChargeRequest;
+import io.hhplus.tdd.point.PointBinaryCodec;
+import io.hhplus.tdd.point.PointEtags;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PointBinaryFormatTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PointBinaryFormatTest.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void 바이너리로_쓴_값을_그대로_읽는다() {
+        // given
+        UserPoint userPoint = new UserPoint(-7L, Long.MAX_VALUE, 1_700_000_000_123L);
+        List<PointHistory> histories = histories(1_000);
+
+        // when
+        byte[] userPointBytes = PointBinaryCodec.encode(userPoint);
+        byte[] chargeBytes = PointBinaryCodec.encode(new ChargeRequest(5_000L));
+        byte[] historyBytes = PointBinaryCodec.encodeHistories(histories);
+
+        // then
+        assertThat(userPointBytes.length).isEqualTo(PointBinaryCodec.USER_POINT_SIZE);
+        assertThat(PointBinaryCodec.decodeUserPoint(userPointBytes)).isEqualTo(userPoint);
+        assertThat(chargeBytes.length).isEqualTo(PointBinaryCodec.CHARGE_REQUEST_SIZE);
+        assertThat(PointBinaryCodec.decodeChargeRequest(chargeBytes).amount()).isEqualTo(5_000L);
+        assertThat((long) historyBytes.length).isEqualTo(PointBinaryCodec.historiesSize(histories.size()));
+        assertThat(PointBinaryCodec.decodeHistories(historyBytes)).isEqualTo(histories);
+        assertThat(PointBinaryCodec.decodeHistories(PointBinaryCodec.encodeHistories(List.of()))).isEmpty();
+    }
+
+    @Test
+    void 길이_버전_내역_종류가_맞지_않으면_읽지_않는다() {
+        // given
+        byte[] userPoint = PointBinaryCodec.encode(new UserPoint(1L, 100L, 0L));
+        byte[] histories = PointBinaryCodec.encodeHistories(histories(2));
+        byte[] otherVersion = userPoint.clone();
+        otherVersion[0] = 2;
+        byte[] unknownType = histories.clone();
+        unknownType[5 + 24] = 9; // 첫 내역의 type 칸
+
+        // when & then
+        assertThatThrownBy(() -> PointBinaryCodec.decodeUserPoint(new byte[0])).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PointBinaryCodec.decodeChargeRequest(userPoint)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PointBinaryCodec.decodeUserPoint(otherVersion)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PointBinaryCodec.decodeHistories(Arrays.copyOf(histories, histories.length - 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PointBinaryCodec.decodeHistories(unknownType)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void Accept_헤더에서_JSON_보다_먼저_원할_때만_바이너리로_고른다() {
+        // given
+        String binary = PointBinaryCodec.MEDIA_TYPE;
+
+        // when & then
+        assertThat(PointBinaryCodec.preferredBy(binary)).isTrue();
+        assertThat(PointBinaryCodec.preferredBy(binary + ", application/json;q=0.5")).isTrue();
+        assertThat(PointBinaryCodec.preferredBy("application/json, " + binary)).isFalse();
+        assertThat(PointBinaryCodec.preferredBy("application/json;q=0.5, " + binary)).isTrue();
+        assertThat(PointBinaryCodec.preferredBy("*/*")).isFalse();
+        assertThat(PointBinaryCodec.preferredBy(null)).isFalse();
+        assertThat(PointEtags.representedAs(PointEtags.histories(42L), binary))
+                .isNotEqualTo(PointEtags.representedAs(PointEtags.histories(42L), "application/json"));
+    }
+
+    @Test
+    void 내역_목록은_JSON_의_절반보다_작다() throws Exception {
+        // given: 유저 한 명의 내역 200건 (서비스 간 내역 조회 한 번)
+        List<PointHistory> histories = histories(200);
+
+        // when
+        byte[] json = objectMapper.writeValueAsBytes(histories);
+        byte[] binary = PointBinaryCodec.encodeHistories(histories);
+
+        // then
+        assertThat(binary.length).isLessThan(json.length / 2);
+    }
+
+    @Tag("benchmark")
+    @Test
+    void 내역_목록의_직렬화_처리량을_JSON_과_비교한다() throws Exception {
+        // given: 유저 한 명의 내역 200건 (서비스 간 내역 조회 한 번)
+        List<PointHistory> histories = histories(200);
+        byte[] json = objectMapper.writeValueAsBytes(histories);
+        byte[] binary = PointBinaryCodec.encodeHistories(histories);
+        TypeReference<List<PointHistory>> listType = new TypeReference<>() {
+        };
+        assertThat(objectMapper.readValue(json, listType)).isEqualTo(histories);
+
+        // when: 충분히 데운 뒤 잰다
+        for (int i = 0; i < 3_000; i++) {
+            objectMapper.writeValueAsBytes(histories);
+            objectMapper.readValue(json, listType);
+            PointBinaryCodec.decodeHistories(PointBinaryCodec.encodeHistories(histories));
+        }
+        int iterations = 5_000;
+        long sink = 0;
+        long started = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += objectMapper.writeValueAsBytes(histories).length;
+        }
+        long jsonWriteNanos = System.nanoTime() - started;
+        started = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += objectMapper.readValue(json, listType).size();
+        }
+        long jsonReadNanos = System.nanoTime() - started;
+        started = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += PointBinaryCodec.encodeHistories(histories).length;
+        }
+        long binaryWriteNanos = System.nanoTime() - started;
+        started = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += PointBinaryCodec.decodeHistories(binary).size();
+        }
+        long binaryReadNanos = System.nanoTime() - started;
+
+        // then
+        log.info("내역 {}건: 크기 JSON {}B -> 바이너리 {}B, 쓰기 {} -> {} 목록/s, 읽기 {} -> {} 목록/s (sink={})",
+                histories.size(), json.length, binary.length,
+                perSecond(iterations, jsonWriteNanos), perSecond(iterations, binaryWriteNanos),
+                perSecond(iterations, jsonReadNanos), perSecond(iterations, binaryReadNanos), sink);
+        assertThat(binaryWriteNanos).isLessThan(jsonWriteNanos);
+        assertThat(binaryReadNanos).isLessThan(jsonReadNanos);
+    }
+
+    private static long perSecond(int iterations, long nanos) {
+        return iterations * 1_000_000_000L / nanos;
+    }
+
+    private static List<PointHistory> histories(int count) {
+        SplittableRandom random = new SplittableRandom(42);
+        TransactionType[] types = TransactionType.values();
+        List<PointHistory> histories = new ArrayList<>(count);
+        long updateMillis = 1_700_000_000_000L;
+        for (int i = 0; i < count; i++) {
+            updateMillis += random.nextInt(60_000);
+            histories.add(new PointHistory(100_000L + i, 12_345L, 1 + random.nextInt(100_000),
+                    types[random.nextInt(types.length)], updateMillis));
+        }
+        return histories;
+    }
+}
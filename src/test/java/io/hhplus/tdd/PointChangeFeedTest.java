@@ -0,0 +1,219 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.limit.PointRateLimiter;
+import io.hhplus.tdd.point.*;
+import io.hhplus.tdd.storage.MemoryBalanceStore;
+import io.hhplus.tdd.storage.MemoryHistoryStore;
+import io.hhplus.tdd.storage.TableHistoryStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 포인트 변경 피드 테스트
+ * - 순번이 빠짐없이 이어지는지, 버퍼에서 밀려난 변경을 내역 테이블에서 다시 읽는지, 롱 폴링이 발행 시 깨어나는지 검증
+ */
+class PointChangeFeedTest {
+
+    private InMemoryTables.InMemoryPointHistoryTable pointHistoryTable;
+    private PointService pointService;
+    private ExecutorService wakeUpExecutor;
+    private PointChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        pointHistoryTable = new InMemoryTables.InMemoryPointHistoryTable();
+        pointService = new PointService(new InMemoryTables.InMemoryUserPointTable(), pointHistoryTable);
+        wakeUpExecutor = Executors.newFixedThreadPool(2);
+        feed = new PointChangeFeed(pointService, new TableHistoryStore(pointHistoryTable), wakeUpExecutor, 4, 16);
+    }
+
+    @AfterEach
+    void tearDown() {
+        wakeUpExecutor.shutdownNow();
+    }
+
+    @Test
+    void 저장된_순서대로_순번이_붙고_next_부터_이어_읽는다() {
+        // given
+        pointService.chargePoint(1L, 1000L);
+        pointService.usePoint(1L, 300L);
+        pointService.chargePoint(2L, 500L);
+
+        // when
+        PointChangeBatch first = feed.read(1, 2);
+        PointChangeBatch second = feed.read(first.next(), 2);
+
+        // then
+        assertThat(first.changes()).extracting(PointChange::sequence).containsExactly(1L, 2L);
+        assertThat(first.changes().get(1).history().type()).isEqualTo(TransactionType.USE);
+        assertThat(second.changes()).extracting(PointChange::sequence).containsExactly(3L);
+        assertThat(second.changes().get(0).history().userId()).isEqualTo(2L);
+        assertThat(second.next()).isEqualTo(4L);
+        assertThat(second.head()).isEqualTo(3L);
+        assertThat(feed.read(second.next(), 10).changes()).isEmpty();
+    }
+
+    @Test
+    void 버퍼에서_밀려난_변경은_내역_테이블에서_다시_읽는다() {
+        // given: 버퍼 4칸보다 많은 10건
+        for (int i = 1; i <= 10; i++) {
+            pointService.chargePoint(i % 3, i);
+        }
+
+        // when
+        PointChangeBatch batch = feed.read(1, 100);
+
+        // then
+        assertThat(batch.changes()).extracting(PointChange::sequence)
+                .containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+        assertThat(batch.changes()).extracting(change -> change.history().amount())
+                .containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+        assertThat(batch.next()).isEqualTo(11L);
+    }
+
+    @Test
+    void 색인에서도_밀려난_순번을_요청하면_예외가_발생한다() {
+        // given: 색인 16칸보다 많은 20건
+        for (int i = 1; i <= 20; i++) {
+            pointService.chargePoint(1L, 1);
+        }
+
+        // when & then
+        assertThatThrownBy(() -> feed.read(4, 10)).isInstanceOf(IllegalStateException.class);
+        assertThat(feed.read(5, 100).changes()).hasSize(16);
+    }
+
+    @Test
+    void 다른_epoch_나_아직_발급되지_않은_순번을_요청하면_예외가_발생한다() {
+        // given: 재시작 전 피드에서 3건을 읽은 소비자
+        pointService.chargePoint(1L, 100L);
+        pointService.chargePoint(1L, 100L);
+        pointService.chargePoint(1L, 100L);
+        PointChangeBatch before = feed.read(1, 10);
+        PointChangeFeed restarted = new PointChangeFeed(pointService, new TableHistoryStore(pointHistoryTable), wakeUpExecutor, 4, 16);
+        pointService.chargePoint(2L, 500L);
+
+        // when & then
+        assertThat(feed.read(before.epoch(), before.next(), 10).changes()).extracting(PointChange::sequence).containsExactly(4L);
+        assertThat(restarted.epoch()).isNotEqualTo(before.epoch());
+        assertThatThrownBy(() -> restarted.read(before.epoch(), 1, 10)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> restarted.read(before.next(), 10)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> restarted.poll(before.epoch(), 1, 10, 0)).isInstanceOf(IllegalStateException.class);
+        assertThat(restarted.read(1, 10).changes()).extracting(change -> change.history().userId()).containsExactly(2L);
+    }
+
+    @Test
+    void 버퍼에서_밀려난_변경은_유저별로_필요한_내역만_조회한다() {
+        // given
+        MemoryHistoryStore historyStore = new MemoryHistoryStore();
+        PointService memoryService = new PointService(new MemoryBalanceStore(), historyStore, new UserLockManager(),
+                PointRateLimiter.unlimited(), PointLotLedger.withDefaults());
+        PointChangeFeed memoryFeed = new PointChangeFeed(memoryService, historyStore, wakeUpExecutor, 4, 16);
+        for (int i = 1; i <= 10; i++) {
+            memoryService.chargePoint(i % 3, i);
+        }
+
+        // when
+        PointChangeBatch batch = memoryFeed.read(2, 100);
+
+        // then
+        assertThat(batch.changes()).extracting(PointChange::sequence)
+                .containsExactly(2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+        assertThat(batch.changes()).extracting(change -> change.history().amount())
+                .containsExactly(2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+        assertThat(historyStore.selectByIds(1L, new long[]{1L, 2L, 4L})).extracting(PointHistory::id).containsExactly(1L, 4L);
+        assertThat(new TableHistoryStore(pointHistoryTable).selectByIds(1L, new long[]{1L, 2L})).isEmpty();
+    }
+
+    @Test
+    void 잘못된_요청은_예외가_발생한다() {
+        assertThatThrownBy(() -> feed.read(0, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> feed.read(1, PointChangeFeed.MAX_LIMIT + 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> feed.poll(1, 10, PointChangeFeed.MAX_WAIT_MILLIS + 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void 롱_폴링은_변경이_발행되면_깨어난다() throws Exception {
+        // given
+        CompletableFuture<PointChangeBatch> waiting = feed.poll(1, 10, 5_000);
+        assertThat(waiting).isNotDone();
+
+        // when
+        pointService.chargePoint(1L, 100L);
+
+        // then
+        PointChangeBatch batch = waiting.get(2, TimeUnit.SECONDS);
+        assertThat(batch.changes()).extracting(PointChange::sequence).containsExactly(1L);
+    }
+
+    @Test
+    void 롱_폴링은_시간이_지나면_빈_결과를_돌려준다() throws Exception {
+        // when
+        PointChangeBatch batch = feed.poll(1, 10, 50).get(2, TimeUnit.SECONDS);
+
+        // then
+        assertThat(batch.changes()).isEmpty();
+        assertThat(batch.next()).isEqualTo(1L);
+    }
+
+    @Test
+    void 동시에_저장되어도_소비자는_모든_변경을_순번_순서대로_한_번씩_받는다() throws Exception {
+        // given
+        feed = new PointChangeFeed(pointService, new TableHistoryStore(pointHistoryTable), wakeUpExecutor, 1024, 1 << 16);
+        int threadCount = 8;
+        int chargesPerThread = 1_000;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch endLatch = new CountDownLatch(threadCount);
+        for (int t = 0; t < threadCount; t++) {
+            long userId = t;
+            executorService.submit(() -> {
+                try {
+                    for (int i = 0; i < chargesPerThread; i++) {
+                        pointService.chargePoint(userId, 1);
+                    }
+                } finally {
+                    endLatch.countDown();
+                }
+            });
+        }
+
+        // when: 저장과 동시에 롱 폴링으로 끝까지 읽는다
+        int total = threadCount * chargesPerThread;
+        Set<Long> historyIds = new HashSet<>();
+        long expected = 1;
+        long next = 1;
+        while (historyIds.size() < total) {
+            PointChangeBatch batch = feed.poll(next, PointChangeFeed.MAX_LIMIT, 1_000).get(5, TimeUnit.SECONDS);
+            for (PointChange change : batch.changes()) {
+                assertThat(change.sequence()).isEqualTo(expected++);
+                assertThat(historyIds.add(change.history().id())).isTrue();
+            }
+            next = batch.next();
+        }
+        endLatch.await(10, TimeUnit.SECONDS);
+        executorService.shutdown();
+
+        // then
+        assertThat(feed.head()).isEqualTo(total);
+        List<Long> allIds = LongStream.range(0, threadCount)
+                .boxed()
+                .flatMap(userId -> pointHistoryTable.selectAllByUserId(userId).stream())
+                .map(PointHistory::id)
+                .toList();
+        assertThat(historyIds).containsExactlyInAnyOrderElementsOf(allIds);
+    }
+}
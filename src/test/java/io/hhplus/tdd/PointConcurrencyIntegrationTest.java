@@ -19,7 +19,8 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.*;
 
-@SpringBootTest
+// 테이블 빈에 잔액을 직접 넣어 두고 확인하므로 table 저장소로 띄운다
+@SpringBootTest(properties = "point.storage.type=table")
 @ActiveProfiles("test")
 class PointConcurrencyIntegrationTest {
 
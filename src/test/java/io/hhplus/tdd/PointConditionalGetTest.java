@@ -0,0 +1,219 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.limit.PointRateLimiter;
+import io.hhplus.tdd.point.HistoryUserFilter;
+import io.hhplus.tdd.point.PointEtags;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointLotLedger;
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserLockManager;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.storage.HistoryStore;
+import io.hhplus.tdd.storage.MemoryBalanceStore;
+import io.hhplus.tdd.storage.MemoryHistoryStore;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PointConditionalGetTest {
+
+    @Test
+    void 내역을_조회한_뒤에는_저장되는_내역마다_마지막_내역_id_가_올라간다() {
+        // given
+        PointService pointService = pointService(new MemoryHistoryStore());
+        pointService.chargePoint(1L, 1_000L);
+        assertThat(pointService.lastHistoryId(1L)).isEqualTo(OptionalLong.empty());
+
+        // when
+        List<PointHistory> histories = pointService.getHistories(1L);
+        pointService.usePoint(1L, 300L);
+
+        // then
+        assertThat(histories).hasSize(1);
+        assertThat(pointService.lastHistoryId(1L)).isEqualTo(OptionalLong.of(histories.get(0).id() + 1));
+        assertThat(pointService.lastHistoryId(1L).getAsLong())
+                .isEqualTo(pointService.getHistories(1L).get(1).id());
+    }
+
+    @Test
+    void 내역을_읽는_중에_저장된_내역도_마지막_내역_id_에_남는다() {
+        // given: 읽은 목록을 돌려주기 직전에 같은 유저의 내역이 하나 더 저장된다
+        InterleavingHistoryStore historyStore = new InterleavingHistoryStore();
+        PointService pointService = pointService(historyStore);
+        pointService.chargePoint(1L, 1_000L);
+        historyStore.beforeReturn = () -> pointService.chargePoint(1L, 500L);
+
+        // when
+        List<PointHistory> stale = pointService.getHistories(1L);
+
+        // then: 돌려준 목록보다 새 내역이 있으므로 그 목록의 ETag 로는 304 가 나가지 않는다
+        assertThat(stale).hasSize(1);
+        assertThat(pointService.lastHistoryId(1L).getAsLong()).isGreaterThan(stale.get(0).id());
+    }
+
+    @Test
+    void 내역_유저_필터를_쓰지_않으면_마지막_내역_id_를_기억하지_않는다() {
+        // given: 다른 노드도 같은 저장소에 쓰는 경우 (jdbc)
+        PointService pointService = new PointService(new MemoryBalanceStore(), new MemoryHistoryStore(),
+                new UserLockManager(), PointRateLimiter.unlimited(), PointLotLedger.withDefaults());
+        pointService.chargePoint(1L, 1_000L);
+
+        // when
+        pointService.getHistories(1L);
+
+        // then
+        assertThat(pointService.lastHistoryId(1L)).isEqualTo(OptionalLong.empty());
+    }
+
+    @Test
+    void 내역_id_가_순서대로_늘지_않는_저장소는_사이에_끼어든_내역으로도_ETag_가_바뀐다() {
+        // given: 노드 B 가 id 1001 을 쓴 뒤 노드 A 가 자기 구간의 id 5 를 쓴다 (jdbc hi-lo)
+        PointService pointService = new PointService(new MemoryBalanceStore(), new MemoryHistoryStore(),
+                new UserLockManager(), PointRateLimiter.unlimited(), PointLotLedger.withDefaults());
+        PointHistory fromB = new PointHistory(1001L, 1L, 100L, TransactionType.CHARGE, 1L);
+        PointHistory fromA = new PointHistory(5L, 1L, 50L, TransactionType.USE, 2L);
+
+        // when
+        String before = PointEtags.histories(List.of(fromB));
+        String after = PointEtags.histories(List.of(fromA, fromB));
+
+        // then: 마지막 id 는 그대로지만 태그는 바뀐다
+        assertThat(pointService.historyIdsIncrease()).isFalse();
+        assertThat(after).isNotEqualTo(before);
+        assertThat(PointEtags.histories(List.of(fromA, fromB))).isEqualTo(after);
+    }
+
+    @Test
+    void If_None_Match_는_나열된_태그_중_하나만_맞아도_맞는다() {
+        // given
+        String etag = PointEtags.histories(42L);
+
+        // when & then
+        assertThat(PointEtags.matches(etag, etag)).isTrue();
+        assertThat(PointEtags.matches("\"x\", W/" + etag, etag)).isTrue();
+        assertThat(PointEtags.matches("*", etag)).isTrue();
+        assertThat(PointEtags.matches(PointEtags.histories(41L), etag)).isFalse();
+        assertThat(PointEtags.matches(null, etag)).isFalse();
+        assertThat(PointEtags.balance(new UserPoint(1L, 10L, 5L)))
+                .isNotEqualTo(PointEtags.balance(new UserPoint(1L, 11L, 5L)));
+    }
+
+    @Tag("benchmark")
+    @Test
+    void 폴링_부하에서_조건부_조회는_바뀐_유저만_다시_보낸다() {
+        // given: 유저 1만 명이 내역 20건씩 갖고, 라운드마다 1%만 바뀐다. 모든 유저가 라운드마다 잔액과 내역을 조회한다.
+        int users = 10_000;
+        int rounds = 30;
+        CountingHistoryStore historyStore = new CountingHistoryStore();
+        PointService pointService = pointService(historyStore);
+        for (long userId = 1; userId <= users; userId++) {
+            for (int i = 0; i < 20; i++) {
+                pointService.chargePoint(userId, 10L);
+            }
+        }
+        SplittableRandom random = new SplittableRandom(7);
+        String[] balanceTags = new String[users + 1];
+        String[] historyTags = new String[users + 1];
+
+        // when
+        long plainBytes = 0, conditionalBytes = 0, notModified = 0;
+        for (int round = 0; round < rounds; round++) {
+            for (int i = 0; i < users / 100; i++) {
+                pointService.chargePoint(1 + random.nextInt(users), 10L);
+            }
+
+            for (long userId = 1; userId <= users; userId++) {
+                plainBytes += json(pointService.getPoint(userId)).length();
+                plainBytes += json(pointService.getHistories(userId)).length();
+            }
+
+            int readsBefore = historyStore.reads.get();
+            for (int userId = 1; userId <= users; userId++) {
+                UserPoint userPoint = pointService.getPoint(userId);
+                String balanceTag = PointEtags.balance(userPoint);
+                if (PointEtags.matches(balanceTags[userId], balanceTag)) {
+                    notModified++;
+                } else {
+                    conditionalBytes += json(userPoint).length();
+                    balanceTags[userId] = balanceTag;
+                }
+
+                OptionalLong lastHistoryId = pointService.lastHistoryId(userId);
+                if (lastHistoryId.isPresent() && PointEtags.matches(historyTags[userId], PointEtags.histories(lastHistoryId.getAsLong()))) {
+                    notModified++;
+                } else {
+                    List<PointHistory> histories = pointService.getHistories(userId);
+                    conditionalBytes += json(histories).length();
+                    historyTags[userId] = PointEtags.histories(histories.get(histories.size() - 1).id());
+                }
+            }
+            if (round == rounds - 1) {
+                // then: 마지막 라운드에서 내역을 다시 읽은 유저는 바뀐 유저뿐이다
+                assertThat(historyStore.reads.get() - readsBefore).isLessThanOrEqualTo(users / 100);
+            }
+        }
+
+        // then
+        assertThat(conditionalBytes).isLessThan(plainBytes / 10);
+        assertThat(notModified).isGreaterThan(2L * users * rounds * 9 / 10);
+    }
+
+    private static PointService pointService(HistoryStore historyStore) {
+        return new PointService(new MemoryBalanceStore(), historyStore, new UserLockManager(),
+                PointRateLimiter.unlimited(), PointLotLedger.withDefaults(), new HistoryUserFilter(1L << 20, 1_000, 0.01));
+    }
+
+    // Jackson 기본 설정과 같은 모양의 JSON (필드는 record 선언 순서)
+    private static String json(UserPoint userPoint) {
+        return "{\"id\":" + userPoint.id() + ",\"point\":" + userPoint.point() + ",\"updateMillis\":" + userPoint.updateMillis() + "}";
+    }
+
+    private static String json(List<PointHistory> histories) {
+        StringBuilder json = new StringBuilder("[");
+        for (PointHistory history : histories) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(history.id())
+                    .append(",\"userId\":").append(history.userId())
+                    .append(",\"amount\":").append(history.amount())
+                    .append(",\"type\":\"").append(history.type())
+                    .append("\",\"updateMillis\":").append(history.updateMillis()).append('}');
+        }
+        return json.append(']').toString();
+    }
+
+    static class CountingHistoryStore extends MemoryHistoryStore {
+
+        private final AtomicInteger reads = new AtomicInteger();
+
+        @Override
+        public List<PointHistory> selectAllByUserId(long userId) {
+            reads.incrementAndGet();
+            return super.selectAllByUserId(userId);
+        }
+    }
+
+    static class InterleavingHistoryStore extends MemoryHistoryStore {
+
+        private Runnable beforeReturn;
+
+        @Override
+        public List<PointHistory> selectAllByUserId(long userId) {
+            List<PointHistory> histories = super.selectAllByUserId(userId);
+            Runnable action = beforeReturn;
+            beforeReturn = null;
+            if (action != null) {
+                action.run();
+            }
+            return histories;
+        }
+    }
+}
@@ -3,21 +3,35 @@ package io.hhplus.tdd;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.hhplus.tdd.database.UserPointTable;
 import io.hhplus.tdd.point.ChargeRequest;
+import io.hhplus.tdd.point.Deadline;
+import io.hhplus.tdd.point.DeadlineExceededException;
+import io.hhplus.tdd.point.PointBinaryCodec;
+import io.hhplus.tdd.point.PointEtags;
+import io.hhplus.tdd.point.PointHistory;
 import io.hhplus.tdd.point.PointController;
 import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.TransactionType;
 import io.hhplus.tdd.point.UserPoint;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.List;
+import java.util.OptionalLong;
+
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
@@ -92,7 +106,7 @@ public class PointControllerTest {
         long amount = 5000L;
         UserPoint result = new UserPoint(userId, amount, System.currentTimeMillis());
 
-        when(pointService.chargePoint(userId, amount)).thenReturn(result);
+        when(pointService.chargePoint(eq(userId), eq(amount), any(Deadline.class))).thenReturn(result);
 
         mockMvc.perform(
                         patch("/point/{id}/charge", userId)
@@ -114,7 +128,7 @@ public class PointControllerTest {
         long userId = 2L;
 
         // PointService의 getPoint()가 현재 포인트를 반환하도록 설정
-        when(pointService.chargePoint(userId, chargeAmount))
+        when(pointService.chargePoint(eq(userId), eq(chargeAmount), any(Deadline.class)))
                 .thenThrow(new IllegalArgumentException("최대 보유 포인트를 초과할 수 없습니다."));
 
         ChargeRequest request = new ChargeRequest(chargeAmount);
@@ -135,7 +149,7 @@ public class PointControllerTest {
         long amount = 1000L;
         UserPoint result = new UserPoint(newUserId, amount, System.currentTimeMillis());
 
-        when(pointService.chargePoint(newUserId, amount)).thenReturn(result);
+        when(pointService.chargePoint(eq(newUserId), eq(amount), any(Deadline.class))).thenReturn(result);
 
         mockMvc.perform(
                         patch("/point/{id}/charge", newUserId)
@@ -147,4 +161,158 @@ public class PointControllerTest {
                 .andExpect(jsonPath("$.point", is((int) amount)))
                 .andExpect(jsonPath("$.updateMillis").isNumber());
     }
+
+    @Test
+    @DisplayName("X-Request-Timeout 이 0 이하이거나 너무 크면 400 으로 응답한다")
+    void 요청_마감_시간_범위_밖이면_400() throws Exception {
+        for (String timeout : new String[]{"0", "-5", "60001", String.valueOf(Long.MAX_VALUE)}) {
+            mockMvc.perform(
+                            patch("/point/{id}/charge", 1L)
+                                    .header("X-Request-Timeout", timeout)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(objectMapper.writeValueAsString(new ChargeRequest(1000L)))
+                    )
+                    .andExpect(status().isBadRequest());
+        }
+        verify(pointService, never()).chargePoint(anyLong(), anyLong(), any(Deadline.class));
+    }
+
+    @Test
+    @DisplayName("마감 시각 안에 유저 락을 얻지 못하면 503 으로 응답한다")
+    void 충전_마감_시각_초과시_503() throws Exception {
+        long userId = 7L;
+        long amount = 1000L;
+
+        when(pointService.chargePoint(eq(userId), eq(amount), any(Deadline.class)))
+                .thenThrow(new DeadlineExceededException("요청이 많아 처리하지 못했습니다. 잠시 후 다시 시도해주세요."));
+
+        mockMvc.perform(
+                        patch("/point/{id}/charge", userId)
+                                .header("X-Request-Timeout", 100)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(new ChargeRequest(amount)))
+                )
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.code").value("503"));
+    }
+
+    @Test
+    @DisplayName("잔액 ETag 가 If-None-Match 와 같으면 본문 없이 304 로 응답한다")
+    void 잔액_조건부_조회() throws Exception {
+        // given
+        long userId = 8L;
+        UserPoint userPoint = new UserPoint(userId, 1000L, 1_700_000_000_000L);
+        when(pointService.getPoint(userId)).thenReturn(userPoint);
+        String etag = PointEtags.balance(userPoint);
+
+        // when & then
+        mockMvc.perform(get("/point/{id}", userId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+        mockMvc.perform(get("/point/{id}", userId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/point/{id}", userId).header(HttpHeaders.IF_NONE_MATCH, PointEtags.balance(new UserPoint(userId, 900L, 1_699_999_999_000L))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.point").value(1000));
+    }
+
+    @Test
+    @DisplayName("마지막 내역 id 를 알고 If-None-Match 가 같으면 내역을 읽지 않고 304 로 응답한다")
+    void 내역_조건부_조회() throws Exception {
+        // given
+        long userId = 9L;
+        when(pointService.lastHistoryId(userId)).thenReturn(OptionalLong.of(42L));
+
+        // when & then
+        mockMvc.perform(get("/point/{id}/histories", userId).header(HttpHeaders.IF_NONE_MATCH, PointEtags.histories(42L)))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, PointEtags.histories(42L)));
+        verify(pointService, never()).getHistories(userId);
+    }
+
+    @Test
+    @DisplayName("내역이 바뀌었으면 새 목록과 마지막 내역 id 의 ETag 로 응답한다")
+    void 내역_변경_후_조건부_조회() throws Exception {
+        // given
+        long userId = 10L;
+        when(pointService.historyIdsIncrease()).thenReturn(true);
+        when(pointService.lastHistoryId(userId)).thenReturn(OptionalLong.of(43L));
+        when(pointService.getHistories(userId)).thenReturn(List.of(
+                new PointHistory(42L, userId, 1000L, TransactionType.CHARGE, 1L),
+                new PointHistory(43L, userId, 300L, TransactionType.USE, 2L)));
+
+        // when & then
+        mockMvc.perform(get("/point/{id}/histories", userId).header(HttpHeaders.IF_NONE_MATCH, PointEtags.histories(42L)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, PointEtags.histories(43L)))
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    @DisplayName("내역 id 가 순서대로 늘지 않는 저장소면 목록 자체로 만든 ETag 로 응답한다")
+    void 내역_id_순서를_믿을_수_없을_때_조건부_조회() throws Exception {
+        // given: 다른 노드가 앞 구간의 id 5 를 나중에 썼다
+        long userId = 13L;
+        List<PointHistory> histories = List.of(
+                new PointHistory(5L, userId, 300L, TransactionType.USE, 2L),
+                new PointHistory(1001L, userId, 1000L, TransactionType.CHARGE, 1L));
+        when(pointService.historyIdsIncrease()).thenReturn(false);
+        when(pointService.lastHistoryId(userId)).thenReturn(OptionalLong.empty());
+        when(pointService.getHistories(userId)).thenReturn(histories);
+
+        // when & then
+        mockMvc.perform(get("/point/{id}/histories", userId).header(HttpHeaders.IF_NONE_MATCH, PointEtags.histories(1001L)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, PointEtags.histories(histories)));
+        mockMvc.perform(get("/point/{id}/histories", userId).header(HttpHeaders.IF_NONE_MATCH, PointEtags.histories(histories)))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @DisplayName("Accept 로 바이너리를 고르면 잔액과 내역을 바이너리로 응답하고 ETag 도 JSON 과 다르다")
+    void 바이너리_조회() throws Exception {
+        // given
+        long userId = 11L;
+        UserPoint userPoint = new UserPoint(userId, 1000L, 1_700_000_000_000L);
+        List<PointHistory> histories = List.of(new PointHistory(1L, userId, 1000L, TransactionType.CHARGE, 1L));
+        when(pointService.getPoint(userId)).thenReturn(userPoint);
+        when(pointService.getHistories(userId)).thenReturn(histories);
+
+        // when & then
+        byte[] body = mockMvc.perform(get("/point/{id}", userId).accept(PointBinaryCodec.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(PointBinaryCodec.MEDIA_TYPE))
+                .andExpect(header().string(HttpHeaders.ETAG, PointEtags.representedAs(PointEtags.balance(userPoint), PointBinaryCodec.MEDIA_TYPE)))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(PointBinaryCodec.decodeUserPoint(body)).isEqualTo(userPoint);
+
+        body = mockMvc.perform(get("/point/{id}/histories", userId).header(HttpHeaders.ACCEPT, PointBinaryCodec.MEDIA_TYPE + ", application/json;q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(PointBinaryCodec.MEDIA_TYPE))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(PointBinaryCodec.decodeHistories(body)).isEqualTo(histories);
+
+        mockMvc.perform(get("/point/{id}", userId).header(HttpHeaders.IF_NONE_MATCH, PointEtags.balance(userPoint))
+                        .accept(PointBinaryCodec.MEDIA_TYPE))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("바이너리 충전 요청을 읽는다")
+    void 바이너리_충전() throws Exception {
+        // given
+        long userId = 12L;
+        long amount = 500L;
+        when(pointService.chargePoint(eq(userId), eq(amount), any(Deadline.class)))
+                .thenReturn(new UserPoint(userId, amount, System.currentTimeMillis()));
+
+        // when & then
+        mockMvc.perform(patch("/point/{id}/charge", userId)
+                        .contentType(PointBinaryCodec.MEDIA_TYPE)
+                        .content(PointBinaryCodec.encode(new ChargeRequest(amount))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.point").value(amount));
+    }
 }
@@ -0,0 +1,112 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.Deadline;
+import io.hhplus.tdd.point.DeadlineExceededException;
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.UserPoint;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * 마감 시각 기반 락 획득 테스트
+ * 한 유저에게 요청이 몰려도 각 요청의 응답 시간이 마감 시각 근처에서 끊기는지 검증
+ */
+class PointDeadlineTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PointDeadlineTest.class);
+
+    @Test
+    void 이미_마감된_요청은_테이블에_접근하지_않는다() {
+        // given
+        UserPointTable userPointTable = mock(UserPointTable.class);
+        PointHistoryTable pointHistoryTable = mock(PointHistoryTable.class);
+        PointService pointService = new PointService(userPointTable, pointHistoryTable);
+        Deadline expired = Deadline.afterMillis(0);
+
+        // when & then
+        assertThrows(DeadlineExceededException.class, () -> pointService.chargePoint(1L, 1000L, expired));
+        assertThrows(DeadlineExceededException.class, () -> pointService.usePoint(1L, 1000L, expired));
+        verifyNoInteractions(userPointTable, pointHistoryTable);
+    }
+
+    @Test
+    void 아주_긴_대기_시간은_넘치지_않고_음수는_이미_지난_마감이다() {
+        // when
+        Deadline huge = Deadline.afterMillis(Long.MAX_VALUE);
+        Deadline nearOverflow = Deadline.afterMillis(Long.MAX_VALUE / 1_000_000 - 1);
+        Deadline negative = Deadline.afterMillis(-1);
+
+        // then
+        assertThat(huge.isExpired()).isFalse();
+        assertThat(huge.remaining(TimeUnit.DAYS)).isGreaterThan(365L * 100);
+        assertThat(nearOverflow.isExpired()).isFalse();
+        assertThat(negative.isExpired()).isTrue();
+    }
+
+    @Test
+    void 핫유저_요청_폭주시_응답시간이_마감시각으로_제한된다() throws InterruptedException {
+        // given
+        UserPointTable userPointTable = new UserPointTable();
+        PointService pointService = new PointService(userPointTable, new PointHistoryTable());
+        long userId = 1L;
+        long chargeAmount = 100L;
+        long timeoutMillis = 300L;
+        int threadCount = 50;
+
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        CountDownLatch endLatch = new CountDownLatch(threadCount);
+        AtomicInteger successCount = new AtomicInteger();
+        AtomicInteger timeoutCount = new AtomicInteger();
+        AtomicLong maxLatencyMillis = new AtomicLong();
+
+        // when: 50개 요청이 한 유저에게 동시에 몰림 (순차 처리라면 마지막 요청은 수 초를 기다린다)
+        for (int i = 0; i < threadCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    startLatch.await();
+                    long start = System.nanoTime();
+                    try {
+                        pointService.chargePoint(userId, chargeAmount, Deadline.afterMillis(timeoutMillis));
+                        successCount.incrementAndGet();
+                    } catch (DeadlineExceededException e) {
+                        timeoutCount.incrementAndGet();
+                    }
+                    long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    maxLatencyMillis.accumulateAndGet(elapsed, Math::max);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    endLatch.countDown();
+                }
+            });
+        }
+        startLatch.countDown();
+        endLatch.await(30, TimeUnit.SECONDS);
+        executorService.shutdown();
+
+        // then: 락 대기는 마감 시각에서 끊기고, 락을 얻은 요청만 테이블 작업(최대 ~800ms)을 마친다
+        UserPoint finalPoint = userPointTable.selectById(userId);
+        log.info("성공: {}, 마감 초과: {}, 최대 응답시간: {}ms", successCount.get(), timeoutCount.get(), maxLatencyMillis.get());
+
+        assertThat(successCount.get() + timeoutCount.get()).isEqualTo(threadCount);
+        assertThat(timeoutCount.get()).isPositive();
+        assertThat(maxLatencyMillis.get()).isLessThan(timeoutMillis + 1_000L);
+        assertThat(finalPoint.point()).isEqualTo(successCount.get() * chargeAmount);
+    }
+}
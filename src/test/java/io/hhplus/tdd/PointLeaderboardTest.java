@@ -0,0 +1,180 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.limit.PointRateLimiter;
+import io.hhplus.tdd.point.*;
+import io.hhplus.tdd.storage.MemoryBalanceStore;
+import io.hhplus.tdd.storage.MemoryHistoryStore;
+import io.hhplus.tdd.storage.TableBalanceStore;
+import io.hhplus.tdd.storage.TableHistoryStore;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 잔액 리더보드 테스트
+ */
+class PointLeaderboardTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PointLeaderboardTest.class);
+
+    @Test
+    void 잔액_내림차순_동점이면_userId_오름차순이다() {
+        // given
+        PointService pointService = newPointService();
+        PointLeaderboard leaderboard = newLeaderboard(pointService);
+        pointService.chargePoint(1L, 100L);
+        pointService.chargePoint(2L, 300L);
+        pointService.chargePoint(3L, 300L);
+        pointService.chargePoint(4L, 50L);
+
+        // when
+        pointService.usePoint(4L, 50L); // 잔액 0 은 빠진다
+        pointService.transferPoint(2L, 1L, 250L, Deadline.none());
+
+        // then
+        assertThat(leaderboard.top(10)).containsExactly(
+                new LeaderboardEntry(1, 1L, 350L),
+                new LeaderboardEntry(2, 3L, 300L),
+                new LeaderboardEntry(3, 2L, 50L));
+        assertThat(leaderboard.top(1)).hasSize(1);
+        assertThrows(IllegalArgumentException.class, () -> leaderboard.top(0));
+        assertThrows(IllegalArgumentException.class, () -> leaderboard.top(PointLeaderboard.MAX_LIMIT + 1));
+    }
+
+    @Test
+    void 동시_갱신_후_리더보드가_전체_잔액_정렬과_같다() throws InterruptedException {
+        // given
+        InMemoryTables.InMemoryUserPointTable userPointTable = new InMemoryTables.InMemoryUserPointTable();
+        PointService pointService = new PointService(userPointTable, new InMemoryTables.InMemoryPointHistoryTable());
+        PointLeaderboard leaderboard = new PointLeaderboard(pointService, new TableBalanceStore(userPointTable),
+                new TableHistoryStore(new InMemoryTables.InMemoryPointHistoryTable()));
+        int userCount = 1_000;
+        int threadCount = 16;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch endLatch = new CountDownLatch(threadCount);
+
+        // when
+        for (int t = 0; t < threadCount; t++) {
+            executorService.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    for (int i = 0; i < 5_000; i++) {
+                        long userId = random.nextLong(1, userCount + 1);
+                        long amount = random.nextLong(1, 10_000);
+                        try {
+                            switch (random.nextInt(3)) {
+                                case 0 -> pointService.chargePoint(userId, amount);
+                                case 1 -> pointService.usePoint(userId, amount);
+                                default -> pointService.transferPoint(userId, random.nextLong(1, userCount + 1), amount, Deadline.none());
+                            }
+                        } catch (IllegalArgumentException e) {
+                            // 잔액 부족, 자기 자신에게 이체
+                        }
+                        if (i % 500 == 0) {
+                            List<LeaderboardEntry> top = leaderboard.top(PointLeaderboard.MAX_LIMIT);
+                            assertThat(top.stream().map(LeaderboardEntry::userId).distinct().count()).isEqualTo((long) top.size());
+                        }
+                    }
+                } finally {
+                    endLatch.countDown();
+                }
+            });
+        }
+        boolean finished = endLatch.await(60, TimeUnit.SECONDS);
+        executorService.shutdownNow();
+
+        // then
+        List<UserPoint> expected = LongStream.rangeClosed(1, userCount)
+                .mapToObj(userPointTable::selectById)
+                .filter(userPoint -> userPoint.point() > 0)
+                .sorted(Comparator.comparingLong(UserPoint::point).reversed().thenComparingLong(UserPoint::id))
+                .limit(PointLeaderboard.MAX_LIMIT)
+                .toList();
+        List<LeaderboardEntry> top = leaderboard.top(PointLeaderboard.MAX_LIMIT);
+
+        assertThat(finished).isTrue();
+        assertThat(top.stream().map(LeaderboardEntry::userId).toList())
+                .isEqualTo(expected.stream().map(UserPoint::id).toList());
+        assertThat(top.stream().map(LeaderboardEntry::point).toList())
+                .isEqualTo(expected.stream().map(UserPoint::point).toList());
+    }
+
+    @Test
+    void 시작할_때_저장소에_남아_있는_잔액으로_순위를_채운다() {
+        // given: 재시작 전에 쌓인 잔액과 내역
+        MemoryBalanceStore balanceStore = new MemoryBalanceStore();
+        MemoryHistoryStore historyStore = new MemoryHistoryStore();
+        for (long userId = 1; userId <= 3; userId++) {
+            historyStore.insert(userId, userId * 100, TransactionType.CHARGE, 1L);
+            balanceStore.insertOrUpdate(userId, userId * 100);
+        }
+        PointService restarted = new PointService(balanceStore, historyStore, new UserLockManager(),
+                PointRateLimiter.unlimited(), PointLotLedger.withDefaults());
+
+        // when
+        PointLeaderboard leaderboard = new PointLeaderboard(restarted, balanceStore, historyStore);
+        restarted.chargePoint(1L, 250L);
+
+        // then
+        assertThat(leaderboard.top(10)).containsExactly(
+                new LeaderboardEntry(1, 1L, 350L),
+                new LeaderboardEntry(2, 3L, 300L),
+                new LeaderboardEntry(3, 2L, 200L));
+    }
+
+    @Tag("benchmark")
+    @Test
+    void 리더보드_갱신이_충전에_더하는_비용() {
+        // given
+        int userCount = 20_000;
+        int ops = 100_000;
+        PointService withoutIndex = newPointService();
+        PointService withIndex = newPointService();
+        PointLeaderboard leaderboard = newLeaderboard(withIndex);
+
+        // 워밍업
+        charge(withoutIndex, userCount, ops);
+        charge(withIndex, userCount, ops);
+
+        // when
+        long withoutNanos = charge(withoutIndex, userCount, ops);
+        long withNanos = charge(withIndex, userCount, ops);
+
+        // then
+        long overheadPerOp = (withNanos - withoutNanos) / ops;
+        log.info("충전 {}건 - 리더보드 없음: {}ns/op, 있음: {}ns/op, 추가 비용: {}ns/op (리더보드 {}명)",
+                ops, withoutNanos / ops, withNanos / ops, overheadPerOp, leaderboard.size());
+        assertThat(leaderboard.size()).isEqualTo(userCount);
+        assertThat(overheadPerOp).isLessThan(20_000L);
+    }
+
+    private long charge(PointService pointService, int userCount, int ops) {
+        long start = System.nanoTime();
+        for (int i = 0; i < ops; i++) {
+            pointService.chargePoint(i % userCount + 1, 1L);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private PointService newPointService() {
+        return new PointService(new InMemoryTables.InMemoryUserPointTable(), new InMemoryTables.InMemoryPointHistoryTable());
+    }
+
+    private PointLeaderboard newLeaderboard(PointService pointService) {
+        return new PointLeaderboard(pointService, new TableBalanceStore(new InMemoryTables.InMemoryUserPointTable()),
+                new TableHistoryStore(new InMemoryTables.InMemoryPointHistoryTable()));
+    }
+}
@@ -0,0 +1,241 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.limit.PointRateLimiter;
+import io.hhplus.tdd.point.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 포인트 유효기간(묶음) 테스트
+ * - 충전한 포인트는 유효기간이 지나면 소멸하고, 사용은 가장 오래된 묶음부터 꺼내는지 검증
+ */
+class PointLotTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PointLotTest.class);
+
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+    private static final long LOT_TTL = 30 * DAY;
+    private static final long BUCKET = TimeUnit.MINUTES.toMillis(1);
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.DAYS.toMillis(20_000));
+    private final AtomicBoolean failBalanceWrites = new AtomicBoolean();
+
+    private InMemoryTables.InMemoryUserPointTable userPointTable;
+    private InMemoryTables.InMemoryPointHistoryTable pointHistoryTable;
+    private PointLotLedger ledger;
+    private PointService pointService;
+    private PointLotSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        userPointTable = new InMemoryTables.InMemoryUserPointTable() {
+            @Override
+            public UserPoint insertOrUpdate(long id, long amount) {
+                if (failBalanceWrites.get()) {
+                    throw new IllegalStateException("잔액 저장 실패");
+                }
+                return super.insertOrUpdate(id, amount);
+            }
+        };
+        pointHistoryTable = new InMemoryTables.InMemoryPointHistoryTable();
+        ledger = new PointLotLedger(LOT_TTL, BUCKET, now::get);
+        pointService = new PointService(userPointTable, pointHistoryTable, new UserLockManager(), PointRateLimiter.unlimited(), ledger);
+        sweeper = new PointLotSweeper(pointService, ledger, BUCKET);
+    }
+
+    @Test
+    void 유효기간이_지난_충전분만_소멸하고_EXPIRE_내역이_남는다() {
+        // given
+        pointService.chargePoint(1L, 100L);
+        now.addAndGet(DAY);
+        pointService.chargePoint(1L, 200L);
+
+        // when: 첫 충전분만 유효기간이 지났다
+        now.addAndGet(LOT_TTL - DAY);
+        sweeper.sweep();
+
+        // then
+        assertThat(pointService.getPoint(1L).point()).isEqualTo(200L);
+        PointHistory last = lastHistory(1L);
+        assertThat(last.type()).isEqualTo(TransactionType.EXPIRE);
+        assertThat(last.amount()).isEqualTo(100L);
+
+        // when: 두 번째 충전분도 지났다
+        now.addAndGet(DAY);
+        sweeper.sweep();
+
+        // then
+        assertThat(pointService.getPoint(1L).point()).isEqualTo(0L);
+        assertThat(ledger.openLots(1L)).isZero();
+    }
+
+    @Test
+    void 잔액이_만료분보다_적으면_잔액만큼만_빼고_그만큼만_내역에_남긴다() {
+        // given: 묶음은 100 인데 잔액은 30 이다 (장부를 거치지 않고 잔액이 줄었다)
+        pointService.chargePoint(1L, 100L);
+        userPointTable.insertOrUpdate(1L, 30L);
+
+        // when
+        now.addAndGet(LOT_TTL);
+        sweeper.sweep();
+
+        // then
+        assertThat(pointService.getPoint(1L).point()).isEqualTo(0L);
+        PointHistory last = lastHistory(1L);
+        assertThat(last.type()).isEqualTo(TransactionType.EXPIRE);
+        assertThat(last.amount()).isEqualTo(30L);
+        assertThat(ledger.openLots(1L)).isZero();
+    }
+
+    @Test
+    void 잔액_저장에_실패하면_장부를_그대로_두고_다음_스윕에서_다시_소멸한다() {
+        // given
+        pointService.chargePoint(1L, 100L);
+        now.addAndGet(LOT_TTL);
+
+        // when: 잔액 저장이 실패한다
+        failBalanceWrites.set(true);
+        sweeper.sweep();
+
+        // then: 잔액, 장부, 내역 모두 그대로다
+        assertThat(pointService.getPoint(1L).point()).isEqualTo(100L);
+        assertThat(ledger.lotTotal(1L)).isEqualTo(100L);
+        assertThat(lastHistory(1L).type()).isEqualTo(TransactionType.CHARGE);
+
+        // when: 저장이 되살아난 뒤 다음 스윕
+        failBalanceWrites.set(false);
+        sweeper.sweep();
+
+        // then
+        assertThat(pointService.getPoint(1L).point()).isEqualTo(0L);
+        assertThat(ledger.lotTotal(1L)).isZero();
+        assertThat(lastHistory(1L).amount()).isEqualTo(100L);
+    }
+
+    @Test
+    void 사용은_가장_오래된_묶음부터_꺼낸다() {
+        // given
+        pointService.chargePoint(1L, 100L);
+        now.addAndGet(DAY);
+        pointService.chargePoint(1L, 200L);
+
+        // when: 첫 묶음 100 전부 + 두 번째 묶음 50
+        pointService.usePoint(1L, 150L);
+        now.addAndGet(LOT_TTL - DAY);
+        sweeper.sweep();
+
+        // then: 첫 묶음 만료 시각이 지나도 소멸할 것이 없다
+        assertThat(pointService.getPoint(1L).point()).isEqualTo(150L);
+        assertThat(lastHistory(1L).type()).isEqualTo(TransactionType.USE);
+
+        // when
+        now.addAndGet(DAY);
+        sweeper.sweep();
+
+        // then
+        assertThat(pointService.getPoint(1L).point()).isEqualTo(0L);
+        assertThat(lastHistory(1L).amount()).isEqualTo(150L);
+    }
+
+    @Test
+    void 묶음_밖_잔액은_먼저_쓰이고_소멸하지_않는다() {
+        // given: 묶음 도입 전부터 있던 잔액 500
+        userPointTable.insertOrUpdate(1L, 500L);
+        pointService.chargePoint(1L, 100L);
+
+        // when
+        pointService.usePoint(1L, 450L);
+        now.addAndGet(LOT_TTL);
+        sweeper.sweep();
+
+        // then: 묶음 밖 잔액 50 만 남는다
+        assertThat(pointService.getPoint(1L).point()).isEqualTo(50L);
+        assertThat(lastHistory(1L).type()).isEqualTo(TransactionType.EXPIRE);
+        assertThat(lastHistory(1L).amount()).isEqualTo(100L);
+    }
+
+    @Test
+    void 이체_받은_포인트는_보낸_유저의_만료_시각을_그대로_가진다() {
+        // given
+        pointService.chargePoint(1L, 100L);
+        now.addAndGet(10 * DAY);
+        pointService.chargePoint(2L, 100L);
+
+        // when
+        pointService.transferPoint(1L, 2L, 100L, Deadline.none());
+        now.addAndGet(LOT_TTL - 10 * DAY);
+        sweeper.sweep();
+
+        // then: 받은 100 은 보낸 유저의 충전 시각 기준으로 소멸한다
+        assertThat(pointService.getPoint(2L).point()).isEqualTo(100L);
+        assertThat(lastHistory(2L).type()).isEqualTo(TransactionType.EXPIRE);
+    }
+
+    @Test
+    void 스위퍼는_만료_시각이_된_유저만_확인한다() {
+        // given: 1만 명이 충전하고, 유효기간이 하루 남았을 때 다른 100명이 충전했다
+        for (long userId = 1; userId <= 10_000; userId++) {
+            pointService.chargePoint(userId, 10L);
+        }
+        now.addAndGet(LOT_TTL - DAY);
+        for (long userId = 10_001; userId <= 10_100; userId++) {
+            pointService.chargePoint(userId, 10L);
+        }
+        now.addAndGet(DAY);
+
+        // when: 첫 1만 명의 만료 시각이 됐다. 나중에 충전한 100명은 만료 색인의 뒤쪽 버킷에 있다
+        List<Long> due = ledger.pollDueUsers();
+
+        // then
+        assertThat(due).hasSize(10_000);
+        assertThat(due).doesNotContain(10_001L);
+        assertThat(ledger.pollDueUsers()).isEmpty();
+    }
+
+    @Tag("benchmark")
+    @Test
+    void 묶음_1만개를_가진_유저의_사용_지연_시간() {
+        // given: 1ms 간격으로 충전해 만료 시각이 모두 다른 묶음 1만 개
+        int lotCount = 10_000;
+        for (int i = 0; i < lotCount; i++) {
+            pointService.chargePoint(1L, 100L);
+            now.incrementAndGet();
+        }
+        assertThat(ledger.openLots(1L)).isEqualTo(lotCount);
+
+        // when: 묶음 일부 ~ 한 개 이상에 걸친 사용 1만 번 (끝까지 묶음 8천 개 이상이 남는다)
+        int useCount = 10_000;
+        long[] latencies = new long[useCount];
+        for (int i = 0; i < useCount; i++) {
+            long amount = 5 + (i % 6) * 5;
+            long start = System.nanoTime();
+            pointService.usePoint(1L, amount);
+            latencies[i] = System.nanoTime() - start;
+        }
+        assertThat(ledger.openLots(1L)).isGreaterThan(8_000);
+
+        // then
+        Arrays.sort(latencies);
+        long p50 = latencies[useCount / 2];
+        long p99 = latencies[useCount * 99 / 100];
+        log.info("묶음 {}개 유저 사용 지연 - p50: {}us, p99: {}us", lotCount,
+                TimeUnit.NANOSECONDS.toMicros(p50), TimeUnit.NANOSECONDS.toMicros(p99));
+        assertThat(TimeUnit.NANOSECONDS.toMicros(p50)).isLessThan(1_000L);
+    }
+
+    private PointHistory lastHistory(long userId) {
+        List<PointHistory> histories = pointHistoryTable.selectAllByUserId(userId);
+        return histories.get(histories.size() - 1);
+    }
+}
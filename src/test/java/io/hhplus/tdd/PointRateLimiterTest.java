@@ -0,0 +1,165 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.limit.PointRateLimiter;
+import io.hhplus.tdd.limit.RateLimitExceededException;
+import io.hhplus.tdd.limit.TokenBucketTable;
+import io.hhplus.tdd.point.TransactionType;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 유저별 토큰 버킷 빈도 제한 테스트
+ */
+class PointRateLimiterTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PointRateLimiterTest.class);
+
+    @Test
+    void 버킷_용량만큼만_허용하고_시간이_지나면_다시_충전된다() {
+        // given: 용량 3, 초당 2개 충전
+        AtomicLong now = new AtomicLong(1);
+        PointRateLimiter limiter = new PointRateLimiter(
+                Map.of(TransactionType.CHARGE, new TokenBucketTable(3, 2, 60_000)), now::get);
+        long userId = 1L;
+
+        // when & then
+        for (int i = 0; i < 3; i++) {
+            limiter.check(userId, TransactionType.CHARGE);
+        }
+        assertThrows(RateLimitExceededException.class, () -> limiter.check(userId, TransactionType.CHARGE));
+
+        now.addAndGet(500); // 0.5초 -> 토큰 1개
+        limiter.check(userId, TransactionType.CHARGE);
+        assertThrows(RateLimitExceededException.class, () -> limiter.check(userId, TransactionType.CHARGE));
+    }
+
+    @Test
+    void 유저와_트랜잭션_종류별로_버킷이_분리된다() {
+        AtomicLong now = new AtomicLong(1);
+        PointRateLimiter limiter = new PointRateLimiter(Map.of(
+                TransactionType.CHARGE, new TokenBucketTable(1, 1, 60_000),
+                TransactionType.USE, new TokenBucketTable(1, 1, 60_000)), now::get);
+
+        limiter.check(1L, TransactionType.CHARGE);
+        limiter.check(1L, TransactionType.USE);
+        limiter.check(2L, TransactionType.CHARGE);
+
+        assertThrows(RateLimitExceededException.class, () -> limiter.check(1L, TransactionType.CHARGE));
+        assertThrows(RateLimitExceededException.class, () -> limiter.check(1L, TransactionType.USE));
+    }
+
+    @Test
+    void 오래_쓰이지_않은_버킷은_테이블이_커질_때_정리된다() {
+        TokenBucketTable table = new TokenBucketTable(5, 5, 1_000);
+
+        // 10만 명이 한 번씩 요청한 뒤
+        for (long userId = 0; userId < 100_000; userId++) {
+            table.tryAcquire(userId, 1);
+        }
+        int before = table.size();
+
+        // 충분히 시간이 지나 다른 유저들이 들어오면 기존 버킷은 옮겨지지 않는다
+        for (long userId = 100_000; userId < 200_000; userId++) {
+            table.tryAcquire(userId, 10_000);
+        }
+
+        log.info("정리 전 버킷 수: {}, 정리 후 버킷 수: {}", before, table.size());
+        assertThat(before).isEqualTo(100_000);
+        assertThat(table.size()).isLessThan(200_000);
+    }
+
+    @Test
+    void 동시_요청에도_버킷_용량보다_많이_허용하지_않는다() throws InterruptedException {
+        TokenBucketTable table = new TokenBucketTable(100, 1, 60_000);
+        int threadCount = 32;
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch startLatch = new CountDownLatch(1);
+        CountDownLatch endLatch = new CountDownLatch(threadCount);
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+
+        for (int i = 0; i < threadCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    startLatch.await();
+                    for (int j = 0; j < 100; j++) {
+                        if (table.tryAcquire(7L, 1)) {
+                            allowed.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    endLatch.countDown();
+                }
+            });
+        }
+        startLatch.countDown();
+        endLatch.await(10, TimeUnit.SECONDS);
+        executorService.shutdown();
+
+        assertThat(allowed.get()).isEqualTo(100);
+    }
+
+    @Tag("benchmark")
+    @Test
+    void 빈도_제한_확인은_64스레드에서_1마이크로초_미만이다() throws InterruptedException {
+        // given: 1만 명의 유저, 충분히 큰 버킷 (항상 허용되는 경로 = 가장 흔한 경로)
+        PointRateLimiter limiter = new PointRateLimiter(
+                Map.of(TransactionType.CHARGE, new TokenBucketTable(10_000, 10_000, 60_000)),
+                () -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime()) + 1);
+        int threadCount = 64;
+        int opsPerThread = 200_000;
+        int users = 10_000;
+
+        // 워밍업
+        for (int i = 0; i < 1_000_000; i++) {
+            limiter.check(i % users, TransactionType.CHARGE);
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        CountDownLatch endLatch = new CountDownLatch(threadCount);
+        for (int t = 0; t < threadCount; t++) {
+            int offset = t * 7919;
+            executorService.submit(() -> {
+                try {
+                    startLatch.await();
+                    for (int i = 0; i < opsPerThread; i++) {
+                        limiter.check((offset + i) % users, TransactionType.CHARGE);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    endLatch.countDown();
+                }
+            });
+        }
+
+        // when
+        long start = System.nanoTime();
+        startLatch.countDown();
+        endLatch.await(60, TimeUnit.SECONDS);
+        long elapsed = System.nanoTime() - start;
+        executorService.shutdown();
+
+        // then: 코어 수보다 스레드가 많으면 스레드는 번갈아 실행되므로, 실제로 동시에 돈 코어 수 기준으로 1회 비용을 계산한다
+        int parallelism = Math.min(threadCount, Runtime.getRuntime().availableProcessors());
+        double nanosPerCheck = (double) elapsed * parallelism / ((long) threadCount * opsPerThread);
+        log.info("64스레드 빈도 제한 확인: 총 {}ms, 1회당 {}ns (코어 {}개 기준)",
+                TimeUnit.NANOSECONDS.toMillis(elapsed), String.format("%.1f", nanosPerCheck), parallelism);
+        assertThat(nanosPerCheck).isLessThan(1_000.0);
+    }
+}
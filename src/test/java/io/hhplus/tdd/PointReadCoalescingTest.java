@@ -0,0 +1,96 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.UserPoint;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 잔액 조회 single-flight 테스트
+ * 같은 유저를 동시에 조회하면 테이블 호출 하나를 공유하는지 검증
+ */
+class PointReadCoalescingTest {
+
+    /**
+     * 조회 호출 수를 세고 항상 일정 시간 걸리는 테이블
+     */
+    static class CountingUserPointTable extends UserPointTable {
+        final AtomicInteger selectCount = new AtomicInteger();
+
+        @Override
+        public UserPoint selectById(Long id) {
+            selectCount.incrementAndGet();
+            try {
+                TimeUnit.MILLISECONDS.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new UserPoint(id, 1000L, System.currentTimeMillis());
+        }
+    }
+
+    @Test
+    void 같은_유저_동시_조회_100건은_테이블을_한번만_호출한다() throws InterruptedException {
+        // given
+        CountingUserPointTable userPointTable = new CountingUserPointTable();
+        PointService pointService = new PointService(userPointTable, new PointHistoryTable());
+        long userId = 1L;
+        int threadCount = 100;
+
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch readyLatch = new CountDownLatch(threadCount);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        CountDownLatch endLatch = new CountDownLatch(threadCount);
+        List<UserPoint> results = new CopyOnWriteArrayList<>();
+
+        // when
+        for (int i = 0; i < threadCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    readyLatch.countDown();
+                    startLatch.await();
+                    results.add(pointService.getPoint(userId));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    endLatch.countDown();
+                }
+            });
+        }
+        readyLatch.await();
+        startLatch.countDown();
+        endLatch.await(10, TimeUnit.SECONDS);
+        executorService.shutdown();
+
+        // then
+        assertThat(userPointTable.selectCount.get()).isEqualTo(1);
+        assertThat(results).hasSize(threadCount);
+        assertThat(results.stream().map(UserPoint::point).distinct().toList()).containsExactly(1000L);
+    }
+
+    @Test
+    void 조회가_끝난_뒤의_조회는_테이블을_다시_호출한다() {
+        // given
+        CountingUserPointTable userPointTable = new CountingUserPointTable();
+        PointService pointService = new PointService(userPointTable, new PointHistoryTable());
+
+        // when
+        pointService.getPoint(1L);
+        pointService.getPoint(1L);
+        pointService.getPoint(2L);
+
+        // then
+        assertThat(userPointTable.selectCount.get()).isEqualTo(3);
+    }
+}
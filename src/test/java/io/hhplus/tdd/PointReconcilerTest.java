@@ -0,0 +1,317 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.limit.PointRateLimiter;
+import io.hhplus.tdd.point.*;
+import io.hhplus.tdd.reconciliation.BalanceMismatch;
+import io.hhplus.tdd.reconciliation.PointReconciler;
+import io.hhplus.tdd.reconciliation.ReconciliationReport;
+import io.hhplus.tdd.storage.MemoryBalanceStore;
+import io.hhplus.tdd.storage.MemoryHistoryStore;
+import io.hhplus.tdd.storage.TableBalanceStore;
+import io.hhplus.tdd.storage.TableHistoryStore;
+import io.hhplus.tdd.timer.HashedWheelTimer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 잔액 대사 테스트
+ */
+class PointReconcilerTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PointReconcilerTest.class);
+
+    private InMemoryTables.InMemoryUserPointTable userPointTable;
+    private InMemoryTables.InMemoryPointHistoryTable pointHistoryTable;
+    private HashedWheelTimer timer;
+    private PointService pointService;
+    private PointReservationService reservationService;
+    private PointReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        userPointTable = new InMemoryTables.InMemoryUserPointTable();
+        pointHistoryTable = new InMemoryTables.InMemoryPointHistoryTable();
+        timer = new HashedWheelTimer(1, TimeUnit.MILLISECONDS, 64, "test-reservation-timer");
+        timer.start();
+        UserLockManager userLockManager = new UserLockManager();
+        pointService = new PointService(userPointTable, pointHistoryTable, userLockManager, PointRateLimiter.unlimited());
+        reservationService = new PointReservationService(pointService, userLockManager, timer, Runnable::run, 60_000, 600_000);
+        reconciler = new PointReconciler(pointService, new TableBalanceStore(userPointTable),
+                new TableHistoryStore(pointHistoryTable), userLockManager,
+                reservationService, 4, 1_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reconciler.shutdown();
+        timer.stop();
+    }
+
+    @Test
+    void 동시_충전_사용_이체_예약_중에도_불일치가_없다() throws InterruptedException {
+        // given
+        int userCount = 100;
+        int threadCount = 16;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount + 1);
+        CountDownLatch endLatch = new CountDownLatch(threadCount);
+
+        // when: 변경이 진행되는 동안 대사를 반복한다
+        for (int t = 0; t < threadCount; t++) {
+            executorService.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    for (int i = 0; i < 1_000; i++) {
+                        long userId = random.nextLong(1, userCount + 1);
+                        long amount = random.nextLong(1, 1_000);
+                        try {
+                            switch (random.nextInt(4)) {
+                                case 0 -> pointService.chargePoint(userId, amount);
+                                case 1 -> pointService.usePoint(userId, amount);
+                                case 2 -> pointService.transferPoint(userId, random.nextLong(1, userCount + 1), amount, Deadline.none());
+                                default -> reservationService.hold(userId, amount, null, Deadline.none());
+                            }
+                        } catch (IllegalArgumentException e) {
+                            // 잔액 부족, 자기 자신에게 이체
+                        }
+                    }
+                } finally {
+                    endLatch.countDown();
+                }
+            });
+        }
+        int runs = 0;
+        long mismatches = 0;
+        while (endLatch.getCount() > 0) {
+            mismatches += reconciler.reconcileAll().mismatchCount();
+            runs++;
+        }
+        ReconciliationReport last = reconciler.reconcileAll();
+        executorService.shutdownNow();
+
+        // then
+        log.info("변경 중 대사 {}회, 마지막 대사 유저 {}명 / 내역 {}건", runs, last.checkedUsers(), last.historyRows());
+        assertThat(mismatches).isZero();
+        assertThat(last.isConsistent()).isTrue();
+        assertThat(last.checkedUsers()).isEqualTo(reconciler.knownUsers());
+    }
+
+    @Test
+    void 내역_없이_바뀐_잔액은_불일치로_보고한다() {
+        // given
+        pointService.chargePoint(1L, 1000L);
+        pointService.chargePoint(2L, 500L);
+        userPointTable.insertOrUpdate(2L, 700L); // 내역 없이 잔액만 바뀜
+
+        // when
+        ReconciliationReport report = reconciler.reconcileAll();
+
+        // then
+        assertThat(report.checkedUsers()).isEqualTo(2);
+        assertThat(report.mismatchCount()).isEqualTo(1L);
+        assertThat(report.mismatches()).containsExactly(new BalanceMismatch(2L, 700L, 500L, 0L));
+        assertThat(report.mismatches().get(0).difference()).isEqualTo(200L);
+    }
+
+    @Test
+    void 증분_대사는_직전_체크포인트_이후_바뀐_유저만_확인한다() {
+        // given
+        for (long userId = 1; userId <= 100; userId++) {
+            pointService.chargePoint(userId, 100L);
+        }
+        assertThat(reconciler.reconcileIncremental().checkedUsers()).isEqualTo(100);
+
+        // when
+        pointService.usePoint(7L, 10L);
+        pointService.transferPoint(8L, 9L, 10L, Deadline.none());
+        ReconciliationReport report = reconciler.reconcileIncremental();
+
+        // then
+        assertThat(report.mode()).isEqualTo(ReconciliationReport.Mode.INCREMENTAL);
+        assertThat(report.checkedUsers()).isEqualTo(3);
+        assertThat(report.isConsistent()).isTrue();
+        assertThat(reconciler.pendingUsers()).isZero();
+        assertThat(reconciler.reconcileIncremental().checkedUsers()).isZero();
+    }
+
+    @Test
+    void 내역을_한_번_훑는_전체_대사도_변경_중에_불일치가_없다() throws InterruptedException {
+        // given: 전체 내역을 훑을 수 있는 메모리 저장소
+        UserLockManager userLockManager = new UserLockManager();
+        MemoryBalanceStore balanceStore = new MemoryBalanceStore();
+        MemoryHistoryStore historyStore = new MemoryHistoryStore();
+        PointService memoryService = new PointService(balanceStore, historyStore, userLockManager,
+                PointRateLimiter.unlimited(), PointLotLedger.withDefaults());
+        PointReservationService memoryReservations = new PointReservationService(memoryService, userLockManager, timer,
+                Runnable::run, 60_000, 600_000);
+        PointReconciler scanning = new PointReconciler(memoryService, balanceStore, historyStore, userLockManager,
+                memoryReservations, 4, 1_000);
+        int userCount = 100;
+        int threadCount = 8;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch endLatch = new CountDownLatch(threadCount);
+
+        // when
+        for (int t = 0; t < threadCount; t++) {
+            executorService.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    for (int i = 0; i < 1_000; i++) {
+                        long userId = random.nextLong(1, userCount + 1);
+                        try {
+                            switch (random.nextInt(3)) {
+                                case 0 -> memoryService.chargePoint(userId, random.nextLong(1, 1_000));
+                                case 1 -> memoryService.usePoint(userId, random.nextLong(1, 1_000));
+                                default -> memoryReservations.hold(userId, random.nextLong(1, 1_000), null, Deadline.none());
+                            }
+                        } catch (IllegalArgumentException e) {
+                            // 잔액 부족
+                        }
+                    }
+                } finally {
+                    endLatch.countDown();
+                }
+            });
+        }
+        long mismatches = 0;
+        try {
+            while (endLatch.getCount() > 0) {
+                mismatches += scanning.reconcileAll().mismatchCount();
+            }
+            balanceStore.insertOrUpdate(7L, balanceStore.selectById(7L).point() + 1); // 내역 없이 잔액만 바뀜
+            ReconciliationReport last = scanning.reconcileAll();
+
+            // then
+            assertThat(mismatches).isZero();
+            assertThat(last.checkedUsers()).isEqualTo(scanning.knownUsers());
+            assertThat(last.mismatches()).extracting(BalanceMismatch::userId).containsExactly(7L);
+        } finally {
+            executorService.shutdownNow();
+            scanning.shutdown();
+        }
+    }
+
+    @Test
+    void 시작할_때_저장소에_남아_있는_유저를_대사_대상으로_채운다() {
+        // given: 재시작 전에 쌓인 잔액과 내역
+        MemoryBalanceStore balanceStore = new MemoryBalanceStore();
+        MemoryHistoryStore historyStore = new MemoryHistoryStore();
+        for (long userId = 1; userId <= 10; userId++) {
+            historyStore.insert(userId, 1000L, TransactionType.CHARGE, 1L);
+            balanceStore.insertOrUpdate(userId, userId == 3L ? 900L : 1000L);
+        }
+        UserLockManager userLockManager = new UserLockManager();
+        PointService restarted = new PointService(balanceStore, historyStore, userLockManager,
+                PointRateLimiter.unlimited(), PointLotLedger.withDefaults());
+        PointReservationService restartedReservations = new PointReservationService(restarted, userLockManager, timer,
+                Runnable::run, 60_000, 600_000);
+
+        // when
+        PointReconciler seeded = new PointReconciler(restarted, balanceStore, historyStore, userLockManager,
+                restartedReservations, 2, 1_000);
+        try {
+            ReconciliationReport report = seeded.reconcileIncremental();
+
+            // then
+            assertThat(seeded.knownUsers()).isEqualTo(10);
+            assertThat(report.checkedUsers()).isEqualTo(10);
+            assertThat(report.mismatches()).containsExactly(new BalanceMismatch(3L, 900L, 1000L, 0L));
+            assertThat(seeded.pendingUsers()).isZero();
+            assertThat(seeded.reconcileAll().checkedUsers()).isEqualTo(10);
+        } finally {
+            seeded.shutdown();
+        }
+    }
+
+    @Tag("benchmark")
+    @Test
+    void 내역_천만건_대사_벤치마크() {
+        // given: 유저 1만 명 x 내역 1000건. 내역은 저장하지 않고 조회할 때마다 만든다
+        int userCount = 10_000;
+        int rowsPerUser = 1_000;
+        GeneratedPointHistoryTable generated = new GeneratedPointHistoryTable(rowsPerUser);
+        for (long userId = 1; userId <= userCount; userId++) {
+            userPointTable.insertOrUpdate(userId, generated.expectedBalance(userId));
+        }
+        userPointTable.insertOrUpdate(77L, generated.expectedBalance(77L) + 1); // 불일치 하나
+        List<Long> userIds = LongStream.rangeClosed(1, userCount).boxed().toList();
+
+        for (int parallelism : new int[]{1, 4}) {
+            PointReconciler benchmark = new PointReconciler(pointService, new TableBalanceStore(userPointTable),
+                    new TableHistoryStore(generated),
+                    new UserLockManager(), reservationService, parallelism, 1_000);
+            try {
+                benchmark.reconcile(userIds); // 워밍업
+
+                // when
+                ReconciliationReport report = benchmark.reconcile(userIds);
+
+                // then
+                log.info("내역 {}건 대사 (병렬도 {}, 코어 {}개): {}ms, {} rows/s", report.historyRows(), parallelism,
+                        Runtime.getRuntime().availableProcessors(), report.elapsedMillis(),
+                        report.historyRows() * 1000 / Math.max(1, report.elapsedMillis()));
+                assertThat(report.historyRows()).isEqualTo((long) userCount * rowsPerUser);
+                assertThat(report.mismatchCount()).isEqualTo(1L);
+                assertThat(report.mismatches().get(0).userId()).isEqualTo(77L);
+            } finally {
+                benchmark.shutdown();
+            }
+        }
+    }
+
+    /**
+     * 유저마다 정해진 규칙으로 내역을 만들어 돌려주는 테이블 (천만 건을 메모리에 두지 않기 위함)
+     */
+    static class GeneratedPointHistoryTable extends PointHistoryTable {
+        private final int rowsPerUser;
+
+        GeneratedPointHistoryTable(int rowsPerUser) {
+            this.rowsPerUser = rowsPerUser;
+        }
+
+        @Override
+        public List<PointHistory> selectAllByUserId(long userId) {
+            return new AbstractList<>() {
+                @Override
+                public PointHistory get(int index) {
+                    return row(userId, index);
+                }
+
+                @Override
+                public int size() {
+                    return rowsPerUser;
+                }
+            };
+        }
+
+        long expectedBalance(long userId) {
+            long sum = 0;
+            for (int i = 0; i < rowsPerUser; i++) {
+                PointHistory row = row(userId, i);
+                sum += row.type() == TransactionType.CHARGE ? row.amount() : -row.amount();
+            }
+            return sum;
+        }
+
+        private PointHistory row(long userId, int index) {
+            long amount = (userId * 31 + index * 17L) % 1_000 + 1;
+            TransactionType type = index % 3 == 2 ? TransactionType.USE : TransactionType.CHARGE;
+            return new PointHistory(userId * rowsPerUser + index, userId, amount, type, index);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.limit.PointRateLimiter;
+import io.hhplus.tdd.point.*;
+import io.hhplus.tdd.timer.HashedWheelTimer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 포인트 예약(hold / capture / release) 테스트
+ */
+class PointReservationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PointReservationTest.class);
+
+    private InMemoryTables.InMemoryUserPointTable userPointTable;
+    private InMemoryTables.InMemoryPointHistoryTable pointHistoryTable;
+    private HashedWheelTimer timer;
+    private ExecutorService expiryPool;
+    private final AtomicBoolean rejectExpiry = new AtomicBoolean();
+    private final AtomicInteger rejectedExpiries = new AtomicInteger();
+    private PointService pointService;
+    private PointReservationService reservationService;
+
+    @BeforeEach
+    void setUp() {
+        userPointTable = new InMemoryTables.InMemoryUserPointTable();
+        pointHistoryTable = new InMemoryTables.InMemoryPointHistoryTable();
+        timer = new HashedWheelTimer(1, TimeUnit.MILLISECONDS, 64, "test-reservation-timer");
+        timer.start();
+        expiryPool = Executors.newFixedThreadPool(2);
+        Executor expiryExecutor = command -> {
+            if (rejectExpiry.get()) {
+                rejectedExpiries.incrementAndGet();
+                throw new RejectedExecutionException("만료 실행기가 가득 찼습니다.");
+            }
+            expiryPool.execute(command);
+        };
+        UserLockManager userLockManager = new UserLockManager();
+        pointService = new PointService(userPointTable, pointHistoryTable, userLockManager, PointRateLimiter.unlimited());
+        reservationService = new PointReservationService(pointService, userLockManager, timer, expiryExecutor, 60_000, 600_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        timer.stop();
+        expiryPool.shutdownNow();
+    }
+
+    @Test
+    void 예약하면_사용_가능_포인트가_held_로_옮겨지고_확정하면_USE_내역이_남는다() {
+        // given
+        userPointTable.insertOrUpdate(1L, 1000L);
+
+        // when
+        PointReservation reservation = reservationService.hold(1L, 300L, null, Deadline.none());
+
+        // then
+        assertThat(reservation.status()).isEqualTo(ReservationStatus.HELD);
+        assertThat(reservationService.getReservedPoint(1L)).isEqualTo(new ReservedUserPoint(1L, 700L, 300L));
+        assertThat(pointHistoryTable.selectAllByUserId(1L)).isEmpty();
+
+        // when
+        PointReservation captured = reservationService.capture(reservation.id(), Deadline.none());
+
+        // then
+        assertThat(captured.status()).isEqualTo(ReservationStatus.CAPTURED);
+        assertThat(reservationService.getReservedPoint(1L)).isEqualTo(new ReservedUserPoint(1L, 700L, 0L));
+        assertThat(pointHistoryTable.selectAllByUserId(1L)).hasSize(1);
+        assertThat(pointHistoryTable.selectAllByUserId(1L).get(0).type()).isEqualTo(TransactionType.USE);
+        assertThat(pointHistoryTable.selectAllByUserId(1L).get(0).amount()).isEqualTo(300L);
+    }
+
+    @Test
+    void 취소하면_포인트가_돌아오고_다시_확정할_수_없다() {
+        // given
+        userPointTable.insertOrUpdate(1L, 1000L);
+        PointReservation reservation = reservationService.hold(1L, 300L, null, Deadline.none());
+
+        // when
+        PointReservation released = reservationService.release(reservation.id(), Deadline.none());
+
+        // then
+        assertThat(released.status()).isEqualTo(ReservationStatus.RELEASED);
+        assertThat(reservationService.getReservedPoint(1L)).isEqualTo(new ReservedUserPoint(1L, 1000L, 0L));
+        assertThrows(IllegalStateException.class, () -> reservationService.capture(reservation.id(), Deadline.none()));
+        assertThat(pointHistoryTable.selectAllByUserId(1L)).isEmpty();
+    }
+
+    @Test
+    void 유저_ID_를_함께_주면_그_유저의_예약만_확정한다() {
+        // given
+        userPointTable.insertOrUpdate(1L, 1000L);
+        PointReservation reservation = reservationService.hold(1L, 300L, null, Deadline.none());
+
+        // when
+        assertThrows(IllegalStateException.class, () -> reservationService.capture(2L, reservation.id(), Deadline.none()));
+        PointReservation captured = reservationService.capture(1L, reservation.id(), Deadline.none());
+
+        // then
+        assertThat(captured.status()).isEqualTo(ReservationStatus.CAPTURED);
+        assertThat(reservationService.getReservedPoint(1L)).isEqualTo(new ReservedUserPoint(1L, 700L, 0L));
+    }
+
+    @Test
+    void 잡혀_있는_포인트는_사용할_수_없다() {
+        // given
+        userPointTable.insertOrUpdate(1L, 1000L);
+        reservationService.hold(1L, 800L, null, Deadline.none());
+
+        // when & then
+        assertThrows(IllegalArgumentException.class, () -> pointService.usePoint(1L, 300L));
+        assertThrows(IllegalArgumentException.class, () -> reservationService.hold(1L, 300L, null, Deadline.none()));
+        assertThat(reservationService.getReservedPoint(1L)).isEqualTo(new ReservedUserPoint(1L, 200L, 800L));
+    }
+
+    @Test
+    void 예약_유지_시간이_지나면_자동으로_풀린다() throws InterruptedException {
+        // given
+        userPointTable.insertOrUpdate(1L, 1000L);
+        PointReservation reservation = reservationService.hold(1L, 300L, 50L, Deadline.none());
+
+        // when
+        awaitNoHeldPoint(1L, 2_000);
+
+        // then
+        assertThat(reservationService.getReservedPoint(1L)).isEqualTo(new ReservedUserPoint(1L, 1000L, 0L));
+        assertThrows(IllegalStateException.class, () -> reservationService.capture(reservation.id(), Deadline.none()));
+    }
+
+    @Test
+    void 만료_실행기가_거절하면_타이머에_다시_등록해_나중에_만료한다() throws InterruptedException {
+        // given
+        userPointTable.insertOrUpdate(1L, 1000L);
+        rejectExpiry.set(true);
+        reservationService.hold(1L, 300L, 10L, Deadline.none());
+
+        // when: 실행기가 거절하는 동안에는 풀리지 않는다
+        TimeUnit.MILLISECONDS.sleep(200);
+        assertThat(reservationService.getHeldPoint(1L)).isEqualTo(300L);
+        rejectExpiry.set(false);
+        awaitNoHeldPoint(1L, 2_000);
+
+        // then
+        assertThat(rejectedExpiries.get()).isGreaterThan(1);
+        assertThat(reservationService.getReservedPoint(1L)).isEqualTo(new ReservedUserPoint(1L, 1000L, 0L));
+        assertThat(timer.pendingTimeouts()).isZero();
+    }
+
+    @Test
+    void 잘못된_예약_요청은_거절된다() {
+        userPointTable.insertOrUpdate(1L, 1000L);
+
+        assertThrows(IllegalArgumentException.class, () -> reservationService.hold(1L, 0L, null, Deadline.none()));
+        assertThrows(IllegalArgumentException.class, () -> reservationService.hold(1L, 100L, 0L, Deadline.none()));
+        assertThrows(IllegalArgumentException.class, () -> reservationService.hold(1L, 100L, 600_001L, Deadline.none()));
+        assertThrows(IllegalStateException.class, () -> reservationService.capture(999L, Deadline.none()));
+    }
+
+    @Test
+    void 만료와_확정이_겹쳐도_한쪽만_반영된다() throws InterruptedException {
+        // given: 유저 10명, 예약 유지 시간과 비슷한 시점에 확정을 시도한다
+        int userCount = 10;
+        long initialPoint = 100_000L;
+        for (long userId = 1; userId <= userCount; userId++) {
+            userPointTable.insertOrUpdate(userId, initialPoint);
+        }
+        int threadCount = 8;
+        int reservationsPerThread = 250;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch endLatch = new CountDownLatch(threadCount);
+        AtomicInteger capturedCount = new AtomicInteger();
+        AtomicInteger lostRaceCount = new AtomicInteger();
+        AtomicLong capturedAmount = new AtomicLong();
+
+        // when
+        for (int t = 0; t < threadCount; t++) {
+            executorService.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    for (int i = 0; i < reservationsPerThread; i++) {
+                        long userId = random.nextLong(1, userCount + 1);
+                        long amount = random.nextLong(1, 100);
+                        PointReservation reservation = reservationService.hold(userId, amount, 5L, Deadline.none());
+                        TimeUnit.MICROSECONDS.sleep(random.nextLong(0, 10_000));
+                        try {
+                            reservationService.capture(reservation.id(), Deadline.none());
+                            capturedCount.incrementAndGet();
+                            capturedAmount.addAndGet(amount);
+                        } catch (IllegalStateException e) {
+                            lostRaceCount.incrementAndGet(); // 이미 만료됨
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    endLatch.countDown();
+                }
+            });
+        }
+        boolean finished = endLatch.await(60, TimeUnit.SECONDS);
+        executorService.shutdownNow();
+        for (long userId = 1; userId <= userCount; userId++) {
+            awaitNoHeldPoint(userId, 5_000);
+        }
+
+        // then: 확정된 금액만 빠지고, 만료된 금액은 모두 돌아온다
+        long total = 0;
+        long useHistoryCount = 0;
+        for (long userId = 1; userId <= userCount; userId++) {
+            total += userPointTable.selectById(userId).point();
+            useHistoryCount += pointHistoryTable.selectAllByUserId(userId).size();
+        }
+        log.info("만료/확정 경합 - 확정: {}, 만료 후 확정 시도: {}", capturedCount.get(), lostRaceCount.get());
+
+        assertThat(finished).isTrue();
+        assertThat(capturedCount.get() + lostRaceCount.get()).isEqualTo(threadCount * reservationsPerThread);
+        assertThat(capturedCount.get()).isPositive();
+        assertThat(lostRaceCount.get()).isPositive();
+        assertThat(useHistoryCount).isEqualTo(capturedCount.get());
+        assertThat(total).isEqualTo(userCount * initialPoint - capturedAmount.get());
+        assertThat(timer.pendingTimeouts()).isZero();
+    }
+
+    private void awaitNoHeldPoint(long userId, long timeoutMillis) throws InterruptedException {
+        long until = System.currentTimeMillis() + timeoutMillis;
+        while (reservationService.getHeldPoint(userId) > 0 && System.currentTimeMillis() < until) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.limit.PointRateLimiter;
+import io.hhplus.tdd.point.*;
+import io.hhplus.tdd.storage.HistoryStore;
+import io.hhplus.tdd.storage.MemoryBalanceStore;
+import io.hhplus.tdd.storage.MemoryHistoryStore;
+import io.hhplus.tdd.storage.TableHistoryStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 포인트 내역 요약 집계 테스트
+ * - 증분 집계 결과가 내역 전체를 다시 집계한 결과와 같은지 검증
+ */
+class PointSummaryTest {
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.DAYS.toMillis(20_000));
+
+    private InMemoryTables.InMemoryPointHistoryTable pointHistoryTable;
+    private PointLotLedger ledger;
+    private PointService pointService;
+    private PointSummaryAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        pointHistoryTable = new InMemoryTables.InMemoryPointHistoryTable();
+        ledger = new PointLotLedger(TimeUnit.DAYS.toMillis(30), TimeUnit.MINUTES.toMillis(1), now::get);
+        pointService = new PointService(new InMemoryTables.InMemoryUserPointTable(), pointHistoryTable,
+                new UserLockManager(), PointRateLimiter.unlimited(), ledger);
+        aggregator = new PointSummaryAggregator(pointService, new TableHistoryStore(pointHistoryTable));
+    }
+
+    @Test
+    void 내역이_없으면_모두_0_인_요약을_돌려준다() {
+        assertThat(aggregator.getSummary(1L)).isEqualTo(PointSummary.empty(1L));
+    }
+
+    @Test
+    void 충전_사용_소멸이_요약에_반영된다() {
+        // given
+        pointService.chargePoint(1L, 1000L);
+        pointService.chargePoint(1L, 500L);
+        pointService.usePoint(1L, 300L);
+
+        // when: 남은 1200 이 소멸
+        now.addAndGet(TimeUnit.DAYS.toMillis(30));
+        new PointLotSweeper(pointService, ledger, 60_000).sweep();
+
+        // then
+        PointSummary summary = aggregator.getSummary(1L);
+        assertThat(summary.totalCharged()).isEqualTo(1500L);
+        assertThat(summary.chargeCount()).isEqualTo(2L);
+        assertThat(summary.totalUsed()).isEqualTo(300L);
+        assertThat(summary.useCount()).isEqualTo(1L);
+        assertThat(summary.totalExpired()).isEqualTo(1200L);
+        assertThat(summary.expireCount()).isEqualTo(1L);
+    }
+
+    @Test
+    void 시작할_때_저장소에_남아_있는_내역으로_요약을_채운다() {
+        // given: 재시작 전에 쌓인 내역
+        MemoryHistoryStore historyStore = new MemoryHistoryStore();
+        historyStore.insert(1L, 1000L, TransactionType.CHARGE, 1L);
+        historyStore.insert(1L, 300L, TransactionType.USE, 2L);
+        PointService restarted = new PointService(new MemoryBalanceStore(), historyStore, new UserLockManager(),
+                PointRateLimiter.unlimited(), PointLotLedger.withDefaults(), HistoryUserFilter.disabled());
+
+        // when
+        PointSummaryAggregator seeded = new PointSummaryAggregator(restarted, historyStore);
+        restarted.chargePoint(1L, 200L);
+
+        // then
+        assertThat(seeded.getSummary(1L)).isEqualTo(PointSummary.from(1L, historyStore.selectAllByUserId(1L)));
+        assertThat(seeded.getSummary(1L).totalCharged()).isEqualTo(1200L);
+    }
+
+    @Test
+    void 모든_내역을_볼_수_없는_저장소면_조회할_때마다_저장소에서_다시_집계한다() {
+        // given: 다른 노드도 쓰는 저장소 (유저 목록을 알려 주지 않는다)
+        MemoryHistoryStore shared = new MemoryHistoryStore();
+        HistoryStore historyStore = new SharedHistoryStore(shared);
+        PointService node = new PointService(new MemoryBalanceStore(), historyStore, new UserLockManager(),
+                PointRateLimiter.unlimited(), PointLotLedger.withDefaults(), HistoryUserFilter.disabled());
+        PointSummaryAggregator summaryAggregator = new PointSummaryAggregator(node, historyStore);
+
+        // when: 이 노드의 충전과 다른 노드의 사용
+        node.chargePoint(1L, 1000L);
+        shared.insert(1L, 400L, TransactionType.USE, 2L);
+
+        // then
+        PointSummary summary = summaryAggregator.getSummary(1L);
+        assertThat(summary.totalCharged()).isEqualTo(1000L);
+        assertThat(summary.totalUsed()).isEqualTo(400L);
+    }
+
+    @Test
+    void 동시_충전_사용_이체_후_요약이_내역_재집계와_같다() throws InterruptedException {
+        // given
+        int userCount = 50;
+        int threadCount = 16;
+        int opsPerThread = 2_000;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch endLatch = new CountDownLatch(threadCount);
+
+        // when
+        for (int t = 0; t < threadCount; t++) {
+            executorService.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    for (int i = 0; i < opsPerThread; i++) {
+                        long userId = random.nextLong(1, userCount + 1);
+                        long amount = random.nextLong(1, 1_000);
+                        try {
+                            switch (random.nextInt(3)) {
+                                case 0 -> pointService.chargePoint(userId, amount);
+                                case 1 -> pointService.usePoint(userId, amount);
+                                default -> {
+                                    long to = random.nextLong(1, userCount + 1);
+                                    if (to != userId) {
+                                        pointService.transferPoint(userId, to, amount, Deadline.none());
+                                    }
+                                }
+                            }
+                        } catch (IllegalArgumentException e) {
+                            // 잔액 부족 등은 내역이 남지 않는다
+                        }
+                    }
+                } finally {
+                    endLatch.countDown();
+                }
+            });
+        }
+        boolean finished = endLatch.await(60, TimeUnit.SECONDS);
+        executorService.shutdownNow();
+
+        // then
+        assertThat(finished).isTrue();
+        for (long userId = 1; userId <= userCount; userId++) {
+            List<PointHistory> histories = pointHistoryTable.selectAllByUserId(userId);
+            assertThat(aggregator.getSummary(userId)).isEqualTo(PointSummary.from(userId, histories));
+        }
+    }
+
+    /**
+     * 유저 목록을 알려 주지 않는(다른 노드도 쓰는) 내역 저장소
+     */
+    static class SharedHistoryStore implements HistoryStore {
+
+        private final MemoryHistoryStore delegate;
+
+        SharedHistoryStore(MemoryHistoryStore delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+            return delegate.insert(userId, amount, type, updateMillis);
+        }
+
+        @Override
+        public List<PointHistory> selectAllByUserId(long userId) {
+            return delegate.selectAllByUserId(userId);
+        }
+    }
+}
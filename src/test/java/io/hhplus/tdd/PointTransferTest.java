@@ -0,0 +1,154 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.point.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 포인트 이체 테스트
+ * 동시에 양방향 이체가 일어나도 교착 상태 없이 전체 잔액이 보존되는지 검증
+ */
+class PointTransferTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PointTransferTest.class);
+
+    private InMemoryTables.InMemoryUserPointTable userPointTable;
+    private InMemoryTables.InMemoryPointHistoryTable pointHistoryTable;
+    private PointService pointService;
+
+    @BeforeEach
+    void setUp() {
+        userPointTable = new InMemoryTables.InMemoryUserPointTable();
+        pointHistoryTable = new InMemoryTables.InMemoryPointHistoryTable();
+        pointService = new PointService(userPointTable, pointHistoryTable);
+    }
+
+    @Test
+    void 이체하면_보낸_유저는_USE_받은_유저는_CHARGE_내역이_남는다() {
+        // given
+        userPointTable.insertOrUpdate(1L, 1000L);
+
+        // when
+        PointTransfer transfer = pointService.transferPoint(1L, 2L, 300L, Deadline.none());
+
+        // then
+        assertThat(transfer.from().point()).isEqualTo(700L);
+        assertThat(transfer.to().point()).isEqualTo(300L);
+        assertThat(pointHistoryTable.selectAllByUserId(1L).get(0).type()).isEqualTo(TransactionType.USE);
+        assertThat(pointHistoryTable.selectAllByUserId(2L).get(0).type()).isEqualTo(TransactionType.CHARGE);
+    }
+
+    @Test
+    void 잔액이_부족하면_아무것도_바뀌지_않는다() {
+        // given
+        userPointTable.insertOrUpdate(1L, 100L);
+
+        // when & then
+        assertThrows(IllegalArgumentException.class, () -> pointService.transferPoint(1L, 2L, 300L, Deadline.none()));
+        assertThat(userPointTable.selectById(1L).point()).isEqualTo(100L);
+        assertThat(userPointTable.selectById(2L).point()).isEqualTo(0L);
+        assertThat(pointHistoryTable.selectAllByUserId(1L)).isEmpty();
+    }
+
+    @Test
+    void 양방향_동시_이체에도_교착상태가_생기지_않는다() throws InterruptedException {
+        // given
+        userPointTable.insertOrUpdate(1L, 100_000L);
+        userPointTable.insertOrUpdate(2L, 100_000L);
+        int threadCount = 16;
+        int transfersPerThread = 1_000;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch endLatch = new CountDownLatch(threadCount);
+
+        // when: 절반은 1->2, 절반은 2->1
+        for (int t = 0; t < threadCount; t++) {
+            long from = t % 2 == 0 ? 1L : 2L;
+            long to = 3L - from;
+            executorService.submit(() -> {
+                try {
+                    for (int i = 0; i < transfersPerThread; i++) {
+                        pointService.transferPoint(from, to, 1L, Deadline.none());
+                    }
+                } finally {
+                    endLatch.countDown();
+                }
+            });
+        }
+        boolean finished = endLatch.await(30, TimeUnit.SECONDS);
+        executorService.shutdownNow();
+
+        // then
+        assertThat(finished).isTrue();
+        assertThat(userPointTable.selectById(1L).point() + userPointTable.selectById(2L).point()).isEqualTo(200_000L);
+    }
+
+    @Test
+    void 천명_사이의_무작위_동시_이체에서_전체_잔액이_보존된다() throws InterruptedException {
+        // given
+        int userCount = 1_000;
+        long initialPoint = 10_000L;
+        for (long userId = 1; userId <= userCount; userId++) {
+            userPointTable.insertOrUpdate(userId, initialPoint);
+        }
+        int threadCount = 64;
+        int transfersPerThread = 1_000;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        CountDownLatch endLatch = new CountDownLatch(threadCount);
+        AtomicInteger successCount = new AtomicInteger();
+        AtomicInteger rejectedCount = new AtomicInteger();
+
+        // when
+        for (int t = 0; t < threadCount; t++) {
+            executorService.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    startLatch.await();
+                    for (int i = 0; i < transfersPerThread; i++) {
+                        long from = random.nextLong(1, userCount + 1);
+                        long to = random.nextLong(1, userCount + 1);
+                        if (from == to) {
+                            continue;
+                        }
+                        try {
+                            pointService.transferPoint(from, to, random.nextLong(1, 500), Deadline.none());
+                            successCount.incrementAndGet();
+                        } catch (IllegalArgumentException e) {
+                            rejectedCount.incrementAndGet(); // 잔액 부족
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    endLatch.countDown();
+                }
+            });
+        }
+        long start = System.nanoTime();
+        startLatch.countDown();
+        boolean finished = endLatch.await(60, TimeUnit.SECONDS);
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        executorService.shutdownNow();
+
+        // then
+        long total = 0;
+        for (long userId = 1; userId <= userCount; userId++) {
+            long point = userPointTable.selectById(userId).point();
+            assertThat(point).isGreaterThanOrEqualTo(0L);
+            total += point;
+        }
+        log.info("무작위 이체 - 성공: {}, 잔액 부족: {}, {}ms, 처리량: {} transfers/s",
+                successCount.get(), rejectedCount.get(), elapsedMillis, successCount.get() * 1000L / elapsedMillis);
+
+        assertThat(finished).isTrue();
+        assertThat(total).isEqualTo(userCount * initialPoint);
+    }
+}
@@ -0,0 +1,157 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.point.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@WebFluxTest(controllers = ReactivePointController.class, properties = {
+        "point.reactive.scheduler.thread-cap=1",
+        "point.reactive.scheduler.queued-task-cap=1"
+})
+@Import(ReactivePointConfig.class)
+class ReactivePointControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private Scheduler pointBlockingScheduler;
+
+    @MockBean
+    private PointService pointService;
+
+    @Test
+    @DisplayName("유저의 포인트를 Mono 로 조회한다")
+    void getUserPoint() {
+        long userId = 1L;
+        when(pointService.getPoint(userId)).thenReturn(new UserPoint(userId, 1000L, System.currentTimeMillis()));
+
+        webTestClient.get().uri("/point/{id}", userId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(userId)
+                .jsonPath("$.point").isEqualTo(1000);
+    }
+
+    @Test
+    @DisplayName("히스토리는 ndjson 스트림으로 요청한 만큼씩 받을 수 있다")
+    void streamHistories() {
+        long userId = 2L;
+        List<PointHistory> histories = LongStream.rangeClosed(1, 100)
+                .mapToObj(id -> new PointHistory(id, userId, 100L, TransactionType.CHARGE, System.currentTimeMillis()))
+                .toList();
+        when(pointService.getHistories(userId)).thenReturn(histories);
+
+        Flux<PointHistory> body = webTestClient.get().uri("/point/{id}/histories", userId)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(PointHistory.class)
+                .getResponseBody();
+
+        StepVerifier.create(body, 10)
+                .expectNextCount(10)
+                .thenRequest(90)
+                .expectNextCount(90)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("히스토리가 없으면 404")
+    void historiesNotFound() {
+        long userId = 3L;
+        when(pointService.getHistories(userId)).thenThrow(new IllegalArgumentException("포인트 사용/충전 내역이 없습니다."));
+
+        webTestClient.get().uri("/point/{id}/histories", userId)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("충전 마감 시각 초과시 503")
+    void chargeDeadlineExceeded() {
+        long userId = 4L;
+        when(pointService.chargePoint(eq(userId), eq(1000L), any(Deadline.class)))
+                .thenThrow(new DeadlineExceededException("요청이 많아 처리하지 못했습니다. 잠시 후 다시 시도해주세요."));
+
+        webTestClient.patch().uri("/point/{id}/charge", userId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new ChargeRequest(1000L))
+                .exchange()
+                .expectStatus().isEqualTo(503)
+                .expectBody()
+                .jsonPath("$.code").isEqualTo("503");
+    }
+
+    @Test
+    @DisplayName("포인트 충전")
+    void charge() {
+        long userId = 5L;
+        when(pointService.chargePoint(eq(userId), eq(1000L), any(Deadline.class)))
+                .thenReturn(new UserPoint(userId, 1000L, System.currentTimeMillis()));
+
+        webTestClient.patch().uri("/point/{id}/charge", userId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new ChargeRequest(1000L))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.point").isEqualTo(1000);
+    }
+
+    @Test
+    @DisplayName("블로킹 스케줄러 대기열이 가득 차면 503 과 Retry-After")
+    void schedulerSaturated() {
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            // given: 스레드 1개가 막혀 있고 대기열도 가득 찬 상태
+            saturate(pointBlockingScheduler, release);
+
+            // when & then
+            webTestClient.get().uri("/point/{id}", 6L)
+                    .exchange()
+                    .expectStatus().isEqualTo(503)
+                    .expectHeader().valueEquals("Retry-After", "1")
+                    .expectBody()
+                    .jsonPath("$.code").isEqualTo("503");
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private static void saturate(Scheduler scheduler, CountDownLatch release) {
+        for (int i = 0; i < 100; i++) {
+            try {
+                scheduler.schedule(() -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                return;
+            }
+        }
+        throw new IllegalStateException("블로킹 스케줄러가 포화되지 않았습니다.");
+    }
+}
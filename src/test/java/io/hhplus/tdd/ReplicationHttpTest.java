@@ -0,0 +1,97 @@
+package io.hhplus.tdd;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 주 노드와 팔로워 노드를 localhost 에 띄워 HTTP 로 복제한다.
+ */
+class ReplicationHttpTest {
+
+    private static ConfigurableApplicationContext primary;
+    private static ConfigurableApplicationContext follower;
+    private static String primaryUrl;
+    private static String followerUrl;
+    private static final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeAll
+    static void startNodes() throws IOException {
+        int primaryPort = freePort();
+        int followerPort = freePort();
+        primaryUrl = "http://localhost:" + primaryPort;
+        followerUrl = "http://localhost:" + followerPort;
+        primary = new SpringApplicationBuilder(TddApplication.class).run(
+                "--server.port=" + primaryPort,
+                "--spring.jmx.enabled=false",
+                "--point.replication.role=primary");
+        follower = new SpringApplicationBuilder(TddApplication.class).run(
+                "--server.port=" + followerPort,
+                "--spring.jmx.enabled=false",
+                "--point.replication.role=follower",
+                "--point.storage.type=memory",
+                "--point.replication.primary-url=" + primaryUrl,
+                "--point.replication.poll-wait-millis=1000");
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        follower.close();
+        primary.close();
+    }
+
+    @Test
+    void 쓰기_응답의_순번을_넘기면_팔로워에서_자기_변경을_읽는다() throws Exception {
+        // given
+        HttpResponse<String> charged = send(primaryUrl, "PATCH", "/point/1/charge", "{\"amount\":1000}", null);
+        String lsn = charged.headers().firstValue("X-Point-LSN").orElseThrow();
+
+        // when
+        HttpResponse<String> read = send(followerUrl, "GET", "/point/1", null, lsn);
+        HttpResponse<String> histories = send(followerUrl, "GET", "/point/1/histories", null, lsn);
+
+        // then
+        assertThat(charged.statusCode()).isEqualTo(200);
+        assertThat(read.statusCode()).isEqualTo(200);
+        assertThat(read.body()).contains("\"point\":1000");
+        assertThat(Long.parseLong(read.headers().firstValue("X-Point-LSN").orElseThrow())).isGreaterThanOrEqualTo(Long.parseLong(lsn));
+        assertThat(histories.body()).contains("\"amount\":1000");
+    }
+
+    @Test
+    void 팔로워로_보낸_쓰기는_주_노드로_보낸다() throws Exception {
+        // when
+        HttpResponse<String> response = send(followerUrl, "PATCH", "/point/2/charge", "{\"amount\":500}", null);
+
+        // then
+        assertThat(response.statusCode()).isEqualTo(307);
+        assertThat(response.headers().firstValue("Location").orElseThrow()).isEqualTo(primaryUrl + "/point/2/charge");
+    }
+
+    private static HttpResponse<String> send(String baseUrl, String method, String path, String body, String minLsn) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        if (minLsn != null) {
+            builder.header("X-Point-Min-LSN", minLsn);
+        }
+        return client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
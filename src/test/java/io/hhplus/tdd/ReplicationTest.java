@@ -0,0 +1,291 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.limit.PointRateLimiter;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointLotLedger;
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.UserLockManager;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.replication.ReplicationBatch;
+import io.hhplus.tdd.replication.ReplicationEntry;
+import io.hhplus.tdd.replication.ReplicationFollower;
+import io.hhplus.tdd.replication.ReplicationLog;
+import io.hhplus.tdd.replication.ReplicationSnapshot;
+import io.hhplus.tdd.replication.ReplicationSource;
+import io.hhplus.tdd.storage.MemoryBalanceStore;
+import io.hhplus.tdd.storage.MemoryHistoryStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 주 노드와 팔로워를 한 JVM 에 두고, 팔로워가 주 노드의 복제 로그를 직접 받아 가게 한다.
+ */
+class ReplicationTest {
+
+    private ExecutorService wakeUpExecutor;
+    private MemoryBalanceStore primaryBalances;
+    private MemoryHistoryStore primaryHistories;
+    private PointService primary;
+    private ReplicationLog replicationLog;
+    private PointService followerService;
+    private final List<ReplicationFollower> followers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        wakeUpExecutor = Executors.newFixedThreadPool(2);
+        primaryBalances = new MemoryBalanceStore();
+        primaryHistories = new MemoryHistoryStore();
+        primary = newPointService(primaryBalances, primaryHistories);
+        replicationLog = new ReplicationLog(primary, primaryHistories, wakeUpExecutor, 1 << 16);
+        followerService = newPointService(new MemoryBalanceStore(), new MemoryHistoryStore());
+    }
+
+    @AfterEach
+    void tearDown() {
+        followers.forEach(ReplicationFollower::close);
+        wakeUpExecutor.shutdownNow();
+    }
+
+    @Test
+    void 잔액과_내역에_순서대로_순번이_붙는다() {
+        // given
+        primary.chargePoint(1L, 1000L);
+        primary.usePoint(1L, 300L);
+
+        // when
+        ReplicationBatch batch = replicationLog.read(1, 10);
+
+        // then: 충전과 사용마다 잔액 1건, 내역 1건
+        assertThat(batch.entries()).extracting(ReplicationEntry::lsn).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(batch.next()).isEqualTo(5L);
+        assertThat(batch.entries().get(2).balance().point()).isEqualTo(700L);
+        assertThat(replicationLog.head()).isEqualTo(4L);
+    }
+
+    @Test
+    void 쓰기_순번까지_기다리면_팔로워에서_자기_변경을_읽는다() throws Exception {
+        // given
+        startFollower(directSource());
+
+        // when
+        primary.chargePoint(1L, 1000L);
+        long token = replicationLog.head();
+
+        // then
+        assertThat(followerFor().awaitApplied(token, 5_000)).isTrue();
+        assertThat(followerService.getPoint(1L).point()).isEqualTo(1000L);
+        assertThat(followerService.getHistories(1L)).extracting(PointHistory::amount).containsExactly(1000L);
+    }
+
+    @Test
+    void 동시에_변경해도_팔로워의_잔액과_내역이_주_노드와_같아진다() throws Exception {
+        // given
+        startFollower(directSource());
+        int users = 8;
+        int perUser = 200;
+        ExecutorService executorService = Executors.newFixedThreadPool(users);
+        CountDownLatch latch = new CountDownLatch(users);
+
+        // when
+        for (long userId = 1; userId <= users; userId++) {
+            long id = userId;
+            executorService.submit(() -> {
+                try {
+                    for (int i = 0; i < perUser; i++) {
+                        primary.chargePoint(id, 10L);
+                        if (i % 3 == 0) {
+                            primary.usePoint(id, 5L);
+                        }
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await(30, TimeUnit.SECONDS);
+        executorService.shutdown();
+
+        // then
+        assertThat(followerFor().awaitApplied(replicationLog.head(), 10_000)).isTrue();
+        for (long userId = 1; userId <= users; userId++) {
+            // 변경 시각까지 같다
+            assertThat(followerService.getPoint(userId)).isEqualTo(primary.getPoint(userId));
+            assertThat(followerService.getHistories(userId).stream().map(PointHistory::amount).toList())
+                    .isEqualTo(primary.getHistories(userId).stream().map(PointHistory::amount).toList());
+        }
+    }
+
+    @Test
+    void 주_노드에_연결하지_못하면_다시_시도해_이어_받는다() throws Exception {
+        // given
+        DirectSource source = directSource();
+        source.failures.set(3);
+        startFollower(source);
+
+        // when
+        primary.chargePoint(1L, 500L);
+
+        // then
+        assertThat(followerFor().awaitApplied(replicationLog.head(), 5_000)).isTrue();
+        assertThat(followerService.getPoint(1L).point()).isEqualTo(500L);
+    }
+
+    @Test
+    void 로그에서_밀려난_팔로워는_스냅숏으로_맞춘_뒤_이어_받는다() throws Exception {
+        // given: 로그 크기 4 에 잔액/내역 12건
+        ReplicationLog smallLog = new ReplicationLog(primary, primaryHistories, wakeUpExecutor, 4);
+        for (int i = 0; i < 3; i++) {
+            primary.chargePoint(1L, 100L);
+        }
+        assertThat(smallLog.head()).isEqualTo(6L);
+        for (int i = 0; i < 3; i++) {
+            primary.chargePoint(2L, 100L);
+        }
+        assertThatThrownBy(() -> smallLog.read(1, 10)).isInstanceOf(IllegalStateException.class);
+
+        // when
+        ReplicationFollower follower = startFollower(new DirectSource(smallLog));
+        assertThat(follower.awaitApplied(smallLog.head(), 5_000)).isTrue();
+        primary.chargePoint(1L, 50L);
+
+        // then
+        assertThat(follower.awaitApplied(smallLog.head(), 5_000)).isTrue();
+        assertThat(follower.isStale()).isFalse();
+        assertThat(followerService.getPoint(1L)).isEqualTo(primary.getPoint(1L));
+        assertThat(followerService.getPoint(2L)).isEqualTo(primary.getPoint(2L));
+        assertThat(followerService.getHistories(1L)).extracting(PointHistory::amount).containsExactly(100L, 100L, 100L, 50L);
+        assertThat(followerService.getHistories(2L)).hasSize(3);
+    }
+
+    @Test
+    void 주_노드가_다시_시작해_같은_순번에_이르러도_알아채고_다시_맞춘다() throws Exception {
+        // given: 저장소는 남은 채로 주 노드가 다시 시작한다
+        DirectSource source = directSource();
+        ReplicationFollower follower = startFollower(source);
+        for (int i = 0; i < 3; i++) {
+            primary.chargePoint(1L, 100L);
+        }
+        assertThat(follower.awaitApplied(replicationLog.head(), 5_000)).isTrue();
+        PointService restarted = newPointService(primaryBalances, primaryHistories);
+        ReplicationLog restartedLog = new ReplicationLog(restarted, primaryHistories, wakeUpExecutor, 1 << 16);
+        source.replicationLog = restartedLog;
+
+        // when: 새 순번이 팔로워가 반영한 순번을 넘는다
+        for (int i = 0; i < 4; i++) {
+            restarted.chargePoint(1L, 10L);
+        }
+
+        // then
+        assertThat(restartedLog.head()).isGreaterThan(6L);
+        assertThat(follower.awaitApplied(restartedLog.head(), 5_000)).isTrue();
+        assertThat(followerService.getPoint(1L)).isEqualTo(restarted.getPoint(1L));
+        assertThat(followerService.getHistories(1L)).extracting(PointHistory::amount)
+                .containsExactly(100L, 100L, 100L, 10L, 10L, 10L, 10L);
+    }
+
+    @Test
+    void 팔로워가_다시_시작해도_남아_있는_내역을_겹쳐_쓰지_않는다() throws Exception {
+        // given: 팔로워 저장소는 남은 채로 팔로워가 다시 시작한다
+        ReplicationFollower first = startFollower(directSource());
+        primary.chargePoint(1L, 100L);
+        primary.chargePoint(1L, 200L);
+        assertThat(first.awaitApplied(replicationLog.head(), 5_000)).isTrue();
+        first.close();
+        primary.chargePoint(1L, 300L);
+
+        // when
+        ReplicationFollower second = startFollower(directSource());
+
+        // then
+        assertThat(second.awaitApplied(replicationLog.head(), 5_000)).isTrue();
+        assertThat(followerService.getHistories(1L)).extracting(PointHistory::amount).containsExactly(100L, 200L, 300L);
+        assertThat(followerService.getPoint(1L)).isEqualTo(primary.getPoint(1L));
+    }
+
+    @Test
+    void 주_노드가_내역을_잃으면_팔로워는_stale_이_되고_기다리지_않는다() throws Exception {
+        // given
+        DirectSource source = directSource();
+        ReplicationFollower follower = startFollower(source);
+        primary.chargePoint(1L, 100L);
+        primary.chargePoint(1L, 200L);
+        assertThat(follower.awaitApplied(replicationLog.head(), 5_000)).isTrue();
+
+        // when: 빈 저장소로 다시 시작한 주 노드
+        PointService emptied = newPointService(new MemoryBalanceStore(), new MemoryHistoryStore());
+        source.replicationLog = new ReplicationLog(emptied, new MemoryHistoryStore(), wakeUpExecutor, 1 << 16);
+        emptied.chargePoint(1L, 500L);
+
+        // then
+        assertThat(follower.awaitApplied(Long.MAX_VALUE, 5_000)).isFalse();
+        assertThat(follower.isStale()).isTrue();
+        assertThat(followerService.getHistories(1L)).extracting(PointHistory::amount).containsExactly(100L, 200L);
+    }
+
+    private DirectSource directSource() {
+        return new DirectSource(replicationLog);
+    }
+
+    private ReplicationFollower startFollower(ReplicationSource source) {
+        ReplicationFollower follower = new ReplicationFollower(followerService, source, 100, 200, 10);
+        followers.add(follower);
+        follower.start();
+        return follower;
+    }
+
+    private ReplicationFollower followerFor() {
+        return followers.get(0);
+    }
+
+    private static PointService newPointService(MemoryBalanceStore balanceStore, MemoryHistoryStore historyStore) {
+        return new PointService(balanceStore, historyStore,
+                new UserLockManager(), PointRateLimiter.unlimited(), PointLotLedger.withDefaults());
+    }
+
+    /**
+     * 주 노드의 복제 로그를 직접 읽는다. 주 노드를 바꿔 끼우거나 연결 실패를 흉내 낼 수 있다.
+     */
+    static class DirectSource implements ReplicationSource {
+
+        volatile ReplicationLog replicationLog;
+        final AtomicInteger failures = new AtomicInteger();
+
+        DirectSource(ReplicationLog replicationLog) {
+            this.replicationLog = replicationLog;
+        }
+
+        @Override
+        public ReplicationBatch fetch(long from, int limit, long waitMillis) throws IOException, InterruptedException {
+            if (failures.getAndDecrement() > 0) {
+                throw new IOException("연결 실패");
+            }
+            try {
+                return replicationLog.poll(from, limit, waitMillis).get();
+            } catch (ExecutionException e) {
+                throw (RuntimeException) e.getCause();
+            }
+        }
+
+        @Override
+        public ReplicationSnapshot snapshot() throws IOException {
+            if (failures.getAndDecrement() > 0) {
+                throw new IOException("연결 실패");
+            }
+            return replicationLog.snapshot();
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.shard.ShardRouter;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 노드 세 개를 띄워 어느 노드로 요청해도 담당 노드가 처리하는지 확인한다.
+ */
+class ShardForwardingTest {
+
+    private static final int NODE_COUNT = 3;
+
+    private static final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+    private static final List<String> baseUrls = new ArrayList<>();
+    private static final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeAll
+    static void startNodes() throws IOException {
+        List<Integer> ports = new ArrayList<>();
+        for (int i = 0; i < NODE_COUNT; i++) {
+            try (ServerSocket socket = new ServerSocket(0)) {
+                ports.add(socket.getLocalPort());
+            }
+        }
+        String nodes = IntStream.range(0, NODE_COUNT)
+                .mapToObj(i -> "node-" + i + "=http://localhost:" + ports.get(i))
+                .collect(Collectors.joining(","));
+        for (int i = 0; i < NODE_COUNT; i++) {
+            baseUrls.add("http://localhost:" + ports.get(i));
+            contexts.add(new SpringApplicationBuilder(TddApplication.class).run(
+                    "--server.port=" + ports.get(i),
+                    "--spring.jmx.enabled=false",
+                    "--point.shard.enabled=true",
+                    "--point.shard.self=node-" + i,
+                    "--point.shard.nodes=" + nodes));
+        }
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        contexts.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    void 어느_노드로_충전해도_담당_노드에만_반영된다() throws Exception {
+        for (long userId = 1; userId <= 30; userId++) {
+            // given
+            String entry = baseUrls.get((int) (userId % NODE_COUNT));
+
+            // when
+            HttpResponse<String> charged = send(entry, "PATCH", "/point/" + userId + "/charge", "{\"amount\":1000}");
+            HttpResponse<String> read = send(baseUrls.get((int) ((userId + 1) % NODE_COUNT)), "GET", "/point/" + userId, null);
+
+            // then
+            assertThat(charged.statusCode()).isEqualTo(200);
+            assertThat(read.statusCode()).isEqualTo(200);
+            assertThat(read.body()).contains("\"point\":1000");
+            for (int i = 0; i < NODE_COUNT; i++) {
+                ShardRouter router = contexts.get(i).getBean(ShardRouter.class);
+                UserPoint local = contexts.get(i).getBean(PointService.class).getPoint(userId);
+                assertThat(local.point()).isEqualTo(router.isLocal(userId) ? 1000L : 0L);
+            }
+        }
+    }
+
+    @Test
+    void 다른_샤드_유저에게_이체하면_409_를_응답한다() throws Exception {
+        // given
+        ShardRouter router = contexts.get(0).getBean(ShardRouter.class);
+        long from = 1_001L;
+        long to = firstOwnedByOther(router, from);
+        send(baseUrls.get(0), "PATCH", "/point/" + from + "/charge", "{\"amount\":1000}");
+
+        // when
+        HttpResponse<String> response = send(baseUrls.get(0), "POST", "/point/transfer",
+                "{\"from\":" + from + ",\"to\":" + to + ",\"amount\":100}");
+
+        // then
+        assertThat(response.statusCode()).isEqualTo(409);
+        assertThat(response.body()).contains("\"code\":\"CROSS_SHARD_TRANSFER\"");
+        assertThat(send(baseUrls.get(1), "GET", "/point/" + from, null).body()).contains("\"point\":1000");
+    }
+
+    @Test
+    void 같은_샤드_유저끼리는_어느_노드로_요청해도_이체된다() throws Exception {
+        // given
+        ShardRouter router = contexts.get(0).getBean(ShardRouter.class);
+        long from = 2_001L;
+        long to = firstOwnedBySame(router, from);
+        send(baseUrls.get(2), "PATCH", "/point/" + from + "/charge", "{\"amount\":1000}");
+
+        // when
+        HttpResponse<String> response = send(baseUrls.get(1), "POST", "/point/transfer",
+                "{\"from\":" + from + ",\"to\":" + to + ",\"amount\":300}");
+
+        // then
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(send(baseUrls.get(0), "GET", "/point/" + from, null).body()).contains("\"point\":700");
+        assertThat(send(baseUrls.get(2), "GET", "/point/" + to, null).body()).contains("\"point\":300");
+    }
+
+    @Test
+    void 비동기_API_와_예약_API_도_담당_노드에서_처리한다() throws Exception {
+        // given
+        ShardRouter router = contexts.get(0).getBean(ShardRouter.class);
+        long userId = 3_001L;
+        while (router.isLocal(userId)) {
+            userId++;
+        }
+        send(baseUrls.get(0), "PATCH", "/async/point/" + userId + "/charge", "{\"amount\":1000}");
+
+        // when
+        HttpResponse<String> held = send(baseUrls.get(0), "POST", "/point/" + userId + "/reservations", "{\"amount\":400}");
+        String reservationId = held.body().replaceAll("^\\{\"id\":(\\d+),.*$", "$1");
+        HttpResponse<String> legacy = send(baseUrls.get(0), "POST", "/point/reservations/" + reservationId + "/capture", null);
+        HttpResponse<String> captured = send(baseUrls.get(0), "POST",
+                "/point/" + userId + "/reservations/" + reservationId + "/capture", null);
+
+        // then
+        assertThat(held.statusCode()).isEqualTo(200);
+        assertThat(legacy.statusCode()).isEqualTo(421);
+        assertThat(captured.statusCode()).isEqualTo(200);
+        assertThat(captured.body()).contains("\"status\":\"CAPTURED\"");
+        assertThat(send(baseUrls.get(0), "GET", "/async/point/" + userId, null).body()).contains("\"point\":600");
+        for (int i = 0; i < NODE_COUNT; i++) {
+            UserPoint local = contexts.get(i).getBean(PointService.class).getPoint(userId);
+            assertThat(local.point()).isEqualTo(contexts.get(i).getBean(ShardRouter.class).isLocal(userId) ? 600L : 0L);
+        }
+    }
+
+    @Test
+    void 넘겨받은_요청의_담당이_아니면_421_을_응답한다() throws Exception {
+        // given
+        ShardRouter router = contexts.get(0).getBean(ShardRouter.class);
+        long userId = 1L;
+        while (router.isLocal(userId)) {
+            userId++;
+        }
+
+        // when
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrls.get(0) + "/point/" + userId))
+                .header("X-Point-Forwarded-By", "node-1")
+                .GET()
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+        // then
+        assertThat(response.statusCode()).isEqualTo(421);
+    }
+
+    private static HttpResponse<String> send(String baseUrl, String method, String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * userId 다음부터 찾은, userId 와 담당 노드가 다른 첫 유저
+     */
+    private static long firstOwnedByOther(ShardRouter router, long userId) {
+        long candidate = userId + 1;
+        while (router.owner(candidate).equals(router.owner(userId))) {
+            candidate++;
+        }
+        return candidate;
+    }
+
+    /**
+     * userId 다음부터 찾은, userId 와 담당 노드가 같은 첫 유저
+     */
+    private static long firstOwnedBySame(ShardRouter router, long userId) {
+        long candidate = userId + 1;
+        while (!router.owner(candidate).equals(router.owner(userId))) {
+            candidate++;
+        }
+        return candidate;
+    }
+}
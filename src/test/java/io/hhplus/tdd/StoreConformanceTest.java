@@ -0,0 +1,213 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.limit.PointRateLimiter;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointLotLedger;
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserLockManager;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.storage.BalanceStore;
+import io.hhplus.tdd.storage.HistoryStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 잔액/내역 저장소 공통 테스트
+ * - 모든 저장소 구현이 같은 동작(빈 유저 조회, 덮어쓰기, 유일한 내역 id, 유저별 id 순 조회, 동시 쓰기)을 하는지 검증한다. 처리량은 benchmark 태그로 따로 잰다.
+ * - 저장소마다 이 클래스를 상속해 만드는 방법만 정한다.
+ */
+abstract class StoreConformanceTest {
+
+    private static final Logger log = LoggerFactory.getLogger(StoreConformanceTest.class);
+
+    private static final int THREAD_COUNT = 8;
+
+    protected BalanceStore balanceStore;
+    protected HistoryStore historyStore;
+
+    protected abstract BalanceStore createBalanceStore() throws Exception;
+
+    protected abstract HistoryStore createHistoryStore() throws Exception;
+
+    /**
+     * 저장소를 닫는다. 닫을 것이 없으면 그대로 둔다.
+     */
+    protected void closeStores() throws Exception {
+    }
+
+    /**
+     * 처리량 측정에 쓸 스레드당 작업 수
+     */
+    protected int benchmarkOpsPerThread() {
+        return 20_000;
+    }
+
+    @BeforeEach
+    void setUpStores() throws Exception {
+        balanceStore = createBalanceStore();
+        historyStore = createHistoryStore();
+    }
+
+    @AfterEach
+    void tearDownStores() throws Exception {
+        closeStores();
+    }
+
+    @Test
+    void 저장하지_않은_유저는_0_포인트로_조회된다() {
+        // when
+        UserPoint userPoint = balanceStore.selectById(1L);
+
+        // then
+        assertThat(userPoint.id()).isEqualTo(1L);
+        assertThat(userPoint.point()).isEqualTo(0L);
+        assertThat(historyStore.selectAllByUserId(1L)).isEmpty();
+    }
+
+    @Test
+    void 잔액을_다시_저장하면_덮어쓴다() {
+        // when
+        UserPoint first = balanceStore.insertOrUpdate(1L, 100L);
+        balanceStore.insertOrUpdate(2L, 300L);
+        UserPoint second = balanceStore.insertOrUpdate(1L, 200L);
+
+        // then
+        assertThat(first.point()).isEqualTo(100L);
+        assertThat(second.point()).isEqualTo(200L);
+        assertThat(balanceStore.selectById(1L)).isEqualTo(second);
+        assertThat(balanceStore.selectById(2L).point()).isEqualTo(300L);
+    }
+
+    @Test
+    void 내역은_유저별로_id_순서대로_조회된다() {
+        // when
+        PointHistory charge = historyStore.insert(1L, 1_000L, TransactionType.CHARGE, 10L);
+        historyStore.insert(2L, 500L, TransactionType.CHARGE, 11L);
+        PointHistory use = historyStore.insert(1L, 300L, TransactionType.USE, 12L);
+        PointHistory expire = historyStore.insert(1L, 100L, TransactionType.EXPIRE, 13L);
+
+        // then
+        assertThat(charge.id()).isLessThan(use.id());
+        assertThat(use.id()).isLessThan(expire.id());
+        assertThat(historyStore.selectAllByUserId(1L)).containsExactly(charge, use, expire);
+        assertThat(historyStore.selectAllByUserId(2L)).hasSize(1);
+        assertThat(historyStore.selectAllByUserId(3L)).isEmpty();
+    }
+
+    @Test
+    void 동시에_삽입해도_내역_id_가_겹치지_않고_사라지지_않는다() throws InterruptedException {
+        // given
+        int insertsPerThread = 2_000;
+        int userCount = 16;
+
+        // when
+        runConcurrently(THREAD_COUNT, thread -> {
+            for (int i = 0; i < insertsPerThread; i++) {
+                historyStore.insert(i % userCount, 1L, TransactionType.CHARGE, System.currentTimeMillis());
+            }
+        });
+
+        // then
+        Set<Long> ids = new HashSet<>();
+        for (long userId = 0; userId < userCount; userId++) {
+            List<PointHistory> histories = historyStore.selectAllByUserId(userId);
+            assertThat(histories).hasSize(THREAD_COUNT * insertsPerThread / userCount);
+            assertThat(histories).isSortedAccordingTo(Comparator.comparingLong(PointHistory::id));
+            histories.forEach(history -> ids.add(history.id()));
+        }
+        assertThat(ids).hasSize(THREAD_COUNT * insertsPerThread);
+    }
+
+    @Test
+    void 포인트_서비스로_동시에_충전해도_잔액과_내역이_맞는다() throws InterruptedException {
+        // given
+        PointService pointService = new PointService(balanceStore, historyStore, new UserLockManager(),
+                PointRateLimiter.unlimited(), PointLotLedger.withDefaults());
+        int chargesPerThread = 200;
+        long userId = 1L;
+
+        // when
+        runConcurrently(THREAD_COUNT, thread -> {
+            for (int i = 0; i < chargesPerThread; i++) {
+                pointService.chargePoint(userId, 10L);
+            }
+        });
+
+        // then
+        assertThat(pointService.getPoint(userId).point()).isEqualTo(10L * THREAD_COUNT * chargesPerThread);
+        assertThat(pointService.getHistories(userId)).hasSize(THREAD_COUNT * chargesPerThread);
+    }
+
+    @Tag("benchmark")
+    @Test
+    void 저장소_처리량() throws InterruptedException {
+        // given
+        int opsPerThread = benchmarkOpsPerThread();
+        int userCount = 10_000;
+
+        // when & then: 잔액 조회 80%, 잔액 저장 10%, 내역 저장 10%
+        long start = System.nanoTime();
+        runConcurrently(THREAD_COUNT, thread -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < opsPerThread; i++) {
+                long userId = random.nextLong(userCount);
+                int dice = random.nextInt(10);
+                if (dice == 0) {
+                    balanceStore.insertOrUpdate(userId, random.nextLong(100_000));
+                } else if (dice == 1) {
+                    historyStore.insert(userId, 1L, TransactionType.CHARGE, System.currentTimeMillis());
+                } else {
+                    balanceStore.selectById(userId);
+                }
+            }
+        });
+        long elapsedNanos = System.nanoTime() - start;
+        double opsPerSecond = (double) THREAD_COUNT * opsPerThread / elapsedNanos * TimeUnit.SECONDS.toNanos(1);
+        log.info("{} 스레드 {}개: {} ops/s", getClass().getSimpleName(), THREAD_COUNT, (long) opsPerSecond);
+        assertThat(opsPerSecond).isPositive();
+    }
+
+    protected static void runConcurrently(int threadCount, ThreadTask task) throws InterruptedException {
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        CountDownLatch endLatch = new CountDownLatch(threadCount);
+        for (int t = 0; t < threadCount; t++) {
+            int thread = t;
+            executorService.submit(() -> {
+                try {
+                    startLatch.await();
+                    task.run(thread);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    endLatch.countDown();
+                }
+            });
+        }
+        startLatch.countDown();
+        assertThat(endLatch.await(120, TimeUnit.SECONDS)).isTrue();
+        executorService.shutdown();
+    }
+
+    @FunctionalInterface
+    protected interface ThreadTask {
+        void run(int thread);
+    }
+}
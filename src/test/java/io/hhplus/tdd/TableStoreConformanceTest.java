@@ -0,0 +1,23 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.storage.BalanceStore;
+import io.hhplus.tdd.storage.HistoryStore;
+import io.hhplus.tdd.storage.TableBalanceStore;
+import io.hhplus.tdd.storage.TableHistoryStore;
+
+/**
+ * 테이블 저장소 어댑터 (point.storage.type=table)
+ * - 기존 테이블은 서로 다른 유저의 동시 쓰기에 안전하지 않아, 같은 API 를 가진 테스트용 메모리 테이블로 어댑터만 검증한다.
+ */
+class TableStoreConformanceTest extends StoreConformanceTest {
+
+    @Override
+    protected BalanceStore createBalanceStore() {
+        return new TableBalanceStore(new InMemoryTables.InMemoryUserPointTable());
+    }
+
+    @Override
+    protected HistoryStore createHistoryStore() {
+        return new TableHistoryStore(new InMemoryTables.InMemoryPointHistoryTable());
+    }
+}
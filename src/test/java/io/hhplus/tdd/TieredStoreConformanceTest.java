@@ -0,0 +1,267 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.storage.BalanceStore;
+import io.hhplus.tdd.storage.HistoryStore;
+import io.hhplus.tdd.storage.MemoryBalanceStore;
+import io.hhplus.tdd.storage.MemoryHistoryStore;
+import io.hhplus.tdd.storage.TieredHistoryStore;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 계층형 내역 저장소 (point.storage.type=tiered)
+ * - 공통 테스트는 1ms 마다 압축하며 돌려, 압축 중에도 삽입/조회가 맞는지 함께 검증한다.
+ * - 세그먼트로 옮긴 뒤 조회, 세그먼트 병합, 힙 사용량과 세그먼트 조회 지연을 확인한다.
+ */
+class TieredStoreConformanceTest extends StoreConformanceTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TieredStoreConformanceTest.class);
+
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private Path directory;
+    private final List<TieredHistoryStore> stores = new ArrayList<>();
+
+    @Override
+    protected BalanceStore createBalanceStore() throws IOException {
+        directory = Files.createTempDirectory("point-history-segments");
+        return new MemoryBalanceStore();
+    }
+
+    @Override
+    protected HistoryStore createHistoryStore() {
+        TieredHistoryStore store = newStore("conformance", 0, 2, 4, 1, System::currentTimeMillis);
+        store.start();
+        return store;
+    }
+
+    @Override
+    protected void closeStores() throws IOException {
+        stores.forEach(TieredHistoryStore::close);
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    void 오래된_내역을_세그먼트로_옮겨도_id_순서대로_이어서_조회된다() {
+        // given
+        AtomicLong now = new AtomicLong(100 * DAY_MILLIS);
+        TieredHistoryStore store = newStore("age", 28 * DAY_MILLIS, 1_000, 8, 0, now::get);
+        List<PointHistory> inserted = new ArrayList<>();
+        for (int day = 0; day < 100; day++) {
+            inserted.add(store.insert(1L, day * 10L - 300, day % 2 == 0 ? TransactionType.CHARGE : TransactionType.USE, day * DAY_MILLIS + day));
+            store.insert(2L, 1L, TransactionType.CHARGE, day * DAY_MILLIS);
+        }
+
+        // when
+        int moved = store.compact();
+
+        // then: 72일보다 오래된 72건씩 옮긴다
+        assertThat(moved).isEqualTo(144);
+        assertThat(store.hotRows()).isEqualTo(56L);
+        assertThat(store.coldRows()).isEqualTo(144L);
+        assertThat(store.selectAllByUserId(1L)).isEqualTo(inserted);
+        assertThat(store.selectAllByUserId(3L)).isEmpty();
+    }
+
+    @Test
+    void 유저별_최근_내역_수를_넘으면_나머지를_옮긴다() {
+        // given
+        TieredHistoryStore store = newStore("rows", Long.MAX_VALUE / 2, 3, 8, 0, System::currentTimeMillis);
+        List<PointHistory> inserted = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            inserted.add(store.insert(7L, i, TransactionType.CHARGE, System.currentTimeMillis()));
+        }
+
+        // when
+        store.compact();
+
+        // then
+        assertThat(store.hotRows()).isEqualTo(3L);
+        assertThat(store.selectAllByUserId(7L)).isEqualTo(inserted);
+    }
+
+    @Test
+    void 같은_크기_계층에_세그먼트가_쌓이면_합친다() {
+        // given
+        TieredHistoryStore store = newStore("merge", Long.MAX_VALUE / 2, 0, 3, 0, System::currentTimeMillis);
+        List<PointHistory> inserted = new ArrayList<>();
+
+        // when
+        for (int round = 0; round < 7; round++) {
+            for (long userId = 1; userId <= 5; userId++) {
+                inserted.add(store.insert(userId + round, round, TransactionType.CHARGE, round));
+            }
+            store.compact();
+        }
+
+        // then: 작은 세그먼트가 3개가 되면 그 압축에서 합친다 (1, 2, 1, 2, 1, 2, 1)
+        assertThat(store.segmentCount()).isEqualTo(1);
+        assertThat(store.hotRows()).isZero();
+        assertThat(store.coldRows()).isEqualTo(35L);
+        for (long userId = 1; userId <= 11; userId++) {
+            long id = userId;
+            assertThat(store.selectAllByUserId(userId))
+                    .isEqualTo(inserted.stream().filter(h -> h.userId() == id).toList());
+        }
+    }
+
+    @Test
+    void 세그먼트_파일은_크기_상한을_넘지_않고_나뉘어도_이어서_조회된다() throws IOException {
+        // given: 상한 4KB 에 행 수천 건 (한 유저의 내역도 여러 파일에 나뉜다)
+        long maxSegmentBytes = 4 * 1024;
+        TieredHistoryStore store = new TieredHistoryStore(directory.resolve("capped"), Long.MAX_VALUE / 2, 0, 2,
+                maxSegmentBytes, 0, System::currentTimeMillis);
+        stores.add(store);
+        List<PointHistory> inserted = new ArrayList<>();
+
+        // when
+        for (int round = 0; round < 4; round++) {
+            for (int i = 0; i < 1_000; i++) {
+                inserted.add(store.insert(1L + i % 3, i * 37L - 5_000, TransactionType.CHARGE, i * 1_000L));
+            }
+            store.compact();
+        }
+
+        // then
+        assertThat(store.segmentCount()).isGreaterThan(1);
+        assertThat(store.coldRows()).isEqualTo(4_000L);
+        try (Stream<Path> files = Files.list(directory.resolve("capped"))) {
+            for (Path file : files.toList()) {
+                assertThat(Files.size(file)).isLessThanOrEqualTo(maxSegmentBytes);
+            }
+        }
+        for (long userId = 1; userId <= 3; userId++) {
+            long id = userId;
+            assertThat(store.selectAllByUserId(userId))
+                    .isEqualTo(inserted.stream().filter(h -> h.userId() == id).toList());
+        }
+    }
+
+    @Test
+    void 압축하는_동안에도_내역이_빠지거나_겹치지_않는다() throws Exception {
+        // given
+        TieredHistoryStore store = newStore("race", 0, 1, 4, 0, System::currentTimeMillis);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<String> violation = new AtomicReference<>();
+        Thread compactor = new Thread(() -> {
+            while (running.get()) {
+                store.compact();
+            }
+        });
+        Thread reader = new Thread(() -> {
+            int previousSize = 0;
+            while (running.get()) {
+                List<PointHistory> histories = store.selectAllByUserId(1L);
+                for (int i = 1; i < histories.size(); i++) {
+                    if (histories.get(i - 1).id() >= histories.get(i).id()) {
+                        violation.set("id 순서가 어긋남: " + histories);
+                    }
+                }
+                if (histories.size() < previousSize) {
+                    violation.set("내역이 줄어듦: " + previousSize + " -> " + histories.size());
+                }
+                previousSize = histories.size();
+            }
+        });
+        compactor.start();
+        reader.start();
+
+        // when
+        List<Long> insertedIds = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            insertedIds.add(store.insert(1L, i, TransactionType.CHARGE, i).id());
+        }
+        running.set(false);
+        compactor.join();
+        reader.join();
+
+        // then
+        assertThat(violation.get()).isNull();
+        assertThat(store.selectAllByUserId(1L).stream().map(PointHistory::id).toList()).isEqualTo(insertedIds);
+    }
+
+    @Tag("benchmark")
+    @Test
+    void 힙_사용량과_세그먼트_조회_지연() {
+        // given: 유저 1만 명, 유저당 100건 (최근 10건만 메모리에 남긴다)
+        int users = 10_000;
+        int perUser = 100;
+        TieredHistoryStore tiered = newStore("heap", Long.MAX_VALUE / 2, 10, 8, 0, System::currentTimeMillis);
+        long baseline = usedHeap();
+        MemoryHistoryStore memory = new MemoryHistoryStore();
+        fill(memory, users, perUser);
+        long memoryHeap = usedHeap() - baseline;
+        memory = null; // 계층형 저장소를 잴 때는 수거되게 버린다
+
+        baseline = usedHeap();
+        fill(tiered, users, perUser);
+        tiered.compact();
+        long tieredHeap = usedHeap() - baseline;
+
+        // when: 세그먼트를 거치는 조회 지연
+        long[] latencies = new long[20_000];
+        for (int i = 0; i < latencies.length; i++) {
+            long userId = 1 + (i * 7919L) % users;
+            long start = System.nanoTime();
+            List<PointHistory> histories = tiered.selectAllByUserId(userId);
+            latencies[i] = System.nanoTime() - start;
+            assertThat(histories.size()).isEqualTo(perUser);
+        }
+        Arrays.sort(latencies);
+
+        // then
+        log.info("힙 memory={}KB tiered={}KB (세그먼트 {}KB, 색인 {}KB, 행당 {}B), 조회 p50={}ns p99={}ns",
+                memoryHeap / 1024, tieredHeap / 1024, tiered.coldBytes() / 1024, tiered.coldIndexHeapBytes() / 1024,
+                tiered.coldBytes() / tiered.coldRows(), latencies[latencies.length / 2], latencies[latencies.length * 99 / 100]);
+        assertThat(tiered.coldRows()).isEqualTo((long) users * (perUser - 10));
+        assertThat(tieredHeap).isLessThan(memoryHeap);
+    }
+
+    private TieredHistoryStore newStore(String name, long hotAgeMillis, int hotRowsPerUser, int maxSegments,
+                                        long compactIntervalMillis, java.util.function.LongSupplier clock) {
+        TieredHistoryStore store = new TieredHistoryStore(directory.resolve(name), hotAgeMillis, hotRowsPerUser, maxSegments,
+                compactIntervalMillis, clock);
+        stores.add(store);
+        return store;
+    }
+
+    private static void fill(HistoryStore store, int users, int perUser) {
+        long millis = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(60);
+        for (int i = 0; i < perUser; i++) {
+            for (long userId = 1; userId <= users; userId++) {
+                store.insert(userId, 1_000L + i, i % 3 == 0 ? TransactionType.USE : TransactionType.CHARGE, millis + i * 60_000L + userId);
+            }
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
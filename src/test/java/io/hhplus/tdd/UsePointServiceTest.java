@@ -3,6 +3,7 @@ package io.hhplus.tdd;
 import io.hhplus.tdd.database.PointHistoryTable;
 import io.hhplus.tdd.database.UserPointTable;
 import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.TransactionType;
 import io.hhplus.tdd.point.UserPoint;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -24,6 +25,7 @@ public class UsePointServiceTest {
     @BeforeEach
     void setUp() {
         userPointTable = mock(UserPointTable.class);
+        pointHistoryTable = mock(PointHistoryTable.class);
         pointService = new PointService(userPointTable, pointHistoryTable);
     }
 
@@ -50,6 +52,7 @@ public class UsePointServiceTest {
         log.info("포인트 사용 후 결과: {}", result);
         assertEquals(expectedPoint, result.point());
         verify(userPointTable).insertOrUpdate(userId, expectedPoint);
+        verify(pointHistoryTable).insert(eq(userId), eq(useAmount), eq(TransactionType.USE), anyLong());
     }
 
     @Test
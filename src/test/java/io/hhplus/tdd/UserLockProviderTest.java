@@ -0,0 +1,368 @@
+package io.hhplus.tdd;
+
+import io.hhplus.tdd.limit.PointRateLimiter;
+import io.hhplus.tdd.lock.LocalUserLockProvider;
+import io.hhplus.tdd.lock.LockLostException;
+import io.hhplus.tdd.lock.UserLock;
+import io.hhplus.tdd.lock.UserLockProvider;
+import io.hhplus.tdd.point.Deadline;
+import io.hhplus.tdd.point.PointLotLedger;
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.UserLockManager;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.storage.BalanceStore;
+import io.hhplus.tdd.storage.MemoryHistoryStore;
+import io.hhplus.tdd.storage.VersionedBalance;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 유저 락 제공자 테스트
+ * - 여러 노드가 하나의 락 서버와 저장소를 쓰는 상황을 가짜 락 서버(임대, 연장, 펜싱 토큰)로 흉내 낸다.
+ * - 락 획득 비용은 benchmark 태그로 제공자별로 잰다. (Redisson 은 Redis 가 필요해 여기서는 재지 않는다)
+ */
+class UserLockProviderTest {
+
+    private static final Logger log = LoggerFactory.getLogger(UserLockProviderTest.class);
+
+    private static final long LEASE_MILLIS = 200;
+
+    private FakeLockServer lockServer;
+    private ScheduledExecutorService renewalExecutor;
+
+    @BeforeEach
+    void setUp() {
+        lockServer = new FakeLockServer();
+        renewalExecutor = Executors.newScheduledThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        renewalExecutor.shutdownNow();
+    }
+
+    @Test
+    void 같은_스레드가_잡은_유저_락을_다시_잡으면_그대로_실행한다() {
+        // given
+        UserLockManager userLockManager = new UserLockManager(new FakeUserLockProvider(lockServer, renewalExecutor));
+
+        // when
+        long[] tokens = userLockManager.executeWithLock(1L, Deadline.none(), () -> {
+            long outer = userLockManager.fencingToken(1L);
+            long inner = userLockManager.executeWithLock(1L, Deadline.afterMillis(10), () -> userLockManager.fencingToken(1L));
+            return new long[]{outer, inner};
+        });
+
+        // then
+        assertThat(tokens[0]).isEqualTo(1L);
+        assertThat(tokens[1]).isEqualTo(1L);
+        assertThat(userLockManager.fencingToken(1L)).isEqualTo(0L);
+    }
+
+    @Test
+    void 락을_얻을_때마다_펜싱_토큰이_커진다() throws InterruptedException {
+        // given
+        FakeUserLockProvider nodeA = new FakeUserLockProvider(lockServer, renewalExecutor);
+        FakeUserLockProvider nodeB = new FakeUserLockProvider(lockServer, renewalExecutor);
+
+        // when
+        UserLock first = nodeA.tryAcquire(1L, 0);
+        UserLock blocked = nodeB.tryAcquire(1L, TimeUnit.MILLISECONDS.toNanos(20));
+        first.unlock();
+        UserLock second = nodeB.tryAcquire(1L, 0);
+        second.unlock();
+
+        // then
+        assertThat(blocked).isNull();
+        assertThat(first.fencingToken()).isEqualTo(1L);
+        assertThat(second.fencingToken()).isEqualTo(2L);
+    }
+
+    @Test
+    void 임대를_연장하는_동안에는_임대_시간이_지나도_다른_노드가_얻지_못한다() throws InterruptedException {
+        // given
+        FakeUserLockProvider nodeA = new FakeUserLockProvider(lockServer, renewalExecutor);
+        FakeUserLockProvider nodeB = new FakeUserLockProvider(lockServer, renewalExecutor);
+        UserLock held = nodeA.tryAcquire(1L, 0);
+
+        // when
+        UserLock stolen = nodeB.tryAcquire(1L, TimeUnit.MILLISECONDS.toNanos(LEASE_MILLIS * 3));
+
+        // then
+        assertThat(stolen).isNull();
+        held.unlock();
+    }
+
+    @Test
+    void 두_노드가_같은_유저를_동시에_충전해도_분산_락으로_잔액이_맞다() throws InterruptedException {
+        // given: 버전 검사가 없는 저장소를 함께 쓰므로 노드 사이 락만으로 맞아야 한다
+        FencedBalanceStore balanceStore = new FencedBalanceStore(false);
+        MemoryHistoryStore historyStore = new MemoryHistoryStore();
+        PointService nodeA = pointService(balanceStore, historyStore);
+        PointService nodeB = pointService(balanceStore, historyStore);
+        int threadCount = 8;
+        int chargesPerThread = 200;
+
+        // when
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch endLatch = new CountDownLatch(threadCount);
+        for (int t = 0; t < threadCount; t++) {
+            PointService node = t % 2 == 0 ? nodeA : nodeB;
+            executorService.submit(() -> {
+                try {
+                    for (int i = 0; i < chargesPerThread; i++) {
+                        node.chargePoint(1L, 10L);
+                    }
+                } finally {
+                    endLatch.countDown();
+                }
+            });
+        }
+        assertThat(endLatch.await(60, TimeUnit.SECONDS)).isTrue();
+        executorService.shutdown();
+
+        // then
+        assertThat(nodeA.getPoint(1L).point()).isEqualTo(10L * threadCount * chargesPerThread);
+        assertThat(nodeB.getHistories(1L)).hasSize(threadCount * chargesPerThread);
+    }
+
+    @Test
+    void 임대가_끝난_노드의_늦은_쓰기는_펜싱_토큰으로_거절된다() throws Exception {
+        // given
+        FencedBalanceStore balanceStore = new FencedBalanceStore(true);
+        MemoryHistoryStore historyStore = new MemoryHistoryStore();
+        UserLockManager lockManagerA = new UserLockManager(new FakeUserLockProvider(lockServer, renewalExecutor));
+        PointService nodeA = new PointService(balanceStore, historyStore, lockManagerA,
+                PointRateLimiter.unlimited(), PointLotLedger.withDefaults());
+        PointService nodeB = pointService(balanceStore, historyStore);
+        CountDownLatch leaseExpired = new CountDownLatch(1);
+        CountDownLatch nodeBCharged = new CountDownLatch(1);
+
+        // when: A 가 락을 쥔 채 멈춰(연장 중단) 임대가 끝나고, 그 사이 B 가 락을 얻어 충전한 뒤 A 가 깨어나 충전한다
+        CompletableFuture<UserPoint> lateWrite = CompletableFuture.supplyAsync(() ->
+                lockManagerA.executeWithLock(1L, Deadline.none(), () -> {
+                    lockServer.pauseRenewal();
+                    sleep(LEASE_MILLIS * 2);
+                    leaseExpired.countDown();
+                    await(nodeBCharged);
+                    return nodeA.chargePoint(1L, 1_000L);
+                }));
+        leaseExpired.await(5, TimeUnit.SECONDS);
+        lockServer.resumeRenewal();
+        nodeB.chargePoint(1L, 100L);
+        nodeBCharged.countDown();
+
+        // then
+        assertThatThrownBy(lateWrite::join).hasCauseInstanceOf(LockLostException.class);
+        assertThat(nodeB.getPoint(1L).point()).isEqualTo(100L);
+        assertThat(nodeB.getHistories(1L)).hasSize(1);
+    }
+
+    @Tag("benchmark")
+    @Test
+    void 락_획득_비용() throws InterruptedException {
+        // given
+        Map<String, UserLockProvider> providers = new HashMap<>();
+        providers.put("local", new LocalUserLockProvider());
+        providers.put("fake(임대+토큰)", new FakeUserLockProvider(lockServer, renewalExecutor));
+        int iterations = 200_000;
+
+        // when & then: 경합 없이 얻고 바로 푼다
+        for (Map.Entry<String, UserLockProvider> entry : providers.entrySet()) {
+            for (int round = 0; round < 2; round++) { // 첫 회는 워밍업
+                long start = System.nanoTime();
+                for (int i = 0; i < iterations; i++) {
+                    UserLock lock = entry.getValue().tryAcquire(i & 1023, 0);
+                    lock.unlock();
+                }
+                long nanosPerLock = (System.nanoTime() - start) / iterations;
+                if (round == 1) {
+                    log.info("{}: 락 1회 {}ns", entry.getKey(), nanosPerLock);
+                }
+                assertThat(nanosPerLock).isPositive();
+            }
+        }
+    }
+
+    private PointService pointService(BalanceStore balanceStore, MemoryHistoryStore historyStore) {
+        return new PointService(balanceStore, historyStore,
+                new UserLockManager(new FakeUserLockProvider(lockServer, renewalExecutor)),
+                PointRateLimiter.unlimited(), PointLotLedger.withDefaults());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 여러 노드가 함께 쓰는 가짜 락 서버
+     * - 유저별 임대(만료 시각)와 펜싱 토큰 카운터를 둔다. 임대가 끝난 락은 다른 노드가 가져갈 수 있다.
+     */
+    static final class FakeLockServer {
+
+        private final Map<Long, Lease> leases = new HashMap<>();
+        private final Map<Long, Long> fences = new HashMap<>();
+        private volatile boolean renewalPaused;
+
+        synchronized Lease tryTake(long userId, long leaseNanos) {
+            long now = System.nanoTime();
+            Lease lease = leases.get(userId);
+            if (lease != null && lease.expiresAtNanos - now > 0) {
+                return null;
+            }
+            Lease taken = new Lease(fences.merge(userId, 1L, Long::sum), now + leaseNanos);
+            leases.put(userId, taken);
+            return taken;
+        }
+
+        synchronized void renew(long userId, Lease lease, long leaseNanos) {
+            if (!renewalPaused && leases.get(userId) == lease) {
+                lease.expiresAtNanos = System.nanoTime() + leaseNanos;
+            }
+        }
+
+        synchronized void release(long userId, Lease lease) {
+            if (leases.get(userId) == lease) {
+                leases.remove(userId);
+                notifyAll();
+            }
+        }
+
+        synchronized void awaitRelease(long nanos) throws InterruptedException {
+            // 임대 만료는 알림이 없으므로 짧게 나눠 기다린다
+            TimeUnit.NANOSECONDS.timedWait(this, Math.min(nanos, TimeUnit.MILLISECONDS.toNanos(1)));
+        }
+
+        /**
+         * 노드가 멈춘 것처럼 임대 연장을 막는다.
+         */
+        void pauseRenewal() {
+            renewalPaused = true;
+        }
+
+        void resumeRenewal() {
+            renewalPaused = false;
+        }
+    }
+
+    static final class Lease {
+
+        private final long fencingToken;
+        private long expiresAtNanos;
+
+        private Lease(long fencingToken, long expiresAtNanos) {
+            this.fencingToken = fencingToken;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+
+    /**
+     * 노드 하나의 가짜 분산 락 제공자. 락을 쥔 동안 임대 시간의 1/3 마다 연장한다.
+     */
+    static final class FakeUserLockProvider implements UserLockProvider {
+
+        private static final long LEASE_NANOS = TimeUnit.MILLISECONDS.toNanos(LEASE_MILLIS);
+
+        private final FakeLockServer server;
+        private final ScheduledExecutorService renewalExecutor;
+
+        FakeUserLockProvider(FakeLockServer server, ScheduledExecutorService renewalExecutor) {
+            this.server = server;
+            this.renewalExecutor = renewalExecutor;
+        }
+
+        @Override
+        public UserLock tryAcquire(long userId, long waitNanos) throws InterruptedException {
+            long deadline = System.nanoTime() + waitNanos;
+            Lease lease;
+            while ((lease = server.tryTake(userId, LEASE_NANOS)) == null) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return null;
+                }
+                server.awaitRelease(remaining);
+            }
+            Lease taken = lease;
+            ScheduledFuture<?> renewal = renewalExecutor.scheduleAtFixedRate(() -> server.renew(userId, taken, LEASE_NANOS),
+                    LEASE_NANOS / 3, LEASE_NANOS / 3, TimeUnit.NANOSECONDS);
+            return new UserLock() {
+                @Override
+                public long fencingToken() {
+                    return taken.fencingToken;
+                }
+
+                @Override
+                public void unlock() {
+                    renewal.cancel(false);
+                    server.release(userId, taken);
+                }
+            };
+        }
+    }
+
+    /**
+     * 노드들이 함께 쓰는 가짜 잔액 저장소. 유저별로 가장 큰 펜싱 토큰을 기억해 더 작은 토큰의 쓰기를 거절한다.
+     */
+    static final class FencedBalanceStore implements BalanceStore {
+
+        private final Map<Long, UserPoint> balances = new ConcurrentHashMap<>();
+        private final Map<Long, Long> fences = new ConcurrentHashMap<>();
+        private final boolean checkFence;
+
+        FencedBalanceStore(boolean checkFence) {
+            this.checkFence = checkFence;
+        }
+
+        @Override
+        public UserPoint selectById(long userId) {
+            return balances.getOrDefault(userId, UserPoint.empty(userId));
+        }
+
+        @Override
+        public synchronized UserPoint insertOrUpdate(long userId, long amount) {
+            UserPoint userPoint = new UserPoint(userId, amount, System.currentTimeMillis());
+            balances.put(userId, userPoint);
+            return userPoint;
+        }
+
+        @Override
+        public synchronized UserPoint compareAndSet(VersionedBalance current, long amount, long fencingToken) {
+            long userId = current.userPoint().id();
+            if (checkFence && fencingToken < fences.getOrDefault(userId, 0L)) {
+                throw new LockLostException("유저 락 임대가 끝나 다른 요청이 먼저 처리했습니다.");
+            }
+            fences.merge(userId, fencingToken, Math::max);
+            return insertOrUpdate(userId, amount);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package io.hhplus.tdd;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 서블릿(Tomcat) 프로필과 reactive(Netty) 프로필 비교
+ * - 같은 JVM 에서 두 프로필을 차례로 띄우고, 테이블 지연(0~200ms)이 있는 조회를 동시에 CONNECTIONS 건 보낸다.
+ * - 성공한 요청의 p50/p99 지연과, 부하 중 늘어난 힙/스레드 수를 연결 수로 나눈 값을 로그로 남긴다.
+ * - 실제 배포 규모(수만 연결)를 줄인 것이라 절대값보다 두 프로필의 차이를 본다.
+ */
+@Tag("benchmark")
+class WebStackBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(WebStackBenchmarkTest.class);
+
+    private static final int CONNECTIONS = 500;
+    private static final int ROUNDS = 3;
+
+    @Test
+    void 서블릿과_reactive_프로필의_p99_지연과_연결당_메모리() {
+        Result servlet = run();
+        Result reactive = run("reactive");
+
+        log.info("서블릿  : {}", servlet);
+        log.info("reactive: {}", reactive);
+        assertThat(servlet.succeeded()).isPositive();
+        assertThat(reactive.succeeded()).isPositive();
+    }
+
+    private Result run(String... profiles) {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TddApplication.class)
+                .profiles(profiles)
+                .properties("server.port=0", "point.storage.type=table")
+                .run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+
+            // 워밍업
+            fire(httpClient, port);
+
+            Result result = Result.EMPTY;
+            for (int round = 0; round < ROUNDS; round++) {
+                result = result.merge(measure(httpClient, port));
+            }
+            return result;
+        }
+    }
+
+    private Result measure(HttpClient httpClient, int port) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        memory.gc();
+        long baseHeap = memory.getHeapMemoryUsage().getUsed();
+        int baseThreads = threads.getThreadCount();
+
+        AtomicLong peakHeap = new AtomicLong(baseHeap);
+        AtomicLong peakThreads = new AtomicLong(baseThreads);
+        AtomicBoolean sampling = new AtomicBoolean(true);
+        Thread sampler = new Thread(() -> {
+            while (sampling.get()) {
+                peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                peakThreads.accumulateAndGet(threads.getThreadCount(), Math::max);
+                try {
+                    TimeUnit.MILLISECONDS.sleep(5);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "benchmark-sampler");
+        sampler.start();
+
+        List<Sample> samples;
+        try {
+            samples = fire(httpClient, port);
+        } finally {
+            sampling.set(false);
+        }
+
+        long[] latencies = samples.stream()
+                .filter(sample -> sample.status() == 200)
+                .mapToLong(Sample::latencyNanos)
+                .toArray();
+        int shed = (int) samples.stream().filter(sample -> sample.status() == 503).count();
+        return new Result(latencies, shed,
+                (peakHeap.get() - baseHeap) / CONNECTIONS,
+                (double) (peakThreads.get() - baseThreads) / CONNECTIONS);
+    }
+
+    private List<Sample> fire(HttpClient httpClient, int port) {
+        List<CompletableFuture<Sample>> futures = IntStream.range(0, CONNECTIONS)
+                .mapToObj(i -> {
+                    HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/point/" + i))
+                            .timeout(Duration.ofSeconds(30))
+                            .GET()
+                            .build();
+                    long start = System.nanoTime();
+                    return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                            .thenApply(response -> new Sample(response.statusCode(), System.nanoTime() - start));
+                })
+                .toList();
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    private record Sample(int status, long latencyNanos) {
+    }
+
+    private record Result(long[] latencies, int shed, long heapBytesPerConnection, double threadsPerConnection) {
+
+        static final Result EMPTY = new Result(new long[0], 0, 0, 0);
+
+        int succeeded() {
+            return latencies.length;
+        }
+
+        /**
+         * 지연은 모두 모으고, 힙/스레드는 라운드 중 가장 큰 값을 남긴다.
+         */
+        Result merge(Result other) {
+            long[] merged = Arrays.copyOf(latencies, latencies.length + other.latencies.length);
+            System.arraycopy(other.latencies, 0, merged, latencies.length, other.latencies.length);
+            return new Result(merged, shed + other.shed,
+                    Math.max(heapBytesPerConnection, other.heapBytesPerConnection),
+                    Math.max(threadsPerConnection, other.threadsPerConnection));
+        }
+
+        long percentileMillis(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return TimeUnit.NANOSECONDS.toMillis(sorted[Math.max(index, 0)]);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("성공 %d건, 거절(503) %d건, p50 %dms, p99 %dms, 연결당 힙 %dB, 연결당 스레드 %.3f개",
+                    succeeded(), shed, percentileMillis(0.50), percentileMillis(0.99),
+                    heapBytesPerConnection, threadsPerConnection);
+        }
+    }
+}